@@ -0,0 +1,33 @@
+package com.nc.blackjack.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <h1>BenchmarkMain</h1>
+ * BenchmarkMain runs the benchmarks with the JMH command line options and always
+ * adds the GC profiler, so every result reports the bytes allocated per operation
+ * next to the score.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class BenchmarkMain {
+
+    /**
+     * Entry point into the benchmarks
+     * @param args the JMH command line options, for example a benchmark name or -p decks=8
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
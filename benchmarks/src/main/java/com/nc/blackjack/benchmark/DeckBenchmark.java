@@ -0,0 +1,101 @@
+package com.nc.blackjack.benchmark;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.CountingSystem;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>DeckBenchmark</h1>
+ * DeckBenchmark measures dealing and shuffling as the shoe grows from one to
+ * eight decks. The deal benchmarks reshuffle in place whenever the shoe is empty,
+ * so their score is the per card cost including the amortized shuffle and should
+ * stay flat for every shoe size.
+ * <br>
+ * The counted benchmark deals from a shoe that keeps a Hi-Lo count and reads the
+ * true count after every card, compare it with dealNextCode for the cost of counting.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    @Param({"1", "2", "4", "6", "8"})
+    public int decks;
+
+    private Deck shoe;
+    private Deck countedShoe;
+    private Deck.RunningCount hiLo;
+
+    @Setup
+    public void setup() {
+        shoe = new Deck(decks, new SplittableRandom(42));
+        shoe.reshuffle();
+
+        countedShoe = new Deck(decks, new SplittableRandom(42));
+        hiLo = countedShoe.addCount(CountingSystem.HI_LO);
+        countedShoe.reshuffle();
+    }
+
+    @Benchmark
+    public int dealNextCode() throws DeckException {
+
+        if(shoe.isEmpty()) {
+            shoe.reshuffle();
+        }
+        return shoe.dealNextCode();
+    }
+
+    @Benchmark
+    public double dealNextCodeCounted() throws DeckException {
+
+        if(countedShoe.isEmpty()) {
+            countedShoe.reshuffle();
+        }
+        countedShoe.dealNextCode();
+        return hiLo.getTrueCount();
+    }
+
+    @Benchmark
+    public Card dealNextCard() throws DeckException {
+
+        if(shoe.isEmpty()) {
+            shoe.reshuffle();
+        }
+        return shoe.dealNextCard();
+    }
+
+    @Benchmark
+    public int shuffleDeck() {
+
+        shoe.shuffleDeck();
+        return shoe.getSize();
+    }
+
+    @Benchmark
+    public int reshuffle() {
+
+        shoe.reshuffle();
+        return shoe.getSize();
+    }
+}
@@ -0,0 +1,96 @@
+package com.nc.blackjack.benchmark;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>GameBenchmark</h1>
+ * GameBenchmark measures the dealer hit rule and the result of a hand. Hands are
+ * taken from a pre-built ring so every call sees a different hand. The game sends
+ * its events to the default no-op sink, so {@link Game#computeHandResult(String, Hand, Hand)}
+ * pays nothing for rendering.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    //variable declarations
+    private static final int RING = 1 << 12;
+    private Game game;
+    private Hand[] playerHands;
+    private Hand[] dealerHands;
+    private int[] minValues;
+    private int[] maxValues;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+
+        SplittableRandom random = new SplittableRandom(42);
+        game = new Game();
+        playerHands = new Hand[RING];
+        dealerHands = new Hand[RING];
+        minValues = new int[RING];
+        maxValues = new int[RING];
+
+        for(int i = 0; i < RING; i++ ) {
+            playerHands[i] = hand(random, 2 + random.nextInt(2));
+            dealerHands[i] = hand(random, 2 + random.nextInt(3));
+            minValues[i] = dealerHands[i].getMinHandValue();
+            maxValues[i] = dealerHands[i].getMaxHandValue();
+        }
+    }
+
+    @Benchmark
+    public boolean isDealerHit() {
+        int i = next++ & (RING - 1);
+        return game.isDealerHit(minValues[i], maxValues[i]);
+    }
+
+    @Benchmark
+    public Hand.RESULT evaluateHand() {
+        int i = next++ & (RING - 1);
+        return game.evaluateHand(playerHands[i], dealerHands[i]);
+    }
+
+    @Benchmark
+    public Hand.RESULT computeHandResult() {
+        int i = next++ & (RING - 1);
+        game.computeHandResult("player", playerHands[i], dealerHands[i]);
+        return playerHands[i].getResult();
+    }
+
+    /**
+     * Helper method to build a hand of random cards with its optimal value set
+     */
+    private static Hand hand(SplittableRandom random, int numCards) {
+        Hand h = new Hand();
+        for(int i = 0; i < numCards; i++ ) {
+            h.insertCode(random.nextInt(Card.NUM_CODES));
+        }
+        h.setOptimalHandValue();
+        return h;
+    }
+}
@@ -0,0 +1,91 @@
+package com.nc.blackjack.benchmark;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Hand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>HandBenchmark</h1>
+ * HandBenchmark measures inserting cards into a hand and computing the optimal
+ * hand value. Cards are taken from a pre-shuffled ring of codes so every call sees
+ * a different hand.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+
+    //variable declarations
+    private static final int RING = 1 << 12;
+    private Card[] cards;
+    private Hand[] hands;
+    private Hand reused;
+    private int next;
+
+    @Setup
+    public void setup() {
+
+        SplittableRandom random = new SplittableRandom(42);
+        cards = new Card[RING];
+        hands = new Hand[RING];
+        reused = new Hand();
+
+        for(int i = 0; i < RING; i++ ) {
+            cards[i] = Card.valueOf(random.nextInt(Card.NUM_CODES));
+            hands[i] = new Hand();
+            hands[i].insertCard(Card.valueOf(random.nextInt(Card.NUM_CODES)));
+            hands[i].insertCard(Card.valueOf(random.nextInt(Card.NUM_CODES)));
+        }
+    }
+
+    /**
+     * A two card hand, the cost of a fresh hand is part of the score
+     */
+    @Benchmark
+    public Hand insertCard() {
+
+        Hand hand = new Hand();
+        hand.insertCard(cards[next++ & (RING - 1)]);
+        hand.insertCard(cards[next++ & (RING - 1)]);
+        return hand;
+    }
+
+    /**
+     * A two card hand reset in place as done between rounds, nothing is allocated
+     */
+    @Benchmark
+    public Hand resetHand() {
+
+        Hand hand = reused;
+        hand.reset();
+        hand.insertCard(cards[next++ & (RING - 1)]);
+        hand.insertCard(cards[next++ & (RING - 1)]);
+        return hand;
+    }
+
+    @Benchmark
+    public int setOptimalHandValue() {
+
+        Hand hand = hands[next++ & (RING - 1)];
+        hand.setOptimalHandValue();
+        return hand.getHandValue();
+    }
+}
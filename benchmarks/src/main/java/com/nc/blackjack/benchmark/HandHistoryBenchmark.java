@@ -0,0 +1,93 @@
+package com.nc.blackjack.benchmark;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.history.HandHistoryLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>HandHistoryBenchmark</h1>
+ * HandHistoryBenchmark measures {@link HandHistoryLog#appendRound(Game)} for one
+ * played round, so the score is the cost the log adds to every simulated round.
+ * Every iteration appends a million rounds into 64 MB segments in a temporary
+ * directory, including rolling to new segments, and the score is the time of a
+ * million rounds. The log is deleted after every iteration.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = HandHistoryBenchmark.ROUNDS)
+@Measurement(iterations = 5, batchSize = HandHistoryBenchmark.ROUNDS)
+@Fork(1)
+public class HandHistoryBenchmark {
+
+    static final int ROUNDS = 1000000;
+
+    @Param({"1", "7"})
+    public int players;
+
+    private Game game;
+    private Path directory;
+    private HandHistoryLog log;
+
+    @Setup(Level.Trial)
+    public void setup() throws DeckException, IOException {
+
+        game = new Game(new Deck(6, Deck.DEFAULT_PENETRATION, new SplittableRandom(42)));
+        for(int i = 0; i < players; i++ ) {
+            game.addPlayer("Player" + i);
+        }
+        game.playRound(new BasicStrategy());
+        directory = Files.createTempDirectory("hand-history");
+    }
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        log = new HandHistoryLog(directory);
+    }
+
+    @TearDown(Level.Iteration)
+    public void delete() throws IOException {
+
+        log.close();
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for(Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long appendRound() throws IOException {
+        return log.appendRound(game);
+    }
+}
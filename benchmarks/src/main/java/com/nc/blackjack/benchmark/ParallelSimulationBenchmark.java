@@ -0,0 +1,61 @@
+package com.nc.blackjack.benchmark;
+
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.simulation.ParallelSimulator;
+import com.nc.blackjack.simulation.SimulationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>ParallelSimulationBenchmark</h1>
+ * ParallelSimulationBenchmark measures how {@link ParallelSimulator} scales with the
+ * number of threads. The score is rounds per second, dividing the score of a thread
+ * count by the score of a single thread gives the speedup. Thread counts above the
+ * number of available processors show where the machine saturates.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSimulationBenchmark {
+
+    //variable declarations
+    private static final int ROUNDS = ParallelSimulator.SHARD_ROUNDS * 64;  //enough shards to keep 64 threads busy
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int threads;
+
+    private ParallelSimulator simulator;
+    private long seed;
+
+    @Setup
+    public void setup() {
+
+        //hit below 17 and stand otherwise
+        simulator = new ParallelSimulator((p, h, u) -> h.getMaxHandValue() < 17 || h.getMinHandValue() < 12
+                ? Strategy.DECISION.HIT : Strategy.DECISION.STAND);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROUNDS)
+    public SimulationResult simulate() {
+        return simulator.run(ROUNDS, seed++, threads);
+    }
+}
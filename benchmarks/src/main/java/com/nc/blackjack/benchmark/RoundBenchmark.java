@@ -0,0 +1,64 @@
+package com.nc.blackjack.benchmark;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>RoundBenchmark</h1>
+ * RoundBenchmark measures a complete headless round played with {@link BasicStrategy}
+ * from a cut card shoe, including the reset between rounds.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundBenchmark {
+
+    @Param({"1", "6", "8"})
+    public int decks;
+
+    @Param({"1", "7"})
+    public int players;
+
+    private Game game;
+    private Strategy strategy;
+
+    @Setup
+    public void setup() {
+
+        game = new Game(new Deck(decks, Deck.DEFAULT_PENETRATION, new SplittableRandom(42)));
+        for(int i = 0; i < players; i++ ) {
+            game.addPlayer("Player" + i);
+        }
+        strategy = new BasicStrategy();
+    }
+
+    @Benchmark
+    public Game playRound() throws DeckException {
+        game.reset();
+        game.playRound(strategy);
+        return game;
+    }
+}
@@ -0,0 +1,184 @@
+package com.nc.blackjack.benchmark;
+
+import com.nc.blackjack.server.GameServer;
+import com.nc.blackjack.server.SelectorServer;
+import com.nc.blackjack.server.VirtualThreads;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * <h1>ServerLoadGenerator</h1>
+ * ServerLoadGenerator opens many connections to a {@link GameServer}, waits until
+ * every connection has a table, then plays rounds on all of them at the same time.
+ * Every client stands on every hand.
+ * <br>
+ * Without a host and port an embedded server is started in the same JVM and the
+ * heap used per table is reported after every table has been created. The embedded
+ * server is a {@link GameServer} with a thread per table, or a {@link SelectorServer}
+ * when selector is given.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.nc.blackjack.benchmark.ServerLoadGenerator [connections] [rounds] [threads|selector] [host port]
+ * </pre>
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ServerLoadGenerator {
+
+    //variable declarations
+    private static final byte[] NAME = "load\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ENTER = "\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] STAND = "s\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AGAIN = "y\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] QUIT = "n\n".getBytes(StandardCharsets.US_ASCII);
+
+    public static void main(String[] args) throws Exception {
+
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        String type = args.length > 2 ? args[2] : "threads";
+
+        AutoCloseable server = null;
+        IntSupplier numTables = null;
+        InetSocketAddress address;
+        if(args.length > 4) {
+            address = new InetSocketAddress(args[3], Integer.parseInt(args[4]));
+        }
+        else if(type.equals("selector")) {
+            SelectorServer selectorServer = new SelectorServer(0, 6, connections);
+            selectorServer.start();
+            server = selectorServer;
+            numTables = selectorServer::getNumTables;
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), selectorServer.getPort());
+        }
+        else {
+            GameServer gameServer = new GameServer(0, 6, connections);
+            gameServer.start();
+            server = gameServer;
+            numTables = gameServer::getNumTables;
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), gameServer.getPort());
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        CountDownLatch connected = new CountDownLatch(connections);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong played = new AtomicLong();
+        ExecutorService clients = VirtualThreads.newPerTaskExecutor();
+
+        for(int i = 0; i < connections; i++ ) {
+            clients.execute(() -> {
+                try {
+                    play(address, rounds, connected, start, played);
+                } catch(IOException | InterruptedException e) {
+                    failed.incrementAndGet();
+                    connected.countDown();
+                }
+            });
+        }
+
+        connected.await();
+        System.out.println("Connections[" + (connections - failed.get()) + "] Failed[" + failed.get() + "] Threads["
+                + (VirtualThreads.isAvailable() ? "virtual" : "platform") + "]");
+
+        if(server != null) {
+            System.gc();
+            long heap = memory.getHeapMemoryUsage().getUsed() - heapBefore;
+            System.out.println("Tables[" + numTables.getAsInt() + "] Server[" + type + "] Heap per table and client["
+                    + heap / Math.max(1, numTables.getAsInt()) + " B]");
+        }
+
+        //play every table at the same time
+        long time = System.nanoTime();
+        start.countDown();
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - time) / 1e9;
+
+        System.out.printf("Rounds[%d] Seconds[%.2f] Rounds/s[%.0f] Failed[%d]%n", played.get(), seconds, played.get() / seconds, failed.get());
+
+        if(server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Play the specified number of rounds over a single connection
+     */
+    private static void play(InetSocketAddress address, int rounds, CountDownLatch connected, CountDownLatch start,
+                             AtomicLong played) throws IOException, InterruptedException {
+
+        try(Socket socket = new Socket()) {
+
+            socket.connect(address, 60000);
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            byte[] buffer = new byte[512];
+
+            //wait for the table, then wait for every other client
+            expect(in, buffer, "name: ");
+            connected.countDown();
+            start.await();
+
+            out.write(NAME);
+            for(int r = 0; r < rounds; r++ ) {
+
+                expect(in, buffer, "[enter] ");
+                out.write(ENTER);
+
+                //stand until the round is over
+                while(expect(in, buffer, "[h/s]", "[y/?]\n") == 0) {
+                    out.write(STAND);
+                }
+                out.write(r + 1 < rounds ? AGAIN : QUIT);
+                played.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Read until the text ends with one of the specified prompts
+     * @return the index of the prompt that was read
+     */
+    private static int expect(InputStream in, byte[] buffer, String... prompts) throws IOException {
+
+        StringBuilder tail = new StringBuilder();
+        while(true) {
+            int n = in.read(buffer);
+            if(n < 0) {
+                throw new IOException("The connection was closed");
+            }
+            tail.append(new String(buffer, 0, n, StandardCharsets.UTF_8));
+
+            for(int i = 0; i < prompts.length; i++ ) {
+                if(tail.toString().endsWith(prompts[i])) {
+                    return i;
+                }
+            }
+
+            //only the end of the text can hold a prompt
+            if(tail.length() > 64) {
+                tail.delete(0, tail.length() - 64);
+            }
+        }
+    }
+}
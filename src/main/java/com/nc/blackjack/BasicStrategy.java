@@ -0,0 +1,84 @@
+package com.nc.blackjack;
+
+/**
+ * <h1>BasicStrategy</h1>
+ * BasicStrategy is the hit or stand basic strategy for a dealer that stands
+ * on all 17s, compiled into a {@link TableStrategy}.
+ * <br>
+ * A basic strategy for specific {@link Rules} adds the doubles, splits and
+ * surrenders of a multiple deck shoe game to the same table, and the changes
+ * for a dealer that hits soft 17.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class BasicStrategy extends TableStrategy {
+
+    /**
+     * Constructor - constructs the basic strategy table
+     */
+    public BasicStrategy() {
+
+        //hard totals, upcards 2 to 10 and then A
+        for(int total = 4; total <= 11; total++ ) {
+            setRow(total, false, "HHHHHHHHHH");
+        }
+        setRow(12, false, "HHSSSHHHHH");
+        for(int total = 13; total <= 16; total++ ) {
+            setRow(total, false, "SSSSSHHHHH");
+        }
+        for(int total = 17; total <= Hand.BLACKJACK; total++ ) {
+            setRow(total, false, "SSSSSSSSSS");
+        }
+
+        //soft totals
+        for(int total = 12; total <= 17; total++ ) {
+            setRow(total, true, "HHHHHHHHHH");
+        }
+        setRow(18, true, "SSSSSSSHHH");
+        for(int total = 19; total <= Hand.BLACKJACK; total++ ) {
+            setRow(total, true, "SSSSSSSSSS");
+        }
+    }
+
+    /**
+     * Constructor - constructs the basic strategy table for the specified rules.
+     * Decisions the rules do not allow are never made, see {@link TableStrategy}.
+     * @param rules the rules of the game
+     */
+    public BasicStrategy(Rules rules) {
+
+        this();
+        boolean h17 = rules.isHitSoft17();
+
+        //hard doubles, upcards 2 to 10 and then A
+        setRow(9, false, "HDDDDHHHHH");
+        setRow(10, false, "DDDDDDDDHH");
+        setRow(11, false, h17 ? "DDDDDDDDDD" : "DDDDDDDDDH");
+
+        //soft doubles
+        setRow(13, true, "HHHDDHHHHH");
+        setRow(14, true, "HHHDDHHHHH");
+        setRow(15, true, "HHDDDHHHHH");
+        setRow(16, true, "HHDDDHHHHH");
+        setRow(17, true, "HDDDDHHHHH");
+        setRow(18, true, h17 ? "dddddSSHHH" : "SddddSSHHH");
+        setRow(19, true, h17 ? "SSSSdSSSSS" : "SSSSSSSSSS");
+
+        //pairs, low pairs are split more often when the split hands may double
+        boolean das = rules.isDoubleAfterSplit();
+        setPairRow(1, "PPPPPPPPPP");
+        setPairRow(2, das ? "PPPPPP----" : "--PPPP----");
+        setPairRow(3, das ? "PPPPPP----" : "--PPPP----");
+        setPairRow(4, das ? "---PP-----" : "----------");
+        setPairRow(6, das ? "PPPPP-----" : "-PPPP-----");
+        setPairRow(7, "PPPPPP----");
+        setPairRow(8, "PPPPPPPPPP");
+        setPairRow(9, "PPPPP-PP--");
+
+        //late surrender
+        setSurrenderRow(15, h17 ? "--------RR" : "--------R-");
+        setSurrenderRow(16, "-------RRR");
+        setSurrenderRow(17, h17 ? "---------R" : "----------");
+    }
+}
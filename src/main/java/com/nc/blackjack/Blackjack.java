@@ -1,7 +1,10 @@
 package com.nc.blackjack;
 
 import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.event.ConsoleRenderer;
+import com.nc.blackjack.event.TextRenderer;
 import java.util.Scanner;
+import java.util.function.Supplier;
 
 /**
  * <h1>Card</h1>
@@ -14,6 +17,10 @@ import java.util.Scanner;
  */
 public class Blackjack {
 
+    //variable declarations
+    public static final String NAME_PROMPT = "Welcome to Blackjack! Please enter your player name: ";
+    public static final String DEAL_PROMPT = "\nThe cards have been shuffled and the dealer is ready to deal. Press ENTER to begin. [enter] ";
+    public static final String AGAIN_PROMPT = "\nWould you like to play again? Press y for YES and any other key for NO. [y/?]\n";
 
     /**
      * Entry point into the blackjack application
@@ -21,51 +28,69 @@ public class Blackjack {
      */
     public static void main(String[] args) {
 
+        ConsoleRenderer console = new ConsoleRenderer(System.out);
+
         Game game = new Game(); // create a new game of blackjack
+        game.setEventSink(console);
 
         Scanner sc = new Scanner(System.in);
-        System.out.print("Welcome to Blackjack! Please enter your player name: ");
-        String name = sc.nextLine();  //get user input for username
+        play(game, sc::nextLine, console);
+
+        console.close();    //print everything before exiting
+        System.exit(0);
+    }
+
+    /**
+     * Welcome the player and play games of blackjack until the player quits. The
+     * same dialog is used at the console and by every table of the game server.
+     * @param game the game that will be played, the player will be added to it
+     * @param input the source of user input, one line per call
+     * @param console the renderer for the output
+     */
+    public static void play(Game game, Supplier<String> input, TextRenderer console) {
+
+        console.print(NAME_PROMPT);
+        console.flush();
+        String name = input.get();  //get user input for username
 
         game.addPlayer(name); //add the player to the game
 
-        newGame(game, sc);
+        Strategy strategy = new ConsoleStrategy(input, console);
 
+        //play games until the player quits
+        while(newGame(game, input, console, strategy)) {
+            game.reset();
+        }
+        console.flush();
     }
 
     /**
-     * Start a new game of blackjack
+     * Play a single game of blackjack
      * @param game the game that will be started
-     * @param sc the Scanner for the console output
+     * @param input the source of user input
+     * @param console the renderer for the output
+     * @param strategy the strategy that prompts the player for decisions
+     * @return true if the player wants to play again or the game must be restarted, false otherwise
      */
-    private static void newGame(Game game, Scanner sc) {
+    private static boolean newGame(Game game, Supplier<String> input, TextRenderer console, Strategy strategy) {
 
-        System.out.print("\nThe cards have been shuffled and the dealer is ready to deal. Press ENTER to begin. [enter] ");
+        console.print(DEAL_PROMPT);
+        console.flush();
 
-        String input = sc.nextLine();
+        input.get();
 
         try {
-            game.dealCards();
-            game.playerDecision(sc);    //let players decide to hit or stand
-            game.dealerTurn(sc);        //execute dealer playing logic
-            game.computeWinners();      //computer if the player has won
+            game.playRound(strategy);   //deal, let players decide, play the dealer and compute the winners
 
-            System.out.println("\nWould you like to play again? Press y for YES and any other key for NO. [y/?]");
+            console.print(AGAIN_PROMPT);
+            console.flush();
 
-            input = sc.nextLine(); // get user input
-
-            if (input.equalsIgnoreCase("y")) {
-                game.reset();
-                newGame(game, sc);
-            } else {
-                System.exit(0);
-            }
+            return input.get().equalsIgnoreCase("y"); // get user input
         }
         //deck is in invalid state
         catch(DeckException de ) {
-            System.out.println("An error in the game has occurred[" + de.getMessage() + "]. Restarting game.");
-            game.reset();
-            newGame(game, sc);
+            console.print("An error in the game has occurred[" + de.getMessage() + "]. Restarting game.\n");
+            return true;
         }
     }
 
@@ -4,6 +4,11 @@ package com.nc.blackjack;
  * <h1>Card</h1>
  * Card represents a single playing card. Each
  * playing card will contain a {@link RANK} and a {@link SUIT}.
+ * <br>
+ * Every card also has a compact int code between 0 and 51 equal to
+ * <code>rank.ordinal() * 4 + suit.ordinal()</code>. {@link Deck} and {@link Hand}
+ * store codes and use the static lookup tables below, a Card object is only
+ * a view of a code for callers that need one.
  *
  * @author Patrick Sharkey
  * @version 1.0
@@ -13,8 +18,18 @@ public class Card {
 
     //variable declarations
     public static final int ACE_HIGH = 11;
+    public static final int NUM_CODES = 52;  //number of distinct card codes
+    private static final int NUM_SUITS = 4;
+
+    //lookup tables indexed by card code
+    private static final int[] VALUES = new int[NUM_CODES];
+    private static final boolean[] ACES = new boolean[NUM_CODES];
+    private static final String[] NAMES = new String[NUM_CODES];
+    private static final Card[] CARDS = new Card[NUM_CODES];
+
     private RANK rank;
     private SUIT suit;
+    private int code;
 
     /**
      * RANK is the enum representing the thirteen possible ranks of card in a playing
@@ -182,6 +197,19 @@ public class Card {
         }
     }
 
+    //build the lookup tables and a shared view for every code
+    static {
+        for(RANK rank : RANK.values() ) {
+            for(SUIT suit : SUIT.values() ) {
+                Card c = new Card(suit, rank);
+                VALUES[c.code] = rank.getValue();
+                ACES[c.code] = rank == RANK.ACE;
+                NAMES[c.code] = c.toString();
+                CARDS[c.code] = c;
+            }
+        }
+    }
+
     /**
      * Constructor - constructs a card initialized to the contents of the
      * specified SUIT and RANK.
@@ -191,8 +219,33 @@ public class Card {
     public Card(SUIT suit, RANK rank) {
         this.suit = suit;
         this.rank = rank;
+        this.code = rank.ordinal() * NUM_SUITS + suit.ordinal();
     }
 
+    /**
+     * @param code the card code
+     * @return the shared card view of the code, no new card is created
+     */
+    public static Card valueOf(int code) { return CARDS[code]; }
+
+    /**
+     * @param code the card code
+     * @return the int value of the rank of the code, an ACE is 1
+     */
+    public static int value(int code) { return VALUES[code]; }
+
+    /**
+     * @param code the card code
+     * @return true if the code is an ACE which may count as {@link #ACE_HIGH}, false otherwise
+     */
+    public static boolean isAce(int code) { return ACES[code]; }
+
+    /**
+     * @param code the card code
+     * @return a string representation of the rank and suit of the code
+     */
+    public static String toString(int code) { return NAMES[code]; }
+
     /**
      * Check for equality between two cards
      * @param card card to check equality against
@@ -203,7 +256,7 @@ public class Card {
         if(card == null) {
             return false;
         }
-        if(card.getRank() == getRank() && card.getSuit() == getSuit()) {
+        if(card.getCode() == getCode()) {
             return true;
         }
         return false;
@@ -225,4 +278,9 @@ public class Card {
      * @return the SUIT of the card
      */
     public SUIT getSuit() { return suit; }
+
+    /**
+     * @return the code of the card
+     */
+    public int getCode() { return code; }
 }
@@ -0,0 +1,175 @@
+package com.nc.blackjack;
+
+import com.nc.blackjack.event.TextRenderer;
+
+import java.util.Scanner;
+import java.util.function.Supplier;
+
+/**
+ * <h1>ConsoleStrategy</h1>
+ * ConsoleStrategy is a {@link Strategy} that prompts the player at the
+ * console to type h to HIT or s to STAND. When the rules allow more decisions
+ * the prompt also offers d to DOUBLE, p to SPLIT and r to SURRENDER, and
+ * insurance is taken by typing y.
+ * <br>
+ * When the game renders its events with a {@link TextRenderer} the prompts
+ * must be printed through the same renderer so they appear after the events.
+ * Lines can be read from any source, such as a network connection.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ConsoleStrategy implements Strategy {
+
+    //variable declarations
+    public static final String HIT_OR_STAND = " type h to HIT or s to STAND? [h/s]";
+    public static final String INSURANCE = " type y to take INSURANCE or n to decline? [y/n]";
+    public static final String INVALID_INPUT = "\nInvalid user input";
+    private static final String LETTERS = "hsdpr";  //letter of every decision, in DECISION order
+    private static final String[] NAMES = {"HIT", "STAND", "DOUBLE", "SPLIT", "SURRENDER"};
+    private final Supplier<String> input;
+    private final TextRenderer console;  //null when prompts are printed to System.out
+
+    /**
+     * Constructor - constructs a strategy that reads decisions from
+     * the specified Scanner and prints prompts to System.out
+     * @param sc the Scanner object for user input
+     */
+    public ConsoleStrategy(Scanner sc) {
+        this(sc, null);
+    }
+
+    /**
+     * Constructor - constructs a strategy that reads decisions from
+     * the specified Scanner and prints prompts with the specified renderer
+     * @param sc the Scanner object for user input
+     * @param console the renderer the prompts are printed with
+     */
+    public ConsoleStrategy(Scanner sc, TextRenderer console) {
+        this(sc::nextLine, console);
+    }
+
+    /**
+     * Constructor - constructs a strategy that reads decisions from
+     * the specified source of lines and prints prompts with the specified renderer
+     * @param input the source of user input, one line per call
+     * @param console the renderer the prompts are printed with
+     */
+    public ConsoleStrategy(Supplier<String> input, TextRenderer console) {
+        this.input = input;
+        this.console = console;
+    }
+
+    /**
+     * Prompt the player until a valid decision is typed.
+     * @param player the player who owns the hand
+     * @param hand the hand that is currently being played
+     * @param dealerUpcard the dealer card that is face up
+     * @return the decision typed by the player
+     */
+    @Override
+    public DECISION decide(Player player, Hand hand, Card dealerUpcard) {
+
+        while(true) {
+
+            prompt("\nPlayer " + player.getUsername() + HIT_OR_STAND);
+
+            String line = input.get(); //read in user input
+
+            if(line.equalsIgnoreCase("h")) {
+                return DECISION.HIT;
+            }
+            else if(line.equalsIgnoreCase("s")) {
+                return DECISION.STAND;
+            }
+
+            prompt(INVALID_INPUT);
+        }
+    }
+
+    /**
+     * Prompt the player until one of the allowed decisions is typed. A hand that
+     * may only hit or stand is prompted the same way as {@link #decide(Player, Hand, Card)}.
+     * @param player the player who owns the hand
+     * @param hand the hand that is currently being played
+     * @param dealerUpcard the dealer card that is face up
+     * @param allowed the mask of the allowed decisions
+     * @return the decision typed by the player
+     */
+    @Override
+    public DECISION decide(Player player, Hand hand, Card dealerUpcard, int allowed) {
+
+        if(allowed == HIT_STAND) {
+            return decide(player, hand, dealerUpcard);
+        }
+
+        //build the prompt from the allowed decisions
+        StringBuilder text = new StringBuilder("\nPlayer ").append(player.getUsername()).append(" type");
+        StringBuilder options = new StringBuilder();
+        String delimiter = " ";
+        for(DECISION decision : DECISION.values()) {
+            if(Strategy.isAllowed(allowed, decision)) {
+                char letter = LETTERS.charAt(decision.ordinal());
+                text.append(delimiter).append(letter).append(" to ").append(NAMES[decision.ordinal()]);
+                options.append(options.length() == 0 ? "" : "/").append(letter);
+                delimiter = ", ";
+            }
+        }
+        text.append("? [").append(options).append(']');
+
+        while(true) {
+
+            prompt(text.toString());
+
+            String line = input.get(); //read in user input
+
+            int index = line.length() == 1 ? LETTERS.indexOf(Character.toLowerCase(line.charAt(0))) : -1;
+            if(index >= 0 && Strategy.isAllowed(allowed, DECISION.values()[index])) {
+                return DECISION.values()[index];
+            }
+
+            prompt(INVALID_INPUT);
+        }
+    }
+
+    /**
+     * Prompt the player until insurance is taken or declined
+     * @param player the player who owns the hand
+     * @param hand the first hand of the player
+     * @param dealerUpcard the dealer card that is face up
+     * @return true if the player typed y
+     */
+    @Override
+    public boolean takeInsurance(Player player, Hand hand, Card dealerUpcard) {
+
+        while(true) {
+
+            prompt("\nPlayer " + player.getUsername() + INSURANCE);
+
+            String line = input.get(); //read in user input
+
+            if(line.equalsIgnoreCase("y")) {
+                return true;
+            }
+            else if(line.equalsIgnoreCase("n")) {
+                return false;
+            }
+
+            prompt(INVALID_INPUT);
+        }
+    }
+
+    /**
+     * Print the specified text before waiting for user input
+     * @param text the text to print
+     */
+    private void prompt(String text) {
+
+        if(console == null) {
+            System.out.print(text);
+        } else {
+            console.print(text);
+            console.flush();
+        }
+    }
+}
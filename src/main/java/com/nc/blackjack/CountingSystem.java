@@ -0,0 +1,116 @@
+package com.nc.blackjack;
+
+/**
+ * <h1>CountingSystem</h1>
+ * CountingSystem is a card counting system defined by the weight of every
+ * {@link Card.RANK}. The running count is the sum of the weights of the cards
+ * that have been dealt, see {@link Deck#addCount(CountingSystem)}.
+ * <br>
+ * Weights are whole numbers. Systems with fractional weights, such as Wong Halves,
+ * are defined with every weight multiplied by a divisor that the counts are
+ * divided by when they are read.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class CountingSystem {
+
+    //variable declarations
+    public static final CountingSystem HI_LO = new CountingSystem("Hi-Lo",
+            new int[]{-1, 1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1}, 1);
+    public static final CountingSystem HI_OPT_I = new CountingSystem("Hi-Opt I",
+            new int[]{0, 0, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1}, 1);
+    public static final CountingSystem HI_OPT_II = new CountingSystem("Hi-Opt II",
+            new int[]{0, 1, 1, 2, 2, 1, 1, 0, 0, -2, -2, -2, -2}, 1);
+    public static final CountingSystem KO = new CountingSystem("KO",
+            new int[]{-1, 1, 1, 1, 1, 1, 1, 0, 0, -1, -1, -1, -1}, 1);
+    public static final CountingSystem OMEGA_II = new CountingSystem("Omega II",
+            new int[]{0, 1, 1, 2, 2, 2, 1, 0, -1, -2, -2, -2, -2}, 1);
+    public static final CountingSystem ZEN = new CountingSystem("Zen",
+            new int[]{-1, 1, 1, 2, 2, 2, 1, 0, 0, -2, -2, -2, -2}, 1);
+    public static final CountingSystem WONG_HALVES = new CountingSystem("Wong Halves",
+            new int[]{-2, 1, 2, 2, 3, 2, 1, 0, -1, -2, -2, -2, -2}, 2);
+    private static final int MAX_WEIGHT = 127;  //weights are stored in a byte per card code
+
+    private final String name;
+    private final int[] rankWeights;
+    private final byte[] weights;  //weight of every card code
+    private final int divisor;
+    private final boolean balanced;
+
+    /**
+     * Constructor - constructs a counting system from the weight of every rank
+     * @param name the name of the system
+     * @param rankWeights the weight of every {@link Card.RANK} indexed by ordinal, ACE first
+     * @param divisor the number every count is divided by when it is read, 1 for whole weights
+     */
+    public CountingSystem(String name, int[] rankWeights, int divisor) {
+
+        if(name == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+        if(rankWeights == null || rankWeights.length != Card.RANK.values().length) {
+            throw new IllegalArgumentException("rankWeights must hold a weight for each of the "
+                    + Card.RANK.values().length + " ranks");
+        }
+        if(divisor < 1) {
+            throw new IllegalArgumentException("divisor must be at least 1");
+        }
+
+        this.name = name;
+        this.divisor = divisor;
+        this.rankWeights = rankWeights.clone();
+        weights = new byte[Card.NUM_CODES];
+
+        //loop through every card code, codes of the same rank share a weight
+        int sum = 0;
+        for(int code = 0; code < Card.NUM_CODES; code++ ) {
+
+            int weight = rankWeights[Card.valueOf(code).getRank().ordinal()];
+            if(weight < -MAX_WEIGHT || weight > MAX_WEIGHT) {
+                throw new IllegalArgumentException("weights must be between -" + MAX_WEIGHT + " and " + MAX_WEIGHT);
+            }
+
+            weights[code] = (byte) weight;
+            sum += weight;
+        }
+        balanced = sum == 0;
+    }
+
+    /**
+     * @param code the code of a card
+     * @return the weight of the card, multiplied by the divisor
+     */
+    public int getWeight(int code) { return weights[code]; }
+
+    /**
+     * @return the weight of every card code, shared with {@link Deck} and never modified
+     */
+    byte[] getWeights() { return weights; }
+
+    /**
+     * @param rank the rank of a card
+     * @return the weight of the rank, multiplied by the divisor
+     */
+    public int getWeight(Card.RANK rank) { return rankWeights[rank.ordinal()]; }
+
+    /**
+     * @return the name of the system
+     */
+    public String getName() { return name; }
+
+    /**
+     * @return the number every count is divided by when it is read
+     */
+    public int getDivisor() { return divisor; }
+
+    /**
+     * @return true if a full deck counts to zero, false if the system is unbalanced
+     */
+    public boolean isBalanced() { return balanced; }
+
+    /**
+     * @return the name of the system
+     */
+    public String toString() { return name; }
+}
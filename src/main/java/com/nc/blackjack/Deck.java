@@ -1,16 +1,33 @@
 package com.nc.blackjack;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
-import com.nc.blackjack.Card.SUIT;
-import com.nc.blackjack.Card.RANK;
+import java.util.SplittableRandom;
+import com.nc.blackjack.analysis.Composition;
 import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.metrics.GameMetrics;
 
 /**
  * <h1>Deck</h1>
- * Deck represents a standard deck of playing cards. Each deck will
- * contain 52 unique {@link Card} objects.
+ * Deck represents a shoe of one or more standard decks of playing cards. Each
+ * deck will contain 52 unique cards stored as card codes, see {@link Card#getCode()}.
+ * <br>
+ * Cards are dealt by moving a cursor through the shoe. Dealt cards stay in the
+ * shoe behind the cursor so {@link #reshuffle()} can collect and shuffle them
+ * in place without any allocation.
+ * <br>
+ * A shoe is either a {@link SHUFFLE#CUT_CARD} shoe that is reshuffled between rounds
+ * once the cut card has been reached, or a {@link SHUFFLE#CONTINUOUS} shoe that is
+ * reshuffled after every round. If the shoe runs out in the middle of a round the
+ * discards of earlier rounds are shuffled and dealt, as done at a real table.
+ * <br>
+ * Any number of {@link CountingSystem}s can be counted by the shoe, see
+ * {@link #addCount(CountingSystem)}. Every count is updated as a card is dealt,
+ * so reading the running count or the true count never rescans the shoe.
+ * <br>
+ * The shoe also keeps how many cards of every rank have not been dealt and the
+ * {@link Composition#key(int[])} of those cards, see {@link #getRemaining()}.
  *
  * @author Patrick Sharkey
  * @version 1.0
@@ -20,54 +37,250 @@ public class Deck {
 
     //variable declarations
     public static final int FULL_DECK_SIZE = 52;  //standard playing deck size
-    private List<Card> deck;
+    public static final double DEFAULT_PENETRATION = 0.75;  //share of the shoe dealt before the cut card
+    private static final int NUM_RANKS = Card.RANK.values().length;
+    private static final int NUM_SUITS = Card.SUIT.values().length;  //values() clones, recount runs every reshuffle
+    private static final byte[] RANKS = new byte[Card.NUM_CODES];  //rank ordinal of every card code
+    private static final long[] UNITS = new long[Card.NUM_CODES];  //composition key unit of every card code
+    private byte[] deck;
+    private int cursor;  //position of the next card to deal
+    private int roundStart;  //position of the first card dealt in the current round
+    private int cutCard;  //position of the cut card
+    private int numDecks;
+    private SHUFFLE shuffle;
+    private SplittableRandom random;
+    private RunningCount[] counts;  //counts updated with every card dealt
+    private int[] remaining;  //cards not dealt indexed by rank ordinal
+    private long key;  //composition key of the cards not dealt
+    private Remaining view;
+
+    static {
+        for(int code = 0; code < Card.NUM_CODES; code++ ) {
+            RANKS[code] = (byte) Card.valueOf(code).getRank().ordinal();
+            UNITS[code] = Composition.unit(Composition.index(code));
+        }
+    }
+
+    /**
+     * SHUFFLE is the enum representing when a shoe is reshuffled
+     * <ul>
+     * <li>{@link #CUT_CARD}</li>
+     * <li>{@link #CONTINUOUS}</li>
+     * </ul>
+     */
+    public enum SHUFFLE {
+
+        /**
+         * Reshuffle between rounds once the cut card has been dealt
+         */
+        CUT_CARD,
+
+        /**
+         * Reshuffle after every round like a continuous shuffling machine
+         */
+        CONTINUOUS
+    }
 
     /**
      * Constructor - constructs a Deck initialized containing
-     * 52 {@link Card} objects.
+     * 52 cards.
      */
     public Deck() {
-        deck = new ArrayList<Card>();
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor - constructs a Deck initialized containing
+     * 52 cards that will be shuffled using the
+     * specified random stream. Two decks shuffled with streams
+     * created from the same seed will be shuffled identically.
+     * The deck is reshuffled after every round.
+     * @param random the random stream used to shuffle the deck
+     */
+    public Deck(SplittableRandom random) {
+        this(1, random);
+    }
+
+    /**
+     * Constructor - constructs a shoe containing the specified
+     * number of decks that is reshuffled after every round.
+     * @param numDecks the number of decks in the shoe
+     */
+    public Deck(int numDecks) {
+        this(numDecks, new SplittableRandom());
+    }
+
+    /**
+     * Constructor - constructs a shoe containing the specified number
+     * of decks that will be shuffled using the specified random stream.
+     * The shoe is reshuffled after every round.
+     * @param numDecks the number of decks in the shoe
+     * @param random the random stream used to shuffle the shoe
+     */
+    public Deck(int numDecks, SplittableRandom random) {
+        this(numDecks, 1.0, SHUFFLE.CONTINUOUS, random);
+    }
+
+    /**
+     * Constructor - constructs a cut card shoe containing the specified number of
+     * decks. The cut card is placed after the specified share of the shoe.
+     * @param numDecks the number of decks in the shoe
+     * @param penetration the share of the shoe dealt before the cut card, greater than 0 and at most 1
+     * @param random the random stream used to shuffle the shoe
+     */
+    public Deck(int numDecks, double penetration, SplittableRandom random) {
+        this(numDecks, penetration, SHUFFLE.CUT_CARD, random);
+    }
+
+    /**
+     * Constructor - constructs a shoe containing the specified number of decks
+     * and reshuffled as specified.
+     * @param numDecks the number of decks in the shoe
+     * @param penetration the share of the shoe dealt before the cut card, greater than 0 and at most 1.
+     *                    Only used by {@link SHUFFLE#CUT_CARD} shoes.
+     * @param shuffle when the shoe is reshuffled
+     * @param random the random stream used to shuffle the shoe
+     */
+    public Deck(int numDecks, double penetration, SHUFFLE shuffle, SplittableRandom random) {
+
+        if(numDecks < 1) {
+            throw new IllegalArgumentException("numDecks must be at least 1");
+        }
+        if(!(penetration > 0 && penetration <= 1)) {
+            throw new IllegalArgumentException("penetration must be greater than 0 and at most 1");
+        }
+        if(shuffle == null) {
+            throw new IllegalArgumentException("shuffle must not be null");
+        }
+
+        this.numDecks = numDecks;
+        this.shuffle = shuffle;
+        this.random = random;
+        deck = new byte[numDecks * FULL_DECK_SIZE];
+        cutCard = (int) (deck.length * penetration);
+        counts = new RunningCount[0];
+        remaining = new int[NUM_RANKS];
+        view = new Remaining();
         populateDeck();
     }
 
     /**
-     * Create a new {@link Card} for each {@link RANK} and
-     * {@link SUIT} and place add it to the deck.
+     * Place the code of every card of every deck in the shoe. Codes in
+     * each deck are ordered by {@link Card.RANK} and then {@link Card.SUIT}.
      */
     private void populateDeck() {
 
-        //loop through ranks and create card for each
-        for(RANK rank : RANK.values() ) {
+        for(int i = 0; i < deck.length; i++ ) {
+            deck[i] = (byte) (i % Card.NUM_CODES);
+        }
+        cursor = 0;
+        roundStart = 0;
+        recount();
 
-            //loop through suits and create a card for each
-            for (SUIT suit : SUIT.values()) {
+        assert(getSize() == numDecks * FULL_DECK_SIZE); //enforce a proper deck was created
+    }
 
-                //create a new Card and place in deck
-                Card c = new Card(suit, rank);
-                deck.add(c);
-            }
+    /**
+     * Randomly shuffle the cards that have not been dealt.
+     */
+    public void shuffleDeck() {
+        shuffle(cursor);
+    }
+
+    /**
+     * Return every dealt card to the shoe and randomly shuffle the whole shoe.
+     */
+    public void reshuffle() {
+
+        if(GameMetrics.ENABLED) {
+            GameMetrics.COUNTERS.reshuffle();
         }
+        cursor = 0;
+        roundStart = 0;
+        shuffle(0);
+        recount();
+    }
 
-        assert(deck.size() == FULL_DECK_SIZE); //enforce a proper deck was created
+    /**
+     * Finish the current round. The cards dealt so far become discards and the
+     * shoe is reshuffled if it is a {@link SHUFFLE#CONTINUOUS} shoe or if the cut
+     * card has been reached.
+     * @return true if the shoe was reshuffled, false otherwise
+     */
+    public boolean newRound() {
+
+        if(isReshuffleDue()) {
+            reshuffle();
+            return true;
+        }
+
+        roundStart = cursor;
+        return false;
     }
 
     /**
-     * Randomly shuffle the deck of cards.
+     * Shuffle the discards of earlier rounds back into the shoe when the shoe
+     * runs out in the middle of a round. The cards of the current round are
+     * rotated in place to the front of the shoe and stay dealt.
+     * @return true if there were discards to shuffle, false otherwise
      */
-    public void shuffleDeck() {
+    private boolean reshuffleDiscards() {
+
+        if(roundStart == 0) {
+            return false;
+        }
+
+        //rotate the cards of the current round in front of the discards
+        reverse(0, roundStart);
+        reverse(roundStart, deck.length);
+        reverse(0, deck.length);
+
+        cursor = deck.length - roundStart;
+        roundStart = 0;
+        if(GameMetrics.ENABLED) {
+            GameMetrics.COUNTERS.reshuffle();
+        }
+        shuffle(cursor);
+        recount();  //only the cards of the current round are still out of the shoe
+        return true;
+    }
+
+    /**
+     * Reverse the order of the cards in the specified range of the shoe
+     * @param from the first position to reverse (inclusive)
+     * @param to the last position to reverse (exclusive)
+     */
+    private void reverse(int from, int to) {
+        for(int i = from, j = to - 1; i < j; i++, j-- ) {
+            byte swap = deck[i];
+            deck[i] = deck[j];
+            deck[j] = swap;
+        }
+    }
+
+    /**
+     * Randomly shuffle the cards from the specified position to the end of the shoe.
+     * @param from the first position that will be shuffled
+     */
+    private void shuffle(int from) {
+
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
 
         /*
-            loop through deck for each card generate random position in deck and swap
-            card in current position with card in random position
+            loop backwards through deck for each card generate random position at or below
+            the current position and swap card in current position with card in random position
          */
-        for(int i = 0; i < deck.size(); i++ ) {
+        for(int i = deck.length - 1; i > from; i-- ) {
 
-            int randIndex = randomDeckIndex();
+            int randIndex = from + randomDeckIndex(i - from + 1);
 
-            Card swap = deck.get(i);
-            deck.set(i, deck.get(randIndex));
-            deck.set(randIndex, swap);
+            byte swap = deck[i];
+            deck[i] = deck[randIndex];
+            deck[randIndex] = swap;
+        }
+
+        if(GameMetrics.ENABLED) {
+            GameMetrics.SHUFFLE.record(System.nanoTime() - start);
         }
     }
 
@@ -75,38 +288,108 @@ public class Deck {
      * @return return true if deck is empty, false otherwise
      */
     public boolean isEmpty() {
-        return deck.isEmpty() ? true : false;
+        return cursor == deck.length;
     }
 
     /**
      * Deal the next card from the top of the deck.
-     * @return next card in the deck, or null if deck is empty
+     * @return next card in the deck
      * @throws DeckException exception thrown when deck is not in
      * valid state
      */
     public Card dealNextCard() throws DeckException {
+        return Card.valueOf(dealNextCode());
+    }
 
-        Card c = null;
+    /**
+     * Deal the code of the next card from the top of the deck.
+     * @return code of the next card in the deck
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    public int dealNextCode() throws DeckException {
 
-        //validate the deck is not empty
-        if(!deck.isEmpty()) {
-            c = deck.remove(0);
-        }
-        else {
-            //deck should never be empty
+        //validate the deck is not empty, reuse the discards if it is
+        if(cursor == deck.length && !reshuffleDiscards()) {
+            //every card of the shoe is in play
+            if(GameMetrics.ENABLED) {
+                GameMetrics.COUNTERS.deckException();
+            }
             throw new DeckException("The deck is currently empty");
         }
-        return c;
+
+        int code = deck[cursor++];
+        remaining[RANKS[code]]--;
+        key -= UNITS[code];
+
+        //loop through the counts and add the weight of the card
+        for(RunningCount count : counts) {
+            count.running += count.weights[code];
+        }
+        return code;
+    }
+
+    /**
+     * Start counting the shoe with the specified system. The cards already dealt
+     * since the shoe was shuffled are counted right away.
+     * @param system the counting system
+     * @return the count, updated with every card dealt from the shoe
+     */
+    public RunningCount addCount(CountingSystem system) {
+
+        if(system == null) {
+            throw new IllegalArgumentException("system must not be null");
+        }
+
+        RunningCount count = new RunningCount(system);
+        counts = Arrays.copyOf(counts, counts.length + 1);
+        counts[counts.length - 1] = count;
+        recount();
+        return count;
     }
 
     /**
-     * Generate a random number 1-52 for a random
-     * location in the deck of cards
-     * @return a int between 1 and 52
+     * Count the cards dealt since the shoe was shuffled again for every count
+     * and for the cards of every rank that remain
      */
-    private int randomDeckIndex() {
-        Random rand = new Random();
-        return rand.nextInt(FULL_DECK_SIZE - 1) + 1;
+    private void recount() {
+
+        Arrays.fill(remaining, numDecks * NUM_SUITS);
+        key = 0;
+        for(int i = 0; i < cursor; i++ ) {
+            remaining[RANKS[deck[i]]]--;
+        }
+        for(int r = 0; r < NUM_RANKS; r++ ) {
+            key += remaining[r] * Composition.unit(Composition.index(r * 4));
+        }
+
+        for(RunningCount count : counts) {
+
+            int running = 0;
+            for(int i = 0; i < cursor; i++ ) {
+                running += count.weights[deck[i]];
+            }
+            count.running = running;
+        }
+    }
+
+    /**
+     * Generate a random location in the deck of cards. The random int is multiplied by
+     * the bound and the high half is kept, which needs no division, and the few values
+     * that would favour some locations are drawn again.
+     * @param bound the number of locations to choose from
+     * @return a int between 0 (inclusive) and bound (exclusive)
+     */
+    private int randomDeckIndex(int bound) {
+
+        long m = (random.nextInt() & 0xFFFFFFFFL) * bound;
+        if((m & 0xFFFFFFFFL) < bound) {
+            long threshold = (1L << 32) % bound;
+            while((m & 0xFFFFFFFFL) < threshold) {
+                m = (random.nextInt() & 0xFFFFFFFFL) * bound;
+            }
+        }
+        return (int) (m >>> 32);
     }
 
     /**
@@ -118,8 +401,8 @@ public class Deck {
         StringBuilder sb = new StringBuilder();
         String delimiter = "";
 
-        for(Card c : getDeck() ) {
-            sb.append(delimiter + c.toString() );
+        for(int i = cursor; i < deck.length; i++ ) {
+            sb.append(delimiter).append(Card.toString(deck[i]));
             delimiter = ",";
         }
 
@@ -127,13 +410,165 @@ public class Deck {
     }
 
     /**
-     * @return the deck of cards
+     * @return a read only view of the cards in the deck
+     */
+    public List<Card> getDeck() {
+        return new AbstractList<Card>() {
+            @Override
+            public Card get(int index) {
+                if(index < 0 || index >= getSize()) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + getSize());
+                }
+                return Card.valueOf(deck[cursor + index]);
+            }
+
+            @Override
+            public int size() { return getSize(); }
+        };
+    }
+
+    /**
+     * @return a read only view of the cards of every rank that have not been dealt,
+     * the same view is returned every time and always shows the current shoe
+     */
+    public Remaining getRemaining() { return view; }
+
+    /**
+     * @return the number of cards that have not been dealt
+     */
+    public int getSize() { return deck.length - cursor; }
+
+    /**
+     * @return the number of decks that have not been dealt, used to compute true counts
      */
-    public List<Card> getDeck() { return deck; }
-;
+    public double getDecksRemaining() { return (double) getSize() / FULL_DECK_SIZE; }
+
+    /**
+     * @return the number of cards in the full shoe
+     */
+    public int getShoeSize() { return deck.length; }
+
+    /**
+     * @return the number of decks in the shoe
+     */
+    public int getNumDecks() { return numDecks; }
+
+    /**
+     * @return true if the cut card has been dealt, false otherwise
+     */
+    public boolean isCutCardReached() { return cursor >= cutCard; }
+
     /**
-     * @return the size of the deck
+     * @return true if the next {@link #newRound()} reshuffles the shoe, a {@link SHUFFLE#CONTINUOUS}
+     * shoe is reshuffled every round and any other shoe once the cut card is reached
      */
-    public int getSize() { return deck.size(); }
+    public boolean isReshuffleDue() { return shuffle == SHUFFLE.CONTINUOUS || isCutCardReached(); }
 
+    /**
+     * @return when the shoe is reshuffled
+     */
+    public SHUFFLE getShuffle() { return shuffle; }
+
+    /**
+     * <h1>RunningCount</h1>
+     * RunningCount is the count of a {@link CountingSystem} over the cards dealt from
+     * the shoe since it was last shuffled. The dealer hole card is counted when it is
+     * dealt, which is the same count a player has once the round is over.
+     */
+    public class RunningCount {
+
+        //variable declarations
+        private final CountingSystem system;
+        private final byte[] weights;  //weight of every card code
+        private int running;  //sum of the weights, multiplied by the divisor of the system
+
+        /**
+         * Constructor - constructs a count of the specified system
+         * @param system the counting system
+         */
+        private RunningCount(CountingSystem system) {
+            this.system = system;
+            weights = system.getWeights();
+        }
+
+        /**
+         * @return the running count, the sum of the weights of the cards dealt
+         */
+        public double getRunningCount() { return (double) running / system.getDivisor(); }
+
+        /**
+         * @return the running count divided by the number of decks remaining, 0 if the shoe is empty
+         */
+        public double getTrueCount() {
+            int size = getSize();
+            return size == 0 ? 0 : (double) running * FULL_DECK_SIZE / ((double) size * system.getDivisor());
+        }
+
+        /**
+         * @return the counting system
+         */
+        public CountingSystem getSystem() { return system; }
+    }
+
+    /**
+     * <h1>Remaining</h1>
+     * Remaining is a read only view of the cards that have not been dealt from the
+     * shoe. The counts are kept up to date as cards are dealt and shuffled back,
+     * so reading them never walks the shoe and never copies.
+     * <br>
+     * {@link #getKey()} is the {@link Composition#key(int[])} of the cards not dealt,
+     * calculators can use it to find cached results without building a composition.
+     */
+    public class Remaining {
+
+        private Remaining() {}
+
+        /**
+         * @param rank the rank of a card
+         * @return the number of cards of the rank that have not been dealt
+         */
+        public int getCount(Card.RANK rank) { return remaining[rank.ordinal()]; }
+
+        /**
+         * @param index the composition index, see {@link Composition#index(int)}
+         * @return the number of cards of the index that have not been dealt
+         */
+        public int getValueCount(int index) {
+
+            if(index == Composition.TEN) {
+                return remaining[Card.RANK.TEN.ordinal()] + remaining[Card.RANK.JACK.ordinal()]
+                        + remaining[Card.RANK.QUEEN.ordinal()] + remaining[Card.RANK.KING.ordinal()];
+            }
+            return remaining[index];
+        }
+
+        /**
+         * @return the number of cards that have not been dealt
+         */
+        public int getSize() { return Deck.this.getSize(); }
+
+        /**
+         * @return the composition key of the cards that have not been dealt
+         * @throws IllegalStateException if the shoe has more decks than a key can hold
+         */
+        public long getKey() {
+
+            if(numDecks > Composition.MAX_DECKS) {
+                throw new IllegalStateException("a composition key holds at most " + Composition.MAX_DECKS + " decks");
+            }
+            return key;
+        }
+
+        /**
+         * @return a new composition of the cards that have not been dealt
+         */
+        public int[] toComposition() {
+
+            int[] composition = new int[Composition.NUM_INDEXES];
+            for(int i = 0; i < Composition.NUM_INDEXES; i++ ) {
+                composition[i] = getValueCount(i);
+            }
+            return composition;
+        }
+    }
 }
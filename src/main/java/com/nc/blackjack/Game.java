@@ -3,10 +3,21 @@ package com.nc.blackjack;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.nc.blackjack.Hand.RESULT;
 import com.nc.blackjack.Player.TYPE;
+import com.nc.blackjack.Strategy.DECISION;
 import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.event.GameEventSink;
+import com.nc.blackjack.event.NoOpEventSink;
+import com.nc.blackjack.metrics.DealEvent;
+import com.nc.blackjack.metrics.DecisionEvent;
+import com.nc.blackjack.metrics.GameMetrics;
+import com.nc.blackjack.metrics.ResultEvent;
+import com.nc.blackjack.metrics.RoundEvent;
+import com.nc.blackjack.metrics.ShuffleEvent;
 
 /**
  * <h1>Game</h1>
@@ -14,6 +25,16 @@ import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
  * <br>
  * A game contains players stored in a list of {@link Player}, a
  * dealer and a dekc of cards stored in a {@link Deck}
+ * <br>
+ * The game is played with the {@link Rules} it was created with. The rules are
+ * read from their compiled tables, so every rule variant plays the same loop.
+ * <br>
+ * Every game has a table id, and the rounds, deals, shuffles, decisions and results
+ * of the game are Flight Recorder events that carry it. The game reuses one instance
+ * of every event, so a round allocates nothing whether a recording runs or not.
+ * <br>
+ * A game that sends its events to {@link NoOpEventSink#INSTANCE} skips the sink
+ * altogether, so a headless round pays for no event dispatch.
  *
  * @author Patrick Sharkey
  * @version 1.0
@@ -22,32 +43,158 @@ import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
 public class Game {
 
     //variable declarations
+    private static final AtomicLong TABLE_IDS = new AtomicLong();
+    private final long tableId = TABLE_IDS.incrementAndGet();
+    private final RoundEvent roundEvent = new RoundEvent();
+    private final DealEvent dealEvent = new DealEvent();
+    private final ShuffleEvent shuffleEvent = new ShuffleEvent();
+    private final DecisionEvent decisionEvent = new DecisionEvent();
+    private final ResultEvent resultEvent = new ResultEvent();
     private List<Player> players;
     private Player dealer;
     private Deck deck;
+    private Rules rules;
+    private GameEventSink events;
+    private boolean silent;  //true while the events go to NoOpEventSink.INSTANCE
+    private STATE state;
+    private int playerIndex;  //player of the hand being played
+    private int handIndex;  //hand being played of that player
+    private Player currentPlayer;  //player at playerIndex, kept so a decision does not walk the lists
+    private Hand currentHand;  //hand at handIndex of that player
+    private Card upcard;
+    private int allowed;  //mask of the decisions allowed on the current hand
+
+    /**
+     * STATE is the enum representing the steps of a round. A round moves
+     * through the states in order, see {@link #advance()}.
+     * <ul>
+     * <li>{@link #DEAL}</li>
+     * <li>{@link #INSURANCE}</li>
+     * <li>{@link #PLAYER_TURN}</li>
+     * <li>{@link #PLAY_HAND}</li>
+     * <li>{@link #DECISION}</li>
+     * <li>{@link #DEALER_TURN}</li>
+     * <li>{@link #RESULT}</li>
+     * <li>{@link #FINISHED}</li>
+     * </ul>
+     */
+    public enum STATE {
+
+        /**
+         * The initial two cards will be dealt
+         */
+        DEAL,
+
+        /**
+         * The game is waiting for the current player to take or decline insurance, see {@link #submitInsurance(boolean)}
+         */
+        INSURANCE,
+
+        /**
+         * The next player hand will be shown and played, or the dealer will play when every hand is done
+         */
+        PLAYER_TURN,
+
+        /**
+         * The current hand will stand if it has 21 or busted, otherwise it needs a decision
+         */
+        PLAY_HAND,
+
+        /**
+         * The game is waiting for a decision on the current hand, see {@link #submitDecision(DECISION)}
+         */
+        DECISION,
+
+        /**
+         * The dealer will play its hand
+         */
+        DEALER_TURN,
+
+        /**
+         * The result of every player hand will be computed
+         */
+        RESULT,
+
+        /**
+         * The round is over, see {@link #reset()}
+         */
+        FINISHED
+    }
 
     /**
      * Constructor - constructs an new game by initializing
      * a dealer, creating a new deck, and shuffling the deck.
      */
     public Game() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor - constructs an new game that shuffles every deck
+     * with the specified random stream. Games created with streams from
+     * the same seed will deal the same cards.
+     * @param random the random stream used to shuffle the deck
+     */
+    public Game(SplittableRandom random) {
+        this(new Deck(random));
+    }
+
+    /**
+     * Constructor - constructs an new game that deals from the specified
+     * deck. The deck will be shuffled.
+     * @param deck the deck or shoe the game will deal from
+     */
+    public Game(Deck deck) {
+        this(deck, new Rules());
+    }
+
+    /**
+     * Constructor - constructs an new game that deals from the specified
+     * deck and plays with a copy of the specified rules. The deck will be shuffled.
+     * @param deck the deck or shoe the game will deal from
+     * @param rules the rules of the game
+     */
+    public Game(Deck deck, Rules rules) {
+
+        if(rules == null) {
+            throw new IllegalArgumentException("rules must not be null");
+        }
+
+        this.rules = new Rules(rules);
         players = new ArrayList<Player>();
         dealer = new Player(Player.DEALER_USER, Player.TYPE.DEALER);
-        deck = new Deck();
-        deck.shuffleDeck();
+        this.deck = deck;
+        events = NoOpEventSink.INSTANCE;
+        silent = true;
+        state = STATE.DEAL;
+        deck.reshuffle();
     }
 
     /**
      * Reset the current game. All player and dealer hands will be removed
-     * and a new deck will be created and shuffled.
+     * and the deck will start a new round, see {@link Deck#newRound()}.
+     * The next round starts in {@link STATE#DEAL}.
+     * @return true if the deck was reshuffled, false otherwise
      */
-    public void reset() {
+    public boolean reset() {
 
         //reset the players and dealers' hands
         resetPlayers(players);
         dealer.resetHands();
-        deck = new Deck();
-        deck.shuffleDeck();
+        state = STATE.DEAL;
+
+        //only a round that reshuffles the shoe is timed
+        if(!deck.isReshuffleDue()) {
+            return deck.newRound();
+        }
+
+        shuffleEvent.begin();
+        boolean reshuffled = deck.newRound();
+        shuffleEvent.end();
+        if(reshuffled && shuffleEvent.shouldCommit()) {
+            shuffleEvent.commit(tableId, deck.getNumDecks(), deck.getShoeSize(), deck.getShuffle().name());
+        }
+        return reshuffled;
     }
 
 
@@ -68,8 +215,8 @@ public class Game {
      *                to be removed
      */
     private void resetPlayers(List<Player> players) {
-        for(Player p : players ) {
-            p.resetHands();
+        for(int i = 0; i < players.size(); i++ ) {
+            players.get(i).resetHands();
         }
     }
 
@@ -81,16 +228,22 @@ public class Game {
      */
     public void dealCards() throws DeckException {
 
-        //loop through all players
-        for (Player p : players) {
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        roundEvent.begin();
+        dealEvent.begin();
 
-            //loop through each of the players hands
-            // ** NOTE there will only ever be one hand per player for this version **
-            for (Hand h : p.getHands()) {
+        //loop through all players, indexed loops do not allocate iterators
+        for(int i = 0; i < players.size(); i++ ) {
+
+            Player p = players.get(i);
+            List<Hand> hands = p.getHands();
+
+            //loop through each of the players hands, a round always starts with one
+            for(int j = 0; j < hands.size(); j++ ) {
 
                 //deal two cards for each player
-                h.insertCard(deck.dealNextCard());
-                h.insertCard(deck.dealNextCard());
+                hit(p, hands.get(j));
+                hit(p, hands.get(j));
             }
         }
 
@@ -98,8 +251,382 @@ public class Game {
 
         //deal the dealer two cards last
         Hand dHand = dealer.getHands().get(0);
-        dHand.insertCard(deck.dealNextCard());
-        dHand.insertCard(deck.dealNextCard());
+        hit(dealer, dHand);
+        hit(dealer, dHand);
+
+        //players play their hands in order
+        upcard = Card.valueOf(dHand.getCode(0));
+        playerIndex = 0;
+        handIndex = 0;
+
+        //insurance is offered to every player before the dealer peeks
+        if(rules.isInsurance(upcard.getCode()) && !players.isEmpty()) {
+            selectHand();
+            state = STATE.INSURANCE;
+            decisionEvent.begin();
+        } else {
+            peek();
+        }
+
+        if(GameMetrics.ENABLED) {
+            GameMetrics.DEAL_CARDS.record(System.nanoTime() - start);
+        }
+        dealEvent.end();
+        if(dealEvent.shouldCommit()) {
+            dealEvent.commit(tableId, players.size(), Card.toString(upcard.getCode()));
+        }
+    }
+
+    /**
+     * Check the dealer hand for a natural when the rules say so. A dealer natural
+     * ends the round before the players play, otherwise the players take their turns.
+     */
+    private void peek() {
+
+        Hand dHand = dealer.getHands().get(0);
+        if(!rules.isPeek(upcard.getCode()) || !dHand.isNatural()) {
+            state = STATE.PLAYER_TURN;
+            return;
+        }
+
+        //every player hand is settled as dealt
+        for(int i = 0; i < players.size(); i++ ) {
+            List<Hand> hands = players.get(i).getHands();
+            for(int j = 0; j < hands.size(); j++ ) {
+                hands.get(j).setOptimalHandValue();
+            }
+        }
+        playerIndex = players.size();
+        state = STATE.DEALER_TURN;
+    }
+
+    /**
+     * Play a complete round without any console input. Cards are dealt,
+     * each player hand is played using the specified {@link Strategy}, the dealer
+     * plays out its hand and the {@link RESULT} of every player hand is set.
+     * Everything that happens is sent to the event sink, see {@link #setEventSink(GameEventSink)}.
+     * @param strategy the strategy that decides every player hand and insurance
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    public void playRound(Strategy strategy) throws DeckException {
+
+        for(STATE s = advance(); s != STATE.FINISHED; s = advance()) {
+            submit(strategy);
+        }
+    }
+
+    /**
+     * Ask the strategy for the decision or the insurance the game is waiting for
+     * @param strategy the strategy of the current player
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    private void submit(Strategy strategy) throws DeckException {
+
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+
+        if(state == STATE.INSURANCE) {
+            submitInsurance(strategy.takeInsurance(currentPlayer, currentHand, upcard));
+        } else {
+            submitDecision(strategy.decide(currentPlayer, currentHand, upcard, allowed));
+        }
+
+        if(GameMetrics.ENABLED) {
+            GameMetrics.PLAYER_DECISION.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Play the round until a decision is needed or the round is finished. The
+     * caller never blocks, a decision is given later with {@link #submitDecision(DECISION)}
+     * and insurance with {@link #submitInsurance(boolean)}.
+     * @return {@link STATE#DECISION} if a decision is needed, {@link STATE#INSURANCE} if insurance
+     * is offered, {@link STATE#FINISHED} otherwise
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    public STATE advance() throws DeckException {
+
+        while(state != STATE.DECISION && state != STATE.INSURANCE && state != STATE.FINISHED) {
+            step();
+        }
+
+        //show everything that happened before waiting for the decision
+        if(!silent) {
+            events.flush();
+        }
+        return state;
+    }
+
+    /**
+     * @return true if the game is waiting for a decision on the current hand
+     */
+    public boolean needsDecision() { return state == STATE.DECISION; }
+
+    /**
+     * @return true if the game is waiting for the current player to take or decline insurance
+     */
+    public boolean needsInsurance() { return state == STATE.INSURANCE; }
+
+    /**
+     * Apply the decision for the current hand. A hit deals a card to the hand,
+     * a stand finishes the hand. A double deals one card and finishes the hand,
+     * a split moves the second card into a new hand played after the other hands of
+     * the player, and a surrender finishes the hand for half the bet.
+     * Call {@link #advance()} to continue the round.
+     * @param decision the decision for the current hand, see {@link #getAllowedDecisions()}
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    public void submitDecision(DECISION decision) throws DeckException {
+
+        if(state != STATE.DECISION) {
+            throw new IllegalStateException("The game is not waiting for a decision");
+        }
+        if(decision == null) {
+            throw new IllegalArgumentException("decision must not be null");
+        }
+        if(!Strategy.isAllowed(allowed, decision)) {
+            throw new IllegalArgumentException(decision + " is not allowed on the current hand");
+        }
+
+        Player player = currentPlayer;
+        Hand hand = currentHand;
+
+        //the wait for the decision is over before the decision is applied
+        decisionEvent.end();
+        if(decisionEvent.shouldCommit()) {
+            decisionEvent.commit(tableId, playerIndex, handIndex, hand.getBestTotal(), Card.toString(upcard.getCode()), decision.name());
+        }
+
+        switch(decision) {
+            case HIT:
+
+                //player decided to hit deal a new card to the hand
+                if(!silent) {
+                    events.decision(player, hand, DECISION.HIT);
+                }
+                hit(player, hand);
+                state = STATE.PLAY_HAND;
+                break;
+            case DOUBLE:
+
+                //one more card for twice the bet, then the hand is done
+                if(!silent) {
+                    events.decision(player, hand, DECISION.DOUBLE);
+                }
+                hand.addFlags(Hand.DOUBLED);
+                hit(player, hand);
+                hand.setOptimalHandValue();
+                if(!silent) {
+                    if(hand.isBust()) {
+                        events.bust(player, hand);
+                    } else {
+                        events.stand(player, hand);
+                    }
+                }
+                nextHand();
+                break;
+            case SPLIT:
+
+                //the second card starts a new hand, both hands are dealt their second card when played
+                if(!silent) {
+                    events.decision(player, hand, DECISION.SPLIT);
+                }
+                hand.split(player.addHand());
+                state = STATE.PLAYER_TURN;
+                break;
+            case SURRENDER:
+
+                //the hand is done and loses half the bet
+                hand.addFlags(Hand.SURRENDERED);
+                hand.setOptimalHandValue();
+                if(!silent) {
+                    events.decision(player, hand, DECISION.SURRENDER);
+                }
+                nextHand();
+                break;
+            default:
+
+                //player decide to stand do nothing calculate optimal hand value
+                hand.setOptimalHandValue();
+                if(!silent) {
+                    events.decision(player, hand, DECISION.STAND);
+                }
+                nextHand();
+        }
+    }
+
+    /**
+     * Take or decline insurance for the current player. Insurance is offered to every
+     * player in order before the dealer peeks. Call {@link #advance()} to continue the round.
+     * @param take true to take insurance on the first hand of the player
+     */
+    public void submitInsurance(boolean take) {
+
+        if(state != STATE.INSURANCE) {
+            throw new IllegalStateException("The game is not waiting for insurance");
+        }
+
+        Player player = currentPlayer;
+        Hand hand = currentHand;
+
+        decisionEvent.end();
+        if(decisionEvent.shouldCommit()) {
+            decisionEvent.commit(tableId, playerIndex, handIndex, hand.getBestTotal(), Card.toString(upcard.getCode()),
+                    take ? DecisionEvent.INSURANCE : DecisionEvent.NO_INSURANCE);
+        }
+
+        if(take) {
+            hand.addFlags(Hand.INSURED);
+        }
+        if(!silent) {
+            events.insurance(player, hand, take);
+        }
+
+        //the next player is offered insurance
+        if(++playerIndex == players.size()) {
+            playerIndex = 0;
+            peek();
+        } else {
+            selectHand();
+            decisionEvent.begin();
+        }
+    }
+
+    /**
+     * Execute the step of the current state
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    private void step() throws DeckException {
+
+        switch(state) {
+            case DEAL:
+                dealCards();
+                break;
+            case PLAYER_TURN:
+                startHand();
+                break;
+            case PLAY_HAND:
+                playHand();
+                break;
+            case DEALER_TURN:
+                dealerTurn();
+                break;
+            case RESULT:
+                computeWinners();
+                break;
+            default:
+                throw new IllegalStateException("No step for state " + state);
+        }
+    }
+
+    /**
+     * Show the next player hand and play it, or let the dealer play once every hand is done
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    private void startHand() throws DeckException {
+
+        if(playerIndex == players.size()) {
+            state = STATE.DEALER_TURN;
+            return;
+        }
+
+        //a hand split from a pair is dealt its second card when it is played
+        selectHand();
+        if(currentHand.getSize() == 1) {
+            hit(currentPlayer, currentHand);
+        }
+
+        //Show the current state of both the player and dealers hand. Dealers hand will have one card hidden as it is dealt face down
+        if(!silent) {
+            events.turn(currentPlayer, currentHand, dealer.getHands().get(0));
+        }
+
+        //a shown hand is played right away, without going back through the state loop
+        state = STATE.PLAY_HAND;
+        playHand();
+    }
+
+    /**
+     * Keep the player and the hand at the current indexes
+     */
+    private void selectHand() {
+        currentPlayer = players.get(playerIndex);
+        currentHand = currentPlayer.getHands().get(handIndex);
+    }
+
+    /**
+     * Check if the current hand has blackjack or busted. If not, the game
+     * waits for a decision, unless the rules allow nothing but to stand.
+     */
+    private void playHand() {
+
+        Player player = currentPlayer;
+        Hand hand = currentHand;
+
+        //check for BLACKJACK and BUST
+        if( hand.isTwentyOne() ) {
+            hand.setOptimalHandValue();
+            if(!silent) {
+                events.stand(player, hand);
+            }
+            nextHand();
+        }
+        else if( hand.isBust() ) {
+            hand.setOptimalHandValue();
+            if(!silent) {
+                events.bust(player, hand);
+            }
+            nextHand();
+        }
+        else {
+            allowed = rules.getAllowed(situation(player, hand));
+
+            //split aces that may not draw stand on their two cards
+            if(allowed == Strategy.bit(DECISION.STAND)) {
+                hand.setOptimalHandValue();
+                if(!silent) {
+                    events.stand(player, hand);
+                }
+                nextHand();
+            } else {
+                state = STATE.DECISION;
+                decisionEvent.begin();
+            }
+        }
+    }
+
+    /**
+     * @param player the player who owns the hand
+     * @param hand the hand being played
+     * @return the situation of the hand, see {@link Rules#getAllowed(int)}
+     */
+    private int situation(Player player, Hand hand) {
+
+        int situation = hand.getFlags() & (Rules.SPLIT_HAND | Rules.SPLIT_ACES);
+        if(hand.getSize() == 2) {
+            situation |= hand.isPair() ? Rules.TWO_CARDS | Rules.PAIR : Rules.TWO_CARDS;
+        }
+        if(player.getNumHands() >= rules.getMaxHands()) {
+            situation |= Rules.HANDS_FULL;
+        }
+        return situation;
+    }
+
+    /**
+     * Move on to the next player hand
+     */
+    private void nextHand() {
+
+        if(++handIndex == currentPlayer.getNumHands()) {
+            playerIndex++;
+            handIndex = 0;
+        }
+        state = STATE.PLAYER_TURN;
     }
 
     /**
@@ -110,17 +637,28 @@ public class Game {
      * valid state
      */
     public void playerDecision(Scanner sc) throws DeckException {
+        playerDecision(new ConsoleStrategy(sc));
+    }
 
-        //loop through all players and each hand
-        for(Player p : players ) {
-            for(Hand h : p.getHands() ) {
-
-                //Show the current state of both the player and dealers hand. Dealers hand will have one card hidden as it is dealt face down
-                System.out.print("\nPlayer " + p.getUsername() + " is showing [" + h.toString() + "] Total[" + h.currentHandStateTotal()
-                                + "] Dealer is showing [" + dealer.getHands().get(0).toStringHidden() + "]");
-
-                //let player make next hand decision
-                nextDecision(p.getUsername(), h, sc);
+    /**
+     * Asks the specified strategy to make a decision for every player based
+     * on their current hand or hands.
+     * @param strategy the strategy that decides to hit or stand
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    public void playerDecision(Strategy strategy) throws DeckException {
+
+        //play until every hand is done
+        while(state == STATE.INSURANCE || state == STATE.PLAYER_TURN || state == STATE.PLAY_HAND || state == STATE.DECISION) {
+
+            if(state == STATE.DECISION || state == STATE.INSURANCE) {
+                if(!silent) {
+                    events.flush();
+                }
+                submit(strategy);
+            } else {
+                step();
             }
         }
     }
@@ -131,6 +669,7 @@ public class Game {
      * Rules for dealear as follows
      * <ul>
      *     <li>The dealer must hit if the cards total less than 17 and stand otherwise</li>
+     *     <li>The dealer hits a soft 17 if the rules say so, see {@link Rules#setHitSoft17(boolean)}</li>
      * </ul>
      *
      * @param sc the Scanner object for user input
@@ -138,24 +677,48 @@ public class Game {
      * valid state
      */
     public void dealerTurn(Scanner sc) throws DeckException {
+        dealerTurn();
+    }
+
+    /**
+     * Execute the dealer turn, see {@link #dealerTurn(Scanner)}.
+     * @throws DeckException exception thrown when deck is not in
+     * valid state
+     */
+    public void dealerTurn() throws DeckException {
+
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
 
         //get the current dealers hand
         Hand h = dealer.getHands().get(0);
 
-        System.out.print("\nDealer is showing [" + h.toString() + "]");
+        if(!silent) {
+            events.turn(dealer, h, h);
+        }
 
-        //check if dealer should hit or Stand
-        if( isDealerHit(h.getMinHandValue(), h.getMaxHandValue()) ) {
+        //hit until the dealer must stand
+        while( rules.isDealerHit(h.getState()) ) {
+            hit(dealer, h);
+        }
 
-            Card c = hit(h);
-            System.out.print("\nDealer must HIT. Dealer is dealt [" + c.toString() + "]");
-            dealerTurn(sc);
+        //calculate optimal dealer hand value
+        h.setOptimalHandValue();
 
-        } else {
-            //calculate optimal dealer hand value
-            h.setOptimalHandValue();
-            System.out.print("\nDealer must STAND with [" + h.toString() + "] Total[" + h.getHandValue() + "]");
-            return;
+        if(!silent) {
+            if( h.isBust() ) {
+                events.bust(dealer, h);
+            } else {
+                events.stand(dealer, h);
+            }
+            events.flush();
+        }
+        state = STATE.RESULT;
+
+        if(GameMetrics.ENABLED) {
+            if(h.isBust()) {
+                GameMetrics.COUNTERS.dealerBust();
+            }
+            GameMetrics.DEALER_TURN.record(System.nanoTime() - start);
         }
     }
 
@@ -164,6 +727,7 @@ public class Game {
      * and max hand values
      * <ul>
      *     <li>Dealer will hit if the cards total less than 17</li>
+     *     <li>Dealer will hit a soft 17 if the rules say so</li>
      *     <li>If Dealer is dealt an A it will always count as 11 unless
      *         future cards make total greater than 21
      *     </li>
@@ -186,79 +750,48 @@ public class Game {
         }
 
         //always use max hand value to ensure A counts as 11
-        //stand on 17 or greater.
+        //stand on 17 or greater, a soft 17 is hit when the rules say so.
         if(maxHandValue >= Hand.DEALER_STAND) {
-            return false;
+            return maxHandValue == Hand.DEALER_STAND && minHandValue < maxHandValue && rules.isHitSoft17();
         }
         return true;
     }
 
-    /**
-     * Check if the current hand of the user has blackjack or busted. If not,
-     * it will prompt user to either hit or stand.
-     * @param username the username of the player who owns the hand
-     * @param hand the hand that is currently being played
-     * @param sc the Scanner object for user input
-     */
-    private void nextDecision(String username, Hand hand, Scanner sc) throws DeckException {
-
-        //check for BLACKJACK and BUST
-        if( Hand.isBlackjack(hand.getMaxHandValue()) ) {
-            hand.setOptimalHandValue();
-            System.out.println("\nPlayer " + username + " must STAND with [" + hand.toString() + "] Total[" + hand.getHandValue() + "]");
-            return;
-        }
-        else if( Hand.isBust(hand.getMinHandValue()) ) {
-            hand.setOptimalHandValue();
-            System.out.println("\nPlayer " + username + " must STAND with [" + hand.toString() + "] Total[" + hand.getHandValue() + "]");
-            return;
-        }
-
-        //Show the current state of both the player and dealers hand. Dealers hand will have one card hidden as it is dealt face down
-        System.out.print("\nPlayer " + username + " type h to HIT or s to STAND? [h/s]");
-
-        String input = sc.nextLine(); //read in user input
-
-        if(input.equalsIgnoreCase("h")) {
-
-            //player decided to hit deal a new card to the hand
-            Card c = hit(hand);
-            System.out.print("\nPlayer " + username + " is dealt a [" + c.toString() + "]");
-
-            //Show the current state of both the player and dealers hand. Dealers hand will have one card hidden as it is dealt face down
-            System.out.print("\nPlayer " + username + " is showing [" + hand.toString() + "] Total[" + hand.currentHandStateTotal()
-                    + "] Dealer is showing [" + dealer.getHands().get(0).toStringHidden() + "]");
-
-            nextDecision(username, hand, sc); //get next decision
-        }
-        else if(input.equalsIgnoreCase("s")) {
-
-            //player decide to stand do nothing calculate optimal hand value
-            hand.setOptimalHandValue();
-            System.out.println("Player " + username + " will STAND with [" + hand.toString() + "] Total[" + hand.getHandValue() + "]");
-            return;
-        }
-        else {
-            System.out.print("\nInvalid user input");
-            nextDecision(username, hand, sc); //retry
-        }
-    }
-
     /**
      * Compute if each player has won or lost the current game
      */
     public void computeWinners() {
 
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+
         //get the dealer hand
         Hand dHand = dealer.getHands().get(0);
+        int numHands = 0;
 
         //loop through each player and each hand
-        for(Player p: players ) {
-            for(Hand h : p.getHands() ) {
-                computeHandResult(p.getUsername(), h, dHand);
+        for(int i = 0; i < players.size(); i++ ) {
+
+            Player p = players.get(i);
+            List<Hand> hands = p.getHands();
+
+            for(int j = 0; j < hands.size(); j++ ) {
+                computeHandResult(p, hands.get(j), dHand, i, j);
             }
+            numHands += hands.size();
+        }
+        if(!silent) {
+            events.flush();
         }
+        state = STATE.FINISHED;
 
+        if(GameMetrics.ENABLED) {
+            GameMetrics.COUNTERS.round();
+            GameMetrics.COMPUTE_WINNERS.record(System.nanoTime() - start);
+        }
+        roundEvent.end();
+        if(roundEvent.shouldCommit()) {
+            roundEvent.commit(tableId, players.size(), numHands, dHand.getHandValue());
+        }
     }
 
     /**
@@ -270,6 +803,8 @@ public class Game {
      *     <li>If both players bust, the dealer wins</li>
      *     <li>If both players have the same score, they tie</li>
      *     <li>If both players have 21 on their first two cards, in which case it is a tie</li>
+     *     <li>If only one player has 21 on the first two cards that player wins, when the rules play naturals</li>
+     *     <li>A surrendered hand loses</li>
      *     <li>If the dealer's hand is greater than the player hand, dealer wins</li>
      *     <li>If the players hand is greater than the dealer hand, player wins</li>
      * </ul>
@@ -278,64 +813,168 @@ public class Game {
      * @param dHand the hand of the dealer being played
      */
     public void computeHandResult(String username, Hand pHand, Hand dHand) {
+        computeHandResult(new Player(username, TYPE.PLAYER), pHand, dHand, -1, 0);
+    }
+
+    /**
+     * Compute the result of the player hand and send it to the event sink,
+     * see {@link #computeHandResult(String, Hand, Hand)}.
+     * @param player the player who owns the hand
+     * @param pHand the hand of the player being played
+     * @param dHand the hand of the dealer being played
+     * @param seat the index of the player, -1 if the player is not seated
+     * @param hand the index of the hand of the player
+     */
+    private void computeHandResult(Player player, Hand pHand, Hand dHand, int seat, int hand) {
+
+        RESULT result = evaluateHand(pHand, dHand);
+        pHand.setResult(result);
+
+        //insurance is settled with the first hand of the player
+        double net = rules.getNet(result, pHand.getFlags(), pHand.isNatural());
+        if((pHand.getFlags() & Hand.INSURED) != 0) {
+            net += rules.getInsuranceNet(dHand.isNatural());
+        }
+        pHand.setNet(net);
+        if(!silent) {
+            events.result(player, pHand, dHand, result);
+        }
+
+        //an instant event, the event is reused so end clears the duration of the last hand
+        if(resultEvent.isEnabled()) {
+            resultEvent.begin();
+            resultEvent.end();
+            if(resultEvent.shouldCommit()) {
+                resultEvent.commit(tableId, seat, hand, result.name(), net, pHand.getHandValue(), dHand.getHandValue());
+            }
+        }
+
+        if(GameMetrics.ENABLED) {
+            GameMetrics.COUNTERS.hand(pHand.isBust());
+        }
+    }
+
+    /**
+     * Determine the {@link RESULT} of a player hand against the dealer hand. Both
+     * hands must already have their optimal hand value set. See
+     * {@link #computeHandResult(String, Hand, Hand)} for the rules.
+     * @param pHand the hand of the player being played
+     * @param dHand the hand of the dealer being played
+     * @return the result of the player hand
+     */
+    public RESULT evaluateHand(Hand pHand, Hand dHand) {
 
-        //Save both hand values for comparison
         int pHandValue = pHand.getHandValue();
         int dHandValue = dHand.getHandValue();
+        RESULT natural = rules.getNaturalResult(pHand.isNatural(), dHand.isNatural());
 
-        System.out.print("\n\nPlayer " + username + " is showing [" + pHand.toString() +
-                "] Total[" + pHandValue + "]. Dealer is showing [" + dHand.toString()
-                + "] Total[" + dHandValue + "]");
-
-        //if both dealer and player get blackjack on initial deal they tie
-        if( (pHand.getSize() == 2 && pHandValue == Hand.BLACKJACK) && (dHand.getSize() == 2  && dHandValue == Hand.BLACKJACK) ) {
-            pHand.setResult(RESULT.TIE);
-            System.out.println("\n\nRESULT: Player " + username + " TIES with the dealer");
-            return;
+        //a surrendered hand has already lost
+        if( (pHand.getFlags() & Hand.SURRENDERED) != 0 ) {
+            return RESULT.LOSS;
+        }
+        //if both dealer and player get blackjack on initial deal they tie, a single natural wins when the rules say so
+        else if( natural != null ) {
+            return natural;
         }
         //if player busts dealer wins
         else if(pHandValue > Hand.BLACKJACK) {
-            pHand.setResult(RESULT.LOSS);
-            System.out.println("\n\nRESULT: Player " + username + " BUSTED dealer wins");
-            return;
+            return RESULT.LOSS;
         }
         //if player and dealer have the same hand value they tie
         else if(pHandValue == dHandValue ) {
-            pHand.setResult(RESULT.TIE);
-            System.out.println("\n\nRESULT: Player " + username + " TIES with the dealer");
-            return;
+            return RESULT.TIE;
         }
         //if player did not bust bust has a greater hand than the dealer or if the dealer busts and the player does not
         else if(pHandValue > dHandValue || dHandValue > Hand.BLACKJACK) {
-            pHand.setResult(RESULT.WIN);
-            System.out.println("\n\nRESULT: Congratulations " + username + " you WIN");
-            return;
-        }
-        else {
-            //dealer wins in all other cases
-            pHand.setResult(RESULT.LOSS);
-            System.out.println("\n\nRESULT: Player " + username + " LOSES to the dealer");
-            return;
+            return RESULT.WIN;
         }
+        //dealer wins in all other cases
+        return RESULT.LOSS;
     }
 
     /**
-     *    
-     * Return the next card off the top of the deck and
-     * insert it into the hand
+     * Deal the next card off the top of the deck into the hand
+     * and send it to the event sink
+     * @param player the player or dealer who owns the hand
      * @param hand the hand that will add the next card
-     * @return the next card in the deck
      * @throws DeckException exception thrown when deck is not in
      * valid state
      */
-    private Card hit(Hand hand) throws DeckException {
-            Card c = deck.dealNextCard();
-            hand.insertCard(c);
-            return c;
+    private void hit(Player player, Hand hand) throws DeckException {
+        int code = deck.dealNextCode();
+        hand.insertCode(code);
+        if(!silent) {
+            events.cardDealt(player, hand, code);
+        }
+    }
+
+    /**
+     * Set the sink that receives the events of the game. A new game sends
+     * its events to {@link NoOpEventSink#INSTANCE}.
+     * @param events the sink that will receive the events
+     */
+    public void setEventSink(GameEventSink events) {
+
+        if(events == null) {
+            throw new IllegalArgumentException("events must not be null");
+        }
+        this.events = events;
+        silent = events == NoOpEventSink.INSTANCE;
     }
 
+    /**
+     * @return the sink that receives the events of the game
+     */
+    public GameEventSink getEventSink() { return events; }
+
+    /**
+     * @return a copy of the rules of the game
+     */
+    public Rules getRules() { return new Rules(rules); }
+
+    /**
+     * @return the id of the game, unique in the process, carried by its Flight Recorder events
+     */
+    public long getTableId() { return tableId; }
+
+    /**
+     * @return the mask of the decisions allowed on the current hand, only valid
+     * while the game waits for a decision, see {@link Strategy#bit(DECISION)}
+     */
+    public int getAllowedDecisions() { return allowed; }
+
+    /**
+     * @return the current step of the round
+     */
+    public STATE getState() { return state; }
+
+    /**
+     * @return the player whose hand is being played, only valid while players play their hands
+     */
+    public Player getCurrentPlayer() { return players.get(playerIndex); }
+
+    /**
+     * @return the hand being played, only valid while players play their hands
+     */
+    public Hand getCurrentHand() { return players.get(playerIndex).getHands().get(handIndex); }
+
+    /**
+     * @return the dealer card that is face up, only valid after the cards have been dealt
+     */
+    public Card getDealerUpcard() { return upcard; }
+
+    /**
+     * @return the dealer of the game
+     */
+    public Player getDealer() { return dealer; }
+
     /**
      * @return the number of players in the game
      */
     public int getNumPlayers() { return players.size(); }
+
+    /**
+     * @return the list of players in the game
+     */
+    public List<Player> getPlayers() { return players; }
 }
@@ -1,14 +1,23 @@
 package com.nc.blackjack;
 
-import java.util.List;
-import java.util.ArrayList;
-
 /**
  * <h1>Hand</h1>
  * Hand represents a single hand of playing cards.
  * <br>
- * A hand contains a list of {@link Card} objects as well as a
+ * A hand contains the codes of its cards (see {@link Card#getCode()}) as well as a
  * {@link RESULT} of the hand, and a value for the hand.
+ * <br>
+ * The codes are stored in a fixed array of {@link #MAX_CARDS} that is never
+ * reallocated, {@link #reset()} empties the hand in place so it can be reused
+ * in the next round.
+ * <br>
+ * The total of the hand is a single packed state, the hard total shifted left by
+ * one with the lowest bit set when the hand holds an ACE, see {@link #getState()}.
+ * Inserting a card adds the packed value of its code and the best total, bust and
+ * 21 of a state are each a single lookup in a table built once for every state.
+ * <br>
+ * A hand also keeps what the player did with it, see {@link #getFlags()}, and the
+ * net result it was settled for, see {@link #getNet()}.
  *
  * @author Patrick Sharkey
  * @version 1.0
@@ -19,12 +28,47 @@ public class Hand {
     //variable declarations
     public static final int BLACKJACK = 21;
     public static final int DEALER_STAND = 17;
-    private List<Card> hand;
-    private boolean hasACE = false;
+    public static final int MAX_CARDS = 22;  //21 aces and one more card is the longest hand that can be played
+    public static final int NUM_STATES = 512;  //hard totals up to 255, with and without an ACE
+
+    //flags of a hand
+    public static final int DOUBLED = 1;  //the bet was doubled for one more card
+    public static final int SURRENDERED = 2;  //half the bet was given up
+    public static final int SPLIT = 4;  //the hand was split from a pair
+    public static final int SPLIT_ACES = 8;  //the hand was split from a pair of aces
+    public static final int INSURED = 16;  //insurance was taken on the hand
+
+    private static final int ACE = 1;  //state bit set when the hand holds an ACE
+    private static final int SOFT_BONUS = Card.ACE_HIGH - 1;  //value added when an ACE counts high
+    private static final int BUST = 1, TWENTY_ONE = 2, SOFT = 4;  //bits of FLAGS
+    private static final int[] CARDS = new int[Card.NUM_CODES];  //packed value of every card code
+    private static final byte[] BEST = new byte[NUM_STATES];  //best total of every state, read unsigned
+    private static final byte[] FLAGS = new byte[NUM_STATES];
+    private byte[] hand;
+    private int size = 0;
+    private int state = 0;
     private int handValue = 0;
-    private int minHandValue = 0;
-    private int maxHandValue = 0;
     private RESULT result;
+    private int flags = 0;
+    private int splits = 0;  //number of hands split from this hand
+    private double net = 0;
+
+    //build the packed value of every card and the tables of every state
+    static {
+        for(int code = 0; code < Card.NUM_CODES; code++ ) {
+            CARDS[code] = (Card.value(code) << 1) | (Card.isAce(code) ? ACE : 0);
+        }
+
+        for(int s = 0; s < NUM_STATES; s++ ) {
+
+            int hard = s >> 1;
+            boolean soft = (s & ACE) != 0 && hard + SOFT_BONUS <= BLACKJACK;
+            int best = soft ? hard + SOFT_BONUS : hard;
+
+            BEST[s] = (byte) best;
+            FLAGS[s] = (byte) ((best > BLACKJACK ? BUST : 0) | (best == BLACKJACK ? TWENTY_ONE : 0) | (soft ? SOFT : 0));
+        }
+    }
 
     /**
      * RESULT is the enum representing the different types of hand
@@ -43,7 +87,21 @@ public class Hand {
      * the result to in progress.
      */
     public Hand() {
-        hand = new ArrayList<Card>();
+        hand = new byte[MAX_CARDS];
+        setResult(RESULT.IN_PROGRESS);
+    }
+
+    /**
+     * Remove every card from the hand and set the result to in progress.
+     * No memory is allocated, the storage of the hand is reused.
+     */
+    public void reset() {
+        size = 0;
+        state = 0;
+        handValue = 0;
+        flags = 0;
+        splits = 0;
+        net = 0;
         setResult(RESULT.IN_PROGRESS);
     }
 
@@ -59,23 +117,44 @@ public class Hand {
             return;
         }
 
+        insertCode(card.getCode());
+    }
+
+    /**
+     * Insert the card with the specified code into the hand. min and max hand
+     * values will be updated the same way as {@link #insertCard(Card)}.
+     * @param code the code of the card that will be inserted into the hand
+     */
+    public void insertCode(int code) {
+
         //add the card to the hand
-        hand.add(card);
-
-        int rankValue = card.getRank().getValue(); //get the rank value
-
-        /*
-            If card is an ACE and the hand currently does not already have an
-            ACE, then treat the ACE's rank value as ACE_HIGH
-         */
-        if(card.getRank() == Card.RANK.ACE && !hasACE ) {
-            setMaxHandValue(getMaxHandValue() + card.ACE_HIGH);
-            hasACE = true;
-        } else {
-            setMaxHandValue(getMaxHandValue() + rankValue);
+        if(size == MAX_CARDS) {
+            throw new IllegalStateException("The hand already holds " + MAX_CARDS + " cards");
         }
+        hand[size++] = (byte) code;
 
-        setMinHandValue(getMinHandValue() + rankValue);
+        state = next(state, code);
+    }
+
+    /**
+     * Split a pair by moving the second card into the specified empty hand. Both
+     * hands are flagged {@link #SPLIT}, and {@link #SPLIT_ACES} for a pair of aces.
+     * @param other the empty hand that receives the second card
+     */
+    public void split(Hand other) {
+
+        if(size != 2 || other.size != 0) {
+            throw new IllegalStateException("Only a hand of two cards can be split into an empty hand");
+        }
+
+        int code = hand[--size];
+        state = next(0, hand[0]);
+        other.insertCode(code);
+
+        int split = Card.isAce(code) ? SPLIT | SPLIT_ACES : SPLIT;
+        flags |= split;
+        other.flags |= split;
+        splits++;
     }
 
     /**
@@ -83,29 +162,44 @@ public class Hand {
      * the min hand value and max hand value.
      */
     public void setOptimalHandValue() {
-        setHandValue(getOptimalHandValue(minHandValue, maxHandValue));
+        setHandValue(best(state));
     }
 
     /**
-     * Calculate which hand value is optimal for blackjack and set that value
-     * as the hand value.
-     * @param minHandValue the min value of the hand
-     * @param maxHandValue the max value of the hand
-     * @return the hand value that is optimal for a game of blackjack
+     * Add a card to a packed hand state. The value of the card is added to the
+     * hard total and the ACE bit is set if the card is an ACE.
+     * @param state the packed state of the hand, see {@link #getState()}
+     * @param code the code of the card
+     * @return the packed state of the hand with the card
      */
-    private int getOptimalHandValue(int minHandValue, int maxHandValue) {
+    public static int next(int state, int code) {
+        int card = CARDS[code];
+        return (state + (card & ~ACE)) | (card & ACE);
+    }
 
-        //if min value is a BUST then max value must be a bust
-        if(minHandValue > Hand.BLACKJACK ) {
-            return minHandValue;
-        }
-        //if maxValue is BUST then always use min value
-        else if( (Hand.BLACKJACK - maxHandValue) < 0 ) {
-            return minHandValue;
-        }
+    /**
+     * @param state the packed state of a hand, see {@link #getState()}
+     * @return the optimal total of the hand, an ACE counts high when it does not bust
+     */
+    public static int best(int state) { return BEST[state] & 0xFF; }
 
-        return maxHandValue;  //always use max value in all other cases
-    }
+    /**
+     * @param state the packed state of a hand, see {@link #getState()}
+     * @return true if the optimal total is greater than blackjack
+     */
+    public static boolean bust(int state) { return (FLAGS[state] & BUST) != 0; }
+
+    /**
+     * @param state the packed state of a hand, see {@link #getState()}
+     * @return true if the optimal total is blackjack
+     */
+    public static boolean twentyOne(int state) { return (FLAGS[state] & TWENTY_ONE) != 0; }
+
+    /**
+     * @param state the packed state of a hand, see {@link #getState()}
+     * @return true if an ACE counts high in the optimal total
+     */
+    public static boolean soft(int state) { return (FLAGS[state] & SOFT) != 0; }
 
     /**
      * Check if the value is blackjack.
@@ -138,6 +232,9 @@ public class Hand {
      */
     public String currentHandStateTotal() {
 
+        int minHandValue = getMinHandValue();
+        int maxHandValue = getMaxHandValue();
+
         if( (minHandValue != maxHandValue) && (minHandValue < BLACKJACK) && (maxHandValue < BLACKJACK) ) {
             return minHandValue + "/" + maxHandValue;
         }
@@ -154,8 +251,8 @@ public class Hand {
         StringBuilder sb = new StringBuilder();
         String delimiter = "";
 
-        for(int i = 0; i < hand.size(); i++ ) {
-            sb.append(delimiter + hand.get(i).toString() );
+        for(int i = 0; i < size; i++ ) {
+            sb.append(delimiter).append(Card.toString(hand[i]));
             delimiter = ",";
         }
 
@@ -172,9 +269,9 @@ public class Hand {
         String delimiter = "";
         boolean hidden = false;
 
-        for(int i = 0; i < hand.size(); i++ ) {
+        for(int i = 0; i < size; i++ ) {
             if(!hidden) {
-                sb.append(delimiter + hand.get(i).toString());
+                sb.append(delimiter).append(Card.toString(hand[i]));
                 hidden = true;
             } else {
                 sb.append(delimiter + "XX");  //display card as XX
@@ -197,26 +294,75 @@ public class Hand {
     private void setHandValue(int handValue) { this.handValue = handValue; }
 
     /**
-     * @return the min hand value
+     * @return the min hand value, every ACE counts as 1
      */
-    public int getMinHandValue() { return minHandValue; }
+    public int getMinHandValue() { return state >> 1; }
 
     /**
      * Set the min hand value
-     * @param minHandValue the value that will be set
+     * @param minHandValue the value that will be set, at most 255
      */
-    public void setMinHandValue(int minHandValue) { this.minHandValue = minHandValue;}
+    public void setMinHandValue(int minHandValue) {
+        if(minHandValue < 0 || minHandValue >= NUM_STATES >> 1) {
+            throw new IllegalArgumentException("minHandValue must be between 0 and " + ((NUM_STATES >> 1) - 1));
+        }
+        state = (minHandValue << 1) | (state & ACE);
+    }
 
     /**
-     * @return the max hand value
+     * @return the max hand value, the first ACE counts as 11
      */
-    public int getMaxHandValue() { return maxHandValue; }
+    public int getMaxHandValue() { return (state >> 1) + SOFT_BONUS * (state & ACE); }
 
     /**
-     * Set the max hand value
+     * Set the max hand value. The max hand value is either the min hand value or,
+     * when the hand holds an ACE, the min hand value plus 10.
      * @param maxHandValue the value that will be set
      */
-    public void setMaxHandValue(int maxHandValue) { this.maxHandValue = maxHandValue;}
+    public void setMaxHandValue(int maxHandValue) {
+        state = (state & ~ACE) | (maxHandValue > getMinHandValue() ? ACE : 0);
+    }
+
+    /**
+     * @return the packed state of the hand, the hard total shifted left by one
+     * with the lowest bit set when the hand holds an ACE
+     */
+    public int getState() { return state; }
+
+    /**
+     * @return the optimal total of the hand, see {@link #best(int)}
+     */
+    public int getBestTotal() { return BEST[state] & 0xFF; }
+
+    /**
+     * @return true if the optimal total of the hand is greater than blackjack
+     */
+    public boolean isBust() { return (FLAGS[state] & BUST) != 0; }
+
+    /**
+     * @return true if the optimal total of the hand is blackjack
+     */
+    public boolean isTwentyOne() { return (FLAGS[state] & TWENTY_ONE) != 0; }
+
+    /**
+     * @return true if an ACE counts high in the optimal total of the hand
+     */
+    public boolean isSoft() { return (FLAGS[state] & SOFT) != 0; }
+
+    /**
+     * @return true if the hand holds two cards of the same value
+     */
+    public boolean isPair() { return size == 2 && Card.value(hand[0]) == Card.value(hand[1]); }
+
+    /**
+     * @return true if the hand is 21 on its first two cards and was not split from a pair
+     */
+    public boolean isNatural() { return size == 2 && (FLAGS[state] & TWENTY_ONE) != 0 && (flags & SPLIT) == 0; }
+
+    /**
+     * @return true if the hand holds an ACE
+     */
+    public boolean hasAce() { return (state & ACE) != 0; }
 
     /**
      * Set the result of the hand
@@ -229,9 +375,54 @@ public class Hand {
      */
     public RESULT getResult() { return result; }
 
+    /**
+     * @return the flags of the hand, see {@link #DOUBLED}, {@link #SURRENDERED}, {@link #SPLIT},
+     * {@link #SPLIT_ACES} and {@link #INSURED}
+     */
+    public int getFlags() { return flags; }
+
+    /**
+     * Add flags to the hand
+     * @param flags the flags that will be added
+     */
+    public void addFlags(int flags) { this.flags |= flags; }
+
+    /**
+     * @return the number of hands that were split from this hand
+     */
+    public int getSplits() { return splits; }
+
+    /**
+     * @return the net result of the hand in bets, set when the result is computed
+     */
+    public double getNet() { return net; }
+
+    /**
+     * Set the net result of the hand
+     * @param net the net result in bets
+     */
+    public void setNet(double net) { this.net = net; }
+
+    /**
+     * @param index the position of the card in the hand
+     * @return the card at the specified position
+     */
+    public Card getCard(int index) { return Card.valueOf(getCode(index)); }
+
+    /**
+     * @param index the position of the card in the hand
+     * @return the code of the card at the specified position
+     */
+    public int getCode(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return hand[index];
+    }
+
     /**
      * @return the size of the hand
      */
-    public int getSize() { return hand.size(); }
+    public int getSize() { return size; }
 
 }
@@ -1,6 +1,7 @@
 package com.nc.blackjack;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -8,6 +9,9 @@ import java.util.List;
  * Player represents a single player in a {@link Game}
  * A player will contain a {@link #username}, a {@link TYPE}, and a list
  * of {@link Hand} to represent all the hands the player is holding.
+ * <br>
+ * Hands are reused across rounds. Every hand a player has held stays in a slot
+ * and is reset in place by {@link #resetHands()}.
  *
  * @author Patrick Sharkey
  * @version 1.0
@@ -19,7 +23,9 @@ public class Player {
     public static final String DEFAULT_USER = "Default";
     public static final String DEALER_USER = "Dealer";
 
-    private List<Hand> hands;
+    private List<Hand> hands;  //hands in play
+    private Hand[] slots;  //every hand the player has held
+    private int numSlots;
     private String username;
     private TYPE type;
 
@@ -44,7 +50,31 @@ public class Player {
 
         //create empty hand for initialization
         hands = new ArrayList<Hand>();
-        insertHand(new Hand());
+        slots = new Hand[1];
+        addHand();
+    }
+
+    /**
+     * Add an empty hand to the hands in play. The hand of a free slot is
+     * reused, a new hand is only created when every slot is in play.
+     * @return the hand that was added
+     */
+    public Hand addHand() {
+
+        int index = hands.size();
+
+        //create a hand for the slot the first time it is used
+        if(index == numSlots) {
+            if(numSlots == slots.length) {
+                slots = Arrays.copyOf(slots, numSlots * 2);
+            }
+            slots[numSlots++] = new Hand();
+        }
+
+        Hand hand = slots[index];
+        hand.reset();
+        insertHand(hand);
+        return hand;
     }
 
     /**
@@ -73,11 +103,12 @@ public class Player {
 
     /**
      * Reset and clear all of the hands of a player. Player will
-     * be left with a single empty hand.
+     * be left with a single empty hand. No memory is allocated, the
+     * hands are reused.
      */
     public void resetHands() {
         hands.clear();
-        insertHand(new Hand());
+        addHand();
     }
 
     /**
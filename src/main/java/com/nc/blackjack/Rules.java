@@ -0,0 +1,388 @@
+package com.nc.blackjack;
+
+import com.nc.blackjack.Hand.RESULT;
+import com.nc.blackjack.Strategy.DECISION;
+
+/**
+ * <h1>Rules</h1>
+ * Rules is the rule variant a {@link Game} is played with: whether the dealer
+ * hits a soft 17, whether a natural blackjack is paid a bonus, which hands may
+ * double, how many hands a player may split into, and whether surrender and
+ * insurance are offered.
+ * <br>
+ * The options are compiled into tables every time one is set: the dealer decision
+ * of every hand state, the decisions allowed in every situation of a player hand
+ * (see {@link #getAllowed(int)}), the upcards that offer insurance or that the
+ * dealer peeks under, and the net result of every outcome. A game only reads the
+ * tables while a round is played, so every rule variant runs the same loop.
+ * <br>
+ * A new Rules is the original game: the dealer stands on all 17s, a hand may only
+ * hit or stand and every hand is paid even money.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class Rules {
+
+    //variable declarations
+    public static final int MAX_HANDS = 4;  //most hands a player may split into
+    public static final double SURRENDER_NET = -0.5;  //a surrendered hand loses half the bet
+    public static final double INSURANCE_WIN = 1;  //insurance costs half the bet and pays 2 to 1
+    public static final double INSURANCE_LOSS = -0.5;
+
+    //bits of the situation of a player hand
+    public static final int TWO_CARDS = 1;  //the hand holds two cards
+    public static final int PAIR = 2;  //the two cards have the same value
+    public static final int SPLIT_HAND = Hand.SPLIT;  //the hand was split from a pair
+    public static final int SPLIT_ACES = Hand.SPLIT_ACES;  //the hand was split from a pair of aces
+    public static final int HANDS_FULL = 16;  //the player holds the most hands allowed
+    public static final int NUM_SITUATIONS = 32;
+
+    private static final int NATURAL = 4;  //net index bit of a natural, above Hand.DOUBLED and Hand.SURRENDERED
+    private static final int NET_FLAGS = Hand.DOUBLED | Hand.SURRENDERED;
+    private boolean hitSoft17;
+    private boolean naturals;
+    private double blackjackPayout;
+    private boolean doubleDown;
+    private boolean doubleAfterSplit;
+    private int maxHands;
+    private boolean resplitAces;
+    private boolean hitSplitAces;
+    private boolean surrender;
+    private boolean insurance;
+
+    //tables compiled from the options
+    private final boolean[] dealerHit = new boolean[Hand.NUM_STATES];
+    private final byte[] allowed = new byte[NUM_SITUATIONS];
+    private final boolean[] peek = new boolean[Card.NUM_CODES];
+    private final boolean[] offerInsurance = new boolean[Card.NUM_CODES];
+    private final RESULT[] naturalResults = new RESULT[4];  //indexed by player natural * 2 + dealer natural
+    private final double[] nets = new double[RESULT.values().length * 8];
+
+    /**
+     * Constructor - constructs the rules of the original game
+     */
+    public Rules() {
+        blackjackPayout = 1;
+        maxHands = 1;
+        compile();
+    }
+
+    /**
+     * Constructor - constructs a copy of the specified rules
+     * @param other the rules to copy
+     */
+    public Rules(Rules other) {
+        hitSoft17 = other.hitSoft17;
+        naturals = other.naturals;
+        blackjackPayout = other.blackjackPayout;
+        doubleDown = other.doubleDown;
+        doubleAfterSplit = other.doubleAfterSplit;
+        maxHands = other.maxHands;
+        resplitAces = other.resplitAces;
+        hitSplitAces = other.hitSplitAces;
+        surrender = other.surrender;
+        insurance = other.insurance;
+        compile();
+    }
+
+    /**
+     * @return the rules of a typical shoe game: the dealer stands on soft 17 and peeks
+     * for blackjack, blackjack pays 3 to 2, any two cards may double, also after a split,
+     * pairs split up to 4 hands, split aces take one card each and are not resplit,
+     * late surrender and insurance are offered
+     */
+    public static Rules casino() {
+
+        Rules rules = new Rules();
+        rules.setNaturals(true);
+        rules.setBlackjackPayout(1.5);
+        rules.setDoubleDown(true);
+        rules.setDoubleAfterSplit(true);
+        rules.setMaxHands(MAX_HANDS);
+        rules.setSurrender(true);
+        rules.setInsurance(true);
+        return rules;
+    }
+
+    /**
+     * Build every table from the options
+     */
+    private void compile() {
+
+        //the dealer hits below 17 and on a soft 17 when the rules say so
+        for(int s = 0; s < Hand.NUM_STATES; s++ ) {
+            int best = Hand.best(s);
+            dealerHit[s] = best < Hand.DEALER_STAND || (hitSoft17 && best == Hand.DEALER_STAND && Hand.soft(s));
+        }
+
+        //loop through every situation of a player hand
+        for(int s = 0; s < NUM_SITUATIONS; s++ ) {
+
+            boolean two = (s & TWO_CARDS) != 0;
+            boolean split = (s & SPLIT_HAND) != 0;
+            boolean aces = (s & SPLIT_ACES) != 0;
+            boolean draw = !aces || hitSplitAces;  //split aces may not take more cards
+
+            int mask = Strategy.bit(DECISION.STAND);
+            if(draw) {
+                mask |= Strategy.bit(DECISION.HIT);
+            }
+            if(two && draw && doubleDown && (!split || doubleAfterSplit)) {
+                mask |= Strategy.bit(DECISION.DOUBLE);
+            }
+            if(two && (s & PAIR) != 0 && (s & HANDS_FULL) == 0 && maxHands > 1 && (!aces || resplitAces)) {
+                mask |= Strategy.bit(DECISION.SPLIT);
+            }
+            if(two && !split && surrender) {
+                mask |= Strategy.bit(DECISION.SURRENDER);
+            }
+            allowed[s] = (byte) mask;
+        }
+
+        //the dealer peeks under an ACE or a ten when naturals end the round
+        for(int code = 0; code < Card.NUM_CODES; code++ ) {
+            boolean ace = Card.isAce(code);
+            peek[code] = naturals && (ace || Card.value(code) == 10);
+            offerInsurance[code] = insurance && ace;
+        }
+
+        //two naturals always tie, a single natural only counts when naturals are played
+        naturalResults[0] = null;
+        naturalResults[1] = naturals ? RESULT.LOSS : null;
+        naturalResults[2] = naturals ? RESULT.WIN : null;
+        naturalResults[3] = RESULT.TIE;
+
+        //loop through every result with every combination of doubled, surrendered and natural
+        for(RESULT result : RESULT.values()) {
+            for(int f = 0; f < 8; f++ ) {
+
+                double bet = (f & Hand.DOUBLED) != 0 ? 2 : 1;
+                double net;
+                if((f & Hand.SURRENDERED) != 0) {
+                    net = SURRENDER_NET;
+                } else if(result == RESULT.WIN) {
+                    net = (f & NATURAL) != 0 && naturals ? blackjackPayout : bet;
+                } else if(result == RESULT.LOSS) {
+                    net = -bet;
+                } else {
+                    net = 0;
+                }
+                nets[(result.ordinal() << 3) | f] = net;
+            }
+        }
+    }
+
+    /**
+     * @param state the packed state of the dealer hand, see {@link Hand#getState()}
+     * @return true if the dealer must hit the hand
+     */
+    public boolean isDealerHit(int state) { return dealerHit[state]; }
+
+    /**
+     * @param situation the bits {@link #TWO_CARDS}, {@link #PAIR}, {@link #SPLIT_HAND},
+     *                  {@link #SPLIT_ACES} and {@link #HANDS_FULL} that describe a player hand
+     * @return the mask of the decisions allowed on the hand, see {@link Strategy#bit(DECISION)}
+     */
+    public int getAllowed(int situation) { return allowed[situation]; }
+
+    /**
+     * @param upcardCode the code of the dealer upcard
+     * @return true if the dealer checks for a natural before the players play
+     */
+    public boolean isPeek(int upcardCode) { return peek[upcardCode]; }
+
+    /**
+     * @param upcardCode the code of the dealer upcard
+     * @return true if insurance is offered to the players
+     */
+    public boolean isInsurance(int upcardCode) { return offerInsurance[upcardCode]; }
+
+    /**
+     * @param playerNatural true if the player hand is a natural, see {@link Hand#isNatural()}
+     * @param dealerNatural true if the dealer hand is a natural
+     * @return the result decided by the naturals, null if the totals must be compared
+     */
+    public RESULT getNaturalResult(boolean playerNatural, boolean dealerNatural) {
+        return naturalResults[(playerNatural ? 2 : 0) | (dealerNatural ? 1 : 0)];
+    }
+
+    /**
+     * @param result the result of a player hand
+     * @param flags the flags of the hand, see {@link Hand#getFlags()}
+     * @param natural true if the hand is a natural
+     * @return the net result of the hand in bets, without insurance
+     */
+    public double getNet(RESULT result, int flags, boolean natural) {
+        return nets[(result.ordinal() << 3) | (flags & NET_FLAGS) | (natural ? NATURAL : 0)];
+    }
+
+    /**
+     * @param dealerNatural true if the dealer hand is a natural
+     * @return the net result of an insurance bet in bets
+     */
+    public double getInsuranceNet(boolean dealerNatural) { return dealerNatural ? INSURANCE_WIN : INSURANCE_LOSS; }
+
+    /**
+     * @return a string representation of the rules
+     */
+    public String toString() {
+        return (hitSoft17 ? "H17" : "S17") + " Blackjack[" + (naturals ? blackjackPayout : "even") + "]"
+                + " Double[" + (doubleDown ? (doubleAfterSplit ? "DAS" : "NDAS") : "none") + "]"
+                + " Hands[" + maxHands + "]" + (resplitAces ? " RSA" : "") + (hitSplitAces ? " HSA" : "")
+                + (surrender ? " LS" : "") + (insurance ? " Insurance" : "");
+    }
+
+    /**
+     * @return true if the dealer hits a soft 17
+     */
+    public boolean isHitSoft17() { return hitSoft17; }
+
+    /**
+     * Set whether the dealer hits a soft 17
+     * @param hitSoft17 true for H17, false for S17
+     */
+    public void setHitSoft17(boolean hitSoft17) {
+        this.hitSoft17 = hitSoft17;
+        compile();
+    }
+
+    /**
+     * @return true if a natural beats every other hand and is paid the blackjack payout
+     */
+    public boolean isNaturals() { return naturals; }
+
+    /**
+     * Set whether naturals are played. A natural is 21 on the first two cards of a hand
+     * that was not split. When naturals are played a natural beats every other 21, is paid
+     * the blackjack payout, and the dealer peeks for a natural under an ACE or a ten. Otherwise
+     * only two naturals are special, they tie.
+     * @param naturals true if naturals are played
+     */
+    public void setNaturals(boolean naturals) {
+        this.naturals = naturals;
+        compile();
+    }
+
+    /**
+     * @return the payout of a natural in bets
+     */
+    public double getBlackjackPayout() { return blackjackPayout; }
+
+    /**
+     * Set the payout of a natural, 1.5 for 3 to 2 or 1.2 for 6 to 5
+     * @param blackjackPayout the payout in bets
+     */
+    public void setBlackjackPayout(double blackjackPayout) {
+
+        if(!(blackjackPayout > 0)) {
+            throw new IllegalArgumentException("blackjackPayout must be greater than 0");
+        }
+        this.blackjackPayout = blackjackPayout;
+        compile();
+    }
+
+    /**
+     * @return true if any two cards may double
+     */
+    public boolean isDoubleDown() { return doubleDown; }
+
+    /**
+     * Set whether any two cards may double. A doubled hand takes one card and stands.
+     * @param doubleDown true if any two cards may double
+     */
+    public void setDoubleDown(boolean doubleDown) {
+        this.doubleDown = doubleDown;
+        compile();
+    }
+
+    /**
+     * @return true if a hand split from a pair may double
+     */
+    public boolean isDoubleAfterSplit() { return doubleAfterSplit; }
+
+    /**
+     * Set whether a hand split from a pair may double
+     * @param doubleAfterSplit true if a split hand may double
+     */
+    public void setDoubleAfterSplit(boolean doubleAfterSplit) {
+        this.doubleAfterSplit = doubleAfterSplit;
+        compile();
+    }
+
+    /**
+     * @return the most hands a player may hold, 1 if pairs may not be split
+     */
+    public int getMaxHands() { return maxHands; }
+
+    /**
+     * Set the most hands a player may hold. 2 allows a single split, more allow resplits.
+     * @param maxHands the most hands, from 1 to {@link #MAX_HANDS}
+     */
+    public void setMaxHands(int maxHands) {
+
+        if(maxHands < 1 || maxHands > MAX_HANDS) {
+            throw new IllegalArgumentException("maxHands must be between 1 and " + MAX_HANDS);
+        }
+        this.maxHands = maxHands;
+        compile();
+    }
+
+    /**
+     * @return true if a hand split from aces may be split again
+     */
+    public boolean isResplitAces() { return resplitAces; }
+
+    /**
+     * Set whether a hand split from aces may be split again
+     * @param resplitAces true if aces may be resplit
+     */
+    public void setResplitAces(boolean resplitAces) {
+        this.resplitAces = resplitAces;
+        compile();
+    }
+
+    /**
+     * @return true if a hand split from aces may take more than one card
+     */
+    public boolean isHitSplitAces() { return hitSplitAces; }
+
+    /**
+     * Set whether a hand split from aces may take more than one card
+     * @param hitSplitAces true if split aces are played like any other hand
+     */
+    public void setHitSplitAces(boolean hitSplitAces) {
+        this.hitSplitAces = hitSplitAces;
+        compile();
+    }
+
+    /**
+     * @return true if late surrender is offered
+     */
+    public boolean isSurrender() { return surrender; }
+
+    /**
+     * Set whether a player may surrender the first two cards of a hand for half the bet.
+     * Surrender is late, it is offered after the dealer has checked for a natural.
+     * @param surrender true if late surrender is offered
+     */
+    public void setSurrender(boolean surrender) {
+        this.surrender = surrender;
+        compile();
+    }
+
+    /**
+     * @return true if insurance is offered when the dealer shows an ACE
+     */
+    public boolean isInsurance() { return insurance; }
+
+    /**
+     * Set whether insurance is offered when the dealer shows an ACE. Insurance costs half
+     * the bet of the first hand and pays 2 to 1 if the dealer has a natural.
+     * @param insurance true if insurance is offered
+     */
+    public void setInsurance(boolean insurance) {
+        this.insurance = insurance;
+        compile();
+    }
+}
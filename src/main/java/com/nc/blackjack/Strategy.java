@@ -0,0 +1,84 @@
+package com.nc.blackjack;
+
+/**
+ * <h1>Strategy</h1>
+ * Strategy is the source of player decisions. A {@link Game} asks the
+ * strategy whether a hand should hit or stand, which allows a game to be
+ * played by a person at the console or by a program.
+ * <br>
+ * The {@link Rules} of a game decide which decisions are allowed on a hand. They
+ * are passed as a mask with one {@link #bit(DECISION)} per allowed decision.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public interface Strategy {
+
+    /**
+     * DECISION is the enum representing the decisions a player can make
+     * on a hand.
+     * <ul>
+     * <li>{@link #HIT}</li>
+     * <li>{@link #STAND}</li>
+     * <li>{@link #DOUBLE}</li>
+     * <li>{@link #SPLIT}</li>
+     * <li>{@link #SURRENDER}</li>
+     * </ul>
+     */
+    enum DECISION { HIT, STAND, DOUBLE, SPLIT, SURRENDER }
+
+    /**
+     * The mask of a hand that may only hit or stand
+     */
+    int HIT_STAND = (1 << 0) | (1 << 1);
+
+    /**
+     * Decide the next action for the specified hand.
+     * @param player the player who owns the hand
+     * @param hand the hand that is currently being played
+     * @param dealerUpcard the dealer card that is face up
+     * @return the decision for the hand
+     */
+    DECISION decide(Player player, Hand hand, Card dealerUpcard);
+
+    /**
+     * Decide the next action for the specified hand from the allowed decisions. A
+     * strategy that only implements {@link #decide(Player, Hand, Card)} stands when
+     * its decision is not allowed.
+     * @param player the player who owns the hand
+     * @param hand the hand that is currently being played
+     * @param dealerUpcard the dealer card that is face up
+     * @param allowed the mask of the allowed decisions, see {@link #bit(DECISION)}
+     * @return the decision for the hand, one of the allowed decisions
+     */
+    default DECISION decide(Player player, Hand hand, Card dealerUpcard, int allowed) {
+
+        DECISION decision = decide(player, hand, dealerUpcard);
+        return isAllowed(allowed, decision) ? decision : DECISION.STAND;
+    }
+
+    /**
+     * Decide whether to take insurance when the dealer shows an ACE. Insurance
+     * is declined unless a strategy overrides this method.
+     * @param player the player who owns the hand
+     * @param hand the first hand of the player
+     * @param dealerUpcard the dealer card that is face up
+     * @return true to take insurance
+     */
+    default boolean takeInsurance(Player player, Hand hand, Card dealerUpcard) {
+        return false;
+    }
+
+    /**
+     * @param decision a decision
+     * @return the bit of the decision in a mask of allowed decisions
+     */
+    static int bit(DECISION decision) { return 1 << decision.ordinal(); }
+
+    /**
+     * @param allowed the mask of the allowed decisions
+     * @param decision a decision
+     * @return true if the decision is in the mask
+     */
+    static boolean isAllowed(int allowed, DECISION decision) { return (allowed & bit(decision)) != 0; }
+}
@@ -0,0 +1,345 @@
+package com.nc.blackjack;
+
+import java.util.Arrays;
+
+/**
+ * <h1>TableStrategy</h1>
+ * TableStrategy is a {@link Strategy} that looks up every decision in a flat
+ * table indexed by the player total, whether the total is soft, and the value
+ * of the dealer upcard. A decision is a single array read.
+ * <br>
+ * Rows are written as chart strings of ten letters, H for {@link DECISION#HIT}
+ * and S for {@link DECISION#STAND}, for the dealer upcards 2 to 10 and then A.
+ * D is {@link DECISION#DOUBLE} or a hit when the hand may not double, d is a double
+ * or a stand. Every entry holds the decision and the decision to fall back to.
+ * <br>
+ * Pairs and surrender have tables of their own, see {@link #setPairRow(int, String)}
+ * and {@link #setSurrenderRow(int, String)}. They are only read when the rules of
+ * the game allow the hand to split or surrender.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableStrategy implements Strategy {
+
+    //variable declarations
+    public static final String UPCARDS = "23456789TA";  //chart column order
+    public static final int NUM_UPCARDS = 10;
+    private static final int ROW_TOTALS = Hand.BLACKJACK + 1;  //totals 0 to 21
+    private static final int PAIR_VALUES = 11;  //pair values 1 to 10
+    private static final int FALLBACK = 4;  //shift of the fallback decision in an entry
+    private static final int DECISION_MASK = (1 << FALLBACK) - 1;
+    private static final String LETTERS = "HSD";  //chart letter of every decision of the total table
+    private static final DECISION[] DECISIONS = DECISION.values();
+    private final byte[] table;
+    private final boolean[] pairs;  //split the pair, indexed by pair value and upcard
+    private final boolean[] surrender;  //surrender the hard total, indexed by total and upcard
+
+    /**
+     * Constructor - constructs a table that stands on every hand
+     */
+    public TableStrategy() {
+        table = new byte[2 * ROW_TOTALS * NUM_UPCARDS];
+        pairs = new boolean[PAIR_VALUES * NUM_UPCARDS];
+        surrender = new boolean[ROW_TOTALS * NUM_UPCARDS];
+        Arrays.fill(table, entry(DECISION.STAND, DECISION.STAND));
+    }
+
+    /**
+     * Constructor - constructs a copy of the specified table
+     * @param other the table to copy
+     */
+    public TableStrategy(TableStrategy other) {
+        table = other.table.clone();
+        pairs = other.pairs.clone();
+        surrender = other.surrender.clone();
+    }
+
+    /**
+     * Look up the decision for the hand in the table. The hand is soft when it
+     * holds an ACE that can count as {@link Card#ACE_HIGH} without busting.
+     * @param player the player who owns the hand
+     * @param hand the hand that is currently being played, must not be bust
+     * @param dealerUpcard the dealer card that is face up
+     * @return the decision for the hand
+     */
+    @Override
+    public DECISION decide(Player player, Hand hand, Card dealerUpcard) {
+        return decide(player, hand, dealerUpcard, HIT_STAND);
+    }
+
+    /**
+     * Look up the decision for the hand in the tables. A pair is split and a hand
+     * surrendered when that is allowed and the table says so, otherwise the decision
+     * of the total is used, or its fallback when the decision is not allowed.
+     * @param player the player who owns the hand
+     * @param hand the hand that is currently being played, must not be bust
+     * @param dealerUpcard the dealer card that is face up
+     * @param allowed the mask of the allowed decisions
+     * @return the decision for the hand
+     */
+    @Override
+    public DECISION decide(Player player, Hand hand, Card dealerUpcard, int allowed) {
+
+        int upcardValue = Card.value(dealerUpcard.getCode());
+        int total = hand.getBestTotal();
+        boolean soft = hand.isSoft();
+
+        if(Strategy.isAllowed(allowed, DECISION.SPLIT) && hand.isPair() && pairs[pairIndex(Card.value(hand.getCode(0)), upcardValue)]) {
+            return DECISION.SPLIT;
+        }
+        if(Strategy.isAllowed(allowed, DECISION.SURRENDER) && !soft && surrender[index(total, false, upcardValue)]) {
+            return DECISION.SURRENDER;
+        }
+
+        int entry = table[index(total, soft, upcardValue)];
+        DECISION decision = DECISIONS[entry & DECISION_MASK];
+        if(Strategy.isAllowed(allowed, decision)) {
+            return decision;
+        }
+
+        decision = DECISIONS[entry >>> FALLBACK];
+        return Strategy.isAllowed(allowed, decision) ? decision : DECISION.STAND;
+    }
+
+    /**
+     * @param total the player total
+     * @param soft true if the total is soft
+     * @param upcardValue the value of the dealer upcard, an ACE is 1
+     * @return the decision in the table
+     */
+    public DECISION get(int total, boolean soft, int upcardValue) {
+        return DECISIONS[table[index(total, soft, upcardValue)] & DECISION_MASK];
+    }
+
+    /**
+     * Set a single decision in the table. A double falls back to a hit.
+     * @param total the player total
+     * @param soft true if the total is soft
+     * @param upcardValue the value of the dealer upcard, an ACE is 1
+     * @param decision the decision that will be set, HIT, STAND or DOUBLE
+     */
+    public void set(int total, boolean soft, int upcardValue, DECISION decision) {
+        set(total, soft, upcardValue, decision, decision == DECISION.DOUBLE ? DECISION.HIT : decision);
+    }
+
+    /**
+     * Set a single decision in the table with the decision used when it is not allowed
+     * @param total the player total
+     * @param soft true if the total is soft
+     * @param upcardValue the value of the dealer upcard, an ACE is 1
+     * @param decision the decision that will be set, HIT, STAND or DOUBLE
+     * @param fallback the decision when the decision is not allowed, HIT or STAND
+     */
+    public void set(int total, boolean soft, int upcardValue, DECISION decision, DECISION fallback) {
+
+        if(decision == DECISION.SPLIT || decision == DECISION.SURRENDER) {
+            throw new IllegalArgumentException(decision + " is set with setPairRow or setSurrenderRow");
+        }
+        if(fallback != DECISION.HIT && fallback != DECISION.STAND) {
+            throw new IllegalArgumentException("fallback must be HIT or STAND");
+        }
+        table[index(total, soft, upcardValue)] = entry(decision, fallback);
+    }
+
+    /**
+     * Set every decision of a row from a chart string
+     * @param total the player total of the row
+     * @param soft true if the row is for soft totals
+     * @param chart ten letters H, S, D or d for the upcards 2 to 10 and then A
+     */
+    public void setRow(int total, boolean soft, String chart) {
+
+        checkChart(chart);
+        for(int i = 0; i < NUM_UPCARDS; i++ ) {
+            char letter = chart.charAt(i);
+            set(total, soft, upcardValue(i), decision(letter), fallback(letter));
+        }
+    }
+
+    /**
+     * Set which pairs of the specified value are split
+     * @param pairValue the value of each card of the pair, an ACE is 1
+     * @param chart ten letters, P to split or - to play the total, for the upcards 2 to 10 and then A
+     */
+    public void setPairRow(int pairValue, String chart) {
+
+        checkChart(chart);
+        if(pairValue < 1 || pairValue >= PAIR_VALUES) {
+            throw new IllegalArgumentException("pairValue must be between 1 and " + (PAIR_VALUES - 1));
+        }
+        for(int i = 0; i < NUM_UPCARDS; i++ ) {
+            pairs[pairIndex(pairValue, upcardValue(i))] = flag(chart.charAt(i), 'P');
+        }
+    }
+
+    /**
+     * @param pairValue the value of each card of the pair, an ACE is 1
+     * @return the chart string of the pair row
+     */
+    public String getPairRow(int pairValue) {
+
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < NUM_UPCARDS; i++ ) {
+            sb.append(pairs[pairIndex(pairValue, upcardValue(i))] ? 'P' : '-');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Set which hands of the specified hard total are surrendered
+     * @param total the hard player total
+     * @param chart ten letters, R to surrender or - to play the total, for the upcards 2 to 10 and then A
+     */
+    public void setSurrenderRow(int total, String chart) {
+
+        checkChart(chart);
+        for(int i = 0; i < NUM_UPCARDS; i++ ) {
+            surrender[index(total, false, upcardValue(i))] = flag(chart.charAt(i), 'R');
+        }
+    }
+
+    /**
+     * @param total the hard player total
+     * @return the chart string of the surrender row
+     */
+    public String getSurrenderRow(int total) {
+
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < NUM_UPCARDS; i++ ) {
+            sb.append(surrender[index(total, false, upcardValue(i))] ? 'R' : '-');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param total the player total of the row
+     * @param soft true if the row is for soft totals
+     * @return the chart string of the row
+     */
+    public String getRow(int total, boolean soft) {
+
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < NUM_UPCARDS; i++ ) {
+            int entry = table[index(total, soft, upcardValue(i))];
+            DECISION decision = DECISIONS[entry & DECISION_MASK];
+            boolean orStand = DECISIONS[entry >>> FALLBACK] == DECISION.STAND;
+            sb.append(decision == DECISION.DOUBLE && orStand ? 'd' : LETTERS.charAt(decision.ordinal()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the chart of every hard total from 4 to 21 and every soft total from 12 to 21,
+     * followed by the pairs that are split and the totals that are surrendered
+     */
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("      " + UPCARDS);
+        for(int total = 4; total <= Hand.BLACKJACK; total++ ) {
+            sb.append(String.format("%nH%-2d   ", total)).append(getRow(total, false));
+        }
+        for(int total = 12; total <= Hand.BLACKJACK; total++ ) {
+            sb.append(String.format("%nS%-2d   ", total)).append(getRow(total, true));
+        }
+
+        //only the rows that split or surrender
+        for(int i = 0; i < NUM_UPCARDS; i++ ) {
+            String row = getPairRow(upcardValue(i));
+            if(row.indexOf('P') >= 0) {
+                sb.append(String.format("%nP%-2s   ", UPCARDS.charAt(i))).append(row);
+            }
+        }
+        for(int total = 4; total <= Hand.BLACKJACK; total++ ) {
+            String row = getSurrenderRow(total);
+            if(row.indexOf('R') >= 0) {
+                sb.append(String.format("%nR%-2d   ", total)).append(row);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param total the player total, at most 21
+     * @param soft true if the total is soft
+     * @param upcardValue the value of the dealer upcard, an ACE is 1
+     * @return the position of the decision in the table
+     */
+    private static int index(int total, boolean soft, int upcardValue) {
+        return ((soft ? ROW_TOTALS : 0) + total) * NUM_UPCARDS + upcardValue - 1;
+    }
+
+    /**
+     * @param pairValue the value of each card of the pair, an ACE is 1
+     * @param upcardValue the value of the dealer upcard, an ACE is 1
+     * @return the position of the pair in the pair table
+     */
+    private static int pairIndex(int pairValue, int upcardValue) {
+        return pairValue * NUM_UPCARDS + upcardValue - 1;
+    }
+
+    /**
+     * @param decision the decision of an entry
+     * @param fallback the decision when the decision is not allowed
+     * @return the table entry
+     */
+    private static byte entry(DECISION decision, DECISION fallback) {
+        return (byte) (decision.ordinal() | fallback.ordinal() << FALLBACK);
+    }
+
+    /**
+     * @param column the chart column
+     * @return the value of the upcard of the column
+     */
+    private static int upcardValue(int column) {
+        return column == NUM_UPCARDS - 1 ? 1 : column + 2;
+    }
+
+    /**
+     * @param letter the chart letter
+     * @return the decision of the letter
+     */
+    private static DECISION decision(char letter) {
+
+        if(letter == 'H') {
+            return DECISION.HIT;
+        }
+        else if(letter == 'S') {
+            return DECISION.STAND;
+        }
+        else if(letter == 'D' || letter == 'd') {
+            return DECISION.DOUBLE;
+        }
+        throw new IllegalArgumentException("unknown decision " + letter);
+    }
+
+    /**
+     * @param letter the chart letter
+     * @return the decision when the decision of the letter is not allowed
+     */
+    private static DECISION fallback(char letter) {
+        return letter == 'S' || letter == 'd' ? DECISION.STAND : DECISION.HIT;
+    }
+
+    /**
+     * @param letter the chart letter
+     * @param yes the letter that sets the flag
+     * @return true if the letter is the yes letter, false if it is -
+     */
+    private static boolean flag(char letter, char yes) {
+
+        if(letter != yes && letter != '-') {
+            throw new IllegalArgumentException("unknown decision " + letter);
+        }
+        return letter == yes;
+    }
+
+    /**
+     * Helper method to check the length of a chart row
+     */
+    private static void checkChart(String chart) {
+        if(chart.length() != NUM_UPCARDS) {
+            throw new IllegalArgumentException("a chart row must have " + NUM_UPCARDS + " decisions");
+        }
+    }
+}
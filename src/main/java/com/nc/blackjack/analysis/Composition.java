@@ -0,0 +1,108 @@
+package com.nc.blackjack.analysis;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
+
+/**
+ * <h1>Composition</h1>
+ * Composition contains helpers for the composition of a shoe. A composition is an
+ * int array of {@link #NUM_INDEXES} counts, one for each blackjack value: index 0
+ * counts aces, index 1 to 8 count the twos to nines and index 9 counts every card
+ * worth 10. The index of a card is its value minus one.
+ * <br>
+ * Every composition of up to {@link #MAX_DECKS} decks packs into a single long {@link #key(int[])}
+ * that calculators use to cache results. A {@link Deck} keeps the key of the cards it has
+ * not dealt, see {@link Deck#getRemaining()}.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Composition {
+
+    //variable declarations
+    public static final int NUM_INDEXES = 10;  //ace, two to nine and ten
+    public static final int ACE = 0;
+    public static final int TEN = 9;
+    public static final int MAX_DECKS = 15;  //largest shoe whose composition fits in a key
+    private static final int BITS = 6;  //bits used for the count of every index below TEN
+    private static final int MAX_COUNT = (1 << BITS) - 1;
+    private static final int MAX_TEN_COUNT = 255;
+
+    private Composition() {}
+
+    /**
+     * @param code the card code
+     * @return the composition index of the card
+     */
+    public static int index(int code) { return Card.value(code) - 1; }
+
+    /**
+     * Removing a card of an index from a composition subtracts the unit of
+     * the index from the key of the composition.
+     * @param index the composition index
+     * @return the amount the key changes by for one card of the index
+     */
+    public static long unit(int index) { return 1L << (index * BITS); }
+
+    /**
+     * @param numDecks the number of decks in the shoe
+     * @return the composition of a full shoe
+     */
+    public static int[] fullShoe(int numDecks) {
+
+        int[] counts = new int[NUM_INDEXES];
+        for(int i = 0; i < NUM_INDEXES; i++ ) {
+            counts[i] = 4 * numDecks;
+        }
+        counts[TEN] = 16 * numDecks;
+        return counts;
+    }
+
+    /**
+     * @param deck the deck to count
+     * @return the composition of the cards that have not been dealt from the deck
+     */
+    public static int[] of(Deck deck) {
+
+        return deck.getRemaining().toComposition();
+    }
+
+    /**
+     * @param counts the composition
+     * @return the total number of cards in the composition
+     */
+    public static int total(int[] counts) {
+
+        int total = 0;
+        for(int i = 0; i < NUM_INDEXES; i++ ) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Pack the composition into a single long. Two compositions have the same
+     * key only if they have the same counts.
+     * @param counts the composition
+     * @return the key of the composition
+     */
+    public static long key(int[] counts) {
+
+        if(counts.length != NUM_INDEXES) {
+            throw new IllegalArgumentException("a composition must have " + NUM_INDEXES + " counts");
+        }
+
+        long key = 0;
+        for(int i = 0; i < TEN; i++ ) {
+            if(counts[i] < 0 || counts[i] > MAX_COUNT) {
+                throw new IllegalArgumentException("count " + counts[i] + " at index " + i + " is out of range");
+            }
+            key |= (long) counts[i] << (i * BITS);
+        }
+
+        if(counts[TEN] < 0 || counts[TEN] > MAX_TEN_COUNT) {
+            throw new IllegalArgumentException("count " + counts[TEN] + " of tens is out of range");
+        }
+        return key | (long) counts[TEN] << (TEN * BITS);
+    }
+}
@@ -0,0 +1,269 @@
+package com.nc.blackjack.analysis;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+
+/**
+ * <h1>DealerProbabilities</h1>
+ * DealerProbabilities computes the exact distribution of the final total of the dealer
+ * for an upcard and the {@link Composition} of the cards left in the shoe. The hole card
+ * and every hit are drawn from the composition without replacement and the dealer
+ * follows {@link Game#isDealerHit(int, int)}.
+ * <br>
+ * The distribution is an array of {@link #NUM_OUTCOMES} probabilities, index 0 to 4
+ * are the totals 17 to 21 and index {@link #BUST} is a dealer bust. Results are cached
+ * on the dealer hand and the composition key, so repeated queries are a single map lookup.
+ * The caches are not synchronized, every thread must use its own instance.
+ * <br>
+ * During a round the dealer hole card has already been dealt from the shoe, but it is
+ * still unknown to the players. The shoe overloads take the hole card and put it back
+ * into the composition. Pass {@link #NO_HOLE_CARD} only before the hole card is dealt.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class DealerProbabilities {
+
+    //variable declarations
+    public static final int NUM_OUTCOMES = 6;
+    public static final int BUST = 5;
+    public static final int NO_HOLE_CARD = -1;  //the hole card has not been dealt from the shoe
+    private static final int MAX_TOTAL = 32;  //largest hard total a dealer can reach is 26
+    private static final double[][] FINAL = new double[NUM_OUTCOMES][NUM_OUTCOMES];  //distribution of a dealer that stands
+
+    private final boolean[] hit;  //dealer hit decision indexed by hard total and ace
+    private final LongMap<double[]>[] cache;  //distributions indexed by hard total and ace, created when first used
+
+    static {
+        for(int o = 0; o < NUM_OUTCOMES; o++ ) {
+            FINAL[o][o] = 1.0;
+        }
+    }
+
+    /**
+     * Constructor - constructs a calculator for the dealer rules of a standard game
+     */
+    public DealerProbabilities() {
+        this(new Game());
+    }
+
+    /**
+     * Constructor - constructs a calculator for the dealer rules of the specified game
+     * @param game the game that decides when the dealer hits
+     */
+    @SuppressWarnings("unchecked")
+    public DealerProbabilities(Game game) {
+
+        //ask the game once for every dealer hand it can see
+        hit = new boolean[MAX_TOTAL * 2];
+        for(int hard = 0; hard < MAX_TOTAL; hard++ ) {
+            hit[state(hard, false)] = game.isDealerHit(hard, hard);
+            hit[state(hard, true)] = game.isDealerHit(hard, hard + Card.ACE_HIGH - 1);
+        }
+
+        cache = (LongMap<double[]>[]) new LongMap<?>[MAX_TOTAL * 2];
+    }
+
+    /**
+     * Compute the distribution of the final total of the dealer.
+     * @param upcard the code of the dealer card that is face up
+     * @param counts the composition of the cards left in the shoe, without the upcard
+     * @return a new array with the probability of every outcome
+     */
+    public double[] distribution(int upcard, int[] counts) {
+        return lookup(Composition.index(upcard), counts).clone();
+    }
+
+    /**
+     * Compute the probability of a single outcome.
+     * @param upcard the code of the dealer card that is face up
+     * @param counts the composition of the cards left in the shoe, without the upcard
+     * @param outcome the index of the outcome
+     * @return the probability of the outcome
+     */
+    public double probability(int upcard, int[] counts, int outcome) {
+        return lookup(Composition.index(upcard), counts)[outcome];
+    }
+
+    /**
+     * Compute the distribution of the final total of the dealer for the cards left in
+     * a shoe. The cache is searched with the key kept by the shoe, nothing is copied
+     * unless the distribution has to be computed.
+     * @param upcard the code of the dealer card that is face up
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link #NO_HOLE_CARD}
+     * @param shoe the cards left in the shoe, without the upcard
+     * @return a new array with the probability of every outcome
+     */
+    public double[] distribution(int upcard, int holeCard, Deck.Remaining shoe) {
+        return lookup(Composition.index(upcard), holeCard, shoe).clone();
+    }
+
+    /**
+     * Compute the probability of a single outcome for the cards left in a shoe.
+     * @param upcard the code of the dealer card that is face up
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link #NO_HOLE_CARD}
+     * @param shoe the cards left in the shoe, without the upcard
+     * @param outcome the index of the outcome
+     * @return the probability of the outcome
+     */
+    public double probability(int upcard, int holeCard, Deck.Remaining shoe, int outcome) {
+        return lookup(Composition.index(upcard), holeCard, shoe)[outcome];
+    }
+
+    /**
+     * Find the cached distribution or compute and cache it. The returned
+     * array is shared and must not be modified.
+     * @param upcardIndex the composition index of the upcard
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link #NO_HOLE_CARD}
+     * @param shoe the cards left in the shoe
+     * @return the distribution
+     */
+    double[] lookup(int upcardIndex, int holeCard, Deck.Remaining shoe) {
+
+        long key = key(shoe, holeCard);
+        double[] result = cache(state(upcardIndex + 1, upcardIndex == Composition.ACE)).get(key);
+        return result != null ? result : lookup(upcardIndex, key, composition(shoe, holeCard));
+    }
+
+    /**
+     * @param shoe the cards left in the shoe
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link #NO_HOLE_CARD}
+     * @return the composition key of the shoe with the hole card put back
+     */
+    static long key(Deck.Remaining shoe, int holeCard) {
+
+        long key = shoe.getKey();
+        return holeCard == NO_HOLE_CARD ? key : key + Composition.unit(Composition.index(holeCard));
+    }
+
+    /**
+     * @param shoe the cards left in the shoe
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link #NO_HOLE_CARD}
+     * @return a new composition of the shoe with the hole card put back
+     */
+    static int[] composition(Deck.Remaining shoe, int holeCard) {
+
+        int[] counts = shoe.toComposition();
+        if(holeCard != NO_HOLE_CARD) {
+            counts[Composition.index(holeCard)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Find the cached distribution or compute and cache it. The returned
+     * array is shared and must not be modified.
+     * @param upcardIndex the composition index of the upcard
+     * @param counts the composition of the cards left in the shoe
+     * @return the distribution
+     */
+    double[] lookup(int upcardIndex, int[] counts) {
+        return lookup(upcardIndex, Composition.key(counts), counts);
+    }
+
+    /**
+     * Find the cached distribution or compute and cache it. The returned
+     * array is shared and must not be modified.
+     * @param upcardIndex the composition index of the upcard
+     * @param key the key of the composition
+     * @param counts the composition of the cards left in the shoe, not modified
+     * @return the distribution
+     */
+    double[] lookup(int upcardIndex, long key, int[] counts) {
+
+        int hard = upcardIndex + 1;
+        boolean ace = upcardIndex == Composition.ACE;
+
+        double[] result = cache(state(hard, ace)).get(key);
+        if(result == null) {
+            int[] work = counts.clone();
+            result = draw(hard, ace, key, work, Composition.total(work));
+        }
+        return result;
+    }
+
+    /**
+     * Compute the distribution of a dealer hand by drawing every card still in
+     * the shoe. Every hand the dealer hits is cached on its hard total, ACE and
+     * composition, so hands reached by drawing the same cards in a different
+     * order are only computed once.
+     * @param hard the hard total of the dealer hand
+     * @param ace true if the dealer hand has an ACE
+     * @param key the key of the composition
+     * @param counts the composition of the cards left, restored before returning
+     * @param total the number of cards left
+     * @return the distribution of the hand, shared and must not be modified
+     */
+    private double[] draw(int hard, boolean ace, long key, int[] counts, int total) {
+
+        int state = state(hard, ace);
+        if(!hit[state]) {
+
+            //the dealer stands, use the optimal value of the hand
+            int value = ace && hard + Card.ACE_HIGH - 1 <= Hand.BLACKJACK ? hard + Card.ACE_HIGH - 1 : hard;
+            return value > Hand.BLACKJACK ? FINAL[BUST] : FINAL[value - Hand.DEALER_STAND];
+        }
+
+        LongMap<double[]> c = cache(state);
+        double[] result = c.get(key);
+        if(result != null) {
+            return result;
+        }
+
+        //draw every card still in the shoe
+        result = new double[NUM_OUTCOMES];
+        for(int i = 0; i < Composition.NUM_INDEXES; i++ ) {
+
+            int count = counts[i];
+            if(count == 0) {
+                continue;
+            }
+
+            counts[i]--;
+            double[] next = draw(hard + i + 1, ace || i == Composition.ACE, key - Composition.unit(i), counts, total - 1);
+            counts[i]++;
+
+            double p = (double) count / total;
+            for(int o = 0; o < NUM_OUTCOMES; o++ ) {
+                result[o] += p * next[o];
+            }
+        }
+
+        c.put(key, result);
+        return result;
+    }
+
+    /**
+     * Remove every cached distribution
+     */
+    public void clear() {
+        for(LongMap<double[]> c : cache) {
+            if(c != null) {
+                c.clear();
+            }
+        }
+    }
+
+    /**
+     * @param state the index of the dealer hand
+     * @return the cache of distributions of the dealer hand, created the first time
+     */
+    private LongMap<double[]> cache(int state) {
+
+        if(cache[state] == null) {
+            cache[state] = new LongMap<double[]>();
+        }
+        return cache[state];
+    }
+
+    /**
+     * @param hard the hard total of the dealer hand
+     * @param ace true if the dealer hand has an ACE
+     * @return the index of the hand in the hit and cache tables
+     */
+    private static int state(int hard, boolean ace) {
+        return hard * 2 + (ace ? 1 : 0);
+    }
+}
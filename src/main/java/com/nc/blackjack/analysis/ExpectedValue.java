@@ -0,0 +1,266 @@
+package com.nc.blackjack.analysis;
+
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Strategy.DECISION;
+
+/**
+ * <h1>ExpectedValue</h1>
+ * ExpectedValue computes the exact expected value of standing and of hitting a
+ * player hand for a dealer upcard and the {@link Composition} of the cards left in
+ * the shoe. Values are in bets, a win is +1, a loss is -1 and a tie is 0. Like
+ * {@link com.nc.blackjack.Game#computeHandResult(String, Hand, Hand)} the winner is
+ * decided by the final totals only, a bust always loses and every win pays even money.
+ * <br>
+ * The value of hitting assumes the player keeps making the best decision after every
+ * card. It is cached on the player hand, the upcard and the composition key, so a whole
+ * shoe of decisions shares the work of earlier ones. A cache is only created for a hand
+ * and upcard that is queried, and holds unboxed values. The caches are not synchronized,
+ * every thread must use its own instance.
+ * <br>
+ * For live advice during a round the dealer hole card has already been dealt from the
+ * shoe. The shoe overloads take it and put it back into the composition, because the
+ * player cannot see it, see {@link DealerProbabilities#NO_HOLE_CARD}.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExpectedValue {
+
+    //variable declarations
+    private static final int MAX_TOTAL = Hand.BLACKJACK + 1;  //hard totals a player can hit
+    private final DealerProbabilities dealer;
+    private final LongDoubleMap[] hitCache;  //hit values indexed by upcard, hard total and ace, created when first used
+
+    /**
+     * Constructor - constructs a calculator for the dealer rules of a standard game
+     */
+    public ExpectedValue() {
+        this(new DealerProbabilities());
+    }
+
+    /**
+     * Constructor - constructs a calculator that uses the specified dealer probabilities
+     * @param dealer the dealer probabilities, shared with other calculators
+     */
+    public ExpectedValue(DealerProbabilities dealer) {
+        this.dealer = dealer;
+        hitCache = new LongDoubleMap[Composition.NUM_INDEXES * MAX_TOTAL * 2];
+    }
+
+    /**
+     * Compute the expected value of standing.
+     * @param hand the player hand
+     * @param upcard the code of the dealer card that is face up
+     * @param counts the composition of the cards left in the shoe, without the player cards and upcard
+     * @return the expected value of standing
+     */
+    public double stand(Hand hand, int upcard, int[] counts) {
+        return stand(hand.getBestTotal(), Composition.index(upcard), Composition.key(counts), counts);
+    }
+
+    /**
+     * Compute the expected value of hitting and then playing on with the best decisions.
+     * @param hand the player hand
+     * @param upcard the code of the dealer card that is face up
+     * @param counts the composition of the cards left in the shoe, without the player cards and upcard
+     * @return the expected value of hitting
+     */
+    public double hit(Hand hand, int upcard, int[] counts) {
+
+        int hard = hand.getMinHandValue();
+        if(Hand.isBust(hard)) {
+            return -1;
+        }
+
+        int[] work = counts.clone();
+        return hit(hard, hand.hasAce(), Composition.index(upcard), Composition.key(work), work, Composition.total(work));
+    }
+
+    /**
+     * @param hand the player hand
+     * @param upcard the code of the dealer card that is face up
+     * @param counts the composition of the cards left in the shoe, without the player cards and upcard
+     * @return the decision with the higher expected value, STAND on a tie
+     */
+    public DECISION best(Hand hand, int upcard, int[] counts) {
+        return hit(hand, upcard, counts) > stand(hand, upcard, counts) ? DECISION.HIT : DECISION.STAND;
+    }
+
+    /**
+     * Compute the expected value of standing for the cards left in a shoe. The
+     * caches are searched with the key kept by the shoe, nothing is copied unless
+     * a value has to be computed.
+     * @param hand the player hand
+     * @param upcard the code of the dealer card that is face up
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link DealerProbabilities#NO_HOLE_CARD}
+     * @param shoe the cards left in the shoe
+     * @return the expected value of standing
+     */
+    public double stand(Hand hand, int upcard, int holeCard, Deck.Remaining shoe) {
+
+        int total = hand.getBestTotal();
+        if(total > Hand.BLACKJACK) {
+            return -1;
+        }
+        return stand(total, dealer.lookup(Composition.index(upcard), holeCard, shoe));
+    }
+
+    /**
+     * Compute the expected value of hitting for the cards left in a shoe.
+     * @param hand the player hand
+     * @param upcard the code of the dealer card that is face up
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link DealerProbabilities#NO_HOLE_CARD}
+     * @param shoe the cards left in the shoe
+     * @return the expected value of hitting
+     */
+    public double hit(Hand hand, int upcard, int holeCard, Deck.Remaining shoe) {
+
+        int hard = hand.getMinHandValue();
+        if(Hand.isBust(hard)) {
+            return -1;
+        }
+
+        int upcardIndex = Composition.index(upcard);
+        long key = DealerProbabilities.key(shoe, holeCard);
+        double cached = hitCache(upcardIndex, hard, hand.hasAce()).get(key);
+        if(!Double.isNaN(cached)) {
+            return cached;
+        }
+        int[] counts = DealerProbabilities.composition(shoe, holeCard);
+        return hit(hard, hand.hasAce(), upcardIndex, key, counts, Composition.total(counts));
+    }
+
+    /**
+     * @param hand the player hand
+     * @param upcard the code of the dealer card that is face up
+     * @param holeCard the code of the dealer hole card dealt from the shoe, or {@link DealerProbabilities#NO_HOLE_CARD}
+     * @param shoe the cards left in the shoe
+     * @return the decision with the higher expected value, STAND on a tie
+     */
+    public DECISION best(Hand hand, int upcard, int holeCard, Deck.Remaining shoe) {
+        return hit(hand, upcard, holeCard, shoe) > stand(hand, upcard, holeCard, shoe) ? DECISION.HIT : DECISION.STAND;
+    }
+
+    /**
+     * Remove every cached value, including the cached dealer probabilities
+     */
+    public void clear() {
+        for(LongDoubleMap c : hitCache) {
+            if(c != null) {
+                c.clear();
+            }
+        }
+        dealer.clear();
+    }
+
+    /**
+     * @param total the final player total
+     * @param upcardIndex the composition index of the upcard
+     * @param key the key of the composition
+     * @param counts the composition of the cards left, not modified
+     * @return the expected value of standing on the total
+     */
+    private double stand(int total, int upcardIndex, long key, int[] counts) {
+
+        if(total > Hand.BLACKJACK) {
+            return -1;
+        }
+
+        return stand(total, dealer.lookup(upcardIndex, key, counts));
+    }
+
+    /**
+     * @param total the final player total, not bust
+     * @param d the distribution of the final total of the dealer
+     * @return the expected value of standing on the total
+     */
+    private static double stand(int total, double[] d) {
+
+        double ev = d[DealerProbabilities.BUST];
+        for(int o = 0; o < DealerProbabilities.BUST; o++ ) {
+            int dealerTotal = Hand.DEALER_STAND + o;
+            if(total > dealerTotal) {
+                ev += d[o];
+            }
+            else if(total < dealerTotal) {
+                ev -= d[o];
+            }
+        }
+        return ev;
+    }
+
+    /**
+     * @param hard the hard total of the player hand, not bust
+     * @param ace true if the player hand has an ACE
+     * @param upcardIndex the composition index of the upcard
+     * @param key the key of the composition
+     * @param counts the composition of the cards left, restored before returning
+     * @param total the number of cards left
+     * @return the expected value of hitting
+     */
+    private double hit(int hard, boolean ace, int upcardIndex, long key, int[] counts, int total) {
+
+        LongDoubleMap cache = hitCache(upcardIndex, hard, ace);
+        double cached = cache.get(key);
+        if(!Double.isNaN(cached)) {
+            return cached;
+        }
+
+        //draw every card still in the shoe
+        double ev = 0;
+        for(int i = 0; i < Composition.NUM_INDEXES; i++ ) {
+
+            int count = counts[i];
+            if(count == 0) {
+                continue;
+            }
+
+            int nextHard = hard + i + 1;
+            boolean nextAce = ace || i == Composition.ACE;
+            long nextKey = key - Composition.unit(i);
+            double value;
+
+            counts[i]--;
+            if(Hand.isBust(nextHard)) {
+                value = -1;
+            }
+            else {
+                int nextTotal = total(nextHard, nextAce);
+                value = stand(nextTotal, upcardIndex, nextKey, counts);
+
+                //a hand showing 21 must stand
+                if(!Hand.isBlackjack(nextTotal)) {
+                    value = Math.max(value, hit(nextHard, nextAce, upcardIndex, nextKey, counts, total - 1));
+                }
+            }
+            counts[i]++;
+
+            ev += value * count / total;
+        }
+
+        cache.put(key, ev);
+        return ev;
+    }
+
+    /**
+     * @return the cache of hit values for the upcard, hard total and ace, created the first time
+     */
+    private LongDoubleMap hitCache(int upcardIndex, int hard, boolean ace) {
+
+        int i = (upcardIndex * MAX_TOTAL + hard) * 2 + (ace ? 1 : 0);
+        if(hitCache[i] == null) {
+            hitCache[i] = new LongDoubleMap();
+        }
+        return hitCache[i];
+    }
+
+    /**
+     * @param hard the hard total of the hand
+     * @param ace true if the hand has an ACE
+     * @return the optimal total of the hand
+     */
+    private static int total(int hard, boolean ace) {
+        return Hand.best((hard << 1) | (ace ? 1 : 0));
+    }
+}
@@ -0,0 +1,125 @@
+package com.nc.blackjack.analysis;
+
+import java.util.Arrays;
+
+/**
+ * <h1>LongDoubleMap</h1>
+ * LongDoubleMap is an open addressing hash map from primitive long keys to primitive
+ * double values. Keys and values are held in parallel arrays with a marker for every
+ * used slot, so a cached value is neither boxed nor wrapped in an array. This class
+ * is not safe to use from many threads.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+final class LongDoubleMap {
+
+    //variable declarations
+    private static final int INITIAL_CAPACITY = 1 << 8;
+    private long[] keys;
+    private double[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+
+    /**
+     * Constructor - constructs an empty map
+     */
+    LongDoubleMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new double[INITIAL_CAPACITY];
+        used = new boolean[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of the key, or NaN if the key is not in the map
+     */
+    double get(long key) {
+
+        int i = slot(key);
+        while(used[i]) {
+            if(keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Put the value of the key into the map, replacing any earlier value
+     * @param key the key
+     * @param value the value
+     */
+    void put(long key, double value) {
+
+        int i = slot(key);
+        while(used[i]) {
+            if(keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+
+        //keep the table at most half full
+        if(++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    /**
+     * Remove every key from the map, the capacity is kept for the next values
+     */
+    void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * @return the number of keys in the map
+     */
+    int size() { return size; }
+
+    /**
+     * Double the capacity of the table and place every key again
+     */
+    private void resize() {
+
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldValues.length * 2];
+        used = new boolean[oldUsed.length * 2];
+        mask = keys.length - 1;
+
+        for(int j = 0; j < oldKeys.length; j++ ) {
+            if(oldUsed[j]) {
+                int i = slot(oldKeys[j]);
+                while(used[i]) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+                used[i] = true;
+            }
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the first slot to look for the key
+     */
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
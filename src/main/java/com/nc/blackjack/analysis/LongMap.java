@@ -0,0 +1,119 @@
+package com.nc.blackjack.analysis;
+
+import java.util.Arrays;
+
+/**
+ * <h1>LongMap</h1>
+ * LongMap is an open addressing hash map from primitive long keys to values.
+ * Keys are not boxed, which keeps the caches of the calculators small and fast.
+ * This class is not safe to use from many threads.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+final class LongMap<V> {
+
+    //variable declarations
+    private static final int INITIAL_CAPACITY = 1 << 8;
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Constructor - constructs an empty map
+     */
+    LongMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of the key, or null if the key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+
+        int i = slot(key);
+        while(values[i] != null) {
+            if(keys[i] == key) {
+                return (V) values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Put the value of the key into the map, replacing any earlier value
+     * @param key the key
+     * @param value the value, must not be null
+     */
+    void put(long key, V value) {
+
+        int i = slot(key);
+        while(values[i] != null) {
+            if(keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+
+        //keep the table at most half full
+        if(++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    /**
+     * Remove every key from the map, the capacity is kept for the next values
+     */
+    void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @return the number of keys in the map
+     */
+    int size() { return size; }
+
+    /**
+     * Double the capacity of the table and place every key again
+     */
+    private void resize() {
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+
+        for(int j = 0; j < oldKeys.length; j++ ) {
+            if(oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while(values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * @param key the key
+     * @return the first slot to look for the key
+     */
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
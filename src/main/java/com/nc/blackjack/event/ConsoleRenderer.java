@@ -0,0 +1,92 @@
+package com.nc.blackjack.event;
+
+import java.io.PrintStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * <h1>ConsoleRenderer</h1>
+ * ConsoleRenderer renders the events of a {@link com.nc.blackjack.Game} as the
+ * text of the console game, see {@link TextRenderer}.
+ * <br>
+ * On {@link #flush()} the buffered text is handed to a writer thread that prints
+ * it, so the game never waits for the console. {@link #close()} must be called
+ * before the application exits so that all text is printed.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ConsoleRenderer extends TextRenderer {
+
+    //variable declarations
+    private static final String CLOSE = new String("");  //tells the writer thread to stop, compared by identity
+    private final BlockingQueue<String> queue;
+    private final PrintStream out;
+    private final Thread writer;
+
+    /**
+     * Constructor - constructs a renderer that prints to the specified stream
+     * @param out the stream the text is printed to
+     */
+    public ConsoleRenderer(PrintStream out) {
+
+        if(out == null) {
+            throw new IllegalArgumentException("out must not be null");
+        }
+
+        this.out = out;
+        queue = new LinkedBlockingQueue<String>();
+
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                printQueued();
+            }
+        }, "console-renderer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Print text handed over by {@link #flush()} until the renderer is closed
+     */
+    private void printQueued() {
+
+        try {
+            while(true) {
+                String text = queue.take();
+                if(text == CLOSE) {
+                    return;
+                }
+                out.print(text);
+                out.flush();
+            }
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Hand the text to the writer thread
+     * @param text the rendered text
+     */
+    @Override
+    protected void write(StringBuilder text) {
+        queue.add(text.toString());
+    }
+
+    /**
+     * Flush the buffer and wait until the writer thread has printed all text
+     */
+    public void close() {
+
+        flush();
+        queue.add(CLOSE);
+
+        try {
+            writer.join();
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
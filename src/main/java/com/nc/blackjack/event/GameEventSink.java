@@ -0,0 +1,83 @@
+package com.nc.blackjack.event;
+
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Hand.RESULT;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Strategy.DECISION;
+
+/**
+ * <h1>GameEventSink</h1>
+ * GameEventSink receives the events of a {@link com.nc.blackjack.Game} as it is
+ * played. The game never prints, it tells the sink what happened and the sink
+ * decides what to do with it, see {@link ConsoleRenderer} and {@link NoOpEventSink}.
+ * <br>
+ * Events are sent from the thread playing the game. Hands passed to a sink
+ * keep changing as the game goes on so a sink must not hold on to them.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public interface GameEventSink {
+
+    /**
+     * A card was dealt to a hand
+     * @param player the player or dealer who owns the hand
+     * @param hand the hand the card was dealt to, the card is already in the hand
+     * @param code the code of the card, see {@link com.nc.blackjack.Card#getCode()}
+     */
+    void cardDealt(Player player, Hand hand, int code);
+
+    /**
+     * A player or the dealer is about to play a hand
+     * @param player the player or dealer who owns the hand
+     * @param hand the hand that will be played
+     * @param dealerHand the hand of the dealer
+     */
+    void turn(Player player, Hand hand, Hand dealerHand);
+
+    /**
+     * A player made a decision on a hand
+     * @param player the player who owns the hand
+     * @param hand the hand the decision was made on
+     * @param decision the decision that was made
+     */
+    void decision(Player player, Hand hand, DECISION decision);
+
+    /**
+     * A player took or declined insurance. Sinks that do not show insurance can ignore it.
+     * @param player the player who was offered insurance
+     * @param hand the first hand of the player
+     * @param taken true if insurance was taken
+     */
+    default void insurance(Player player, Hand hand, boolean taken) {}
+
+    /**
+     * A hand must stand because it reached 21, because it was doubled or split from
+     * aces, or because it is the dealer hand and the dealer must stand
+     * @param player the player or dealer who owns the hand
+     * @param hand the hand with its optimal hand value set
+     */
+    void stand(Player player, Hand hand);
+
+    /**
+     * A hand went over 21
+     * @param player the player or dealer who owns the hand
+     * @param hand the hand with its optimal hand value set
+     */
+    void bust(Player player, Hand hand);
+
+    /**
+     * The result of a player hand against the dealer hand was computed
+     * @param player the player who owns the hand
+     * @param hand the hand of the player
+     * @param dealerHand the hand of the dealer
+     * @param result the result of the player hand
+     */
+    void result(Player player, Hand hand, Hand dealerHand, RESULT result);
+
+    /**
+     * The game is about to wait for a decision or has finished a step of the
+     * round. Buffered events should be made visible.
+     */
+    void flush();
+}
@@ -0,0 +1,49 @@
+package com.nc.blackjack.event;
+
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Hand.RESULT;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Strategy.DECISION;
+
+/**
+ * <h1>NoOpEventSink</h1>
+ * NoOpEventSink ignores every event. It is the sink of a new
+ * {@link com.nc.blackjack.Game} so simulations do not pay for any output.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class NoOpEventSink implements GameEventSink {
+
+    //variable declarations
+    public static final NoOpEventSink INSTANCE = new NoOpEventSink();
+
+    /**
+     * Constructor - use {@link #INSTANCE}
+     */
+    private NoOpEventSink() {}
+
+    @Override
+    public void cardDealt(Player player, Hand hand, int code) {}
+
+    @Override
+    public void turn(Player player, Hand hand, Hand dealerHand) {}
+
+    @Override
+    public void decision(Player player, Hand hand, DECISION decision) {}
+
+    @Override
+    public void insurance(Player player, Hand hand, boolean taken) {}
+
+    @Override
+    public void stand(Player player, Hand hand) {}
+
+    @Override
+    public void bust(Player player, Hand hand) {}
+
+    @Override
+    public void result(Player player, Hand hand, Hand dealerHand, RESULT result) {}
+
+    @Override
+    public void flush() {}
+}
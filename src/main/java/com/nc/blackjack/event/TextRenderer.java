@@ -0,0 +1,172 @@
+package com.nc.blackjack.event;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Hand.RESULT;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Player.TYPE;
+import com.nc.blackjack.Strategy.DECISION;
+
+/**
+ * <h1>TextRenderer</h1>
+ * TextRenderer renders the events of a {@link com.nc.blackjack.Game} as the
+ * text of the console game.
+ * <br>
+ * Text is built in a buffer on the thread playing the game and handed to
+ * {@link #write(StringBuilder)} on {@link #flush()}. Subclasses decide where the
+ * text goes, see {@link ConsoleRenderer}.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public abstract class TextRenderer implements GameEventSink {
+
+    //variable declarations
+    private final StringBuilder buffer;
+    private Hand dealerHand;  //dealer hand of the turn being played
+
+    /**
+     * Constructor - constructs a renderer with an empty buffer
+     */
+    protected TextRenderer() {
+        buffer = new StringBuilder(256);
+    }
+
+    /**
+     * Append the specified text to the buffer. The text is written on the next {@link #flush()}.
+     * @param text the text to print
+     */
+    public void print(String text) {
+        buffer.append(text);
+    }
+
+    @Override
+    public void cardDealt(Player player, Hand hand, int code) {
+
+        //the first two cards of a hand are shown with the turn
+        if(hand.getSize() <= 2) {
+            return;
+        }
+
+        if(player.getType() == TYPE.DEALER) {
+            buffer.append("\nDealer must HIT. Dealer is dealt [").append(Card.toString(code)).append(']');
+            buffer.append("\nDealer is showing [").append(hand.toString()).append(']');
+        } else {
+            buffer.append("\nPlayer ").append(player.getUsername()).append(" is dealt a [").append(Card.toString(code)).append(']');
+            appendShowing(player, hand);
+        }
+    }
+
+    @Override
+    public void turn(Player player, Hand hand, Hand dealerHand) {
+
+        this.dealerHand = dealerHand;
+
+        if(player.getType() == TYPE.DEALER) {
+            buffer.append("\nDealer is showing [").append(hand.toString()).append(']');
+        } else {
+            appendShowing(player, hand);
+        }
+    }
+
+    @Override
+    public void decision(Player player, Hand hand, DECISION decision) {
+
+        //a hit is shown by the card that is dealt
+        if(decision == DECISION.STAND) {
+            buffer.append("Player ").append(player.getUsername()).append(" will STAND with [").append(hand.toString())
+                    .append("] Total[").append(hand.getHandValue()).append("]\n");
+        }
+        else if(decision == DECISION.SURRENDER) {
+            buffer.append("Player ").append(player.getUsername()).append(" will SURRENDER with [").append(hand.toString())
+                    .append("] Total[").append(hand.getHandValue()).append("]\n");
+        }
+        else if(decision != DECISION.HIT) {
+            buffer.append("Player ").append(player.getUsername()).append(" will ").append(decision).append(" [")
+                    .append(hand.toString()).append("]\n");
+        }
+    }
+
+    @Override
+    public void insurance(Player player, Hand hand, boolean taken) {
+        buffer.append("\nPlayer ").append(player.getUsername()).append(taken ? " takes" : " declines").append(" INSURANCE");
+    }
+
+    @Override
+    public void stand(Player player, Hand hand) {
+        appendMustStand(player, hand);
+    }
+
+    @Override
+    public void bust(Player player, Hand hand) {
+        appendMustStand(player, hand);
+    }
+
+    @Override
+    public void result(Player player, Hand hand, Hand dealerHand, RESULT result) {
+
+        String username = player.getUsername();
+
+        buffer.append("\n\nPlayer ").append(username).append(" is showing [").append(hand.toString())
+                .append("] Total[").append(hand.getHandValue()).append("]. Dealer is showing [").append(dealerHand.toString())
+                .append("] Total[").append(dealerHand.getHandValue()).append(']');
+
+        if(result == RESULT.TIE) {
+            buffer.append("\n\nRESULT: Player ").append(username).append(" TIES with the dealer\n");
+        }
+        else if(result == RESULT.WIN) {
+            buffer.append("\n\nRESULT: Congratulations ").append(username).append(" you WIN\n");
+        }
+        else if((hand.getFlags() & Hand.SURRENDERED) != 0) {
+            buffer.append("\n\nRESULT: Player ").append(username).append(" SURRENDERED half the bet\n");
+        }
+        else if(hand.getHandValue() > Hand.BLACKJACK) {
+            buffer.append("\n\nRESULT: Player ").append(username).append(" BUSTED dealer wins\n");
+        }
+        else {
+            buffer.append("\n\nRESULT: Player ").append(username).append(" LOSES to the dealer\n");
+        }
+    }
+
+    /**
+     * Hand the buffered text to {@link #write(StringBuilder)} and empty the buffer
+     */
+    @Override
+    public void flush() {
+
+        if(buffer.length() > 0) {
+            write(buffer);
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Write the rendered text. The buffer is emptied when this method returns
+     * so the text must be copied or written out before returning.
+     * @param text the rendered text
+     */
+    protected abstract void write(StringBuilder text);
+
+    /**
+     * Helper method to append the player hand and the dealer hand with one card hidden
+     */
+    private void appendShowing(Player player, Hand hand) {
+        buffer.append("\nPlayer ").append(player.getUsername()).append(" is showing [").append(hand.toString())
+                .append("] Total[").append(hand.currentHandStateTotal()).append("] Dealer is showing [")
+                .append(dealerHand.toStringHidden()).append(']');
+    }
+
+    /**
+     * Helper method to append a hand that must stand
+     */
+    private void appendMustStand(Player player, Hand hand) {
+
+        if(player.getType() == TYPE.DEALER) {
+            buffer.append("\nDealer must STAND with [").append(hand.toString()).append("] Total[")
+                    .append(hand.getHandValue()).append(']');
+        } else {
+            buffer.append("\nPlayer ").append(player.getUsername()).append(" must STAND with [").append(hand.toString())
+                    .append("] Total[").append(hand.getHandValue()).append("]\n");
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.nc.blackjack.history;
+
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Player;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * <h1>HandHistoryLog</h1>
+ * HandHistoryLog appends every played hand to a binary log of fixed size
+ * {@link HandRecord}s. The log is a directory of segment files that are memory
+ * mapped one at a time. When a segment is full it is sealed with its number of
+ * records, forced to disk and the next segment is created, so appending a hand is a few stores into memory and a CRC.
+ * <br>
+ * A record is written before its CRC, and every record holds the number of hands
+ * of its round. Opening an existing log recovers the last segment: records are read
+ * until the first one whose CRC does not match, which is a record that was being
+ * written when the process stopped. The records of a round that was not appended
+ * completely are cleared with it and everything after it, so the log always ends
+ * with a complete round. Appending continues with the next round.
+ * <br>
+ * A round is never split across segments. When the hands of a round do not fit
+ * the rest of a segment, the next segment is started.
+ * <br>
+ * A log has a single writer and is not synchronized.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class HandHistoryLog implements AutoCloseable {
+
+    //variable declarations
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;  //64 MB segments
+    private static final int MAX_SEGMENT_RECORDS = Integer.MAX_VALUE / HandRecord.SIZE - 1;
+    private final Path directory;
+    private final int segmentRecords;
+    private final CRC32C crc;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private int capacity;  //number of records the current segment can hold
+    private int slot;  //slot of the next record, slot 0 is the header
+    private int roundRemaining;  //records still to append for the current round
+    private long nextRound;
+
+    /**
+     * Constructor - opens the log in the specified directory with 64 MB segments
+     * @param directory the directory of the log, created if it does not exist
+     * @throws IOException exception thrown when the log cannot be opened or recovered
+     */
+    public HandHistoryLog(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Constructor - opens the log in the specified directory. A new log starts with
+     * round 0, an existing log is recovered and continues after its last round.
+     * @param directory the directory of the log, created if it does not exist
+     * @param segmentRecords the number of records in every new segment
+     * @throws IOException exception thrown when the log cannot be opened or recovered
+     */
+    public HandHistoryLog(Path directory, int segmentRecords) throws IOException {
+
+        if(segmentRecords < 1 || segmentRecords > MAX_SEGMENT_RECORDS) {
+            throw new IllegalArgumentException("segmentRecords must be between 1 and " + MAX_SEGMENT_RECORDS);
+        }
+
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        crc = new CRC32C();
+        Files.createDirectories(directory);
+
+        List<Path> segments = HandRecord.segments(directory);
+        if(segments.isEmpty()) {
+            openSegment(0);
+        } else {
+            recover(segments.size() - 1, segments.get(segments.size() - 1));
+        }
+    }
+
+    /**
+     * Map the last segment and find the end of its complete records
+     * @param index the index of the segment
+     * @param file the file of the segment
+     * @throws IOException exception thrown when the segment cannot be mapped
+     */
+    private void recover(int index, Path file) throws IOException {
+
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+
+        //the process stopped after creating the segment but before writing its header
+        if(segment.capacity() == 0 || segment.capacity() >= HandRecord.SIZE && segment.getLong(HandRecord.HEADER_MAGIC) == 0) {
+            channel.close();
+            Files.delete(file);
+            openSegment(index);
+            if(index > 0) {
+                nextRound = lastRound(index - 1) + 1;
+            }
+            return;
+        }
+
+        capacity = HandRecord.checkHeader(segment, file);
+        segmentIndex = index;
+
+        //read until the first record that was not written completely
+        int complete = 1;  //slot after the last record of the last complete round
+        int remaining = 0;  //records of the round still to read
+        slot = 1;
+        while(slot <= capacity && HandRecord.isValid(segment, slot * HandRecord.SIZE, crc)) {
+
+            int offset = slot * HandRecord.SIZE;
+            if(remaining == 0) {
+                remaining = Math.max(1, segment.get(offset + HandRecord.ROUND_HANDS) & 0xFF);
+            }
+            slot++;
+
+            if(--remaining == 0) {
+                complete = slot;
+                nextRound = segment.getLong(offset + HandRecord.ROUND) + 1;
+            }
+        }
+
+        //clear the incomplete round, the torn record and anything written after it
+        slot = complete;
+        for(int i = slot * HandRecord.SIZE; i < (capacity + 1) * HandRecord.SIZE; i += 8) {
+            segment.putLong(i, 0);
+        }
+
+        if(slot == 1 && index > 0) {
+            nextRound = lastRound(index - 1) + 1;
+        }
+
+        //the process stopped after sealing the segment but before creating the next one
+        if(segment.getInt(HandRecord.HEADER_RECORDS) != 0) {
+            roll();
+        }
+    }
+
+    /**
+     * @param index the index of a full segment
+     * @return the round of the last record of the segment
+     * @throws IOException exception thrown when the segment cannot be read
+     */
+    private long lastRound(int index) throws IOException {
+
+        try(HandHistoryReader reader = new HandHistoryReader(directory, index)) {
+            long round = -1;
+            while(reader.next()) {
+                round = reader.getRound();
+            }
+            return round;
+        }
+    }
+
+    /**
+     * Create and map a new segment
+     * @param index the index of the segment
+     * @throws IOException exception thrown when the segment cannot be created
+     */
+    private void openSegment(int index) throws IOException {
+
+        Path file = HandRecord.segment(directory, index);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) (segmentRecords + 1) * HandRecord.SIZE);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+
+        segment.putLong(HandRecord.HEADER_MAGIC, HandRecord.MAGIC);
+        segment.putInt(HandRecord.HEADER_VERSION, HandRecord.VERSION);
+        segment.putInt(HandRecord.HEADER_RECORD_SIZE, HandRecord.SIZE);
+        segment.putInt(HandRecord.HEADER_CAPACITY, segmentRecords);
+        segment.putInt(HandRecord.HEADER_INDEX, index);
+
+        segmentIndex = index;
+        capacity = segmentRecords;
+        slot = 1;
+    }
+
+    /**
+     * Seal the full segment, force it to disk and start the next one
+     * @throws IOException exception thrown when the next segment cannot be created
+     */
+    private void roll() throws IOException {
+        segment.putInt(HandRecord.HEADER_RECORDS, slot - 1);
+        segment.force();
+        channel.close();
+        openSegment(segmentIndex + 1);
+    }
+
+    /**
+     * Append every player hand of a finished round, one record per hand
+     * @param game the game whose round has been played
+     * @return the round number of the records
+     * @throws IOException exception thrown when a new segment cannot be created
+     */
+    public long appendRound(Game game) throws IOException {
+
+        long round = nextRound++;
+        Hand dealerHand = game.getDealer().getHands().get(0);
+        List<Player> players = game.getPlayers();
+
+        int roundHands = 0;
+        for(int seat = 0; seat < players.size(); seat++ ) {
+            roundHands += players.get(seat).getHands().size();
+        }
+
+        //loop through the seats and the hands of every seat
+        for(int seat = 0; seat < players.size(); seat++ ) {
+            List<Hand> hands = players.get(seat).getHands();
+            for(int h = 0; h < hands.size(); h++ ) {
+                Hand hand = hands.get(h);
+                append(round, seat, h, roundHands, hand, dealerHand, flags(hand), net(hand));
+            }
+        }
+        return round;
+    }
+
+    /**
+     * Append a single hand. The hands of a round must be appended one after the
+     * other, each with the same round number and number of hands.
+     * @param round the round number of the hand
+     * @param seat the seat of the player
+     * @param handIndex the index of the hand of the player
+     * @param roundHands the number of hands of the round
+     * @param hand the player hand
+     * @param dealerHand the dealer hand
+     * @param flags the flags of the record, see {@link HandRecord#STOOD}
+     * @param net the net result of the hand in hundredths of a bet
+     * @throws IOException exception thrown when a new segment cannot be created
+     */
+    public void append(long round, int seat, int handIndex, int roundHands, Hand hand, Hand dealerHand, int flags, int net) throws IOException {
+
+        if(roundHands < 1 || roundHands > Math.min(HandRecord.MAX_ROUND_HANDS, segmentRecords)) {
+            throw new IllegalArgumentException("a round of " + roundHands + " hands does not fit a segment of " + segmentRecords + " records");
+        }
+        if(dealerHand.getSize() > HandRecord.MAX_DEALER_CARDS) {
+            throw new IllegalArgumentException("a dealer hand holds at most " + HandRecord.MAX_DEALER_CARDS + " cards");
+        }
+
+        //the first hand of a round starts a new segment unless every hand of the round fits
+        if(roundRemaining == 0) {
+            if(slot + roundHands - 1 > capacity) {
+                roll();
+            }
+            roundRemaining = roundHands;
+        }
+
+        MappedByteBuffer b = segment;
+        int offset = slot * HandRecord.SIZE;
+
+        b.putLong(offset + HandRecord.ROUND, round);
+        b.put(offset + HandRecord.SEAT, (byte) seat);
+        b.put(offset + HandRecord.HAND, (byte) handIndex);
+        b.put(offset + HandRecord.RESULT, (byte) hand.getResult().ordinal());
+        b.put(offset + HandRecord.FLAGS, (byte) flags);
+        b.put(offset + HandRecord.NUM_PLAYER_CARDS, (byte) hand.getSize());
+        b.put(offset + HandRecord.NUM_DEALER_CARDS, (byte) dealerHand.getSize());
+        b.putShort(offset + HandRecord.NET, (short) net);
+        b.put(offset + HandRecord.ROUND_HANDS, (byte) roundHands);
+
+        //unused card bytes are still zero
+        for(int i = 0; i < hand.getSize(); i++ ) {
+            b.put(offset + HandRecord.PLAYER_CARDS + i, (byte) hand.getCode(i));
+        }
+        for(int i = 0; i < dealerHand.getSize(); i++ ) {
+            b.put(offset + HandRecord.DEALER_CARDS + i, (byte) dealerHand.getCode(i));
+        }
+
+        //the CRC is written last, a record without it is not complete
+        b.putInt(offset + HandRecord.CRC, HandRecord.checksum(b, offset, crc));
+        slot++;
+        roundRemaining--;
+    }
+
+    /**
+     * @param hand a finished player hand
+     * @return the flags of the hand
+     */
+    static int flags(Hand hand) {
+
+        int f = hand.getFlags();
+        int flags = hand.getSplits() << HandRecord.SPLITS_SHIFT;
+        flags |= (f & Hand.DOUBLED) != 0 ? HandRecord.DOUBLED : 0;
+        flags |= (f & Hand.SURRENDERED) != 0 ? HandRecord.SURRENDERED : 0;
+        flags |= (f & Hand.SPLIT) != 0 ? HandRecord.SPLIT : 0;
+        flags |= (f & Hand.INSURED) != 0 ? HandRecord.INSURED : 0;
+        flags |= hand.isNatural() ? HandRecord.BLACKJACK : 0;
+
+        //a hand below 21 that did not bust was stood on
+        if(!hand.isBust() && !hand.isTwentyOne() && (f & (Hand.DOUBLED | Hand.SURRENDERED)) == 0) {
+            flags |= HandRecord.STOOD;
+        }
+        return flags;
+    }
+
+    /**
+     * @param hand a finished player hand
+     * @return the net result in hundredths of a bet
+     */
+    static int net(Hand hand) {
+        return (int) Math.round(hand.getNet() * HandRecord.NET_SCALE);
+    }
+
+    /**
+     * Force the records appended so far to disk
+     */
+    public void flush() {
+        segment.force();
+    }
+
+    /**
+     * Force the log to disk and close it
+     * @throws IOException exception thrown when the segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+
+        if(channel == null) {
+            return;
+        }
+        segment.force();
+        channel.close();
+        channel = null;
+    }
+
+    /**
+     * @return the round number the next round will be appended with
+     */
+    public long getNextRound() { return nextRound; }
+
+    /**
+     * @return the index of the segment being written
+     */
+    public int getSegmentIndex() { return segmentIndex; }
+}
@@ -0,0 +1,229 @@
+package com.nc.blackjack.history;
+
+import com.nc.blackjack.Hand.RESULT;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * <h1>HandHistoryReader</h1>
+ * HandHistoryReader reads the records of a {@link HandHistoryLog} in the order
+ * they were appended. The reader is a cursor over the mapped segments: {@link #next()}
+ * moves to the next record and the getters read the fields of the current record,
+ * so no object is created per record.
+ * <br>
+ * A sealed segment is read up to its number of records, and a record whose CRC does
+ * not match before that is corruption: {@link #next()} throws an IOException naming
+ * the segment and the slot. Only the last segment of the log is not sealed, and
+ * reading stops at its first record whose CRC does not match, which is the end of
+ * the log or a record that was never written completely.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class HandHistoryReader implements AutoCloseable {
+
+    //variable declarations
+    private static final RESULT[] RESULTS = RESULT.values();
+    private final List<Path> segments;
+    private final CRC32C crc;
+    private int segmentIndex;  //index into segments of the mapped segment
+    private int last;  //index into segments of the last segment to read
+    private MappedByteBuffer segment;
+    private Path file;  //file of the mapped segment
+    private int capacity;
+    private int records;  //number of records of a sealed segment, 0 if it is not sealed
+    private int slot;  //slot of the current record
+    private int offset;  //offset of the current record, -1 before the first record
+    private boolean end;
+
+    /**
+     * Constructor - reads every segment of the log in the specified directory
+     * @param directory the directory of the log
+     * @throws IOException exception thrown when the directory cannot be read
+     */
+    public HandHistoryReader(Path directory) throws IOException {
+
+        segments = HandRecord.segments(directory);
+        crc = new CRC32C();
+        segmentIndex = -1;
+        last = segments.size() - 1;
+        offset = -1;
+        end = segments.isEmpty();
+    }
+
+    /**
+     * Constructor - reads a single segment of the log in the specified directory
+     * @param directory the directory of the log
+     * @param index the index of the segment
+     * @throws IOException exception thrown when the segment does not exist
+     */
+    HandHistoryReader(Path directory, int index) throws IOException {
+
+        this(directory);
+        int i = segments.indexOf(HandRecord.segment(directory, index));
+        if(i < 0) {
+            throw new IOException("segment " + index + " does not exist in " + directory);
+        }
+
+        segmentIndex = i - 1;
+        last = i;
+    }
+
+    /**
+     * Move to the next record
+     * @return true if there is a next record, false at the end of the log
+     * @throws IOException exception thrown when a segment cannot be read
+     */
+    public boolean next() throws IOException {
+
+        //loop through the segments until one holds another record
+        while(!end) {
+
+            if(segment != null && ++slot <= capacity) {
+                if(HandRecord.isValid(segment, slot * HandRecord.SIZE, crc)) {
+                    if(records == 0 || slot <= records) {
+                        offset = slot * HandRecord.SIZE;
+                        return true;
+                    }
+                } else if(slot <= records) {
+                    throw new IOException(file + " is corrupt at record " + slot);
+                }
+            }
+
+            //a sealed segment ends at its number of records, the last one at its first invalid record
+            if(segmentIndex >= last) {
+                end = true;
+            } else {
+                map(++segmentIndex);
+            }
+        }
+
+        offset = -1;
+        return false;
+    }
+
+    /**
+     * Map a segment for reading
+     * @param index the index into segments of the segment
+     * @throws IOException exception thrown when the segment cannot be mapped
+     */
+    private void map(int index) throws IOException {
+
+        file = segments.get(index);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        capacity = HandRecord.checkHeader(segment, file);
+        records = segment.getInt(HandRecord.HEADER_RECORDS);
+        slot = 0;
+
+        //every segment but the last one of the log was sealed when the next one was started
+        if(records == 0 && index < segments.size() - 1) {
+            throw new IOException(file + " is not sealed");
+        }
+    }
+
+    /**
+     * @return the offset of the current record
+     */
+    private int current() {
+
+        if(offset < 0) {
+            throw new IllegalStateException("there is no current record");
+        }
+        return offset;
+    }
+
+    /**
+     * @return the round number of the record
+     */
+    public long getRound() { return segment.getLong(current() + HandRecord.ROUND); }
+
+    /**
+     * @return the seat of the player, 0 is the first player
+     */
+    public int getSeat() { return segment.get(current() + HandRecord.SEAT) & 0xFF; }
+
+    /**
+     * @return the index of the hand of the player
+     */
+    public int getHandIndex() { return segment.get(current() + HandRecord.HAND) & 0xFF; }
+
+    /**
+     * @return the result of the hand
+     */
+    public RESULT getResult() { return RESULTS[segment.get(current() + HandRecord.RESULT)]; }
+
+    /**
+     * @return the flags of the record, see {@link HandRecord#STOOD} and {@link HandRecord#SPLITS_SHIFT}
+     */
+    public int getFlags() { return segment.get(current() + HandRecord.FLAGS) & 0xFF; }
+
+    /**
+     * @return the net result of the hand in hundredths of a bet
+     */
+    public int getNetUnits() { return segment.getShort(current() + HandRecord.NET); }
+
+    /**
+     * @return the net result of the hand in bets
+     */
+    public double getNet() { return (double) getNetUnits() / HandRecord.NET_SCALE; }
+
+    /**
+     * @return the number of hands of the round of the record
+     */
+    public int getRoundHands() { return segment.get(current() + HandRecord.ROUND_HANDS) & 0xFF; }
+
+    /**
+     * @return the number of player cards
+     */
+    public int getNumPlayerCards() { return segment.get(current() + HandRecord.NUM_PLAYER_CARDS) & 0xFF; }
+
+    /**
+     * @param index the index of the card in the player hand
+     * @return the code of the card
+     */
+    public int getPlayerCode(int index) {
+
+        if(index < 0 || index >= getNumPlayerCards()) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + getNumPlayerCards() + " cards");
+        }
+        return segment.get(offset + HandRecord.PLAYER_CARDS + index);
+    }
+
+    /**
+     * @return the number of dealer cards
+     */
+    public int getNumDealerCards() { return segment.get(current() + HandRecord.NUM_DEALER_CARDS) & 0xFF; }
+
+    /**
+     * @param index the index of the card in the dealer hand
+     * @return the code of the card
+     */
+    public int getDealerCode(int index) {
+
+        if(index < 0 || index >= getNumDealerCards()) {
+            throw new IndexOutOfBoundsException("index " + index + " of " + getNumDealerCards() + " cards");
+        }
+        return segment.get(offset + HandRecord.DEALER_CARDS + index);
+    }
+
+    /**
+     * Release the mapped segment
+     */
+    @Override
+    public void close() {
+        segment = null;
+        offset = -1;
+        end = true;
+    }
+}
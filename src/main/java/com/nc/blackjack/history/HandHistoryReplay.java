@@ -0,0 +1,487 @@
+package com.nc.blackjack.history;
+
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Hand.RESULT;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <h1>HandHistoryReplay</h1>
+ * HandHistoryReplay plays the rounds of a {@link HandHistoryLog} again through the
+ * rules of {@link Game} and checks that every hand ends the way it was logged.
+ * <br>
+ * The game deals from a scripted shoe that gives every hand the next of its logged
+ * cards, so the cards of a round can be dealt in any order the play takes. A player
+ * hand splits, doubles, surrenders and takes insurance as its flags were logged,
+ * then hits until it holds as many cards as were logged and stands. The dealer plays
+ * by the {@link Rules} of the replay and every hand is settled by {@link Game#computeWinners()},
+ * so a round matches only if the dealer drew the logged cards and every result, flag
+ * and net result is the same. A log must be replayed with the rules it was played with.
+ * A last round with fewer records than its number of hands is reported as incomplete
+ * rather than replayed.
+ * <br>
+ * One game is kept for every number of seats and reused for every round, so
+ * replaying does not allocate per round.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class HandHistoryReplay {
+
+    //variable declarations
+    private static final int MAX_SEATS = 256;  //the seat of a record is a byte
+    private final Rules rules;
+    private Game[] games;  //game indexed by number of seats
+
+    //the records of the round being replayed
+    private int numRecords;
+    private long round;
+    private int[] seats;
+    private int[] handIndexes;
+    private RESULT[] results;
+    private int[] flags;
+    private int[] nets;
+    private byte[][] playerCards;
+    private int[] numPlayerCards;
+    private final byte[] dealerCards;
+    private int numDealerCards;
+    private boolean wellFormed;  //every record of the round fits a record and has the same dealer cards
+
+    /**
+     * Constructor - constructs a replay with the rules of a new {@link Rules}
+     */
+    public HandHistoryReplay() {
+        this(new Rules());
+    }
+
+    /**
+     * Constructor - constructs a replay with the specified rules
+     * @param rules the rules the log was played with
+     */
+    public HandHistoryReplay(Rules rules) {
+
+        if(rules == null) {
+            throw new IllegalArgumentException("rules must not be null");
+        }
+
+        this.rules = new Rules(rules);
+        games = new Game[0];
+        dealerCards = new byte[HandRecord.MAX_DEALER_CARDS];
+
+        seats = new int[0];
+        handIndexes = new int[0];
+        results = new RESULT[0];
+        flags = new int[0];
+        nets = new int[0];
+        numPlayerCards = new int[0];
+        playerCards = new byte[0][];
+        grow(8);
+    }
+
+    /**
+     * Replay every round of the log in the specified directory
+     * @param directory the directory of the log
+     * @return the result of the replay
+     * @throws IOException exception thrown when the log cannot be read
+     */
+    public ReplayResult replay(Path directory) throws IOException {
+
+        try(HandHistoryReader reader = new HandHistoryReader(directory)) {
+            return replay(reader);
+        }
+    }
+
+    /**
+     * Replay every round from the current position of the reader to the end of the log
+     * @param reader the reader of the log
+     * @return the result of the replay
+     * @throws IOException exception thrown when the log cannot be read
+     */
+    public ReplayResult replay(HandHistoryReader reader) throws IOException {
+
+        ReplayResult result = new ReplayResult();
+        boolean more = reader.next();
+
+        //loop through the rounds, the records of a round follow each other
+        while(more) {
+
+            numRecords = 0;
+            round = reader.getRound();
+            int roundHands = reader.getRoundHands();
+            wellFormed = true;
+            do {
+                add(reader);
+                more = reader.next();
+            } while(more && reader.getRound() == round);
+
+            //the log ends before the rest of the round was appended
+            if(!more && numRecords < roundHands) {
+                result.recordIncompleteRound();
+            } else {
+                wellFormed &= numRecords == roundHands;
+                result.recordRound(round, numRecords, replayRound());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy the current record of the reader into the round
+     * @param reader the reader positioned on a record
+     */
+    private void add(HandHistoryReader reader) {
+
+        if(numRecords == seats.length) {
+            grow(2 * seats.length);
+        }
+
+        int r = numRecords++;
+        seats[r] = reader.getSeat();
+        handIndexes[r] = reader.getHandIndex();
+        results[r] = reader.getResult();
+        flags[r] = reader.getFlags();
+        nets[r] = reader.getNetUnits();
+        numPlayerCards[r] = Math.min(reader.getNumPlayerCards(), HandRecord.MAX_CARDS);
+        wellFormed &= numPlayerCards[r] == reader.getNumPlayerCards();
+        for(int i = 0; i < numPlayerCards[r]; i++ ) {
+            playerCards[r][i] = (byte) reader.getPlayerCode(i);
+        }
+
+        //every hand of a round is played against the same dealer hand
+        int n = reader.getNumDealerCards();
+        wellFormed &= n <= HandRecord.MAX_DEALER_CARDS;
+        if(r == 0) {
+            numDealerCards = n;
+        }
+        wellFormed &= n == numDealerCards;
+        for(int i = 0; i < n && wellFormed; i++ ) {
+            byte code = (byte) reader.getDealerCode(i);
+            if(r == 0) {
+                dealerCards[i] = code;
+            }
+            wellFormed &= dealerCards[i] == code;
+        }
+    }
+
+    /**
+     * Play the round that has been read and compare it with the log
+     * @return true if every hand of the round matches the log
+     */
+    private boolean replayRound() {
+
+        //every seat needs its first hand with at least the two dealt cards
+        int numSeats = 0;
+        for(int r = 0; r < numRecords; r++ ) {
+            numSeats = Math.max(numSeats, seats[r] + 1);
+        }
+        if(!wellFormed || numDealerCards < 2 || numSeats > MAX_SEATS) {
+            return false;
+        }
+        for(int seat = 0; seat < numSeats; seat++ ) {
+            int r = find(seat, 0);
+            if(r < 0 || numPlayerCards[r] < 2) {
+                return false;
+            }
+        }
+
+        Game game = game(numSeats);
+        try {
+            game.reset();
+            for(Game.STATE s = game.advance(); s != Game.STATE.FINISHED; s = game.advance()) {
+                if(s == Game.STATE.INSURANCE) {
+                    int r = current(game);
+                    game.submitInsurance(r >= 0 && (flags[r] & HandRecord.INSURED) != 0);
+                } else {
+                    game.submitDecision(decide(game));
+                }
+            }
+        }
+        //a decision the rules do not allow, or the round needed a card that was not logged
+        catch(IllegalArgumentException | DeckException e) {
+            return false;
+        }
+
+        return compare(game);
+    }
+
+    /**
+     * The scripted decision for the current hand: split as many times as the hand was split,
+     * double or surrender as logged, then hit until the hand holds the logged cards
+     * @param game the game waiting for a decision
+     * @return the decision for the current hand
+     */
+    private DECISION decide(Game game) {
+
+        Hand hand = game.getCurrentHand();
+        int r = current(game);
+        if(r < 0) {
+            return DECISION.STAND;
+        }
+
+        int f = flags[r];
+        if(hand.getSplits() < f >>> HandRecord.SPLITS_SHIFT) {
+            return DECISION.SPLIT;
+        }
+        if(hand.getSize() == 2 && (f & HandRecord.DOUBLED) != 0) {
+            return DECISION.DOUBLE;
+        }
+        if(hand.getSize() == 2 && (f & HandRecord.SURRENDERED) != 0) {
+            return DECISION.SURRENDER;
+        }
+        return hand.getSize() < numPlayerCards[r] ? DECISION.HIT : DECISION.STAND;
+    }
+
+    /**
+     * @param game the game of the round
+     * @return the index of the record of the current hand, -1 if the round has no such record
+     */
+    private int current(Game game) {
+
+        Player player = game.getCurrentPlayer();
+        Hand hand = game.getCurrentHand();
+        List<Player> players = game.getPlayers();
+
+        //loop through the seats to find the seat and hand index of the current hand
+        for(int seat = 0; seat < players.size(); seat++ ) {
+            if(players.get(seat) == player) {
+                return find(seat, player.getHands().indexOf(hand));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param game the game of the round
+     * @return the next logged card of the hand the game is dealing to
+     * @throws DeckException exception thrown when the hand holds every logged card
+     */
+    private int nextCode(Game game) throws DeckException {
+
+        Hand dealerHand = game.getDealer().getHands().get(0);
+        Hand hand = dealerHand;
+        int r = -1;
+
+        //the first two cards go to every seat in order and then to the dealer
+        if(game.getState() == Game.STATE.DEAL) {
+            List<Player> players = game.getPlayers();
+            for(int seat = 0; seat < players.size() && r < 0; seat++ ) {
+                Hand first = players.get(seat).getHands().get(0);
+                if(first.getSize() < 2) {
+                    hand = first;
+                    r = find(seat, 0);
+                }
+            }
+        }
+        else if(game.getState() != Game.STATE.DEALER_TURN) {
+            hand = game.getCurrentHand();
+            r = current(game);
+        }
+
+        if(hand == dealerHand && hand.getSize() < numDealerCards) {
+            return dealerCards[hand.getSize()];
+        }
+
+        //the second card of a pair that will be split is the first card of the next hand split from it
+        if(r >= 0 && hand.getSize() == 1 && hand.getSplits() < flags[r] >>> HandRecord.SPLITS_SHIFT) {
+            r = find(seats[r], firstSplit(seats[r], handIndexes[r]) + hand.getSplits());
+            if(r >= 0 && numPlayerCards[r] > 0) {
+                return playerCards[r][0];
+            }
+        }
+        else if(r >= 0 && hand.getSize() < numPlayerCards[r]) {
+            return playerCards[r][hand.getSize()];
+        }
+        throw new DeckException("The log holds no more cards for the hand");
+    }
+
+    /**
+     * A split hand is added after every other hand of the player. Hands are played in order
+     * and every split of a hand happens before the next hand is played, so the hands split
+     * from a hand follow the hands split from the hands before it.
+     * @param seat the seat of the player
+     * @param handIndex the index of the hand that was split
+     * @return the index of the first hand split from the hand
+     */
+    private int firstSplit(int seat, int handIndex) {
+
+        int index = 1;
+        for(int r = 0; r < numRecords; r++ ) {
+            if(seats[r] == seat && handIndexes[r] < handIndex) {
+                index += flags[r] >>> HandRecord.SPLITS_SHIFT;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Compare the played round with the records of the round
+     * @param game the game that played the round
+     * @return true if every hand matches its record
+     */
+    private boolean compare(Game game) {
+
+        Hand dealerHand = game.getDealer().getHands().get(0);
+        if(!matches(dealerHand, dealerCards, numDealerCards)) {
+            return false;
+        }
+
+        //every played hand must have exactly one record
+        int numHands = 0;
+        List<Player> players = game.getPlayers();
+        for(int seat = 0; seat < players.size(); seat++ ) {
+            numHands += players.get(seat).getHands().size();
+        }
+        if(numHands != numRecords) {
+            return false;
+        }
+
+        //loop through the records and compare each with its hand
+        for(int r = 0; r < numRecords; r++ ) {
+
+            List<Hand> hands = players.get(seats[r]).getHands();
+            if(handIndexes[r] >= hands.size()) {
+                return false;
+            }
+
+            Hand hand = hands.get(handIndexes[r]);
+            if(!matches(hand, playerCards[r], numPlayerCards[r])
+                    || hand.getResult() != results[r]
+                    || HandHistoryLog.flags(hand) != flags[r]
+                    || HandHistoryLog.net(hand) != nets[r]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param hand a played hand
+     * @param cards the logged cards of the hand
+     * @param size the number of logged cards
+     * @return true if the hand holds exactly the logged cards
+     */
+    private static boolean matches(Hand hand, byte[] cards, int size) {
+
+        if(hand.getSize() != size) {
+            return false;
+        }
+        for(int i = 0; i < size; i++ ) {
+            if(hand.getCode(i) != cards[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param seat the seat of a hand
+     * @param handIndex the index of the hand of the seat
+     * @return the index of the record of the hand, -1 if the round has no such record
+     */
+    private int find(int seat, int handIndex) {
+        for(int r = 0; r < numRecords; r++ ) {
+            if(seats[r] == seat && handIndexes[r] == handIndex) {
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param numSeats the number of seats
+     * @return the game with the specified number of seats, created the first time
+     */
+    private Game game(int numSeats) {
+
+        if(numSeats >= games.length) {
+            games = Arrays.copyOf(games, numSeats + 1);
+        }
+
+        if(games[numSeats] == null) {
+
+            ReplayDeck deck = new ReplayDeck();
+            games[numSeats] = new Game(deck, rules);
+            deck.game = games[numSeats];
+            for(int i = 0; i < numSeats; i++ ) {
+                games[numSeats].addPlayer("Player" + i);
+            }
+        }
+        return games[numSeats];
+    }
+
+    /**
+     * Grow the record arrays of a round
+     * @param size the number of records to hold
+     */
+    private void grow(int size) {
+
+        int old = seats.length;
+        seats = Arrays.copyOf(seats, size);
+        handIndexes = Arrays.copyOf(handIndexes, size);
+        results = Arrays.copyOf(results, size);
+        flags = Arrays.copyOf(flags, size);
+        nets = Arrays.copyOf(nets, size);
+        numPlayerCards = Arrays.copyOf(numPlayerCards, size);
+        playerCards = Arrays.copyOf(playerCards, size);
+        for(int i = old; i < size; i++ ) {
+            playerCards[i] = new byte[HandRecord.MAX_CARDS];
+        }
+    }
+
+    /**
+     * @return a copy of the rules of the replay
+     */
+    public Rules getRules() { return new Rules(rules); }
+
+    /**
+     * Replay the log in the directory given as the first argument and print the result
+     * @param args the directory of the log and optionally casino to replay with {@link Rules#casino()}
+     * @throws IOException exception thrown when the log cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+
+        if(args.length < 1) {
+            System.out.println("usage: HandHistoryReplay <directory> [casino]");
+            return;
+        }
+
+        boolean casino = args.length > 1 && args[1].equalsIgnoreCase("casino");
+        HandHistoryReplay replay = new HandHistoryReplay(casino ? Rules.casino() : new Rules());
+        long start = System.nanoTime();
+        ReplayResult result = replay.replay(Paths.get(args[0]));
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        System.out.println(result);
+        System.out.println("Replayed in " + millis + " ms");
+    }
+
+    /**
+     * ReplayDeck is the scripted shoe of a replayed game, every card it deals is
+     * the next logged card of the hand the game is dealing to
+     */
+    private class ReplayDeck extends Deck {
+
+        //variable declarations
+        private Game game;
+
+        @Override
+        public int dealNextCode() throws DeckException {
+            return nextCode(game);
+        }
+
+        @Override
+        public boolean newRound() {
+            return false;
+        }
+    }
+}
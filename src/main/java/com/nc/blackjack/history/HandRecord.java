@@ -0,0 +1,179 @@
+package com.nc.blackjack.history;
+
+import com.nc.blackjack.Hand;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * <h1>HandRecord</h1>
+ * HandRecord describes the binary layout of the hand history log. Every player
+ * hand of a round is one record of {@link #SIZE} bytes, little endian:
+ * <pre>
+ *  offset  size  field
+ *       0     4  CRC32C of bytes 4 to 63
+ *       4     8  round number
+ *      12     1  seat of the player, 0 is the first player
+ *      13     1  index of the hand of the player
+ *      14     1  {@link Hand.RESULT} ordinal
+ *      15     1  flags, see {@link #STOOD}
+ *      16     1  number of player cards
+ *      17     1  number of dealer cards
+ *      18     2  net result in hundredths of a bet, see {@link #NET_SCALE}
+ *      20     1  number of hands of the round
+ *      21    22  player card codes
+ *      43    21  dealer card codes
+ * </pre>
+ * Unused card bytes are zero. A segment file starts with one header of the same
+ * size followed by its records. A full segment is sealed with its number of records
+ * in the header before the next segment is started. In the last segment, which is
+ * not sealed, a record whose CRC does not match, such as the zeros after the last
+ * record, ends the log.
+ * <br>
+ * The records of a round follow each other and a round is complete once it has as
+ * many records as its number of hands. A round never spans two segments.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class HandRecord {
+
+    //variable declarations
+    public static final int SIZE = 64;
+    public static final int CRC = 0;
+    public static final int ROUND = 4;
+    public static final int SEAT = 12;
+    public static final int HAND = 13;
+    public static final int RESULT = 14;
+    public static final int FLAGS = 15;
+    public static final int NUM_PLAYER_CARDS = 16;
+    public static final int NUM_DEALER_CARDS = 17;
+    public static final int NET = 18;
+    public static final int ROUND_HANDS = 20;
+    public static final int PLAYER_CARDS = 21;
+    public static final int DEALER_CARDS = 43;
+    public static final int MAX_CARDS = Hand.MAX_CARDS;
+    public static final int MAX_DEALER_CARDS = 21;  //the dealer draws only below a hard 17, so holds at most 17 cards
+    public static final int MAX_ROUND_HANDS = 255;
+    public static final int NET_SCALE = 100;  //net results are stored in hundredths of a bet
+
+    //flags of a record
+    public static final int STOOD = 1;  //the hand stood below 21 without doubling or surrendering
+    public static final int DOUBLED = 2;
+    public static final int SURRENDERED = 4;
+    public static final int SPLIT = 8;  //the hand was split from a pair
+    public static final int INSURED = 16;
+    public static final int BLACKJACK = 32;  //the hand is a natural
+    public static final int SPLITS_SHIFT = 6;  //the top two bits hold the number of hands split from the hand
+
+    //segment header
+    static final long MAGIC = 0x314C48484A42434EL;  //"NCBJHHL1" little endian
+    static final int VERSION = 3;
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_VERSION = 8;
+    static final int HEADER_RECORD_SIZE = 12;
+    static final int HEADER_CAPACITY = 16;
+    static final int HEADER_INDEX = 20;
+    static final int HEADER_RECORDS = 24;  //number of records of a sealed segment, 0 until it is sealed
+    private static final String PREFIX = "hands-";
+    private static final String SUFFIX = ".log";
+
+    private HandRecord() {}
+
+    /**
+     * Compute the CRC of the record at the specified offset. The position and
+     * limit of the buffer are restored before returning.
+     * @param buffer the segment
+     * @param offset the offset of the record
+     * @param crc the checksum to use, reset before use
+     * @return the CRC of the record
+     */
+    static int checksum(ByteBuffer buffer, int offset, CRC32C crc) {
+
+        int position = buffer.position();
+        int limit = buffer.limit();
+
+        crc.reset();
+        buffer.limit(offset + SIZE).position(offset + ROUND);
+        crc.update(buffer);
+
+        buffer.limit(limit).position(position);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @param buffer the segment
+     * @param offset the offset of the record
+     * @param crc the checksum to use
+     * @return true if the record at the offset has been written completely
+     */
+    static boolean isValid(ByteBuffer buffer, int offset, CRC32C crc) {
+        return buffer.getInt(offset + CRC) == checksum(buffer, offset, crc);
+    }
+
+    /**
+     * @param directory the directory of the log
+     * @param index the index of the segment
+     * @return the file of the segment
+     */
+    static Path segment(Path directory, int index) {
+        return directory.resolve(String.format("%s%08d%s", PREFIX, index, SUFFIX));
+    }
+
+    /**
+     * @param directory the directory of the log
+     * @return the segment files of the log in order
+     * @throws IOException exception thrown when the directory cannot be read
+     */
+    static List<Path> segments(Path directory) throws IOException {
+
+        List<Path> segments = new ArrayList<Path>();
+        if(!Files.isDirectory(directory)) {
+            return segments;
+        }
+
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for(Path file : files) {
+                segments.add(file);
+            }
+        }
+
+        //the index is zero padded so the names sort in order
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Check the header of a segment
+     * @param buffer the segment
+     * @param file the file of the segment, for the error message
+     * @return the number of records the segment can hold
+     * @throws IOException exception thrown when the file is not a segment of this version
+     */
+    static int checkHeader(ByteBuffer buffer, Path file) throws IOException {
+
+        if(buffer.capacity() < SIZE || buffer.getLong(HEADER_MAGIC) != MAGIC) {
+            throw new IOException(file + " is not a hand history segment");
+        }
+        if(buffer.getInt(HEADER_VERSION) != VERSION || buffer.getInt(HEADER_RECORD_SIZE) != SIZE) {
+            throw new IOException(file + " has an unsupported version");
+        }
+
+        int capacity = buffer.getInt(HEADER_CAPACITY);
+        if(capacity < 1 || (long) (capacity + 1) * SIZE > buffer.capacity()) {
+            throw new IOException(file + " has an invalid capacity");
+        }
+        int records = buffer.getInt(HEADER_RECORDS);
+        if(records < 0 || records > capacity) {
+            throw new IOException(file + " has an invalid number of records");
+        }
+        return capacity;
+    }
+}
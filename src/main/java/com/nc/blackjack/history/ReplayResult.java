@@ -0,0 +1,91 @@
+package com.nc.blackjack.history;
+
+import java.util.Arrays;
+
+/**
+ * <h1>ReplayResult</h1>
+ * ReplayResult holds the outcome of a {@link HandHistoryReplay}: the number of
+ * rounds and hands replayed, the number of rounds whose replay did not match the
+ * log, and the round numbers of the first of those rounds.
+ * <br>
+ * A log that ends in the middle of a round, because it is still being written or
+ * was not recovered after a crash, ends with an incomplete round. That round is
+ * not replayed and is counted apart from the mismatches.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ReplayResult {
+
+    //variable declarations
+    public static final int MAX_REPORTED = 100;  //mismatched round numbers kept
+    private long rounds;
+    private long hands;
+    private long mismatches;
+    private long[] reported = new long[MAX_REPORTED];
+    private long incompleteRounds;
+
+    /**
+     * Record a replayed round
+     * @param round the round number
+     * @param numHands the number of hands of the round
+     * @param matched true if every hand matched the log
+     */
+    void recordRound(long round, int numHands, boolean matched) {
+
+        rounds++;
+        hands += numHands;
+        if(!matched) {
+            if(mismatches < MAX_REPORTED) {
+                reported[(int) mismatches] = round;
+            }
+            mismatches++;
+        }
+    }
+
+    /**
+     * Record a round at the end of the log that is missing some of its hands
+     */
+    void recordIncompleteRound() {
+        incompleteRounds++;
+    }
+
+    /**
+     * @return true if every replayed round matched the log
+     */
+    public boolean isVerified() { return mismatches == 0; }
+
+    /**
+     * @return the round numbers of the first {@link #MAX_REPORTED} rounds that did not match
+     */
+    public long[] getMismatchedRounds() { return Arrays.copyOf(reported, (int) Math.min(mismatches, MAX_REPORTED)); }
+
+    /**
+     * @return a string representation of the results
+     */
+    public String toString() {
+        return "Rounds[" + rounds + "] Hands[" + hands + "] Mismatches[" + mismatches + "]"
+                + (mismatches == 0 ? "" : " First" + Arrays.toString(getMismatchedRounds()))
+                + " Incomplete[" + incompleteRounds + "]";
+    }
+
+    /**
+     * @return the number of replayed rounds
+     */
+    public long getRounds() { return rounds; }
+
+    /**
+     * @return the number of replayed hands
+     */
+    public long getHands() { return hands; }
+
+    /**
+     * @return the number of rounds whose replay did not match the log
+     */
+    public long getMismatches() { return mismatches; }
+
+    /**
+     * @return the number of rounds at the end of the log that are missing some of their hands, 0 or 1
+     */
+    public long getIncompleteRounds() { return incompleteRounds; }
+}
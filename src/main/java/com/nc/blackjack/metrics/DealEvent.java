@@ -0,0 +1,52 @@
+package com.nc.blackjack.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * <h1>DealEvent</h1>
+ * DealEvent is the Flight Recorder event of the initial two cards dealt to every
+ * player and the dealer. Only deals longer than the threshold are recorded, 1 ms
+ * unless the recording settings say otherwise.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@Name(DealEvent.NAME)
+@Label("Blackjack Deal")
+@Category("Blackjack")
+@Description("The initial two cards dealt to every player and the dealer")
+@StackTrace(false)
+@Threshold("1 ms")
+public class DealEvent extends jdk.jfr.Event {
+
+    //variable declarations
+    public static final String NAME = "com.nc.blackjack.Deal";
+
+    @Label("Table Id")
+    long tableId;
+
+    @Label("Players")
+    int players;
+
+    @Label("Dealer Upcard")
+    String upcard;
+
+    /**
+     * Set the fields of the deal and commit the event
+     * @param tableId the id of the game
+     * @param players the number of players dealt in
+     * @param upcard the name of the dealer upcard
+     */
+    public void commit(long tableId, int players, String upcard) {
+
+        this.tableId = tableId;
+        this.players = players;
+        this.upcard = upcard;
+        commit();
+    }
+}
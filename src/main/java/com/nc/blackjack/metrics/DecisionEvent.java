@@ -0,0 +1,72 @@
+package com.nc.blackjack.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * <h1>DecisionEvent</h1>
+ * DecisionEvent is the Flight Recorder event of the wait for a player decision or
+ * insurance, from the moment the game needs it to the moment it is submitted. A
+ * strategy decides in microseconds and a person in seconds, so with the default
+ * threshold of 10 ms only the decisions of people are recorded.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@Name(DecisionEvent.NAME)
+@Label("Blackjack Decision")
+@Category("Blackjack")
+@Description("The wait for a player to decide a hand or insurance")
+@StackTrace(false)
+@Threshold("10 ms")
+public class DecisionEvent extends jdk.jfr.Event {
+
+    //variable declarations
+    public static final String NAME = "com.nc.blackjack.Decision";
+    public static final String INSURANCE = "INSURANCE";
+    public static final String NO_INSURANCE = "NO_INSURANCE";
+
+    @Label("Table Id")
+    long tableId;
+
+    @Label("Seat")
+    int seat;
+
+    @Label("Hand")
+    @Description("Hand of the seat, 0 unless the seat split")
+    int hand;
+
+    @Label("Total")
+    int total;
+
+    @Label("Dealer Upcard")
+    String upcard;
+
+    @Label("Decision")
+    @Description("The decision, INSURANCE or NO_INSURANCE")
+    String decision;
+
+    /**
+     * Set the fields of the decision and commit the event
+     * @param tableId the id of the game
+     * @param seat the index of the player
+     * @param hand the index of the hand of the player
+     * @param total the total of the hand before the decision
+     * @param upcard the name of the dealer upcard
+     * @param decision the name of the decision
+     */
+    public void commit(long tableId, int seat, int hand, int total, String upcard, String decision) {
+
+        this.tableId = tableId;
+        this.seat = seat;
+        this.hand = hand;
+        this.total = total;
+        this.upcard = upcard;
+        this.decision = decision;
+        commit();
+    }
+}
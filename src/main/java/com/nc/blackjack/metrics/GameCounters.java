@@ -0,0 +1,90 @@
+package com.nc.blackjack.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h1>GameCounters</h1>
+ * GameCounters counts what happens in every game of the process. Every counter
+ * is a {@link LongAdder}, so threads playing different tables rarely contend
+ * when they count.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class GameCounters implements GameCountersMBean {
+
+    //variable declarations
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder hands = new LongAdder();
+    private final LongAdder busts = new LongAdder();
+    private final LongAdder dealerBusts = new LongAdder();
+    private final LongAdder reshuffles = new LongAdder();
+    private final LongAdder deckExceptions = new LongAdder();
+
+    /**
+     * Count a round whose winners were computed
+     */
+    public void round() { rounds.increment(); }
+
+    /**
+     * Count a player hand whose result was computed
+     * @param bust true if the hand busted
+     */
+    public void hand(boolean bust) {
+        hands.increment();
+        if(bust) {
+            busts.increment();
+        }
+    }
+
+    /**
+     * Count a dealer hand that busted
+     */
+    public void dealerBust() { dealerBusts.increment(); }
+
+    /**
+     * Count a reshuffled shoe
+     */
+    public void reshuffle() { reshuffles.increment(); }
+
+    /**
+     * Count a card dealt from a shoe with every card in play
+     */
+    public void deckException() { deckExceptions.increment(); }
+
+    @Override
+    public long getRounds() { return rounds.sum(); }
+
+    @Override
+    public long getHands() { return hands.sum(); }
+
+    @Override
+    public long getBusts() { return busts.sum(); }
+
+    @Override
+    public long getDealerBusts() { return dealerBusts.sum(); }
+
+    @Override
+    public long getReshuffles() { return reshuffles.sum(); }
+
+    @Override
+    public long getDeckExceptions() { return deckExceptions.sum(); }
+
+    @Override
+    public void reset() {
+        rounds.reset();
+        hands.reset();
+        busts.reset();
+        dealerBusts.reset();
+        reshuffles.reset();
+        deckExceptions.reset();
+    }
+
+    /**
+     * @return a string representation of the counters
+     */
+    public String toString() {
+        return "Rounds[" + getRounds() + "] Hands[" + getHands() + "] Busts[" + getBusts() + "] DealerBusts["
+                + getDealerBusts() + "] Reshuffles[" + getReshuffles() + "] DeckExceptions[" + getDeckExceptions() + "]";
+    }
+}
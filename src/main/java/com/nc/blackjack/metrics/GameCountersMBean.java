@@ -0,0 +1,47 @@
+package com.nc.blackjack.metrics;
+
+/**
+ * <h1>GameCountersMBean</h1>
+ * GameCountersMBean is the JMX view of the {@link GameCounters} of every game
+ * in the process.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public interface GameCountersMBean {
+
+    /**
+     * @return the number of rounds whose winners were computed
+     */
+    long getRounds();
+
+    /**
+     * @return the number of player hands whose result was computed
+     */
+    long getHands();
+
+    /**
+     * @return the number of player hands that busted
+     */
+    long getBusts();
+
+    /**
+     * @return the number of dealer hands that busted
+     */
+    long getDealerBusts();
+
+    /**
+     * @return the number of times a shoe was reshuffled
+     */
+    long getReshuffles();
+
+    /**
+     * @return the number of times a card was dealt from a shoe with every card in play
+     */
+    long getDeckExceptions();
+
+    /**
+     * Set every counter to 0
+     */
+    void reset();
+}
@@ -0,0 +1,100 @@
+package com.nc.blackjack.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * <h1>GameMetrics</h1>
+ * GameMetrics holds the latency histograms of the phases of a round and the
+ * {@link GameCounters} of every game in the process, and exposes them as MBeans
+ * in the platform MBean server under the {@link #DOMAIN} domain.
+ * <br>
+ * Instrumentation is enabled by starting the JVM with {@code -Dblackjack.metrics=true}.
+ * {@link #ENABLED} is a constant, every instrumented method tests it before it reads
+ * the clock, and when it is false the JIT compiler removes the instrumentation
+ * from the compiled code, so a disabled run pays nothing for it.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class GameMetrics {
+
+    //variable declarations
+    public static final boolean ENABLED = Boolean.getBoolean("blackjack.metrics");
+    public static final String DOMAIN = "com.nc.blackjack";
+    public static final LatencyHistogram DEAL_CARDS = new LatencyHistogram("dealCards");
+    public static final LatencyHistogram PLAYER_DECISION = new LatencyHistogram("playerDecision");  //one decision
+    public static final LatencyHistogram DEALER_TURN = new LatencyHistogram("dealerTurn");
+    public static final LatencyHistogram COMPUTE_WINNERS = new LatencyHistogram("computeWinners");
+    public static final LatencyHistogram SHUFFLE = new LatencyHistogram("shuffleDeck");
+    public static final GameCounters COUNTERS = new GameCounters();
+    private static final LatencyHistogram[] PHASES = {DEAL_CARDS, PLAYER_DECISION, DEALER_TURN, COMPUTE_WINNERS, SHUFFLE};
+
+    static {
+        if(ENABLED) {
+            register(ManagementFactory.getPlatformMBeanServer());
+        }
+    }
+
+    /**
+     * Constructor - utility class
+     */
+    private GameMetrics() {}
+
+    /**
+     * Register the counters and every latency histogram with the specified server.
+     * MBeans that are already registered are kept.
+     * @param server the MBean server
+     */
+    public static void register(MBeanServer server) {
+
+        try {
+            register(server, COUNTERS, new ObjectName(DOMAIN + ":type=GameCounters"));
+
+            //loop through the phases, one MBean per histogram
+            for(LatencyHistogram phase : PHASES) {
+                register(server, phase, new ObjectName(DOMAIN + ":type=Latency,phase=" + phase.getName()));
+            }
+        }
+        catch(JMException jme) {
+            throw new IllegalStateException("The game metrics could not be registered", jme);
+        }
+    }
+
+    /**
+     * Helper method to register an MBean unless the name is taken
+     */
+    private static void register(MBeanServer server, Object mbean, ObjectName name) throws JMException {
+        try {
+            server.registerMBean(mbean, name);
+        } catch(InstanceAlreadyExistsException iaee) {
+            //registered before
+        }
+    }
+
+    /**
+     * Set every counter to 0 and remove every recorded latency
+     */
+    public static void reset() {
+
+        COUNTERS.reset();
+        for(LatencyHistogram phase : PHASES) {
+            phase.reset();
+        }
+    }
+
+    /**
+     * @return a report of the counters and of every phase
+     */
+    public static String getSummary() {
+
+        StringBuilder sb = new StringBuilder(COUNTERS.toString());
+        for(LatencyHistogram phase : PHASES) {
+            sb.append(System.lineSeparator()).append(phase);
+        }
+        return sb.toString();
+    }
+}
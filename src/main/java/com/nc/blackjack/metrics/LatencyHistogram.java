@@ -0,0 +1,151 @@
+package com.nc.blackjack.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h1>LatencyHistogram</h1>
+ * LatencyHistogram counts latencies in log-linear buckets: every power of two
+ * is split into {@link #SUB_BUCKETS} buckets of equal width, so a percentile is
+ * exact to one eighth of its value from 1 nanosecond to the largest long. Recording
+ * is a bucket lookup from the leading zeros of the latency and an atomic increment,
+ * it never locks and never allocates, and many threads may record at once.
+ * <br>
+ * Percentiles are read from the bucket counts while latencies are recorded, so a
+ * reading taken during a round may miss the latencies recorded at that moment.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    //variable declarations
+    public static final int SUB_BITS = 3;
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;  //buckets per power of two
+    public static final int NUM_BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructor - constructs an empty histogram
+     * @param name the name of the measured phase
+     */
+    public LatencyHistogram(String name) {
+
+        if(name == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+        this.name = name;
+    }
+
+    /**
+     * @param nanos a latency, negative latencies count as 0
+     * @return the bucket of the latency
+     */
+    static int bucket(long nanos) {
+
+        if(nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+
+        //the highest bit picks the power of two, the next bits the bucket within it
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + (int) ((nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @param bucket a bucket of the histogram
+     * @return the smallest latency of the bucket
+     */
+    static long lowest(int bucket) {
+
+        if(bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Record a latency
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+
+        buckets.incrementAndGet(bucket(nanos));
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * @param p the probability of the percentile, between 0 and 1
+     * @return the largest latency of the bucket that holds the percentile, 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double p) {
+
+        if(!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("p must be between 0 and 1");
+        }
+
+        //loop through the buckets until the share of latencies reaches the probability
+        long target = Math.max(1, (long) Math.ceil(p * count.sum()));
+        long seen = 0;
+        for(int i = 0; i < NUM_BUCKETS; i++ ) {
+            seen += buckets.get(i);
+            if(seen >= target) {
+                return i == NUM_BUCKETS - 1 ? Long.MAX_VALUE : Math.min(lowest(i + 1) - 1, getMaxNanos());
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public long getCount() { return count.sum(); }
+
+    @Override
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    @Override
+    public long getMaxNanos() { return max.get(); }
+
+    @Override
+    public long getP50Nanos() { return getPercentileNanos(0.5); }
+
+    @Override
+    public long getP90Nanos() { return getPercentileNanos(0.9); }
+
+    @Override
+    public long getP99Nanos() { return getPercentileNanos(0.99); }
+
+    @Override
+    public long getP999Nanos() { return getPercentileNanos(0.999); }
+
+    @Override
+    public void reset() {
+        for(int i = 0; i < NUM_BUCKETS; i++ ) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * @return a string representation of the histogram
+     */
+    public String toString() {
+        return name + " Count[" + getCount() + "] Mean[" + getMeanNanos() + "] P50[" + getP50Nanos() + "] P99["
+                + getP99Nanos() + "] Max[" + getMaxNanos() + "]";
+    }
+}
@@ -0,0 +1,57 @@
+package com.nc.blackjack.metrics;
+
+/**
+ * <h1>LatencyHistogramMBean</h1>
+ * LatencyHistogramMBean is the JMX view of a {@link LatencyHistogram}. Every
+ * latency is in nanoseconds.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public interface LatencyHistogramMBean {
+
+    /**
+     * @return the name of the measured phase
+     */
+    String getName();
+
+    /**
+     * @return the number of recorded latencies
+     */
+    long getCount();
+
+    /**
+     * @return the mean latency
+     */
+    double getMeanNanos();
+
+    /**
+     * @return the largest recorded latency
+     */
+    long getMaxNanos();
+
+    /**
+     * @return the median latency
+     */
+    long getP50Nanos();
+
+    /**
+     * @return the 90th percentile latency
+     */
+    long getP90Nanos();
+
+    /**
+     * @return the 99th percentile latency
+     */
+    long getP99Nanos();
+
+    /**
+     * @return the 99.9th percentile latency
+     */
+    long getP999Nanos();
+
+    /**
+     * Remove every recorded latency
+     */
+    void reset();
+}
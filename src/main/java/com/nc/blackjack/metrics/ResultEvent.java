@@ -0,0 +1,73 @@
+package com.nc.blackjack.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <h1>ResultEvent</h1>
+ * ResultEvent is the Flight Recorder event of a settled player hand. There is one
+ * for every hand, so it is disabled unless the recording settings enable it.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@Name(ResultEvent.NAME)
+@Label("Blackjack Result")
+@Category("Blackjack")
+@Description("The result of a player hand against the dealer hand")
+@StackTrace(false)
+@Enabled(false)
+public class ResultEvent extends jdk.jfr.Event {
+
+    //variable declarations
+    public static final String NAME = "com.nc.blackjack.Result";
+
+    @Label("Table Id")
+    long tableId;
+
+    @Label("Seat")
+    @Description("Index of the player, -1 for a hand settled outside of a round")
+    int seat;
+
+    @Label("Hand")
+    int hand;
+
+    @Label("Result")
+    String result;
+
+    @Label("Net")
+    @Description("Bets won or lost by the hand, insurance included")
+    double net;
+
+    @Label("Total")
+    int total;
+
+    @Label("Dealer Total")
+    int dealerTotal;
+
+    /**
+     * Set the fields of the result and commit the event
+     * @param tableId the id of the game
+     * @param seat the index of the player
+     * @param hand the index of the hand of the player
+     * @param result the name of the result
+     * @param net the bets won or lost
+     * @param total the final total of the hand
+     * @param dealerTotal the final total of the dealer hand
+     */
+    public void commit(long tableId, int seat, int hand, String result, double net, int total, int dealerTotal) {
+
+        this.tableId = tableId;
+        this.seat = seat;
+        this.hand = hand;
+        this.result = result;
+        this.net = net;
+        this.total = total;
+        this.dealerTotal = dealerTotal;
+        commit();
+    }
+}
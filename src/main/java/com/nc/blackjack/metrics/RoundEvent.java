@@ -0,0 +1,61 @@
+package com.nc.blackjack.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * <h1>RoundEvent</h1>
+ * RoundEvent is the Flight Recorder event of a round, from the first card dealt
+ * to the last hand settled. The duration of a round played by people includes the
+ * time they take to decide, see {@link DecisionEvent}.
+ * <br>
+ * Only rounds longer than the threshold are recorded, 20 ms unless the recording
+ * settings say otherwise, see {@code blackjack.jfc}.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@Name(RoundEvent.NAME)
+@Label("Blackjack Round")
+@Category("Blackjack")
+@Description("A round from the deal to the settlement of every hand")
+@StackTrace(false)
+@Threshold("20 ms")
+public class RoundEvent extends jdk.jfr.Event {
+
+    //variable declarations
+    public static final String NAME = "com.nc.blackjack.Round";
+
+    @Label("Table Id")
+    long tableId;
+
+    @Label("Players")
+    int players;
+
+    @Label("Hands")
+    @Description("Player hands settled, splits included")
+    int hands;
+
+    @Label("Dealer Total")
+    int dealerTotal;
+
+    /**
+     * Set the fields of the round and commit the event
+     * @param tableId the id of the game
+     * @param players the number of players
+     * @param hands the number of player hands
+     * @param dealerTotal the final total of the dealer hand
+     */
+    public void commit(long tableId, int players, int hands, int dealerTotal) {
+
+        this.tableId = tableId;
+        this.players = players;
+        this.hands = hands;
+        this.dealerTotal = dealerTotal;
+        commit();
+    }
+}
@@ -0,0 +1,58 @@
+package com.nc.blackjack.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * <h1>ShuffleEvent</h1>
+ * ShuffleEvent is the Flight Recorder event of a shoe reshuffled between rounds.
+ * Only shuffles longer than the threshold are recorded, 1 ms unless the recording
+ * settings say otherwise.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+@Name(ShuffleEvent.NAME)
+@Label("Blackjack Shuffle")
+@Category("Blackjack")
+@Description("The shoe reshuffled between two rounds")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ShuffleEvent extends jdk.jfr.Event {
+
+    //variable declarations
+    public static final String NAME = "com.nc.blackjack.Shuffle";
+
+    @Label("Table Id")
+    long tableId;
+
+    @Label("Decks")
+    int numDecks;
+
+    @Label("Cards")
+    int cards;
+
+    @Label("Shuffle")
+    @Description("When the shoe is reshuffled, at the cut card or after every round")
+    String shuffle;
+
+    /**
+     * Set the fields of the shuffle and commit the event
+     * @param tableId the id of the game
+     * @param numDecks the number of decks in the shoe
+     * @param cards the number of cards in the shoe
+     * @param shuffle the name of the shuffle of the shoe
+     */
+    public void commit(long tableId, int numDecks, int cards, String shuffle) {
+
+        this.tableId = tableId;
+        this.numDecks = numDecks;
+        this.cards = cards;
+        this.shuffle = shuffle;
+        commit();
+    }
+}
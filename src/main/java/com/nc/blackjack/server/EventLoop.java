@@ -0,0 +1,314 @@
+package com.nc.blackjack.server;
+
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h1>EventLoop</h1>
+ * EventLoop is one thread of the {@link SelectorServer}. It plays every
+ * {@link NioTable} registered with its {@link Selector}.
+ * <br>
+ * Only the first loop of the server accepts connections. It hands every accepted
+ * connection to the next loop in turn, which registers the connection on its own
+ * thread, so a burst of connections is spread evenly over the loops. When accepting
+ * fails, for example because the process is out of file descriptors, the accepting
+ * loop stops selecting for connections for a moment instead of sleeping, so its
+ * tables keep being played.
+ * <br>
+ * The loop owns one direct input buffer and one direct output buffer that are used
+ * by every table in turn.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+class EventLoop implements Runnable {
+
+    //variable declarations
+    static final int BUFFER_SIZE = 16 * 1024;
+    private static final long ACCEPT_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private final SelectorServer server;
+    private final ServerSocketChannel serverChannel;  //null unless the loop accepts connections
+    private final Selector selector;
+    private final Queue<SocketChannel> assigned;  //accepted connections still to register
+    private SelectionKey acceptKey;
+    private long acceptResume;  //System.nanoTime() to accept again after a failed accept, 0 when accepting
+    private final SplittableRandom random;
+    private final ByteBuffer input;
+    private final ByteBuffer output;
+    private final CharsetEncoder encoder;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * Constructor - constructs a loop that plays the connections assigned to it
+     * @param server the server the loop belongs to
+     * @param serverChannel the non-blocking channel connections are accepted on, null if the loop does not accept
+     * @param random the random stream used to shuffle the shoe of every table of the loop
+     * @param name the name of the thread of the loop
+     * @throws IOException exception thrown when the selector cannot be opened
+     */
+    EventLoop(SelectorServer server, ServerSocketChannel serverChannel, SplittableRandom random, String name) throws IOException {
+        this.server = server;
+        this.serverChannel = serverChannel;
+        this.random = random;
+        selector = Selector.open();
+        assigned = new ConcurrentLinkedQueue<>();
+        input = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        output = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        thread = new Thread(this, name);
+    }
+
+    /**
+     * Start the thread of the loop
+     */
+    void start() { thread.start(); }
+
+    /**
+     * Select ready connections until the loop is closed, then close every table of the loop
+     */
+    @Override
+    public void run() {
+
+        try {
+            if(serverChannel != null) {
+                acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            }
+
+            while(!closed) {
+
+                registerAssigned();
+                selector.select(acceptTimeout());
+
+                //loop through the connections that are ready
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()) {
+
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if(!key.isValid()) {
+                        continue;
+                    }
+                    if(key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    NioTable table = (NioTable) key.attachment();
+                    if(key.isWritable()) {
+                        table.writable();
+                    }
+                    else if(key.isReadable()) {
+                        table.readable();
+                    }
+                }
+            }
+        } catch(IOException ioe) {
+            //the selector failed, the tables of the loop are closed below
+        } finally {
+            closeTables();
+        }
+    }
+
+    /**
+     * Select for connections again once the pause after a failed accept is over
+     * @return the milliseconds to wait for a ready connection, 0 to wait until one is ready
+     */
+    private long acceptTimeout() {
+
+        if(acceptResume == 0) {
+            return 0;
+        }
+
+        long wait = acceptResume - System.nanoTime();
+        if(wait <= 0) {
+            acceptResume = 0;
+            if(acceptKey.isValid()) {
+                acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+            }
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+
+    /**
+     * Accept every connection that is waiting and assign each to the next loop
+     */
+    private void accept() {
+
+        while(true) {
+
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch(IOException ioe) {
+                //the process is out of file descriptors, stop selecting for connections for a moment
+                if(acceptKey.isValid()) {
+                    acceptKey.interestOps(0);
+                    acceptResume = System.nanoTime() + ACCEPT_RETRY_NANOS;
+                }
+                return;
+            }
+
+            if(channel == null) {
+                return;
+            }
+
+            if(!server.tableOpened()) {
+                reject(channel);
+                continue;
+            }
+            server.nextLoop().assign(channel);
+        }
+    }
+
+    /**
+     * Hand an accepted connection to the loop, the connection is registered by the thread of the loop
+     * @param channel the accepted connection, already counted as a table
+     */
+    void assign(SocketChannel channel) {
+
+        assigned.add(channel);
+        if(Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Register every connection assigned to the loop and welcome its player
+     */
+    private void registerAssigned() {
+
+        SocketChannel channel;
+        while((channel = assigned.poll()) != null) {
+
+            NioTable table = null;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+                table = new NioTable(this, channel, new Game(new Deck(server.getNumDecks(), random.split())));
+                table.open(channel.register(selector, SelectionKey.OP_READ, table));
+            } catch(IOException ioe) {
+                //the connection went away before it was registered
+                if(table != null) {
+                    table.close();
+                } else {
+                    close(channel);
+                    server.tableClosed();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tell the client the server is full and close the connection
+     * @param channel the connection to reject
+     */
+    private void reject(SocketChannel channel) {
+
+        output.clear();
+        output.put(SelectorServer.FULL);
+        output.flip();
+
+        //a new connection can take the whole message
+        try {
+            channel.configureBlocking(false);
+            channel.write(output);
+        } catch(IOException ioe) {
+            //the client is gone
+        }
+        output.clear();
+        close(channel);
+    }
+
+    /**
+     * Called by a table of the loop when it is closed
+     */
+    void tableClosed() { server.tableClosed(); }
+
+    /**
+     * Close the loop, the thread of the loop closes every table
+     */
+    void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    /**
+     * Wait until the loop has closed every table
+     * @throws InterruptedException exception thrown when interrupted while waiting
+     */
+    void join() throws InterruptedException { thread.join(); }
+
+    /**
+     * Helper method to close every table of the loop and the selector
+     */
+    private void closeTables() {
+
+        //connections assigned after the last select were never registered
+        SocketChannel channel;
+        while((channel = assigned.poll()) != null) {
+            close(channel);
+            server.tableClosed();
+        }
+
+        //loop through the registered connections
+        for(SelectionKey key : selector.keys()) {
+            if(key.attachment() instanceof NioTable) {
+                ((NioTable) key.attachment()).close();
+            }
+        }
+
+        try {
+            selector.close();
+        } catch(IOException ioe) {
+            //nothing more to release
+        }
+    }
+
+    /**
+     * Helper method to close a connection
+     */
+    private static void close(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch(IOException ioe) {
+            //the connection is already gone
+        }
+    }
+
+    /**
+     * @return the direct buffer connections of the loop are read into
+     */
+    ByteBuffer getInputBuffer() { return input; }
+
+    /**
+     * @return the direct buffer the output of the tables of the loop is encoded into
+     */
+    ByteBuffer getOutputBuffer() { return output; }
+
+    /**
+     * @return the encoder of the output of the tables of the loop
+     */
+    CharsetEncoder getEncoder() { return encoder; }
+}
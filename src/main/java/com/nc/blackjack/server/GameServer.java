@@ -0,0 +1,245 @@
+package com.nc.blackjack.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>GameServer</h1>
+ * GameServer hosts many tables of blackjack in one JVM. Every connection gets its
+ * own table, see {@link TableSession}, that runs on its own virtual thread when the
+ * running Java has them, see {@link VirtualThreads}.
+ * <br>
+ * The protocol is the text of the console game. The server sends the same prompts
+ * and every line sent by the client is the answer to the last prompt:
+ * <ul>
+ *     <li>the player name after "Please enter your player name: "</li>
+ *     <li>an empty line after "Press ENTER to begin. [enter] "</li>
+ *     <li>h or s after "type h to HIT or s to STAND? [h/s]"</li>
+ *     <li>y to play again after "[y/?]", anything else closes the table</li>
+ * </ul>
+ * Connections beyond the maximum number of tables are told the server is full and closed.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class GameServer implements AutoCloseable {
+
+    //variable declarations
+    public static final int DEFAULT_PORT = 4000;
+    public static final int DEFAULT_MAX_TABLES = 10000;
+    private static final int BACKLOG = 4096;  //connections waiting to be accepted
+    private static final long ACCEPT_RETRY_MILLIS = 10;
+    private static final byte[] FULL = "The server is full. Please try again later.\n".getBytes(StandardCharsets.UTF_8);
+    private final int port;
+    private final int numDecks;
+    private final int maxTables;
+    private final AtomicInteger tables;
+    private final Set<TableSession> sessions;  //tables being played, closed with the server
+    private final SplittableRandom random;
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+    private Thread acceptor;
+
+    /**
+     * Constructor - constructs a server with the specified limits. Nothing is
+     * bound until {@link #start()} is called.
+     * @param port the port to listen on, 0 for any free port
+     * @param numDecks the number of decks in the shoe of every table
+     * @param maxTables the maximum number of tables played at the same time
+     */
+    public GameServer(int port, int numDecks, int maxTables) {
+
+        if(port < 0 || port > 0xFFFF) {
+            throw new IllegalArgumentException("port must be between 0 and 65535");
+        }
+        if(numDecks < 1) {
+            throw new IllegalArgumentException("numDecks must be at least 1");
+        }
+        if(maxTables < 1) {
+            throw new IllegalArgumentException("maxTables must be at least 1");
+        }
+
+        this.port = port;
+        this.numDecks = numDecks;
+        this.maxTables = maxTables;
+        tables = new AtomicInteger();
+        sessions = ConcurrentHashMap.newKeySet();
+        random = new SplittableRandom();
+    }
+
+    /**
+     * Start the server. Connections are accepted on a separate thread.
+     * @throws IOException exception thrown when the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+
+        if(serverSocket != null) {
+            throw new IllegalStateException("The server has already been started");
+        }
+
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port), BACKLOG);
+        executor = VirtualThreads.newPerTaskExecutor();
+
+        acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "game-server-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Accept connections until the server is closed
+     */
+    private void accept() {
+
+        while(!serverSocket.isClosed()) {
+
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch(IOException ioe) {
+                //the server socket was closed or the process is out of file descriptors
+                pause();
+                continue;
+            }
+
+            //reject the connection when every table is taken
+            if(tables.incrementAndGet() > maxTables) {
+                tables.decrementAndGet();
+                reject(socket);
+                continue;
+            }
+
+            try {
+                socket.setTcpNoDelay(true);
+            } catch(SocketException se) {
+                //play on without it
+            }
+
+            //only the acceptor thread splits the random stream
+            TableSession session = new TableSession(this, socket, numDecks, random.split());
+            sessions.add(session);
+            try {
+                executor.execute(session);
+            }
+            //the server was closed after the connection was accepted
+            catch(RejectedExecutionException ree) {
+                session.close();
+                tableClosed(session);
+            }
+        }
+    }
+
+    /**
+     * Wait a moment before accepting again so a failing accept does not spin
+     */
+    private void pause() {
+        try {
+            Thread.sleep(ACCEPT_RETRY_MILLIS);
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Tell the client the server is full and close the connection
+     * @param socket the connection to reject
+     */
+    private static void reject(Socket socket) {
+        try(Socket s = socket) {
+            OutputStream out = s.getOutputStream();
+            out.write(FULL);
+            out.flush();
+        } catch(IOException ioe) {
+            //the client is gone
+        }
+    }
+
+    /**
+     * Called by a table when it is closed
+     * @param session the table that was closed
+     */
+    void tableClosed(TableSession session) {
+        sessions.remove(session);
+        tables.decrementAndGet();
+    }
+
+    /**
+     * Stop accepting connections and close every table
+     */
+    @Override
+    public synchronized void close() {
+
+        if(serverSocket == null) {
+            return;
+        }
+
+        try {
+            serverSocket.close();
+        } catch(IOException ioe) {
+            //already closed
+        }
+
+        //closing the connections wakes up tables waiting for their player
+        for(TableSession session : sessions) {
+            session.close();
+        }
+
+        executor.shutdownNow();
+        try {
+            acceptor.join();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the port the server listens on, only valid after {@link #start()}
+     */
+    public int getPort() { return serverSocket.getLocalPort(); }
+
+    /**
+     * @return the number of tables being played
+     */
+    public int getNumTables() { return tables.get(); }
+
+    /**
+     * @return the maximum number of tables played at the same time
+     */
+    public int getMaxTables() { return maxTables; }
+
+    /**
+     * Entry point into the blackjack server
+     * @param args optional port, number of decks and maximum number of tables
+     * @throws IOException exception thrown when the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int numDecks = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int maxTables = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_TABLES;
+
+        GameServer server = new GameServer(port, numDecks, maxTables);
+        server.start();
+
+        System.out.println("Blackjack server listening on port " + server.getPort() + " with up to " + maxTables
+                + " tables on " + (VirtualThreads.isAvailable() ? "virtual" : "platform") + " threads");
+    }
+}
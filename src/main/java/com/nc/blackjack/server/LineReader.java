@@ -0,0 +1,82 @@
+package com.nc.blackjack.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * <h1>LineReader</h1>
+ * LineReader reads lines of UTF-8 text from a connection into fixed buffers, so
+ * a table never holds more than {@link #MAX_LINE} bytes of input. Longer lines are
+ * cut to the first {@link #MAX_LINE} bytes.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+class LineReader implements Supplier<String> {
+
+    //variable declarations
+    static final int MAX_LINE = 128;
+    private final InputStream in;
+    private final byte[] buffer;
+    private final byte[] line;
+    private int position;
+    private int limit;
+
+    /**
+     * Constructor - constructs a reader of the specified stream
+     * @param in the stream to read lines from
+     */
+    LineReader(InputStream in) {
+        this.in = in;
+        buffer = new byte[MAX_LINE];
+        line = new byte[MAX_LINE];
+    }
+
+    /**
+     * Read the next line without the line terminator
+     * @return the next line
+     * @throws NoSuchElementException if the connection was closed
+     * @throws UncheckedIOException if the connection failed
+     */
+    @Override
+    public String get() {
+
+        int length = 0;
+
+        while(true) {
+
+            //refill the buffer once every byte has been read
+            if(position == limit) {
+                try {
+                    limit = in.read(buffer);
+                } catch(IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+                position = 0;
+
+                if(limit < 0) {
+                    limit = 0;
+                    throw new NoSuchElementException("The connection was closed");
+                }
+            }
+
+            byte b = buffer[position++];
+            if(b == '\n') {
+                break;
+            }
+            if(length < MAX_LINE) {
+                line[length++] = b;
+            }
+        }
+
+        //drop the carriage return of a CRLF line
+        if(length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,333 @@
+package com.nc.blackjack.server;
+
+import com.nc.blackjack.Blackjack;
+import com.nc.blackjack.ConsoleStrategy;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.event.TextRenderer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <h1>NioTable</h1>
+ * NioTable is a single table of the {@link SelectorServer}. It plays the same
+ * dialog as {@link Blackjack#play} but never blocks: every line sent by the player
+ * moves the {@link Game} to its next decision point with {@link Game#advance()}
+ * and {@link Game#submitDecision(DECISION)}.
+ * <br>
+ * The table renders its own events. Text is encoded into the direct buffer of its
+ * {@link EventLoop} and written when the input has been handled. Only text the
+ * connection cannot take right away is copied into a buffer of the table, which
+ * is dropped once it has been written, so an idle table holds no I/O buffers
+ * besides one line of input.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+class NioTable extends TextRenderer {
+
+    //variable declarations
+    static final int MAX_PENDING = 64 * 1024;  //unread output before the player is dropped
+    private final EventLoop loop;
+    private final SocketChannel channel;
+    private final Game game;
+    private final byte[] line;
+    private int length;
+    private SelectionKey key;
+    private ByteBuffer pending;  //output the connection could not take yet
+    private PHASE phase;
+    private boolean closed;
+
+    /**
+     * PHASE is the enum representing the prompt the table is waiting on
+     */
+    enum PHASE {
+        NAME, DEAL, DECISION, AGAIN, CLOSING
+    }
+
+    /**
+     * Constructor - constructs a table for the specified connection
+     * @param loop the event loop the connection is registered with
+     * @param channel the connection of the player
+     * @param game the game played at the table
+     */
+    NioTable(EventLoop loop, SocketChannel channel, Game game) {
+        this.loop = loop;
+        this.channel = channel;
+        this.game = game;
+        line = new byte[LineReader.MAX_LINE];
+        phase = PHASE.NAME;
+        game.setEventSink(this);
+    }
+
+    /**
+     * Welcome the player once the connection is registered
+     * @param key the key of the connection
+     */
+    void open(SelectionKey key) {
+        this.key = key;
+        print(Blackjack.NAME_PROMPT);
+        flush();
+        send();
+    }
+
+    /**
+     * Read what the player sent and answer every complete line
+     */
+    void readable() {
+
+        ByteBuffer in = loop.getInputBuffer();
+        in.clear();
+
+        try {
+            if(channel.read(in) < 0) {
+                close();
+                return;
+            }
+        } catch(IOException ioe) {
+            close();
+            return;
+        }
+
+        //a line can arrive in pieces, keep the start of it until the end arrives
+        in.flip();
+        while(in.hasRemaining() && !closed && phase != PHASE.CLOSING) {
+
+            byte b = in.get();
+            if(b == '\n') {
+                answer(readLine());
+            }
+            else if(length < line.length) {
+                line[length++] = b;
+            }
+        }
+
+        send();
+    }
+
+    /**
+     * Write the output the connection could not take before
+     */
+    void writable() {
+
+        try {
+            channel.write(pending);
+        } catch(IOException ioe) {
+            close();
+            return;
+        }
+
+        //everything was written, wait for the player again
+        if(!pending.hasRemaining()) {
+            pending = null;
+            if(phase == PHASE.CLOSING) {
+                close();
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+    }
+
+    /**
+     * Close the connection of the table
+     */
+    void close() {
+
+        if(closed) {
+            return;
+        }
+        closed = true;
+
+        if(key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch(IOException ioe) {
+            //the connection is already gone
+        }
+        loop.tableClosed();
+    }
+
+    /**
+     * Answer the prompt the table is waiting on
+     * @param answer the line sent by the player
+     */
+    private void answer(String answer) {
+
+        if(phase == PHASE.NAME) {
+            game.addPlayer(answer);
+            prompt(Blackjack.DEAL_PROMPT);
+            phase = PHASE.DEAL;
+        }
+        else if(phase == PHASE.DEAL) {
+            play(null);
+        }
+        else if(phase == PHASE.DECISION) {
+
+            if(answer.equalsIgnoreCase("h")) {
+                play(DECISION.HIT);
+            }
+            else if(answer.equalsIgnoreCase("s")) {
+                play(DECISION.STAND);
+            }
+            else {
+                print(ConsoleStrategy.INVALID_INPUT);
+                promptDecision();
+            }
+        }
+        else if(phase == PHASE.AGAIN) {
+
+            if(answer.equalsIgnoreCase("y")) {
+                game.reset();
+                prompt(Blackjack.DEAL_PROMPT);
+                phase = PHASE.DEAL;
+            } else {
+                phase = PHASE.CLOSING;
+            }
+        }
+    }
+
+    /**
+     * Apply the decision, if any, and play the round up to the next decision
+     * @param decision the decision for the current hand, null to start the round
+     */
+    private void play(DECISION decision) {
+
+        try {
+            if(decision != null) {
+                game.submitDecision(decision);
+            }
+
+            if(game.advance() == Game.STATE.DECISION) {
+                promptDecision();
+            } else {
+                prompt(Blackjack.AGAIN_PROMPT);
+                phase = PHASE.AGAIN;
+            }
+        }
+        //deck is in invalid state
+        catch(DeckException de) {
+            print("An error in the game has occurred[" + de.getMessage() + "]. Restarting game.\n");
+            game.reset();
+            prompt(Blackjack.DEAL_PROMPT);
+            phase = PHASE.DEAL;
+        }
+    }
+
+    /**
+     * Ask the player to hit or stand on the current hand
+     */
+    private void promptDecision() {
+        prompt("\nPlayer " + game.getCurrentPlayer().getUsername() + ConsoleStrategy.HIT_OR_STAND);
+        phase = PHASE.DECISION;
+    }
+
+    /**
+     * Print the specified prompt after everything rendered so far
+     * @param text the prompt
+     */
+    private void prompt(String text) {
+        print(text);
+        flush();
+    }
+
+    /**
+     * Encode the rendered text into the output buffer of the loop
+     * @param text the rendered text
+     */
+    @Override
+    protected void write(StringBuilder text) {
+
+        ByteBuffer out = loop.getOutputBuffer();
+        CharsetEncoder encoder = loop.getEncoder();
+        CharBuffer chars = CharBuffer.wrap(text);
+
+        encoder.reset();
+        while(encoder.encode(chars, out, true) == CoderResult.OVERFLOW) {
+            send();
+        }
+    }
+
+    /**
+     * Write the output buffer of the loop to the connection. Whatever the connection
+     * cannot take is kept by the table until the connection is writable.
+     */
+    private void send() {
+
+        ByteBuffer out = loop.getOutputBuffer();
+        out.flip();
+
+        try {
+            //keep the order of the output, nothing is written past pending output
+            if(pending == null && out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch(IOException ioe) {
+            out.clear();
+            close();
+            return;
+        }
+
+        if(out.hasRemaining()) {
+            keep(out);
+        }
+        out.clear();
+
+        //the table has been played, close once the last text is out
+        if(phase == PHASE.CLOSING && pending == null) {
+            close();
+        }
+    }
+
+    /**
+     * Keep the specified output until the connection is writable
+     * @param out the output that was not written
+     */
+    private void keep(ByteBuffer out) {
+
+        int size = out.remaining() + (pending == null ? 0 : pending.remaining());
+
+        //the player does not read what is sent
+        if(size > MAX_PENDING) {
+            close();
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        if(pending != null) {
+            buffer.put(pending);
+        }
+        buffer.put(out);
+        buffer.flip();
+        pending = buffer;
+
+        //stop reading until the player has read the output
+        if(!closed) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Helper method to decode the line that has been read and start a new one
+     */
+    private String readLine() {
+
+        int end = length;
+        length = 0;
+
+        //drop the carriage return of a CRLF line
+        if(end > 0 && line[end - 1] == '\r') {
+            end--;
+        }
+        return new String(line, 0, end, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.nc.blackjack.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h1>SelectorServer</h1>
+ * SelectorServer hosts many tables of blackjack on a small, fixed number of
+ * threads. It speaks the same protocol as the {@link GameServer}, but instead of
+ * a thread per connection every connection is registered with the {@link java.nio.channels.Selector}
+ * of one {@link EventLoop} and played by a {@link NioTable} whenever the player sends a line.
+ * The first loop accepts the connections and assigns them to the loops in turn.
+ * <br>
+ * A table waiting for its player costs no thread. Input and output go through direct
+ * buffers owned by the loops, so a table only holds its game, one line of input and
+ * the output its player has not read yet.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class SelectorServer implements AutoCloseable {
+
+    //variable declarations
+    static final byte[] FULL = "The server is full. Please try again later.\n".getBytes(StandardCharsets.UTF_8);
+    private static final int BACKLOG = 4096;  //connections waiting to be accepted
+    private final int port;
+    private final int numDecks;
+    private final int maxTables;
+    private final int numLoops;
+    private final AtomicInteger tables;
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] loops;
+    private int next;  //index of the loop the next connection is assigned to, used by the accepting loop only
+
+    /**
+     * Constructor - constructs a server with one event loop per processor
+     * @param port the port to listen on, 0 for any free port
+     * @param numDecks the number of decks in the shoe of every table
+     * @param maxTables the maximum number of tables played at the same time
+     */
+    public SelectorServer(int port, int numDecks, int maxTables) {
+        this(port, numDecks, maxTables, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor - constructs a server with the specified limits. Nothing is
+     * bound until {@link #start()} is called.
+     * @param port the port to listen on, 0 for any free port
+     * @param numDecks the number of decks in the shoe of every table
+     * @param maxTables the maximum number of tables played at the same time
+     * @param numLoops the number of event loop threads the tables are played on
+     */
+    public SelectorServer(int port, int numDecks, int maxTables, int numLoops) {
+
+        if(port < 0 || port > 0xFFFF) {
+            throw new IllegalArgumentException("port must be between 0 and 65535");
+        }
+        if(numDecks < 1) {
+            throw new IllegalArgumentException("numDecks must be at least 1");
+        }
+        if(maxTables < 1) {
+            throw new IllegalArgumentException("maxTables must be at least 1");
+        }
+        if(numLoops < 1) {
+            throw new IllegalArgumentException("numLoops must be at least 1");
+        }
+
+        this.port = port;
+        this.numDecks = numDecks;
+        this.maxTables = maxTables;
+        this.numLoops = numLoops;
+        tables = new AtomicInteger();
+    }
+
+    /**
+     * Start the server and its event loops
+     * @throws IOException exception thrown when the port cannot be bound
+     */
+    public synchronized void start() throws IOException {
+
+        if(serverChannel != null) {
+            throw new IllegalStateException("The server has already been started");
+        }
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.bind(new InetSocketAddress(port), BACKLOG);
+        serverChannel.configureBlocking(false);
+
+        //every loop shuffles with its own random stream, the first loop also accepts the connections
+        SplittableRandom random = new SplittableRandom();
+        loops = new EventLoop[numLoops];
+        for(int i = 0; i < numLoops; i++ ) {
+            loops[i] = new EventLoop(this, i == 0 ? serverChannel : null, random.split(), "game-server-loop-" + i);
+        }
+        for(EventLoop loop : loops) {
+            loop.start();
+        }
+    }
+
+    /**
+     * Count a new table unless every table is taken
+     * @return true if the table can be played, false if the server is full
+     */
+    boolean tableOpened() {
+
+        if(tables.incrementAndGet() > maxTables) {
+            tables.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Called by a loop when one of its tables is closed
+     */
+    void tableClosed() { tables.decrementAndGet(); }
+
+    /**
+     * Called by the accepting loop for every accepted connection
+     * @return the loop the connection is played on, every loop in turn
+     */
+    EventLoop nextLoop() {
+
+        EventLoop loop = loops[next];
+        next = (next + 1) % loops.length;
+        return loop;
+    }
+
+    /**
+     * Stop accepting connections and close every table
+     */
+    @Override
+    public synchronized void close() {
+
+        if(serverChannel == null) {
+            return;
+        }
+
+        try {
+            serverChannel.close();
+        } catch(IOException ioe) {
+            //already closed
+        }
+
+        //every loop closes its own tables
+        for(EventLoop loop : loops) {
+            loop.close();
+        }
+        try {
+            for(EventLoop loop : loops) {
+                loop.join();
+            }
+        } catch(InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the port the server listens on, only valid after {@link #start()}
+     */
+    public int getPort() { return serverChannel.socket().getLocalPort(); }
+
+    /**
+     * @return the number of tables being played
+     */
+    public int getNumTables() { return tables.get(); }
+
+    /**
+     * @return the maximum number of tables played at the same time
+     */
+    public int getMaxTables() { return maxTables; }
+
+    /**
+     * @return the number of event loop threads
+     */
+    public int getNumLoops() { return numLoops; }
+
+    /**
+     * @return the number of decks in the shoe of every table
+     */
+    public int getNumDecks() { return numDecks; }
+
+    /**
+     * Entry point into the blackjack selector server
+     * @param args optional port, number of decks, maximum number of tables and number of event loops
+     * @throws IOException exception thrown when the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : GameServer.DEFAULT_PORT;
+        int numDecks = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int maxTables = args.length > 2 ? Integer.parseInt(args[2]) : GameServer.DEFAULT_MAX_TABLES;
+        int numLoops = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        SelectorServer server = new SelectorServer(port, numDecks, maxTables, numLoops);
+        server.start();
+
+        System.out.println("Blackjack selector server listening on port " + server.getPort() + " with up to "
+                + maxTables + " tables on " + numLoops + " event loops");
+    }
+}
@@ -0,0 +1,111 @@
+package com.nc.blackjack.server;
+
+import com.nc.blackjack.Blackjack;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.event.TextRenderer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * <h1>TableSession</h1>
+ * TableSession is a single table of the {@link GameServer}. It plays the console
+ * dialog of {@link Blackjack#play} over a connection with its own {@link Game}.
+ * <br>
+ * A session blocks on the connection while it waits for the player, which is
+ * cheap when it runs on a virtual thread. Everything a table holds is sized up
+ * front: the shoe, the hands, a line buffer and the rendered text of a round.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+class TableSession implements Runnable {
+
+    //variable declarations
+    private final GameServer server;
+    private final Socket socket;
+    private final int numDecks;
+    private final SplittableRandom random;
+
+    /**
+     * Constructor - constructs a table for the specified connection
+     * @param server the server that accepted the connection
+     * @param socket the connection of the player
+     * @param numDecks the number of decks in the shoe of the table
+     * @param random the random stream used to shuffle the shoe
+     */
+    TableSession(GameServer server, Socket socket, int numDecks, SplittableRandom random) {
+        this.server = server;
+        this.socket = socket;
+        this.numDecks = numDecks;
+        this.random = random;
+    }
+
+    /**
+     * Play until the player quits or the connection is closed
+     */
+    @Override
+    public void run() {
+
+        try {
+            Game game = new Game(new Deck(numDecks, random));
+            SocketRenderer renderer = new SocketRenderer(socket.getOutputStream());
+            game.setEventSink(renderer);
+
+            Blackjack.play(game, new LineReader(socket.getInputStream()), renderer);
+        }
+        //the player went away
+        catch(IOException | UncheckedIOException | NoSuchElementException e) {
+            //nothing to tell the player, the table is closed below
+        }
+        finally {
+            close();
+            server.tableClosed(this);
+        }
+    }
+
+    /**
+     * Close the connection of the table
+     */
+    void close() {
+        try {
+            socket.close();
+        } catch(IOException ioe) {
+            //the connection is already gone
+        }
+    }
+
+    /**
+     * <h1>SocketRenderer</h1>
+     * SocketRenderer writes the rendered text of a table to its connection.
+     */
+    private static class SocketRenderer extends TextRenderer {
+
+        //variable declarations
+        private final OutputStream out;
+
+        /**
+         * Constructor - constructs a renderer that writes to the specified stream
+         * @param out the stream of the connection
+         */
+        SocketRenderer(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        protected void write(StringBuilder text) {
+            try {
+                out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch(IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.nc.blackjack.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <h1>VirtualThreads</h1>
+ * VirtualThreads creates executors that run every task on its own virtual thread.
+ * <br>
+ * The game is built for Java 17, virtual threads are only final from Java 21. The
+ * executor is looked up when the game runs so the same jar uses virtual threads on
+ * Java 21 or newer and falls back to a cached pool of platform threads otherwise.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public final class VirtualThreads {
+
+    //variable declarations
+    private static final Method NEW_EXECUTOR = lookup();
+
+    /**
+     * Constructor - utility class
+     */
+    private VirtualThreads() {}
+
+    /**
+     * @return the method that creates a virtual thread per task executor, null if there is none
+     */
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch(NoSuchMethodException nsme) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the running Java has virtual threads
+     */
+    public static boolean isAvailable() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Create an executor that starts a new thread for every task. The threads are
+     * virtual threads when the running Java has them.
+     * @return the executor
+     */
+    public static ExecutorService newPerTaskExecutor() {
+
+        if(NEW_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_EXECUTOR.invoke(null);
+            }
+            //virtual threads are a preview feature on Java 19 and 20
+            catch(ReflectiveOperationException | RuntimeException e) {
+                //fall back to platform threads
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+}
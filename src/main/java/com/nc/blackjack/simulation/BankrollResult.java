@@ -0,0 +1,266 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.Hand.RESULT;
+
+import java.util.Locale;
+
+/**
+ * <h1>BankrollResult</h1>
+ * BankrollResult holds the aggregate results of many bankroll paths, each a
+ * session of rounds played from the same starting bankroll: the number of paths
+ * ruined, the {@link ResultStatistics} of the session results, a histogram of the
+ * final bankrolls and the mean bankroll and risk of ruin at evenly spaced
+ * checkpoints of the session. No individual path is kept.
+ * <br>
+ * Every part is a count, a sum or a {@link ResultStatistics}, so results of
+ * different shards merge without their paths. The sums and statistics are floating
+ * point and the merge order changes them in the last bits, so a repeatable result
+ * needs a fixed merge order.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class BankrollResult {
+
+    //variable declarations
+    public static final int BINS_PER_BANKROLL = 50;  //histogram bins per starting bankroll
+    public static final int NUM_BINS = 4 * BINS_PER_BANKROLL;  //final bankrolls of 4 bankrolls and above share the last bin
+    public static final int NUM_CHECKPOINTS = 10;
+    private final double bankroll;
+    private final long sessionRounds;
+    private long paths;
+    private long ruined;
+    private long goalsReached;
+    private long rounds;
+    private double wagered;
+    private final ResultStatistics sessions = new ResultStatistics();
+    private final long[] histogram = new long[NUM_BINS];
+    private final long[] ruinedBy = new long[NUM_CHECKPOINTS];  //paths ruined by every checkpoint
+    private final double[] bankrollSums = new double[NUM_CHECKPOINTS];  //sum of the bankrolls at every checkpoint
+
+    /**
+     * Constructor - constructs an empty result of paths with the specified session
+     * @param bankroll the starting bankroll of every path, in units
+     * @param sessionRounds the number of rounds of a path that is neither ruined nor reaches its goal
+     */
+    BankrollResult(double bankroll, long sessionRounds) {
+        this.bankroll = bankroll;
+        this.sessionRounds = sessionRounds;
+    }
+
+    /**
+     * @param checkpoint the index of a checkpoint
+     * @return the number of rounds played before the checkpoint
+     */
+    public long getCheckpointRound(int checkpoint) {
+        return sessionRounds * (checkpoint + 1) / NUM_CHECKPOINTS;
+    }
+
+    /**
+     * Record the bankroll of a path at a checkpoint
+     * @param checkpoint the index of the checkpoint
+     * @param current the bankroll of the path, in units
+     * @param isRuined true if the path was ruined before the checkpoint
+     */
+    void recordCheckpoint(int checkpoint, double current, boolean isRuined) {
+
+        bankrollSums[checkpoint] += current;
+        if(isRuined) {
+            ruinedBy[checkpoint]++;
+        }
+    }
+
+    /**
+     * Record a finished path
+     * @param current the final bankroll of the path, in units
+     * @param pathRounds the number of rounds played
+     * @param pathWagered the sum of the wagers of the path, in units
+     * @param isRuined true if the path was ruined
+     * @param isGoalReached true if the path stopped at its goal
+     */
+    void recordPath(double current, long pathRounds, double pathWagered, boolean isRuined, boolean isGoalReached) {
+
+        paths++;
+        rounds += pathRounds;
+        wagered += pathWagered;
+        if(isRuined) {
+            ruined++;
+        }
+        if(isGoalReached) {
+            goalsReached++;
+        }
+
+        double net = current - bankroll;
+        sessions.record(net > 0 ? RESULT.WIN : net < 0 ? RESULT.LOSS : RESULT.TIE, net);
+
+        int bin = (int) (current / bankroll * BINS_PER_BANKROLL);
+        histogram[Math.max(0, Math.min(NUM_BINS - 1, bin))]++;
+    }
+
+    /**
+     * Add all the paths of the specified result to this result
+     * @param other the result to add, of the same starting bankroll and session
+     */
+    public void merge(BankrollResult other) {
+
+        if(other.bankroll != bankroll || other.sessionRounds != sessionRounds) {
+            throw new IllegalArgumentException("results of different sessions can not be merged");
+        }
+
+        paths += other.paths;
+        ruined += other.ruined;
+        goalsReached += other.goalsReached;
+        rounds += other.rounds;
+        wagered += other.wagered;
+        sessions.merge(other.sessions);
+
+        //loop through the histogram and the checkpoints and add the counts
+        for(int i = 0; i < NUM_BINS; i++ ) {
+            histogram[i] += other.histogram[i];
+        }
+        for(int i = 0; i < NUM_CHECKPOINTS; i++ ) {
+            ruinedBy[i] += other.ruinedBy[i];
+            bankrollSums[i] += other.bankrollSums[i];
+        }
+    }
+
+    /**
+     * @param count a number of paths
+     * @return the share of all paths, 0 if no paths were played
+     */
+    private double rate(long count) { return paths == 0 ? 0 : (double) count / paths; }
+
+    /**
+     * @return the share of paths that lost the bankroll
+     */
+    public double getRiskOfRuin() { return rate(ruined); }
+
+    /**
+     * @param checkpoint the index of a checkpoint
+     * @return the share of paths that lost the bankroll by the checkpoint
+     */
+    public double getRiskOfRuin(int checkpoint) { return rate(ruinedBy[checkpoint]); }
+
+    /**
+     * The confidence interval of the risk of ruin is the risk plus or minus the margin of error.
+     * @param z the standard normal quantile of the interval, for example {@link ResultStatistics#Z_95}
+     * @return half the width of the confidence interval of the risk of ruin
+     */
+    public double getRiskOfRuinMarginOfError(double z) {
+        double risk = getRiskOfRuin();
+        return paths == 0 ? 0 : z * Math.sqrt(risk * (1 - risk) / paths);
+    }
+
+    /**
+     * @param checkpoint the index of a checkpoint
+     * @return the mean bankroll at the checkpoint, ruined paths and paths at their goal keep their final bankroll
+     */
+    public double getMeanBankroll(int checkpoint) {
+        return paths == 0 ? bankroll : bankrollSums[checkpoint] / paths;
+    }
+
+    /**
+     * @return the units won per unit wagered, the expected value of a wager
+     */
+    public double getWinRate() {
+        return wagered == 0 ? 0 : sessions.getMean() * paths / wagered;
+    }
+
+    /**
+     * The quantile is read from the histogram of final bankrolls and is exact to
+     * one bin, the starting bankroll divided by {@link #BINS_PER_BANKROLL}.
+     * @param p the probability of the quantile, between 0 and 1
+     * @return the session result of the quantile in units, the middle of its bin
+     */
+    public double getQuantile(double p) {
+
+        if(!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("p must be between 0 and 1");
+        }
+
+        //loop through the bins until the share of paths reaches the probability
+        long target = Math.max(1, (long) Math.ceil(p * paths));
+        long seen = 0;
+        int bin = 0;
+        while(bin < NUM_BINS - 1 && (seen += histogram[bin]) < target) {
+            bin++;
+        }
+        return (bin + 0.5) * bankroll / BINS_PER_BANKROLL - bankroll;
+    }
+
+    /**
+     * @return a report of the paths with the 95% confidence interval of the risk of ruin
+     */
+    public String getSummary() {
+
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT,
+                "Paths[%d] Bankroll[%.2f] SessionRounds[%d] Rounds[%d] Wagered[%.2f] WinRate[%.6f]%n" +
+                "RiskOfRuin[%.6f] 95%% CI[%.6f, %.6f] GoalsReached[%d]%n" +
+                "SessionResult Mean[%.4f] StdDev[%.4f] P5[%.2f] P50[%.2f] P95[%.2f]",
+                paths, bankroll, sessionRounds, rounds, wagered, getWinRate(),
+                getRiskOfRuin(), getRiskOfRuin() - getRiskOfRuinMarginOfError(ResultStatistics.Z_95),
+                getRiskOfRuin() + getRiskOfRuinMarginOfError(ResultStatistics.Z_95), goalsReached,
+                sessions.getMean(), sessions.getStandardDeviation(), getQuantile(0.05), getQuantile(0.5),
+                getQuantile(0.95)));
+
+        //loop through the checkpoints and report the trajectory
+        for(int i = 0; i < NUM_CHECKPOINTS; i++ ) {
+            sb.append(String.format(Locale.ROOT, "%nRound[%d] MeanBankroll[%.4f] RiskOfRuin[%.6f]",
+                    getCheckpointRound(i), getMeanBankroll(i), getRiskOfRuin(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return a string representation of the results
+     */
+    public String toString() {
+        return "Paths[" + paths + "] Ruined[" + ruined + "] GoalsReached[" + goalsReached + "] Rounds[" + rounds
+                + "] Wagered[" + wagered + "] MeanResult[" + sessions.getMean() + "]";
+    }
+
+    /**
+     * @return the starting bankroll of every path, in units
+     */
+    public double getBankroll() { return bankroll; }
+
+    /**
+     * @return the number of rounds of a path that is neither ruined nor reaches its goal
+     */
+    public long getSessionRounds() { return sessionRounds; }
+
+    /**
+     * @return the number of paths played
+     */
+    public long getPaths() { return paths; }
+
+    /**
+     * @return the number of paths that lost the bankroll
+     */
+    public long getRuined() { return ruined; }
+
+    /**
+     * @return the number of paths that stopped at their goal
+     */
+    public long getGoalsReached() { return goalsReached; }
+
+    /**
+     * @return the number of rounds played by all paths
+     */
+    public long getRounds() { return rounds; }
+
+    /**
+     * @return the sum of the wagers of all paths, in units
+     */
+    public double getWagered() { return wagered; }
+
+    /**
+     * @return the statistics of the session results, a won session is a path that ends above its starting bankroll
+     */
+    public ResultStatistics getSessions() { return sessions; }
+
+    /**
+     * @return a copy of the histogram of final bankrolls, every bin is the starting bankroll divided by {@link #BINS_PER_BANKROLL}
+     */
+    public long[] getHistogram() { return histogram.clone(); }
+}
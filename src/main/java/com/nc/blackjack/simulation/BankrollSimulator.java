@@ -0,0 +1,300 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.CountingSystem;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Deck.SHUFFLE;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <h1>BankrollSimulator</h1>
+ * BankrollSimulator plays bankroll paths: sessions of rounds from a starting
+ * bankroll where the first seat wagers the bet of a {@link BetSpread} at the true
+ * count of the shoe and is paid the net result of its hands times the wager. A
+ * path stops when the bankroll falls below the smallest bet of the spread, when
+ * it reaches the win goal or after the rounds of the session.
+ * <br>
+ * Every path starts from a freshly shuffled shoe. The state of a path is its
+ * bankroll, wagers and round count, held in locals while the path is played, and
+ * every finished path is added to a {@link BankrollResult} of counts and sums.
+ * Paths are played in fixed size shards on a {@link ForkJoinPool}, every shard
+ * with its own game, shoe and random stream split from the run seed in shard
+ * order, so a run with a given seed produces identical results for any number
+ * of threads. The {@link Strategy} is shared by all threads and must be safe to
+ * call concurrently.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class BankrollSimulator {
+
+    //variable declarations
+    public static final int SHARD_PATHS = 256;  //paths played by a single shard
+    private final Strategy strategy;
+    private final int numPlayers;
+    private final int numDecks;
+    private final double penetration;
+    private final Rules rules;
+    private final CountingSystem system;
+    private final BetSpread spread;
+    private double winGoal;
+
+    /**
+     * Constructor - constructs a bankroll simulator that flat bets one unit at a
+     * single seat of a six deck shoe dealt to three quarters
+     * @param strategy the strategy used for every player decision
+     * @param rules the rules of the game
+     */
+    public BankrollSimulator(Strategy strategy, Rules rules) {
+        this(strategy, 1, 6, 0.75, rules, CountingSystem.HI_LO, BetSpread.flat(1));
+    }
+
+    /**
+     * Constructor - constructs a bankroll simulator where the first seat sizes its
+     * wagers with the specified spread and the other seats fill the table.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     * @param numDecks the number of decks in the shoe
+     * @param penetration the share of the shoe dealt before the cut card
+     * @param rules the rules of the game
+     * @param system the counting system of the true count the wagers are sized by
+     * @param spread the wager of every true count
+     */
+    public BankrollSimulator(Strategy strategy, int numPlayers, int numDecks, double penetration, Rules rules,
+                             CountingSystem system, BetSpread spread) {
+
+        if(strategy == null) {
+            throw new IllegalArgumentException("strategy must not be null");
+        }
+        if(numPlayers < 1) {
+            throw new IllegalArgumentException("numPlayers must be at least 1");
+        }
+        if(rules == null) {
+            throw new IllegalArgumentException("rules must not be null");
+        }
+        if(system == null) {
+            throw new IllegalArgumentException("system must not be null");
+        }
+        if(spread == null) {
+            throw new IllegalArgumentException("spread must not be null");
+        }
+
+        //fail here rather than in every shard
+        new Deck(numDecks, penetration, SHUFFLE.CUT_CARD, new SplittableRandom(0));
+
+        this.strategy = strategy;
+        this.numPlayers = numPlayers;
+        this.numDecks = numDecks;
+        this.penetration = penetration;
+        this.rules = new Rules(rules);
+        this.system = system;
+        this.spread = spread;
+    }
+
+    /**
+     * Stop a path once its bankroll reaches the specified goal, 0 to play every round of the session
+     * @param winGoal the bankroll a path stops at, in units
+     */
+    public void setWinGoal(double winGoal) {
+
+        if(!(winGoal >= 0) || Double.isInfinite(winGoal)) {
+            throw new IllegalArgumentException("winGoal must not be negative");
+        }
+        this.winGoal = winGoal;
+    }
+
+    /**
+     * Play the specified number of paths using all available processors.
+     * @param paths the number of paths to play
+     * @param sessionRounds the number of rounds of a path that is neither ruined nor reaches its goal
+     * @param bankroll the starting bankroll of every path, in units
+     * @param seed the seed of the run
+     * @return the results of all played paths
+     */
+    public BankrollResult run(long paths, long sessionRounds, double bankroll, long seed) {
+        return run(paths, sessionRounds, bankroll, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Play the specified number of paths using the specified number of threads.
+     * @param paths the number of paths to play
+     * @param sessionRounds the number of rounds of a path that is neither ruined nor reaches its goal
+     * @param bankroll the starting bankroll of every path, in units
+     * @param seed the seed of the run
+     * @param parallelism the number of threads used to play the shards
+     * @return the results of all played paths
+     */
+    public BankrollResult run(long paths, long sessionRounds, double bankroll, long seed, int parallelism) {
+
+        if(paths < 0) {
+            throw new IllegalArgumentException("paths must not be negative");
+        }
+        if(sessionRounds < 1) {
+            throw new IllegalArgumentException("sessionRounds must be at least 1");
+        }
+        if(!(bankroll > 0) || Double.isInfinite(bankroll)) {
+            throw new IllegalArgumentException("bankroll must be a positive number");
+        }
+
+        //split a random stream for every shard up front so the streams do not depend on scheduling
+        int numShards = (int) ((paths + SHARD_PATHS - 1) / SHARD_PATHS);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[numShards];
+        for(int i = 0; i < numShards; i++ ) {
+            streams[i] = root.split();
+        }
+
+        Session session = new Session(paths, sessionRounds, bankroll, winGoal);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ShardTask(streams, session, 0, numShards));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Play the paths of a single shard
+     * @param random the random stream of the shard
+     * @param session the session of every path
+     * @param numPaths the number of paths of the shard
+     * @param result the result every finished path is added to
+     */
+    private void playShard(SplittableRandom random, Session session, long numPaths, BankrollResult result) {
+
+        Deck shoe = new Deck(numDecks, penetration, SHUFFLE.CUT_CARD, random);
+        Deck.RunningCount count = shoe.addCount(system);
+        Game game = new Game(shoe, rules);
+        for(int i = 0; i < numPlayers; i++ ) {
+            game.addPlayer("Player" + i);
+        }
+        List<Hand> hands = game.getPlayers().get(0).getHands();
+        double minBet = spread.getMinBet();
+
+        //loop through the paths, every one from a new shoe
+        for(long p = 0; p < numPaths; p++ ) {
+
+            shoe.reshuffle();
+            double current = session.bankroll;
+            double wagered = 0;
+            long rounds = 0;
+            int checkpoint = 0;
+            boolean ruined = current < minBet;
+            boolean goalReached = false;
+
+            while(checkpoint < BankrollResult.NUM_CHECKPOINTS && result.getCheckpointRound(checkpoint) == 0) {
+                result.recordCheckpoint(checkpoint++, current, ruined);
+            }
+
+            while(!ruined && !goalReached && rounds < session.rounds) {
+
+                //the shoe is reshuffled by the reset once the cut card is reached, so the bet is sized after it
+                game.reset();
+                double wager = Math.min(spread.getBet(count.getTrueCount()), current);
+                rounds++;
+
+                try {
+                    game.playRound(strategy);
+
+                    //loop through the hands of the seat, a lost double or split costs more than the wager
+                    //and can take the bankroll below 0, such paths are ruined and fall into histogram bin 0
+                    double net = 0;
+                    for(int i = 0; i < hands.size(); i++ ) {
+                        net += hands.get(i).getNet();
+                    }
+                    current += wager * net;
+                    wagered += wager;
+                }
+                //every card of the shoe is in play, the round is void and nothing is paid
+                catch(DeckException de) {
+                    continue;
+                }
+                finally {
+                    while(checkpoint < BankrollResult.NUM_CHECKPOINTS && result.getCheckpointRound(checkpoint) == rounds) {
+                        result.recordCheckpoint(checkpoint++, current, false);
+                    }
+                }
+
+                ruined = current < minBet;
+                goalReached = session.winGoal > 0 && current >= session.winGoal;
+            }
+
+            //a path that stopped early keeps its final bankroll at every later checkpoint
+            while(checkpoint < BankrollResult.NUM_CHECKPOINTS) {
+                result.recordCheckpoint(checkpoint++, current, ruined);
+            }
+            result.recordPath(current, rounds, wagered, ruined, goalReached);
+        }
+    }
+
+    /**
+     * Session holds the parameters of every path of a run
+     */
+    private static class Session {
+
+        private final long paths;
+        private final long rounds;
+        private final double bankroll;
+        private final double winGoal;
+
+        Session(long paths, long rounds, double bankroll, double winGoal) {
+            this.paths = paths;
+            this.rounds = rounds;
+            this.bankroll = bankroll;
+            this.winGoal = winGoal;
+        }
+    }
+
+    /**
+     * ShardTask plays a range of shards by splitting the range in half until a
+     * single shard remains. The sums and the mean and variance of the session results
+     * are merged in floating point, so the merge order does change the result in the
+     * last bits. The shard tree is fixed by the number of paths and every node merges
+     * its left half into its right half, so a seed gives the same result for any
+     * number of threads.
+     */
+    private class ShardTask extends RecursiveTask<BankrollResult> {
+
+        private static final long serialVersionUID = 1L;
+        private final SplittableRandom[] streams;
+        private final Session session;
+        private final int from;
+        private final int to;
+
+        ShardTask(SplittableRandom[] streams, Session session, int from, int to) {
+            this.streams = streams;
+            this.session = session;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BankrollResult compute() {
+
+            //play a single shard
+            if(to - from <= 1) {
+                BankrollResult result = new BankrollResult(session.bankroll, session.rounds);
+                if(from < to) {
+                    long shardPaths = Math.min(SHARD_PATHS, session.paths - (long) from * SHARD_PATHS);
+                    playShard(streams[from], session, shardPaths, result);
+                }
+                return result;
+            }
+
+            int mid = (from + to) >>> 1;
+            ShardTask left = new ShardTask(streams, session, from, mid);
+            left.fork();
+            BankrollResult result = new ShardTask(streams, session, mid, to).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.nc.blackjack.simulation;
+
+import java.util.Arrays;
+
+/**
+ * <h1>BetSpread</h1>
+ * BetSpread is a betting policy that sizes the wager of a round from the true
+ * count of the shoe before the round is dealt. The wagers are held in a table
+ * indexed by the true count rounded down, so sizing a bet is one array lookup.
+ * <br>
+ * The first wager is bet at the minimum true count and below, the last wager at
+ * the highest true count of the table and above. Wagers are in betting units.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class BetSpread {
+
+    //variable declarations
+    private final int minTrueCount;
+    private final double[] bets;  //wager of every true count from the minimum true count
+    private final double minBet;
+    private final double maxBet;
+
+    /**
+     * Constructor - constructs a bet spread from the wager of every true count
+     * @param minTrueCount the true count of the first wager
+     * @param bets the wager of every true count from the minimum true count, in units
+     */
+    public BetSpread(int minTrueCount, double... bets) {
+
+        if(bets == null || bets.length == 0) {
+            throw new IllegalArgumentException("bets must hold at least one wager");
+        }
+
+        double min = Double.MAX_VALUE;
+        double max = 0;
+
+        //loop through the wagers and validate every one
+        for(double bet : bets) {
+            if(!(bet > 0) || Double.isInfinite(bet)) {
+                throw new IllegalArgumentException("every bet must be a positive number");
+            }
+            min = Math.min(min, bet);
+            max = Math.max(max, bet);
+        }
+
+        this.minTrueCount = minTrueCount;
+        this.bets = bets.clone();
+        this.minBet = min;
+        this.maxBet = max;
+    }
+
+    /**
+     * Create a bet spread that wagers the same at every count
+     * @param bet the wager of every round, in units
+     * @return the flat bet spread
+     */
+    public static BetSpread flat(double bet) {
+        return new BetSpread(0, bet);
+    }
+
+    /**
+     * @param trueCount the true count of the shoe before the round is dealt
+     * @return the wager of the round, in units
+     */
+    public double getBet(double trueCount) {
+
+        //rounded down, so a true count of -0.5 is bet as -1
+        double index = Math.floor(trueCount) - minTrueCount;
+        if(index <= 0) {
+            return bets[0];
+        }
+        return index >= bets.length - 1 ? bets[bets.length - 1] : bets[(int) index];
+    }
+
+    /**
+     * @return the true count of the first wager
+     */
+    public int getMinTrueCount() { return minTrueCount; }
+
+    /**
+     * @return the smallest wager of the spread
+     */
+    public double getMinBet() { return minBet; }
+
+    /**
+     * @return the largest wager of the spread
+     */
+    public double getMaxBet() { return maxBet; }
+
+    /**
+     * @return the largest wager divided by the smallest wager
+     */
+    public double getSpread() { return maxBet / minBet; }
+
+    /**
+     * @return a string representation of the bet spread
+     */
+    public String toString() {
+        return "MinTrueCount[" + minTrueCount + "] Bets" + Arrays.toString(bets);
+    }
+}
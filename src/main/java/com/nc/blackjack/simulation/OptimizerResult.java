@@ -0,0 +1,72 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.TableStrategy;
+
+/**
+ * <h1>OptimizerResult</h1>
+ * OptimizerResult holds the table found by a {@link StrategyOptimizer}, the
+ * number of rounds played to find it and the number of cells that were decided
+ * by the sequential test before every trial was played.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class OptimizerResult {
+
+    //variable declarations
+    private final TableStrategy strategy;
+    private long rounds;
+    private int cells;
+    private int prunedCells;
+
+    /**
+     * Constructor - constructs a result that optimizes the specified table
+     * @param strategy the table the decisions are written to
+     */
+    OptimizerResult(TableStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Record rounds played by the candidates of a cell
+     * @param played the number of rounds
+     */
+    void addRounds(long played) { rounds += played; }
+
+    /**
+     * Record a decided cell
+     */
+    void addCell() { cells++; }
+
+    /**
+     * Record a cell decided before every trial was played
+     */
+    void addPrunedCell() { prunedCells++; }
+
+    /**
+     * @return a string representation of the result
+     */
+    public String toString() {
+        return "Cells[" + cells + "] PrunedCells[" + prunedCells + "] Rounds[" + rounds + "]";
+    }
+
+    /**
+     * @return the optimized table
+     */
+    public TableStrategy getStrategy() { return strategy; }
+
+    /**
+     * @return the number of rounds played by all candidates
+     */
+    public long getRounds() { return rounds; }
+
+    /**
+     * @return the number of cells decided
+     */
+    public int getCells() { return cells; }
+
+    /**
+     * @return the number of cells decided before every trial was played
+     */
+    public int getPrunedCells() { return prunedCells; }
+}
@@ -0,0 +1,202 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Deck.SHUFFLE;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <h1>ParallelSimulator</h1>
+ * ParallelSimulator splits a simulation run into fixed size shards and plays
+ * the shards on a {@link ForkJoinPool}. Every shard gets its own {@link Simulator}
+ * and its own random stream split from the run seed in shard order, so a run
+ * with a given seed produces identical results for any number of threads.
+ * <br>
+ * The {@link Strategy} is shared by all threads and must be safe to call
+ * concurrently. The result of every shard can also be added to a
+ * {@link StripedStatistics} as soon as the shard is finished, so another
+ * thread can follow the progress of a long run.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ParallelSimulator {
+
+    //variable declarations
+    public static final int SHARD_ROUNDS = 1 << 16;  //rounds played by a single shard
+    private final Strategy strategy;
+    private final int numPlayers;
+    private final int numDecks;
+    private final double penetration;
+    private final SHUFFLE shuffle;
+    private final Rules rules;
+
+    /**
+     * Constructor - constructs a parallel simulator with a single player
+     * @param strategy the strategy used for every player decision
+     */
+    public ParallelSimulator(Strategy strategy) {
+        this(strategy, 1);
+    }
+
+    /**
+     * Constructor - constructs a parallel simulator with the specified number
+     * of players all playing the same strategy.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     */
+    public ParallelSimulator(Strategy strategy, int numPlayers) {
+        this(strategy, numPlayers, 1, 1.0, SHUFFLE.CONTINUOUS);
+    }
+
+    /**
+     * Constructor - constructs a parallel simulator with the specified number of
+     * players where every shard deals from its own shoe as specified.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     * @param numDecks the number of decks in the shoe
+     * @param penetration the share of the shoe dealt before the cut card
+     * @param shuffle when the shoe is reshuffled
+     */
+    public ParallelSimulator(Strategy strategy, int numPlayers, int numDecks, double penetration, SHUFFLE shuffle) {
+        this(strategy, numPlayers, numDecks, penetration, shuffle, new Rules());
+    }
+
+    /**
+     * Constructor - constructs a parallel simulator with the specified number of
+     * players where every shard deals from its own shoe as specified and plays by
+     * the specified rules.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     * @param numDecks the number of decks in the shoe
+     * @param penetration the share of the shoe dealt before the cut card
+     * @param shuffle when the shoe is reshuffled
+     * @param rules the rules of the game
+     */
+    public ParallelSimulator(Strategy strategy, int numPlayers, int numDecks, double penetration, SHUFFLE shuffle, Rules rules) {
+
+        if(strategy == null) {
+            throw new IllegalArgumentException("strategy must not be null");
+        }
+        if(numPlayers < 1) {
+            throw new IllegalArgumentException("numPlayers must be at least 1");
+        }
+        if(rules == null) {
+            throw new IllegalArgumentException("rules must not be null");
+        }
+
+        this.strategy = strategy;
+        this.numPlayers = numPlayers;
+        this.numDecks = numDecks;
+        this.penetration = penetration;
+        this.shuffle = shuffle;
+        this.rules = new Rules(rules);
+    }
+
+    /**
+     * Play the specified number of rounds using all available processors.
+     * @param rounds the number of rounds to play
+     * @param seed the seed of the run
+     * @return the results of all played rounds
+     */
+    public SimulationResult run(long rounds, long seed) {
+        return run(rounds, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Play the specified number of rounds using the specified number of threads.
+     * @param rounds the number of rounds to play
+     * @param seed the seed of the run
+     * @param parallelism the number of threads used to play the shards
+     * @return the results of all played rounds
+     */
+    public SimulationResult run(long rounds, long seed, int parallelism) {
+        return run(rounds, seed, parallelism, null);
+    }
+
+    /**
+     * Play the specified number of rounds using the specified number of threads and
+     * add the statistics of every shard to the specified accumulator once it is played.
+     * @param rounds the number of rounds to play
+     * @param seed the seed of the run
+     * @param parallelism the number of threads used to play the shards
+     * @param progress the accumulator updated as shards finish, null for none
+     * @return the results of all played rounds
+     */
+    public SimulationResult run(long rounds, long seed, int parallelism, StripedStatistics progress) {
+
+        if(rounds < 0) {
+            throw new IllegalArgumentException("rounds must not be negative");
+        }
+
+        //split a random stream for every shard up front so the streams do not depend on scheduling
+        int numShards = (int) ((rounds + SHARD_ROUNDS - 1) / SHARD_ROUNDS);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[numShards];
+        for(int i = 0; i < numShards; i++ ) {
+            streams[i] = root.split();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new ShardTask(streams, rounds, 0, numShards, progress));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * ShardTask plays a range of shards by splitting the range in half until a
+     * single shard remains. The mean and variance are merged in floating point, so
+     * the merge order does change the result in the last bits. The shard tree is
+     * fixed by the number of rounds and every node merges its left half into its right
+     * half, so a seed gives the same result for any number of threads.
+     */
+    private class ShardTask extends RecursiveTask<SimulationResult> {
+
+        private static final long serialVersionUID = 1L;
+        private final SplittableRandom[] streams;
+        private final long rounds;
+        private final int from;
+        private final int to;
+        private final StripedStatistics progress;
+
+        ShardTask(SplittableRandom[] streams, long rounds, int from, int to, StripedStatistics progress) {
+            this.streams = streams;
+            this.rounds = rounds;
+            this.from = from;
+            this.to = to;
+            this.progress = progress;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+
+            //play a single shard
+            if(to - from <= 1) {
+                SimulationResult result = new SimulationResult();
+                if(from < to) {
+                    long shardRounds = Math.min(SHARD_ROUNDS, rounds - (long) from * SHARD_ROUNDS);
+                    Deck shoe = new Deck(numDecks, penetration, shuffle, streams[from]);
+                    result.merge(new Simulator(strategy, numPlayers, shoe, rules).run(shardRounds));
+
+                    if(progress != null) {
+                        progress.merge(result.getStatistics());
+                    }
+                }
+                return result;
+            }
+
+            int mid = (from + to) >>> 1;
+            ShardTask left = new ShardTask(streams, rounds, from, mid, progress);
+            left.fork();
+            SimulationResult result = new ShardTask(streams, rounds, mid, to, progress).compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.Hand.RESULT;
+
+import java.util.Locale;
+
+/**
+ * <h1>ResultStatistics</h1>
+ * ResultStatistics accumulates the results of hands as a stream: the number of
+ * hands won, lost and tied and the mean and variance of the net result of a hand
+ * in bets. No individual result is kept, every hand updates the running mean and
+ * sum of squared deviations with Welford's method.
+ * <br>
+ * Two accumulators are combined with {@link #merge(ResultStatistics)} using the
+ * pairwise update of Chan et al., so every thread or shard can keep its own
+ * accumulator and merge at the end. An accumulator is not synchronized, see
+ * {@link StripedStatistics} for one that many threads update at once.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class ResultStatistics {
+
+    //variable declarations
+    public static final double Z_95 = 1.959963984540054;  //standard normal quantile of a 95% interval
+    public static final double Z_99 = 2.5758293035489004;
+    private long wins;
+    private long losses;
+    private long ties;
+    private long count;  //number of net results
+    private double mean;  //mean net result
+    private double m2;  //sum of squared deviations from the mean
+
+    /**
+     * Record a hand that pays even money, a win is +1 bet and a loss is -1 bet
+     * @param result the result of the hand
+     */
+    public void record(RESULT result) {
+
+        if(result == RESULT.WIN) {
+            record(result, 1);
+        }
+        else if(result == RESULT.LOSS) {
+            record(result, -1);
+        }
+        else if(result == RESULT.TIE) {
+            record(result, 0);
+        }
+    }
+
+    /**
+     * Record a hand with the specified net result
+     * @param result the result of the hand
+     * @param net the number of bets won by the player, negative for a loss
+     */
+    public void record(RESULT result, double net) {
+
+        if(result == RESULT.WIN) {
+            wins++;
+        }
+        else if(result == RESULT.LOSS) {
+            losses++;
+        }
+        else if(result == RESULT.TIE) {
+            ties++;
+        }
+        else {
+            //a hand without a result is not counted
+            return;
+        }
+
+        //Welford update of the mean and the squared deviations
+        count++;
+        double delta = net - mean;
+        mean += delta / count;
+        m2 += delta * (net - mean);
+    }
+
+    /**
+     * Add all the results of the specified accumulator to this accumulator
+     * @param other the accumulator to add
+     */
+    public void merge(ResultStatistics other) {
+
+        if(other.count == 0) {
+            return;
+        }
+
+        //pairwise update of the mean and the squared deviations
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+
+        wins += other.wins;
+        losses += other.losses;
+        ties += other.ties;
+    }
+
+    /**
+     * Remove every result
+     */
+    public void clear() {
+        wins = 0;
+        losses = 0;
+        ties = 0;
+        count = 0;
+        mean = 0;
+        m2 = 0;
+    }
+
+    /**
+     * @return the mean net result of a hand in bets, the expected value of the player
+     */
+    public double getMean() { return mean; }
+
+    /**
+     * @return the sample variance of the net result of a hand, 0 for fewer than two hands
+     */
+    public double getVariance() { return count < 2 ? 0 : m2 / (count - 1); }
+
+    /**
+     * @return the sample standard deviation of the net result of a hand
+     */
+    public double getStandardDeviation() { return Math.sqrt(getVariance()); }
+
+    /**
+     * @return the standard error of the mean
+     */
+    public double getStandardError() { return count == 0 ? 0 : Math.sqrt(getVariance() / count); }
+
+    /**
+     * The confidence interval of the mean is the mean plus or minus the margin of error.
+     * @param z the standard normal quantile of the interval, for example {@link #Z_95}
+     * @return half the width of the confidence interval of the mean
+     */
+    public double getMarginOfError(double z) { return z * getStandardError(); }
+
+    /**
+     * @param hands the number of hands with an outcome
+     * @return the share of all hands, 0 if no hands were recorded
+     */
+    private double rate(long hands) { return count == 0 ? 0 : (double) hands / count; }
+
+    /**
+     * @return the share of hands won
+     */
+    public double getWinRate() { return rate(wins); }
+
+    /**
+     * @return the share of hands lost
+     */
+    public double getLossRate() { return rate(losses); }
+
+    /**
+     * @return the share of hands tied
+     */
+    public double getTieRate() { return rate(ties); }
+
+    /**
+     * @return a report of the results with the 95% confidence interval of the mean
+     */
+    public String getSummary() {
+
+        double margin = getMarginOfError(Z_95);
+        return String.format(Locale.ROOT,
+                "Hands[%d] Wins[%d] Losses[%d] Ties[%d]%n" +
+                "WinRate[%.4f] LossRate[%.4f] TieRate[%.4f]%n" +
+                "EV[%.6f] Variance[%.6f] StdDev[%.6f] StdError[%.6f]%n" +
+                "95%% CI[%.6f, %.6f]",
+                count, wins, losses, ties, getWinRate(), getLossRate(), getTieRate(),
+                mean, getVariance(), getStandardDeviation(), getStandardError(), mean - margin, mean + margin);
+    }
+
+    /**
+     * @return a string representation of the results
+     */
+    public String toString() {
+        return "Hands[" + count + "] EV[" + mean + "] StdDev[" + getStandardDeviation() + "]";
+    }
+
+    /**
+     * @return the number of hands recorded
+     */
+    public long getCount() { return count; }
+
+    /**
+     * @return the number of hands won
+     */
+    public long getWins() { return wins; }
+
+    /**
+     * @return the number of hands lost
+     */
+    public long getLosses() { return losses; }
+
+    /**
+     * @return the number of hands tied
+     */
+    public long getTies() { return ties; }
+}
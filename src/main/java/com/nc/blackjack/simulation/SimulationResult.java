@@ -0,0 +1,108 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.Hand.RESULT;
+
+/**
+ * <h1>SimulationResult</h1>
+ * SimulationResult holds the aggregate results of a simulation run: the
+ * number of rounds played and the {@link ResultStatistics} of every hand, with
+ * the number of hands won, lost and tied and the mean and variance of the
+ * result of a hand. No individual hand is kept.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class SimulationResult {
+
+    //variable declarations
+    private long rounds;
+    private long voidRounds;
+    private final ResultStatistics hands = new ResultStatistics();
+
+    /**
+     * Record a completed round
+     */
+    void recordRound() { rounds++; }
+
+    /**
+     * Record a round that could not be completed
+     */
+    void recordVoidRound() { voidRounds++; }
+
+    /**
+     * Record the result of a single hand
+     * @param result the result of the hand
+     * @param net the net result of the hand in bets
+     */
+    void recordHand(RESULT result, double net) { hands.record(result, net); }
+
+    /**
+     * Add all the results of the specified result to this result
+     * @param other the result to add
+     */
+    public void merge(SimulationResult other) {
+        rounds += other.rounds;
+        voidRounds += other.voidRounds;
+        hands.merge(other.hands);
+    }
+
+    /**
+     * The house edge is the average number of bets lost by the player per hand,
+     * from the net result of every hand with its doubles, naturals and surrenders.
+     * @return the house edge as a fraction of the bet, or 0 if no hands were played
+     */
+    public double getHouseEdge() {
+        return getHands() == 0 ? 0 : -hands.getMean();
+    }
+
+    /**
+     * @return a report of the rounds and of the statistics of every hand
+     */
+    public String getSummary() {
+        return "Rounds[" + rounds + "] Void[" + voidRounds + "] HouseEdge[" + getHouseEdge() + "]"
+                + System.lineSeparator() + hands.getSummary();
+    }
+
+    /**
+     * @return a string representation of the results
+     */
+    public String toString() {
+        return "Rounds[" + rounds + "] Hands[" + getHands() + "] Wins[" + getWins() + "] Losses[" + getLosses() +
+                "] Ties[" + getTies() + "] Void[" + voidRounds + "] HouseEdge[" + getHouseEdge() + "]";
+    }
+
+    /**
+     * @return the number of completed rounds
+     */
+    public long getRounds() { return rounds; }
+
+    /**
+     * @return the number of rounds that could not be completed
+     */
+    public long getVoidRounds() { return voidRounds; }
+
+    /**
+     * @return the number of hands played
+     */
+    public long getHands() { return hands.getCount(); }
+
+    /**
+     * @return the number of hands won
+     */
+    public long getWins() { return hands.getWins(); }
+
+    /**
+     * @return the number of hands lost
+     */
+    public long getLosses() { return hands.getLosses(); }
+
+    /**
+     * @return the number of hands tied
+     */
+    public long getTies() { return hands.getTies(); }
+
+    /**
+     * @return the statistics of every hand played
+     */
+    public ResultStatistics getStatistics() { return hands; }
+}
@@ -0,0 +1,149 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.history.HandHistoryLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * <h1>Simulator</h1>
+ * Simulator plays rounds of blackjack in-process without any console
+ * input or output. Every player decision comes from a {@link Strategy}
+ * and the results of all hands are collected into a {@link SimulationResult}.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class Simulator {
+
+    //variable declarations
+    private final Game game;
+    private final Strategy strategy;
+    private HandHistoryLog history;
+
+    /**
+     * Constructor - constructs a simulator with a single player
+     * @param strategy the strategy used for every player decision
+     */
+    public Simulator(Strategy strategy) {
+        this(strategy, 1);
+    }
+
+    /**
+     * Constructor - constructs a simulator with the specified number of players
+     * all playing the same strategy.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     */
+    public Simulator(Strategy strategy, int numPlayers) {
+        this(strategy, numPlayers, new SplittableRandom());
+    }
+
+    /**
+     * Constructor - constructs a simulator with the specified number of players
+     * that shuffles using the specified random stream. Two simulators created with
+     * streams from the same seed will produce the same results.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     * @param random the random stream used to shuffle the deck
+     */
+    public Simulator(Strategy strategy, int numPlayers, SplittableRandom random) {
+        this(strategy, numPlayers, new Deck(random));
+    }
+
+    /**
+     * Constructor - constructs a simulator with the specified number of players
+     * that deals from the specified shoe.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     * @param shoe the deck or shoe the rounds are dealt from
+     */
+    public Simulator(Strategy strategy, int numPlayers, Deck shoe) {
+        this(strategy, numPlayers, shoe, new Rules());
+    }
+
+    /**
+     * Constructor - constructs a simulator with the specified number of players
+     * that deals from the specified shoe and plays by the specified rules.
+     * @param strategy the strategy used for every player decision
+     * @param numPlayers the number of players at the table
+     * @param shoe the deck or shoe the rounds are dealt from
+     * @param rules the rules of the game
+     */
+    public Simulator(Strategy strategy, int numPlayers, Deck shoe, Rules rules) {
+
+        if(strategy == null) {
+            throw new IllegalArgumentException("strategy must not be null");
+        }
+        if(numPlayers < 1) {
+            throw new IllegalArgumentException("numPlayers must be at least 1");
+        }
+
+        this.strategy = strategy;
+        this.game = new Game(shoe, rules);
+
+        for(int i = 0; i < numPlayers; i++ ) {
+            game.addPlayer("Player" + i);
+        }
+    }
+
+    /**
+     * Append every played round to a hand history log, null to stop logging.
+     * Void rounds are not logged.
+     * @param history the log the rounds are appended to
+     */
+    public void setHistory(HandHistoryLog history) { this.history = history; }
+
+    /**
+     * Play the specified number of rounds and return the aggregate results.
+     * @param rounds the number of rounds to play
+     * @return the results of all played rounds
+     */
+    public SimulationResult run(long rounds) {
+
+        SimulationResult result = new SimulationResult();
+
+        for(long r = 0; r < rounds; r++ ) {
+
+            game.reset();
+
+            try {
+                game.playRound(strategy);
+            }
+            //every card of the shoe is in play, the round is void just like a restart in the console game
+            catch(DeckException de) {
+                result.recordVoidRound();
+                continue;
+            }
+
+            result.recordRound();
+            List<Player> players = game.getPlayers();
+            for(int i = 0; i < players.size(); i++ ) {
+                List<Hand> hands = players.get(i).getHands();
+                for(int j = 0; j < hands.size(); j++ ) {
+                    result.recordHand(hands.get(j).getResult(), hands.get(j).getNet());
+                }
+            }
+
+            if(history != null) {
+                try {
+                    history.appendRound(game);
+                }
+                catch(IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }
+        }
+
+        return result;
+    }
+}
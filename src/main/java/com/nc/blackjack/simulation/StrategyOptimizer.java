@@ -0,0 +1,512 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.TableStrategy;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <h1>StrategyOptimizer</h1>
+ * StrategyOptimizer searches for the best decision of every cell of a
+ * {@link TableStrategy}, a player total and a dealer upcard, by playing rounds
+ * through {@link Game#playRound(Strategy)}. Every candidate decision of a cell is a
+ * copy of the table with the cell changed, and every trial deals the same shoe to
+ * all candidates: the player starts with two cards of the cell total against the
+ * upcard and the rest of the shoe is shuffled once per trial. The candidates are
+ * compared on the difference of their results in the same trials, which has a far
+ * smaller variance than the results themselves.
+ * <br>
+ * The trials of a cell are played in batches, split into chunks that run on a
+ * {@link ForkJoinPool}. After every batch a sequential test drops each candidate
+ * that trails the leader by more than {@link #setZ(double)} standard errors of
+ * their difference, and the cell is decided once one candidate is left or every
+ * trial has been played. Without pruning, see {@link Double#POSITIVE_INFINITY},
+ * every candidate plays every trial like a brute force search. The trials of a
+ * cell only depend on the seed and the cell, so a run gives the same table for any
+ * number of threads and the pruned search plays the same trials as the brute force
+ * search until a candidate is dropped.
+ * <br>
+ * Cells are decided from the highest totals down, so the decisions a hand reaches
+ * after a hit are already optimized. Splits and surrenders are not played during
+ * the search and their rows are kept from the starting table.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class StrategyOptimizer {
+
+    //variable declarations
+    public static final int CHUNK_TRIALS = 512;  //trials played by a single task
+    public static final int BATCH_CHUNKS = 16;
+    public static final int BATCH_TRIALS = CHUNK_TRIALS * BATCH_CHUNKS;  //trials between two tests
+    public static final double DEFAULT_Z = 3.0;
+    private static final int NOT_PLAYED = Strategy.bit(DECISION.SPLIT) | Strategy.bit(DECISION.SURRENDER);
+    private final Rules rules;
+    private final int numDecks;
+    private final DECISION[] candidates;
+    private long maxTrials = 1 << 18;
+    private double z = DEFAULT_Z;
+
+    /**
+     * Constructor - constructs an optimizer for the specified rules and shoe
+     * @param rules the rules of the game, a double is a candidate if the rules allow it
+     * @param numDecks the number of decks in the shoe
+     */
+    public StrategyOptimizer(Rules rules, int numDecks) {
+
+        if(rules == null) {
+            throw new IllegalArgumentException("rules must not be null");
+        }
+        if(numDecks < 1) {
+            throw new IllegalArgumentException("numDecks must be at least 1");
+        }
+
+        this.rules = new Rules(rules);
+        this.numDecks = numDecks;
+        this.candidates = Strategy.isAllowed(rules.getAllowed(Rules.TWO_CARDS), DECISION.DOUBLE)
+                ? new DECISION[]{DECISION.HIT, DECISION.STAND, DECISION.DOUBLE}
+                : new DECISION[]{DECISION.HIT, DECISION.STAND};
+    }
+
+    /**
+     * Set the number of trials after which a cell is decided by the highest mean
+     * @param maxTrials the number of trials, rounded up to whole batches
+     */
+    public void setMaxTrials(long maxTrials) {
+
+        if(maxTrials < 1) {
+            throw new IllegalArgumentException("maxTrials must be at least 1");
+        }
+        this.maxTrials = maxTrials;
+    }
+
+    /**
+     * Set the number of standard errors a candidate must trail the leader by to be dropped
+     * @param z the standard normal quantile of the test, infinite to never drop a candidate
+     */
+    public void setZ(double z) {
+
+        if(!(z > 0)) {
+            throw new IllegalArgumentException("z must be a positive number");
+        }
+        this.z = z;
+    }
+
+    /**
+     * Optimize every hard total from 4 to 20 and every soft total from 12 to 20
+     * using all available processors.
+     * @param start the table the search starts from, it is not changed
+     * @param seed the seed of the run
+     * @return the optimized table and the number of rounds played
+     */
+    public OptimizerResult optimize(TableStrategy start, long seed) {
+        return optimize(start, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Optimize every hard total from 4 to 20 and every soft total from 12 to 20
+     * using the specified number of threads.
+     * @param start the table the search starts from, it is not changed
+     * @param seed the seed of the run
+     * @param parallelism the number of threads used to play the chunks
+     * @return the optimized table and the number of rounds played
+     */
+    public OptimizerResult optimize(TableStrategy start, long seed, int parallelism) {
+
+        OptimizerResult result = new OptimizerResult(new TableStrategy(start));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            //a hit on hard 11 and above stays hard, a hit on a soft total is soft or hard 12 and above
+            for(int total = Hand.BLACKJACK - 1; total >= 11; total-- ) {
+                decideRow(pool, result, total, false, seed);
+            }
+            for(int total = Hand.BLACKJACK - 1; total >= 12; total-- ) {
+                decideRow(pool, result, total, true, seed);
+            }
+            for(int total = 10; total >= 4; total-- ) {
+                decideRow(pool, result, total, false, seed);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * Optimize a single row of the table using the specified number of threads.
+     * @param start the table the search starts from, it is not changed
+     * @param total the player total of the row, 4 to 20 hard or 12 to 20 soft
+     * @param soft true if the row is for soft totals
+     * @param seed the seed of the run
+     * @param parallelism the number of threads used to play the chunks
+     * @return the table with the row optimized and the number of rounds played
+     */
+    public OptimizerResult optimizeRow(TableStrategy start, int total, boolean soft, long seed, int parallelism) {
+
+        if(total < (soft ? 12 : 4) || total >= Hand.BLACKJACK) {
+            throw new IllegalArgumentException("total must be between " + (soft ? 12 : 4) + " and 20");
+        }
+
+        OptimizerResult result = new OptimizerResult(new TableStrategy(start));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            decideRow(pool, result, total, soft, seed);
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * Decide every cell of a row and write the decisions to the table of the result
+     */
+    private void decideRow(ForkJoinPool pool, OptimizerResult result, int total, boolean soft, long seed) {
+
+        TableStrategy table = result.getStrategy();
+        for(int upcardValue = 1; upcardValue <= TableStrategy.NUM_UPCARDS; upcardValue++ ) {
+
+            Cell cell = new Cell(total, soft, upcardValue);
+            CellStrategy[] strategies = new CellStrategy[candidates.length];
+            for(int c = 0; c < candidates.length; c++ ) {
+                TableStrategy copy = new TableStrategy(table);
+                copy.set(total, soft, upcardValue, candidates[c]);
+                strategies[c] = new CellStrategy(copy);
+            }
+
+            //the trials of the cell only depend on the seed and the cell
+            SplittableRandom random = new SplittableRandom(seed ^ (cell.index() + 1) * 0x9E3779B97F4A7C15L);
+            int k = candidates.length;
+            boolean[] live = new boolean[k];
+            Arrays.fill(live, true);
+            int numLive = k;
+            double[] sums = new double[k + k * k];
+            long[] played = new long[k];
+            long trials = 0;
+
+            //loop through the batches until one candidate is left or every trial is played
+            while(numLive > 1 && trials < maxTrials) {
+
+                SplittableRandom[] streams = new SplittableRandom[BATCH_CHUNKS];
+                for(int i = 0; i < BATCH_CHUNKS; i++ ) {
+                    streams[i] = random.split();
+                }
+
+                double[] batch = pool.invoke(new ChunkTask(cell, strategies, live, streams, 0, BATCH_CHUNKS));
+                for(int i = 0; i < sums.length; i++ ) {
+                    sums[i] += batch[i];
+                }
+                trials += BATCH_TRIALS;
+                result.addRounds((long) numLive * BATCH_TRIALS);
+                for(int c = 0; c < k; c++ ) {
+                    played[c] += live[c] ? BATCH_TRIALS : 0;
+                }
+
+                int leader = leader(sums, live);
+                for(int c = 0; c < k; c++ ) {
+                    if(live[c] && c != leader && isBeaten(sums, leader, c, trials)) {
+                        live[c] = false;
+                        numLive--;
+                    }
+                }
+            }
+
+            if(numLive == 1) {
+                result.addPrunedCell();
+            }
+            result.addCell();
+
+            //a double that is not allowed falls back to the better of hit and stand
+            DECISION decision = candidates[leader(sums, live)];
+            int hit = DECISION.HIT.ordinal();
+            int stand = DECISION.STAND.ordinal();
+            DECISION fallback = sums[hit] / played[hit] >= sums[stand] / played[stand] ? DECISION.HIT : DECISION.STAND;
+            table.set(total, soft, upcardValue, decision, decision == DECISION.DOUBLE ? fallback : decision);
+        }
+    }
+
+    /**
+     * @param sums the sums of the results of every candidate followed by the sums of their products
+     * @param live the candidates that are still played
+     * @return the live candidate with the highest sum, the first one of a tie
+     */
+    private static int leader(double[] sums, boolean[] live) {
+
+        int leader = -1;
+        for(int c = 0; c < live.length; c++ ) {
+            if(live[c] && (leader < 0 || sums[c] > sums[leader])) {
+                leader = c;
+            }
+        }
+        return leader;
+    }
+
+    /**
+     * The difference of the results of two candidates in the same trials is tested
+     * against its standard error.
+     * @param sums the sums of the results of every candidate followed by the sums of their products
+     * @param leader the candidate with the highest mean
+     * @param c the candidate tested
+     * @param n the number of trials played by both candidates
+     * @return true if the candidate trails the leader by more than z standard errors
+     */
+    private boolean isBeaten(double[] sums, int leader, int c, long n) {
+
+        int k = candidates.length;
+        double mean = (sums[leader] - sums[c]) / n;
+        double squares = sums[k + leader * k + leader] - 2 * sums[k + leader * k + c] + sums[k + c * k + c];
+        double variance = (squares - n * mean * mean) / (n - 1);
+        return mean > z * Math.sqrt(Math.max(variance, 0) / n);
+    }
+
+    /**
+     * Play a chunk of trials for every live candidate
+     * @return the sums of the results of every candidate followed by the sums of their products
+     */
+    private double[] playChunk(Cell cell, CellStrategy[] strategies, boolean[] live, SplittableRandom random) {
+
+        int k = strategies.length;
+        double[] sums = new double[k + k * k];
+        double[] nets = new double[k];
+
+        TrialDeck deck = new TrialDeck(numDecks, random);
+        Game game = new Game(deck, rules);
+        game.addPlayer("Player");
+        List<Hand> hands = game.getPlayers().get(0).getHands();
+
+        //loop through the trials, every live candidate is dealt the same cards
+        for(int t = 0; t < CHUNK_TRIALS; t++ ) {
+
+            deck.deal(cell);
+            for(int c = 0; c < k; c++ ) {
+
+                nets[c] = 0;
+                if(!live[c]) {
+                    continue;
+                }
+
+                game.reset();
+                deck.rewind();
+                try {
+                    game.playRound(strategies[c]);
+                    for(int i = 0; i < hands.size(); i++ ) {
+                        nets[c] += hands.get(i).getNet();
+                    }
+                }
+                //the round used every card of the shoe and is void
+                catch(DeckException de) {
+                    nets[c] = 0;
+                }
+            }
+
+            for(int c = 0; c < k; c++ ) {
+                sums[c] += nets[c];
+                for(int d = 0; d < k; d++ ) {
+                    sums[k + c * k + d] += nets[c] * nets[d];
+                }
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Cell is a player total and a dealer upcard value
+     */
+    private static class Cell {
+
+        private final int total;
+        private final boolean soft;
+        private final int upcardValue;
+
+        Cell(int total, boolean soft, int upcardValue) {
+            this.total = total;
+            this.soft = soft;
+            this.upcardValue = upcardValue;
+        }
+
+        /**
+         * @return a number that is different for every cell
+         */
+        long index() { return ((soft ? Hand.BLACKJACK + 1 : 0) + total) * TableStrategy.NUM_UPCARDS + upcardValue; }
+    }
+
+    /**
+     * CellStrategy plays a candidate table without splits and surrenders, so the
+     * decision of the cell is the one played
+     */
+    private static class CellStrategy implements Strategy {
+
+        private final TableStrategy table;
+
+        CellStrategy(TableStrategy table) {
+            this.table = table;
+        }
+
+        @Override
+        public DECISION decide(Player player, Hand hand, Card dealerUpcard) {
+            return table.decide(player, hand, dealerUpcard);
+        }
+
+        @Override
+        public DECISION decide(Player player, Hand hand, Card dealerUpcard, int allowed) {
+            return table.decide(player, hand, dealerUpcard, allowed & ~NOT_PLAYED);
+        }
+    }
+
+    /**
+     * TrialDeck deals the same shoe to every candidate of a trial. The player cards
+     * and the upcard of the cell are drawn first, and the rest of the shoe is
+     * shuffled one card at a time as it is dealt, so a trial only shuffles the cards
+     * that are played. A card is drawn the first time any candidate reaches it, and
+     * the cards of every position only depend on the stream of the trial.
+     */
+    private static class TrialDeck extends Deck {
+
+        //variable declarations
+        private static final int UPCARD = 2;  //position of the upcard, the player is dealt the first two cards
+        private final byte[] shoe;  //every card of the shoe in code order
+        private final byte[] order;
+        private final SplittableRandom random;
+        private SplittableRandom trial;  //stream of the current trial
+        private int shuffled;  //cards at the top of the order that are drawn for this trial
+        private int position;
+
+        TrialDeck(int numDecks, SplittableRandom random) {
+
+            this.random = random;
+            shoe = new byte[numDecks * FULL_DECK_SIZE];
+            for(int i = 0; i < shoe.length; i++ ) {
+                shoe[i] = (byte) (i % Card.NUM_CODES);
+            }
+            order = shoe.clone();
+        }
+
+        /**
+         * Draw the cards of a new trial: two cards of the cell total and the upcard.
+         * Every trial starts from the shoe in code order with a stream of its own, so
+         * the cards of a trial do not depend on how many cards earlier trials used.
+         */
+        void deal(Cell cell) {
+
+            System.arraycopy(shoe, 0, order, 0, shoe.length);
+            trial = new SplittableRandom(random.nextLong());
+
+            //draw two cards until they make the total, so every way to make it is as likely as in play
+            int first;
+            int second;
+            do {
+                shuffled = 0;
+                first = Card.value(draw());
+                second = Card.value(draw());
+            } while(!isCell(cell, first, second));
+
+            //draw the upcard from the rest of the shoe
+            int upcard;
+            do {
+                shuffled = UPCARD;
+                upcard = Card.value(draw());
+            } while(upcard != cell.upcardValue);
+            position = 0;
+        }
+
+        /**
+         * Deal the cards of the trial again from the top
+         */
+        void rewind() { position = 0; }
+
+        /**
+         * @return the code of a random card of the rest of the shoe, moved to the top of the rest
+         */
+        private int draw() {
+
+            int j = shuffled + trial.nextInt(order.length - shuffled);
+            byte code = order[j];
+            order[j] = order[shuffled];
+            order[shuffled++] = code;
+            return code;
+        }
+
+        /**
+         * @return true if the two card values make the total of the cell
+         */
+        private static boolean isCell(Cell cell, int first, int second) {
+
+            if(cell.soft) {
+                return (first == 1 || second == 1) && first + second + Card.ACE_HIGH - 1 == cell.total;
+            }
+            return first != 1 && second != 1 && first + second == cell.total;
+        }
+
+        @Override
+        public int dealNextCode() throws DeckException {
+
+            if(position == order.length) {
+                throw new DeckException("The trial used every card of the shoe");
+            }
+            if(position == shuffled) {
+                draw();
+            }
+            return order[position++];
+        }
+
+        @Override
+        public boolean newRound() {
+            return false;
+        }
+    }
+
+    /**
+     * ChunkTask plays a range of chunks by splitting the range in half until a
+     * single chunk remains. Sums are added in range order, so the result does not
+     * depend on the number of threads.
+     */
+    private class ChunkTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+        private final Cell cell;
+        private final CellStrategy[] strategies;
+        private final boolean[] live;
+        private final SplittableRandom[] streams;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Cell cell, CellStrategy[] strategies, boolean[] live, SplittableRandom[] streams, int from, int to) {
+            this.cell = cell;
+            this.strategies = strategies;
+            this.live = live;
+            this.streams = streams;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+
+            //play a single chunk
+            if(to - from <= 1) {
+                return playChunk(cell, strategies, live, streams[from]);
+            }
+
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(cell, strategies, live, streams, from, mid);
+            left.fork();
+            double[] right = new ChunkTask(cell, strategies, live, streams, mid, to).compute();
+            double[] sums = left.join();
+            for(int i = 0; i < sums.length; i++ ) {
+                sums[i] += right[i];
+            }
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.nc.blackjack.simulation;
+
+import com.nc.blackjack.Hand.RESULT;
+
+/**
+ * <h1>StripedStatistics</h1>
+ * StripedStatistics is a {@link ResultStatistics} that many threads update at
+ * the same time. Updates are spread over a fixed number of cells, each with its
+ * own lock, and a thread always uses the cell chosen by its id. With at least as
+ * many cells as threads, a thread almost never waits for another one.
+ * <br>
+ * {@link #snapshot()} merges every cell into a new accumulator. It can be called
+ * at any time, for example to report progress while a simulation is running.
+ *
+ * @version 1.0
+ * @since 1.0
+ */
+public class StripedStatistics {
+
+    //variable declarations
+    private final Cell[] cells;
+    private final int mask;
+
+    /**
+     * Constructor - constructs an accumulator with two cells per processor
+     */
+    public StripedStatistics() {
+        this(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor - constructs an accumulator with at least the specified number of cells
+     * @param numCells the number of cells, rounded up to a power of two
+     */
+    public StripedStatistics(int numCells) {
+
+        if(numCells < 1 || numCells > 1 << 16) {
+            throw new IllegalArgumentException("numCells must be between 1 and 65536");
+        }
+
+        int size = 1;
+        while(size < numCells) {
+            size <<= 1;
+        }
+
+        cells = new Cell[size];
+        mask = cells.length - 1;
+        for(int i = 0; i < cells.length; i++ ) {
+            cells[i] = new Cell();
+        }
+    }
+
+    /**
+     * Record a hand that pays even money in the cell of the calling thread
+     * @param result the result of the hand
+     */
+    public void record(RESULT result) {
+
+        Cell cell = cell();
+        synchronized(cell) {
+            cell.record(result);
+        }
+    }
+
+    /**
+     * Record a hand with the specified net result in the cell of the calling thread
+     * @param result the result of the hand
+     * @param net the number of bets won by the player, negative for a loss
+     */
+    public void record(RESULT result, double net) {
+
+        Cell cell = cell();
+        synchronized(cell) {
+            cell.record(result, net);
+        }
+    }
+
+    /**
+     * Add the results of a whole accumulator, such as the result of a shard, in one step
+     * @param statistics the results to add
+     */
+    public void merge(ResultStatistics statistics) {
+
+        Cell cell = cell();
+        synchronized(cell) {
+            cell.merge(statistics);
+        }
+    }
+
+    /**
+     * @return a new accumulator with the results of every cell
+     */
+    public ResultStatistics snapshot() {
+
+        ResultStatistics total = new ResultStatistics();
+
+        //loop through the cells in order so equal cells give equal totals
+        for(Cell cell : cells) {
+            synchronized(cell) {
+                total.merge(cell);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Remove every result
+     */
+    public void clear() {
+        for(Cell cell : cells) {
+            synchronized(cell) {
+                cell.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cells
+     */
+    public int getNumCells() { return cells.length; }
+
+    /**
+     * @return the cell of the calling thread
+     */
+    private Cell cell() {
+
+        //spread consecutive thread ids over the cells
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return cells[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * Cell is a single stripe. The padding keeps two cells that are allocated
+     * next to each other off the same cache line.
+     */
+    @SuppressWarnings("unused")
+    private static class Cell extends ResultStatistics {
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,143 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.CountingSystem;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.simulation.BankrollResult;
+import com.nc.blackjack.simulation.BankrollSimulator;
+import com.nc.blackjack.simulation.BetSpread;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BankrollSimulator}.
+ */
+public class BankrollSimulatorTest {
+
+    public Rules rules;
+    public BankrollSimulator sim;
+    public long paths;
+
+    @Before
+    public void initBankrollSimulatorTest() {
+
+        rules = Rules.casino();
+        sim = new BankrollSimulator(new BasicStrategy(rules), 2, 6, 0.75, rules, CountingSystem.HI_LO,
+                new BetSpread(1, 1, 2, 4, 8));
+        paths = BankrollSimulator.SHARD_PATHS * 2L + 17;
+    }
+
+    @Test
+    public void testBetSpread() {
+
+        BetSpread spread = new BetSpread(1, 1, 2, 4, 8);
+        Assert.assertEquals(spread.getBet(-5), 1, 0);
+        Assert.assertEquals(spread.getBet(1.99), 1, 0);
+        Assert.assertEquals(spread.getBet(2), 2, 0);
+        Assert.assertEquals(spread.getBet(3.5), 4, 0);
+        Assert.assertEquals(spread.getBet(40), 8, 0);
+        Assert.assertEquals(spread.getSpread(), 8, 0);
+
+        //a negative true count is rounded down
+        BetSpread negative = new BetSpread(-1, 0.5, 1);
+        Assert.assertEquals(negative.getBet(-0.5), 0.5, 0);
+        Assert.assertEquals(negative.getBet(0), 1, 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidBet() {
+        new BetSpread(0, 1, 0);
+    }
+
+    @Test
+    public void testEveryPathIsRecorded() {
+
+        BankrollResult result = sim.run(paths, 200, 100, 42L, 2);
+        Assert.assertEquals(result.getPaths(), paths);
+        Assert.assertEquals(result.getSessions().getCount(), paths);
+
+        long binned = 0;
+        for(long count : result.getHistogram()) {
+            binned += count;
+        }
+        Assert.assertEquals(binned, paths);
+
+        //the last checkpoint is the end of every path
+        Assert.assertEquals(result.getCheckpointRound(BankrollResult.NUM_CHECKPOINTS - 1), 200);
+        Assert.assertEquals(result.getRiskOfRuin(BankrollResult.NUM_CHECKPOINTS - 1), result.getRiskOfRuin(), 0);
+        Assert.assertEquals(result.getMeanBankroll(BankrollResult.NUM_CHECKPOINTS - 1),
+                100 + result.getSessions().getMean(), 1e-9);
+        Assert.assertTrue(result.getWagered() >= result.getRounds());
+    }
+
+    @Test
+    public void testSameSeedSameResultForAnyThreadCount() {
+
+        BankrollResult one = sim.run(paths, 100, 50, 42L, 1);
+        BankrollResult four = sim.run(paths, 100, 50, 42L, 4);
+
+        Assert.assertEquals(one.toString(), four.toString());
+        Assert.assertArrayEquals(one.getHistogram(), four.getHistogram());
+    }
+
+    @Test
+    public void testSmallBankrollIsRuined() {
+
+        //a bankroll of the smallest bet is ruined by the first lost hand
+        BankrollResult result = sim.run(paths, 1000, 1, 7L, 2);
+        Assert.assertTrue(result.getRiskOfRuin() > 0.9);
+        Assert.assertEquals(result.getQuantile(0.5), -1, 1.0 / BankrollResult.BINS_PER_BANKROLL);
+
+        //the risk of ruin never falls along the session
+        for(int i = 1; i < BankrollResult.NUM_CHECKPOINTS; i++ ) {
+            Assert.assertTrue(result.getRiskOfRuin(i) >= result.getRiskOfRuin(i - 1));
+        }
+    }
+
+    @Test
+    public void testLargeBankrollIsNotRuined() {
+
+        BankrollResult result = sim.run(paths, 100, 10000, 7L, 2);
+        Assert.assertEquals(result.getRuined(), 0);
+        Assert.assertEquals(result.getRounds(), paths * 100);
+        Assert.assertEquals(result.getRiskOfRuinMarginOfError(1.96), 0, 0);
+    }
+
+    @Test
+    public void testWinGoalStopsPaths() {
+
+        sim.setWinGoal(101);
+        BankrollResult result = sim.run(paths, 1000, 100, 7L, 2);
+        Assert.assertTrue(result.getGoalsReached() > 0);
+        Assert.assertTrue(result.getGoalsReached() + result.getRuined() <= paths);
+        Assert.assertTrue(result.getRounds() < paths * 1000);
+    }
+
+    @Test
+    public void testFlatBetWinRateIsExpectedValue() {
+
+        //flat betting one unit, the units won per unit wagered is the expected value of a hand
+        BankrollSimulator flat = new BankrollSimulator(new BasicStrategy(rules), rules);
+        BankrollResult result = flat.run(2000, 100, 1000, 11L, 2);
+        Assert.assertEquals(result.getWagered(), result.getRounds(), 0);
+        Assert.assertEquals(result.getWinRate(), 0, 0.03);
+    }
+
+    @Test
+    public void testWagerIsSizedAfterReshuffle() {
+
+        //the shoe is reshuffled before every round, so every wager is bet at a true count of 0
+        BetSpread steep = new BetSpread(-1, 100, 1, 100);
+        BankrollSimulator shuffled = new BankrollSimulator(new BasicStrategy(rules), 1, 1, 0.01, rules,
+                CountingSystem.HI_LO, steep);
+        BankrollResult result = shuffled.run(100, 50, 10000, 3L, 1);
+        Assert.assertEquals(result.getRounds(), 100 * 50);
+        Assert.assertEquals(result.getWagered(), result.getRounds(), 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidBankroll() {
+        sim.run(1, 1, 0, 1L, 1);
+    }
+}
@@ -0,0 +1,143 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.TableStrategy;
+import com.nc.blackjack.simulation.SimulationResult;
+import com.nc.blackjack.simulation.Simulator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link BasicStrategy}.
+ */
+public class BasicStrategyTest {
+
+    public BasicStrategy strategy;
+    public Card ace, six, seven, ten, two;
+
+    @Before
+    public void initBasicStrategyTest() {
+
+        strategy = new BasicStrategy();
+        ace = new Card(Card.SUIT.SPADE, Card.RANK.ACE);
+        two = new Card(Card.SUIT.CLUB, Card.RANK.TWO);
+        six = new Card(Card.SUIT.HEART, Card.RANK.SIX);
+        seven = new Card(Card.SUIT.DIAMOND, Card.RANK.SEVEN);
+        ten = new Card(Card.SUIT.CLUB, Card.RANK.KING);
+    }
+
+    @Test
+    public void testHardTotals() {
+
+        //hard 16 stands against a 6 and hits against a 7
+        Hand hand = hand(ten, six);
+        Assert.assertEquals(strategy.decide(null, hand, six), DECISION.STAND);
+        Assert.assertEquals(strategy.decide(null, hand, seven), DECISION.HIT);
+
+        //hard 12 hits against a 2
+        Assert.assertEquals(strategy.decide(null, hand(ten, two), two), DECISION.HIT);
+
+        //hard 17 always stands
+        Assert.assertEquals(strategy.decide(null, hand(ten, seven), ace), DECISION.STAND);
+    }
+
+    @Test
+    public void testSoftTotals() {
+
+        //soft 18 stands against a 7 and hits against a 10
+        Hand hand = hand(ace, seven);
+        Assert.assertEquals(strategy.decide(null, hand, seven), DECISION.STAND);
+        Assert.assertEquals(strategy.decide(null, hand, ten), DECISION.HIT);
+
+        //an ace that would bust as 11 is hard, A 6 10 is hard 17
+        Assert.assertEquals(strategy.decide(null, hand(ace, six, ten), ten), DECISION.STAND);
+    }
+
+    @Test
+    public void testChartRows() {
+
+        TableStrategy table = new TableStrategy(strategy);
+        Assert.assertEquals(table.getRow(12, false), "HHSSSHHHHH");
+
+        table.setRow(12, false, "SSSSSSSSSS");
+        Assert.assertEquals(table.get(12, false, 2), DECISION.STAND);
+
+        //the copy does not change the original
+        Assert.assertEquals(strategy.get(12, false, 2), DECISION.HIT);
+    }
+
+    @Test
+    public void testRulesStrategy() {
+
+        BasicStrategy casino = new BasicStrategy(Rules.casino());
+        int all = Rules.casino().getAllowed(Rules.TWO_CARDS | Rules.PAIR);
+
+        //11 doubles, or hits when it may not double
+        Hand eleven = hand(six, new Card(Card.SUIT.HEART, Card.RANK.FIVE));
+        Assert.assertEquals(casino.decide(null, eleven, six, all), DECISION.DOUBLE);
+        Assert.assertEquals(casino.decide(null, eleven, six), DECISION.HIT);
+
+        //soft 18 doubles against a 4 or stands
+        Hand soft18 = hand(ace, seven);
+        Assert.assertEquals(casino.decide(null, soft18, new Card(Card.SUIT.HEART, Card.RANK.FOUR), all), DECISION.DOUBLE);
+        Assert.assertEquals(casino.decide(null, soft18, new Card(Card.SUIT.HEART, Card.RANK.FOUR)), DECISION.STAND);
+        Assert.assertEquals(casino.getRow(18, true), "SddddSSHHH");
+
+        //aces are split, 16 surrenders against a 10 unless it may not
+        Assert.assertEquals(casino.decide(null, hand(ace, ace), ten, all), DECISION.SPLIT);
+        Assert.assertEquals(casino.decide(null, hand(ten, six), ten, all), DECISION.SURRENDER);
+        Assert.assertEquals(casino.decide(null, hand(ten, six), ten, Strategy.HIT_STAND), DECISION.HIT);
+        Assert.assertEquals(casino.getPairRow(9), "PPPPP-PP--");
+
+        //the hit or stand chart is the same
+        Assert.assertEquals(casino.getRow(12, false), strategy.getRow(12, false));
+    }
+
+    @Test
+    public void testCasinoRulesHouseEdge() {
+
+        //the full strategy under good rules loses less than hit or stand under the original rules
+        Rules rules = Rules.casino();
+        SimulationResult casino = new Simulator(new BasicStrategy(rules), 1, new Deck(6, 0.75, new SplittableRandom(3)), rules).run(200000);
+        SimulationResult original = new Simulator(strategy, 1, new Deck(6, 0.75, new SplittableRandom(3))).run(200000);
+
+        Assert.assertTrue(casino.getHouseEdge() < original.getHouseEdge());
+        Assert.assertTrue(Math.abs(casino.getHouseEdge()) < 0.02);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidChartRow() {
+        new TableStrategy().setRow(12, false, "HHX");
+    }
+
+    @Test
+    public void testBeatsDealerMimic() {
+
+        //basic strategy loses less than hitting below 17
+        SimulationResult basic = new Simulator(strategy).run(200000);
+        SimulationResult mimic = new Simulator((p, h, u) -> h.getMaxHandValue() < 17 || h.getMinHandValue() < 12
+                ? DECISION.HIT : DECISION.STAND).run(200000);
+
+        Assert.assertTrue(basic.getHouseEdge() < mimic.getHouseEdge());
+    }
+
+    /**
+     * Helper method to build a hand
+     */
+    private Hand hand(Card... cards) {
+        Hand h = new Hand();
+        for(Card c : cards) {
+            h.insertCard(c);
+        }
+        return h;
+    }
+}
@@ -42,4 +42,23 @@ public class CardTest {
         String expected = "KH";
         Assert.assertEquals(card.toString(), expected);
     }
+
+    @Test
+    public void testCardCode() {
+
+        Card card = new Card(SUIT.DIAMOND, RANK.QUEEN);
+        int code = card.getCode();
+
+        //the code is a view of the same card
+        Assert.assertTrue(Card.valueOf(code).equals(card));
+        Assert.assertSame(Card.valueOf(code), Card.valueOf(code));
+        Assert.assertEquals(Card.value(code), 10);
+        Assert.assertFalse(Card.isAce(code));
+        Assert.assertEquals(Card.toString(code), "QD");
+
+        //every code is unique and between 0 and 51
+        Assert.assertEquals(new Card(SUIT.HEART, RANK.ACE).getCode(), 0);
+        Assert.assertEquals(new Card(SUIT.SPADE, RANK.KING).getCode(), Card.NUM_CODES - 1);
+        Assert.assertTrue(Card.isAce(new Card(SUIT.CLUB, RANK.ACE).getCode()));
+    }
 }
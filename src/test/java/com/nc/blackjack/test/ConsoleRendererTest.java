@@ -0,0 +1,112 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.event.ConsoleRenderer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link ConsoleRenderer}.
+ */
+public class ConsoleRendererTest {
+
+    public ByteArrayOutputStream outContent;
+    public ConsoleRenderer console;
+    public Player player, dealer;
+    public Hand pHand, dHand;
+
+    @Before
+    public void initConsoleRendererTest() {
+
+        outContent = new ByteArrayOutputStream();
+        console = new ConsoleRenderer(new PrintStream(outContent));
+        player = new Player("player", Player.TYPE.PLAYER);
+        dealer = new Player(Player.DEALER_USER, Player.TYPE.DEALER);
+
+        pHand = player.getHands().get(0);
+        pHand.insertCard(new Card(Card.SUIT.CLUB, Card.RANK.TEN));
+        pHand.insertCard(new Card(Card.SUIT.HEART, Card.RANK.SIX));
+        dHand = dealer.getHands().get(0);
+        dHand.insertCard(new Card(Card.SUIT.SPADE, Card.RANK.NINE));
+        dHand.insertCard(new Card(Card.SUIT.DIAMOND, Card.RANK.ACE));
+    }
+
+    @Test
+    public void testNothingPrintedBeforeFlush() {
+
+        console.print("text");
+        console.turn(player, pHand, dHand);
+        Assert.assertEquals(outContent.size(), 0);
+
+        console.close();
+        Assert.assertTrue(outContent.toString().startsWith("text\nPlayer player is showing ["));
+    }
+
+    @Test
+    public void testPlayerTurn() {
+
+        console.turn(player, pHand, dHand);
+
+        //the first two cards are shown with the turn, a hit is shown with the card
+        Card five = new Card(Card.SUIT.SPADE, Card.RANK.FIVE);
+        pHand.insertCard(five);
+        console.cardDealt(player, pHand, five.getCode());
+        pHand.setOptimalHandValue();
+        console.decision(player, pHand, DECISION.STAND);
+        console.close();
+
+        String showing = "\nPlayer player is showing [" + pHand.toString() + "] Total[21] Dealer is showing [" + dHand.toStringHidden() + "]";
+        Assert.assertEquals(outContent.toString(),
+                "\nPlayer player is showing [" + Card.toString(pHand.getCode(0)) + "," + Card.toString(pHand.getCode(1))
+                        + "] Total[16] Dealer is showing [" + dHand.toStringHidden() + "]"
+                        + "\nPlayer player is dealt a [" + five.toString() + "]" + showing
+                        + "Player player will STAND with [" + pHand.toString() + "] Total[21]\n");
+    }
+
+    @Test
+    public void testDealerStand() {
+
+        dHand.setOptimalHandValue();
+        console.turn(dealer, dHand, dHand);
+        console.stand(dealer, dHand);
+        console.close();
+
+        Assert.assertEquals(outContent.toString(), "\nDealer is showing [" + dHand.toString() + "]"
+                + "\nDealer must STAND with [" + dHand.toString() + "] Total[20]");
+    }
+
+    @Test
+    public void testResult() {
+
+        pHand.setOptimalHandValue();
+        dHand.setOptimalHandValue();
+        console.result(player, pHand, dHand, Hand.RESULT.LOSS);
+        console.close();
+
+        Assert.assertTrue(outContent.toString().endsWith("\n\nRESULT: Player player LOSES to the dealer\n"));
+    }
+
+    @Test
+    public void testPlayRound() throws Exception {
+
+        Game g = new Game(new SplittableRandom(7));
+        g.addPlayer("player");
+        g.setEventSink(console);
+        g.playRound((p, h, u) -> DECISION.STAND);
+        console.close();
+
+        String out = outContent.toString();
+        Assert.assertTrue(out.startsWith("\nPlayer player is showing ["));
+        Assert.assertTrue(out.contains("\nDealer is showing ["));
+        Assert.assertTrue(out.contains("\n\nRESULT: "));
+    }
+}
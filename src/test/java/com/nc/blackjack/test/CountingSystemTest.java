@@ -0,0 +1,49 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.CountingSystem;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CountingSystem}.
+ */
+public class CountingSystemTest {
+
+    @Test
+    public void testWeights() {
+
+        Assert.assertEquals(CountingSystem.HI_LO.getWeight(Card.RANK.ACE), -1);
+        Assert.assertEquals(CountingSystem.HI_LO.getWeight(Card.RANK.FIVE), 1);
+        Assert.assertEquals(CountingSystem.HI_LO.getWeight(Card.RANK.EIGHT), 0);
+        Assert.assertEquals(CountingSystem.HI_LO.getWeight(Card.RANK.KING), -1);
+
+        //every suit of a rank has the weight of the rank
+        for(Card.SUIT suit : Card.SUIT.values()) {
+            Assert.assertEquals(CountingSystem.ZEN.getWeight(new Card(suit, Card.RANK.SIX).getCode()), 2);
+        }
+    }
+
+    @Test
+    public void testBalanced() {
+
+        Assert.assertTrue(CountingSystem.HI_LO.isBalanced());
+        Assert.assertTrue(CountingSystem.HI_OPT_I.isBalanced());
+        Assert.assertTrue(CountingSystem.HI_OPT_II.isBalanced());
+        Assert.assertTrue(CountingSystem.OMEGA_II.isBalanced());
+        Assert.assertTrue(CountingSystem.ZEN.isBalanced());
+        Assert.assertTrue(CountingSystem.WONG_HALVES.isBalanced());
+        Assert.assertFalse(CountingSystem.KO.isBalanced());
+        Assert.assertEquals(CountingSystem.WONG_HALVES.getDivisor(), 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingRank() {
+        new CountingSystem("short", new int[]{1, 2, 3}, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDivisor() {
+        new CountingSystem("zero", new int[13], 0);
+    }
+}
@@ -0,0 +1,116 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.analysis.Composition;
+import com.nc.blackjack.analysis.DealerProbabilities;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link DealerProbabilities}.
+ */
+public class DealerProbabilitiesTest {
+
+    public DealerProbabilities dealer;
+    public int six, seven, ace;
+
+    @Before
+    public void initDealerProbabilitiesTest() {
+
+        dealer = new DealerProbabilities();
+        six = new Card(Card.SUIT.HEART, Card.RANK.SIX).getCode();
+        seven = new Card(Card.SUIT.CLUB, Card.RANK.SEVEN).getCode();
+        ace = new Card(Card.SUIT.SPADE, Card.RANK.ACE).getCode();
+    }
+
+    @Test
+    public void testDistributionSumsToOne() {
+
+        for(int rank = 0; rank < Card.NUM_CODES; rank += 4 ) {
+
+            int[] counts = Composition.fullShoe(1);
+            counts[Composition.index(rank)]--;
+
+            double sum = 0;
+            for(double p : dealer.distribution(rank, counts)) {
+                sum += p;
+            }
+            Assert.assertEquals(sum, 1.0, 1e-12);
+        }
+    }
+
+    @Test
+    public void testOnlyTensLeft() {
+
+        int[] counts = new int[Composition.NUM_INDEXES];
+        counts[Composition.TEN] = 16;
+
+        //7 and a ten stands on 17
+        Assert.assertEquals(dealer.probability(seven, counts, 0), 1.0, 1e-12);
+
+        //6 and a ten must hit 16 and bust
+        Assert.assertEquals(dealer.probability(six, counts, DealerProbabilities.BUST), 1.0, 1e-12);
+
+        //ace and a ten is 21
+        Assert.assertEquals(dealer.probability(ace, counts, 4), 1.0, 1e-12);
+    }
+
+    @Test
+    public void testSixDeckBustProbability() {
+
+        //a dealer showing 6 busts about 42% of the time in a six deck shoe
+        int[] counts = Composition.fullShoe(6);
+        counts[Composition.index(six)]--;
+
+        Assert.assertEquals(dealer.probability(six, counts, DealerProbabilities.BUST), 0.42, 0.01);
+    }
+
+    @Test
+    public void testDistributionIsCopy() {
+
+        int[] counts = Composition.fullShoe(1);
+        double[] first = dealer.distribution(seven, counts);
+        first[0] = -1;
+
+        Assert.assertNotEquals(dealer.distribution(seven, counts)[0], -1, 1e-12);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCompositionTooLarge() {
+        Composition.key(Composition.fullShoe(16));
+    }
+
+    @Test
+    public void testShoeMatchesComposition() throws DeckException {
+
+        Deck shoe = new Deck(2, new SplittableRandom(7));
+        shoe.reshuffle();
+        for(int i = 0; i < 30; i++ ) {
+            shoe.dealNextCode();
+        }
+
+        int[] counts = Composition.of(shoe);
+        Assert.assertArrayEquals(dealer.distribution(six, DealerProbabilities.NO_HOLE_CARD, shoe.getRemaining()), dealer.distribution(six, counts), 0);
+        Assert.assertEquals(dealer.probability(ace, DealerProbabilities.NO_HOLE_CARD, shoe.getRemaining(), DealerProbabilities.BUST),
+                new DealerProbabilities().probability(ace, counts, DealerProbabilities.BUST), 1e-12);
+    }
+
+    @Test
+    public void testHoleCardIsPutBack() throws DeckException {
+
+        Deck shoe = new Deck(2, new SplittableRandom(7));
+        shoe.reshuffle();
+        for(int i = 0; i < 30; i++ ) {
+            shoe.dealNextCode();
+        }
+        int[] counts = Composition.of(shoe);
+        int hole = shoe.dealNextCode();
+
+        Assert.assertArrayEquals(dealer.distribution(six, hole, shoe.getRemaining()), dealer.distribution(six, counts), 1e-12);
+    }
+}
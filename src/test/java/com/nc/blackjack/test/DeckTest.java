@@ -1,12 +1,16 @@
 package com.nc.blackjack.test;
 
 import com.nc.blackjack.Card;
+import com.nc.blackjack.CountingSystem;
 import com.nc.blackjack.Deck;
+import com.nc.blackjack.analysis.Composition;
 import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.Assert;
 
+import java.util.SplittableRandom;
+
 /**
  * Created by patrick.sharkey on 2/8/2016.
  */
@@ -92,4 +96,260 @@ public class DeckTest {
             deck.dealNextCard();
         }
     }
+
+    @Test
+    public void testDealNextCode() throws DeckException {
+
+        Deck deck = new Deck();
+
+        //unshuffled deck deals codes in order
+        for(int i = 0; i < Deck.FULL_DECK_SIZE; i++ ) {
+            int code = deck.dealNextCode();
+            Assert.assertEquals(Card.toString(code), expectedDeck[i]);
+        }
+        Assert.assertTrue(deck.isEmpty());
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testGetDeckIsReadOnly() {
+        Deck deck = new Deck();
+        deck.getDeck().remove(0);
+    }
+
+    @Test
+    public void testMultiDeckShoe() throws DeckException {
+
+        Deck shoe = new Deck(8);
+        Assert.assertEquals(shoe.getNumDecks(), 8);
+        Assert.assertEquals(shoe.getSize(), 8 * Deck.FULL_DECK_SIZE);
+
+        //every card appears once per deck
+        int[] counts = new int[Card.NUM_CODES];
+        while(!shoe.isEmpty()) {
+            counts[shoe.dealNextCode()]++;
+        }
+        for(int count : counts) {
+            Assert.assertEquals(count, 8);
+        }
+    }
+
+    @Test
+    public void testReshuffleReturnsDealtCards() throws DeckException {
+
+        Deck deck = new Deck();
+        deck.shuffleDeck();
+
+        //deal some cards and then collect them again
+        for(int i = 0; i < 10; i++ ) {
+            deck.dealNextCode();
+        }
+        Assert.assertEquals(deck.getSize(), Deck.FULL_DECK_SIZE - 10);
+
+        deck.reshuffle();
+        Assert.assertEquals(deck.getSize(), Deck.FULL_DECK_SIZE);
+
+        //no card is lost or duplicated
+        boolean[] seen = new boolean[Card.NUM_CODES];
+        for(Card c : deck.getDeck()) {
+            Assert.assertFalse(seen[c.getCode()]);
+            seen[c.getCode()] = true;
+        }
+    }
+
+    @Test
+    public void testCutCardShoe() throws DeckException {
+
+        Deck shoe = new Deck(6, 0.75, new SplittableRandom(7));
+        shoe.reshuffle();
+
+        //deal until the cut card, new rounds keep dealing from the same shoe
+        while(!shoe.isCutCardReached()) {
+            shoe.dealNextCode();
+            if(!shoe.isCutCardReached()) {
+                Assert.assertFalse(shoe.isReshuffleDue());
+                Assert.assertFalse(shoe.newRound());
+            }
+        }
+        Assert.assertEquals(shoe.getSize(), 6 * Deck.FULL_DECK_SIZE / 4);
+
+        //the shoe is reshuffled once the round with the cut card is finished
+        Assert.assertTrue(shoe.isReshuffleDue());
+        Assert.assertTrue(shoe.newRound());
+        Assert.assertEquals(shoe.getSize(), 6 * Deck.FULL_DECK_SIZE);
+    }
+
+    @Test
+    public void testContinuousShoe() throws DeckException {
+
+        Deck shoe = new Deck(2, 1.0, Deck.SHUFFLE.CONTINUOUS, new SplittableRandom(7));
+        shoe.dealNextCode();
+        Assert.assertTrue(shoe.isReshuffleDue());
+        Assert.assertTrue(shoe.newRound());
+        Assert.assertEquals(shoe.getSize(), 2 * Deck.FULL_DECK_SIZE);
+    }
+
+    @Test
+    public void testShuffleIsUniform() {
+
+        Deck deck = new Deck(1, new SplittableRandom(11));
+        int code = deck.getDeck().get(0).getCode();  //any card of the deck
+        int shuffles = 1000 * Deck.FULL_DECK_SIZE;
+        int[] positions = new int[Deck.FULL_DECK_SIZE];
+
+        for(int i = 0; i < shuffles; i++ ) {
+            deck.reshuffle();
+            for(int p = 0; p < Deck.FULL_DECK_SIZE; p++ ) {
+                if(deck.getDeck().get(p).getCode() == code) {
+                    positions[p]++;
+                }
+            }
+        }
+
+        //every position is expected 1000 times, the standard deviation is about 31
+        for(int p = 0; p < Deck.FULL_DECK_SIZE; p++ ) {
+            Assert.assertTrue("position " + p + " seen " + positions[p] + " times", Math.abs(positions[p] - 1000) < 150);
+        }
+    }
+
+    @Test
+    public void testEmptyShoeReusesDiscards() throws DeckException {
+
+        Deck shoe = new Deck(1, 1.0, new SplittableRandom(7));
+        shoe.reshuffle();
+
+        //finish a round of 40 cards then deal a round larger than the rest of the shoe
+        for(int i = 0; i < 40; i++ ) {
+            shoe.dealNextCode();
+        }
+        Assert.assertFalse(shoe.newRound());
+
+        int[] counts = new int[Card.NUM_CODES];
+        for(int i = 0; i < 20; i++ ) {
+            counts[shoe.dealNextCode()]++;
+        }
+
+        //no card of the current round is dealt twice
+        for(int count : counts) {
+            Assert.assertTrue(count <= 1);
+        }
+        Assert.assertEquals(shoe.getSize(), Deck.FULL_DECK_SIZE - 20);
+    }
+
+    @Test
+    public void testRunningCount() throws DeckException {
+
+        Deck shoe = new Deck(2, new SplittableRandom(7));
+        Deck.RunningCount hiLo = shoe.addCount(CountingSystem.HI_LO);
+        Deck.RunningCount halves = shoe.addCount(CountingSystem.WONG_HALVES);
+        shoe.reshuffle();
+
+        //loop through the shoe and count every card by hand
+        int expected = 0;
+        while(!shoe.isEmpty()) {
+
+            int code = shoe.dealNextCode();
+            expected += CountingSystem.HI_LO.getWeight(code);
+
+            Assert.assertEquals(hiLo.getRunningCount(), expected, 0);
+            if(!shoe.isEmpty()) {
+                Assert.assertEquals(hiLo.getTrueCount(), expected / shoe.getDecksRemaining(), 1e-9);
+            }
+        }
+
+        //balanced systems count a full shoe to zero
+        Assert.assertEquals(hiLo.getRunningCount(), 0, 0);
+        Assert.assertEquals(halves.getRunningCount(), 0, 0);
+        Assert.assertEquals(hiLo.getTrueCount(), 0, 0);
+    }
+
+    @Test
+    public void testCountStartsWithDealtCards() throws DeckException {
+
+        Deck shoe = new Deck();
+
+        //an unshuffled deck deals the aces first
+        shoe.dealNextCode();
+        shoe.dealNextCode();
+        Deck.RunningCount hiLo = shoe.addCount(CountingSystem.HI_LO);
+        Assert.assertEquals(hiLo.getRunningCount(), -2, 0);
+        Assert.assertEquals(hiLo.getTrueCount(), -2 * 52.0 / 50, 1e-9);
+        Assert.assertEquals(shoe.getDecksRemaining(), 50.0 / 52, 1e-9);
+
+        //a reshuffle starts the count again
+        shoe.reshuffle();
+        Assert.assertEquals(hiLo.getRunningCount(), 0, 0);
+    }
+
+    @Test
+    public void testCountWhenDiscardsAreReused() throws DeckException {
+
+        Deck shoe = new Deck(1, 1.0, new SplittableRandom(7));
+        Deck.RunningCount hiLo = shoe.addCount(CountingSystem.HI_LO);
+        shoe.reshuffle();
+
+        for(int i = 0; i < 40; i++ ) {
+            shoe.dealNextCode();
+        }
+        shoe.newRound();
+
+        //only the cards of the current round are counted once the discards are shuffled back
+        int expected = 0;
+        for(int i = 0; i < 20; i++ ) {
+            expected += CountingSystem.HI_LO.getWeight(shoe.dealNextCode());
+        }
+        Assert.assertEquals(hiLo.getRunningCount(), expected, 0);
+    }
+
+    @Test
+    public void testRemainingCounts() throws DeckException {
+
+        Deck shoe = new Deck(2, 1.0, new SplittableRandom(7));
+        Deck.Remaining remaining = shoe.getRemaining();
+        Assert.assertEquals(remaining.getKey(), Composition.key(Composition.fullShoe(2)));
+
+        //deal past the end of the shoe so the discards are shuffled back once
+        for(int round = 0; round < 4; round++ ) {
+            for(int i = 0; i < 40; i++ ) {
+                shoe.dealNextCode();
+                assertRemaining(shoe);
+            }
+            shoe.newRound();
+        }
+
+        shoe.reshuffle();
+        Assert.assertEquals(remaining.getCount(Card.RANK.KING), 8);
+        Assert.assertEquals(remaining.getValueCount(Composition.TEN), 32);
+        Assert.assertEquals(remaining.getKey(), Composition.key(Composition.fullShoe(2)));
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testRemainingKeyOfLargeShoe() {
+        new Deck(Composition.MAX_DECKS + 1).getRemaining().getKey();
+    }
+
+    /**
+     * Helper method to compare the remaining counts of a shoe with the cards in the shoe
+     */
+    private static void assertRemaining(Deck shoe) {
+
+        int[] ranks = new int[Card.RANK.values().length];
+        int[] composition = new int[Composition.NUM_INDEXES];
+        for(Card c : shoe.getDeck()) {
+            ranks[c.getRank().ordinal()]++;
+            composition[Composition.index(c.getCode())]++;
+        }
+
+        Deck.Remaining remaining = shoe.getRemaining();
+        for(Card.RANK rank : Card.RANK.values()) {
+            Assert.assertEquals(remaining.getCount(rank), ranks[rank.ordinal()]);
+        }
+        Assert.assertArrayEquals(remaining.toComposition(), composition);
+        Assert.assertEquals(remaining.getKey(), Composition.key(composition));
+        Assert.assertEquals(remaining.getSize(), shoe.getSize());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidPenetration() {
+        new Deck(1, 0, new SplittableRandom());
+    }
 }
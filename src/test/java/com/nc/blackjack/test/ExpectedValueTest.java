@@ -0,0 +1,153 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.analysis.Composition;
+import com.nc.blackjack.analysis.DealerProbabilities;
+import com.nc.blackjack.analysis.ExpectedValue;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link ExpectedValue}.
+ */
+public class ExpectedValueTest {
+
+    public ExpectedValue ev;
+    public Card two, five, six, seven, ten, ace;
+
+    @Before
+    public void initExpectedValueTest() {
+
+        ev = new ExpectedValue();
+        two = new Card(Card.SUIT.HEART, Card.RANK.TWO);
+        five = new Card(Card.SUIT.CLUB, Card.RANK.FIVE);
+        six = new Card(Card.SUIT.DIAMOND, Card.RANK.SIX);
+        seven = new Card(Card.SUIT.SPADE, Card.RANK.SEVEN);
+        ten = new Card(Card.SUIT.HEART, Card.RANK.TEN);
+        ace = new Card(Card.SUIT.CLUB, Card.RANK.ACE);
+    }
+
+    @Test
+    public void testOnlyTensLeft() {
+
+        int[] counts = new int[Composition.NUM_INDEXES];
+        counts[Composition.TEN] = 16;
+
+        //dealer showing 7 will stand on 17
+        Assert.assertEquals(ev.stand(hand(ten, ten), seven.getCode(), counts), 1.0, 1e-12);
+        Assert.assertEquals(ev.stand(hand(ten, two), seven.getCode(), counts), -1.0, 1e-12);
+        Assert.assertEquals(ev.stand(hand(ten, seven), seven.getCode(), counts), 0.0, 1e-12);
+
+        //hitting 12 busts, hitting 11 makes 21
+        Assert.assertEquals(ev.hit(hand(ten, two), seven.getCode(), counts), -1.0, 1e-12);
+        Assert.assertEquals(ev.hit(hand(six, five), seven.getCode(), counts), 1.0, 1e-12);
+    }
+
+    @Test
+    public void testBustHand() {
+        Hand bust = hand(ten, ten, two);
+        Assert.assertEquals(ev.stand(bust, six.getCode(), Composition.fullShoe(6)), -1.0, 1e-12);
+        Assert.assertEquals(ev.hit(bust, six.getCode(), Composition.fullShoe(6)), -1.0, 1e-12);
+    }
+
+    @Test
+    public void testShoeMatchesComposition() throws DeckException {
+
+        Deck shoe = new Deck(1, new SplittableRandom(7));
+        shoe.reshuffle();
+        for(int i = 0; i < 20; i++ ) {
+            shoe.dealNextCode();
+        }
+
+        //the shoe overloads compute the same values without a composition array
+        ExpectedValue other = new ExpectedValue();
+        int[] counts = Composition.of(shoe);
+        Hand hand = hand(ten, six);
+        Assert.assertEquals(ev.stand(hand, seven.getCode(), DealerProbabilities.NO_HOLE_CARD, shoe.getRemaining()), other.stand(hand, seven.getCode(), counts), 1e-12);
+        Assert.assertEquals(ev.hit(hand, seven.getCode(), DealerProbabilities.NO_HOLE_CARD, shoe.getRemaining()), other.hit(hand, seven.getCode(), counts), 1e-12);
+        Assert.assertEquals(ev.best(hand, seven.getCode(), DealerProbabilities.NO_HOLE_CARD, shoe.getRemaining()), other.best(hand, seven.getCode(), counts));
+    }
+
+    @Test
+    public void testHoleCardIsPutBack() throws DeckException {
+
+        Deck shoe = new Deck(1, new SplittableRandom(7));
+        shoe.reshuffle();
+        for(int i = 0; i < 20; i++ ) {
+            shoe.dealNextCode();
+        }
+        int[] counts = Composition.of(shoe);
+        int hole = shoe.dealNextCode();
+
+        //the hole card is unknown to the player, so it still counts as a card in the shoe
+        ExpectedValue other = new ExpectedValue();
+        Hand hand = hand(ten, six);
+        Assert.assertEquals(ev.stand(hand, seven.getCode(), hole, shoe.getRemaining()), other.stand(hand, seven.getCode(), counts), 1e-12);
+        Assert.assertEquals(ev.hit(hand, seven.getCode(), hole, shoe.getRemaining()), other.hit(hand, seven.getCode(), counts), 1e-12);
+        Assert.assertNotEquals(ev.stand(hand, seven.getCode(), DealerProbabilities.NO_HOLE_CARD, shoe.getRemaining()),
+                other.stand(hand, seven.getCode(), counts), 1e-12);
+    }
+
+    @Test
+    public void testAgreesWithBasicStrategy() {
+
+        //clear basic strategy decisions in a six deck shoe
+        Assert.assertEquals(best(six, five, six), DECISION.HIT);
+        Assert.assertEquals(best(ten, ten, six), DECISION.STAND);
+        Assert.assertEquals(best(ten, two, two), DECISION.HIT);
+        Assert.assertEquals(best(ten, six, six), DECISION.STAND);
+        Assert.assertEquals(best(ace, seven, seven), DECISION.STAND);
+        Assert.assertEquals(best(ace, six, ten), DECISION.HIT);
+    }
+
+    @Test
+    public void testValueInRange() {
+
+        int[] counts = remaining(6, ten, six, ten);
+        double stand = ev.stand(hand(ten, six), ten.getCode(), counts);
+        double hit = ev.hit(hand(ten, six), ten.getCode(), counts);
+
+        //16 against a 10 is a losing hand either way
+        Assert.assertTrue(stand < -0.4 && stand > -0.6);
+        Assert.assertTrue(hit < -0.4 && hit > -0.6);
+
+        //cached value is the same
+        Assert.assertEquals(ev.hit(hand(ten, six), ten.getCode(), counts), hit, 0);
+    }
+
+    /**
+     * Helper method to find the best decision for a two card hand against an upcard
+     */
+    private DECISION best(Card a, Card b, Card upcard) {
+        return ev.best(hand(a, b), upcard.getCode(), remaining(6, a, b, upcard));
+    }
+
+    /**
+     * Helper method to build the composition of a shoe without the specified cards
+     */
+    private int[] remaining(int numDecks, Card... cards) {
+        int[] counts = Composition.fullShoe(numDecks);
+        for(Card c : cards) {
+            counts[Composition.index(c.getCode())]--;
+        }
+        return counts;
+    }
+
+    /**
+     * Helper method to build a hand
+     */
+    private Hand hand(Card... cards) {
+        Hand h = new Hand();
+        for(Card c : cards) {
+            h.insertCard(c);
+        }
+        return h;
+    }
+}
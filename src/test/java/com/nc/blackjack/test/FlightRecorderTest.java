@@ -0,0 +1,207 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.metrics.DealEvent;
+import com.nc.blackjack.metrics.DecisionEvent;
+import com.nc.blackjack.metrics.ResultEvent;
+import com.nc.blackjack.metrics.RoundEvent;
+import com.nc.blackjack.metrics.ShuffleEvent;
+import com.sun.management.ThreadMXBean;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Tests for the Flight Recorder events of {@link Game}.
+ */
+public class FlightRecorderTest {
+
+    public static final String[] EVENTS = {RoundEvent.NAME, DealEvent.NAME, ShuffleEvent.NAME, DecisionEvent.NAME, ResultEvent.NAME};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    public Recording recording;
+    public Rules rules;
+    public Strategy strategy;
+
+    @Before
+    public void initFlightRecorderTest() {
+        recording = new Recording();
+        rules = Rules.casino();
+        strategy = new BasicStrategy(rules);
+    }
+
+    @After
+    public void closeRecording() {
+        recording.close();
+    }
+
+    @Test
+    public void testEventsCarryTableAndSeat() throws Exception {
+
+        for(String name : EVENTS) {
+            recording.enable(name).withThreshold(Duration.ZERO);
+        }
+        recording.start();
+
+        Game first = newGame();
+        Game second = newGame();
+        playRounds(first, 100);
+        playRounds(second, 50);
+        recording.stop();
+
+        Path file = folder.getRoot().toPath().resolve("blackjack.jfr");
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        Assert.assertEquals(count(events, RoundEvent.NAME, first.getTableId()), 100);
+        Assert.assertEquals(count(events, RoundEvent.NAME, second.getTableId()), 50);
+        Assert.assertEquals(count(events, DealEvent.NAME, first.getTableId()), 100);
+        Assert.assertTrue(count(events, DecisionEvent.NAME, first.getTableId()) > 0);
+        Assert.assertTrue(count(events, ShuffleEvent.NAME, first.getTableId()) > 0);
+
+        //loop through the results, every hand is settled at a seat of its table
+        int results = 0;
+        for(RecordedEvent event : events) {
+            if(event.getEventType().getName().equals(ResultEvent.NAME) && event.getLong("tableId") == first.getTableId()) {
+                int seat = event.getInt("seat");
+                Assert.assertTrue(seat == 0 || seat == 1);
+                results++;
+            }
+        }
+        Assert.assertTrue(results >= 200);
+    }
+
+    @Test
+    public void testResultDurationsAreIndependent() throws Exception {
+
+        recording.enable(ResultEvent.NAME).withThreshold(Duration.ZERO);
+        recording.start();
+        playRounds(newGame(), 200);
+        recording.stop();
+
+        Path file = folder.getRoot().toPath().resolve("results.jfr");
+        recording.dump(file);
+
+        //the game reuses one event, every result must still measure its own duration
+        Set<Duration> durations = new HashSet<>();
+        int results = 0;
+        for(RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if(event.getEventType().getName().equals(ResultEvent.NAME)) {
+                durations.add(event.getDuration());
+                results++;
+            }
+        }
+        Assert.assertTrue(results >= 400);
+        Assert.assertTrue(durations.size() > 1);
+    }
+
+    @Test
+    public void testDefaultThresholdsAllocateNothing() throws Exception {
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        ThreadMXBean threads = (ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        //the events are enabled with the thresholds of their annotations
+        for(String name : EVENTS) {
+            recording.enable(name);
+        }
+        recording.start();
+
+        Game g = newGame();
+        long id = Thread.currentThread().getId();
+
+        //a recording makes the compiler take longer to settle
+        playRounds(g, 60000);
+
+        //the JVM itself can allocate on the thread now and then, such as when a slow round is
+        //committed for the first time, but a round that allocates would show in every window
+        long allocated = 0;
+        for(int window = 0; window < 5; window++ ) {
+            long before = threads.getThreadAllocatedBytes(id);
+            playRounds(g, 20000);
+            allocated = threads.getThreadAllocatedBytes(id) - before;
+            if(allocated == 0) {
+                break;
+            }
+        }
+
+        Assert.assertEquals(allocated, 0);
+    }
+
+    @Test
+    public void testTableIdsAreUnique() {
+        Assert.assertNotEquals(newGame().getTableId(), newGame().getTableId());
+    }
+
+    @Test
+    public void testSettingsFile() throws Exception {
+
+        Configuration configuration;
+        try(Reader reader = new InputStreamReader(getClass().getResourceAsStream("/blackjack.jfc"), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        Map<String, String> settings = configuration.getSettings();
+
+        Assert.assertEquals(configuration.getLabel(), "Blackjack");
+        Assert.assertEquals(settings.get(RoundEvent.NAME + "#threshold"), "0 ms");
+        Assert.assertEquals(settings.get(ResultEvent.NAME + "#enabled"), "true");
+
+        //loop through the events, the settings file configures every one
+        for(String name : EVENTS) {
+            Assert.assertEquals(settings.get(name + "#enabled"), "true");
+        }
+    }
+
+    private Game newGame() {
+
+        Game g = new Game(new Deck(6, 0.75, new SplittableRandom(11)), rules);
+        g.addPlayer("playerA");
+        g.addPlayer("playerB");
+        return g;
+    }
+
+    private void playRounds(Game g, int rounds) throws Exception {
+        for(int i = 0; i < rounds; i++ ) {
+            g.reset();
+            g.playRound(strategy);
+        }
+    }
+
+    private static int count(List<RecordedEvent> events, String name, long tableId) {
+
+        int count = 0;
+        for(RecordedEvent event : events) {
+            if(event.getEventType().getName().equals(name) && event.getLong("tableId") == tableId) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
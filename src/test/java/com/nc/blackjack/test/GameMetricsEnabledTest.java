@@ -0,0 +1,133 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Game;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.history.HandHistoryLog;
+import com.nc.blackjack.history.HandHistoryReplay;
+import com.nc.blackjack.history.ReplayResult;
+import com.nc.blackjack.metrics.GameCounters;
+import com.nc.blackjack.metrics.GameMetrics;
+import com.nc.blackjack.simulation.Simulator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Tests for the instrumentation of {@link Game} with {@link GameMetrics} enabled.
+ * Run by the metrics execution of the surefire plugin, which starts the JVM with
+ * {@code -Dblackjack.metrics=true}.
+ */
+public class GameMetricsEnabledTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    public Rules rules;
+    public Strategy strategy;
+    public Game game;
+
+    @Before
+    public void initGameMetricsEnabledTest() {
+
+        Assert.assertTrue("run with -Dblackjack.metrics=true", GameMetrics.ENABLED);
+
+        rules = Rules.casino();
+        strategy = new BasicStrategy(rules);
+        game = new Game(new Deck(6, 0.75, new SplittableRandom(11)), rules);
+        game.addPlayer("playerA");
+        game.addPlayer("playerB");
+
+        //the game shuffles its shoe when it is created
+        GameMetrics.reset();
+    }
+
+    @Test
+    public void testRoundsAreCounted() throws Exception {
+
+        long rounds = 2000;
+        long hands = 0;
+        long busts = 0;
+        long dealerBusts = 0;
+        long reshuffles = 0;
+
+        //loop through the rounds and count what every round should add to the counters
+        for(int i = 0; i < rounds; i++ ) {
+
+            if(game.reset()) {
+                reshuffles++;
+            }
+            game.playRound(strategy);
+
+            List<Player> players = game.getPlayers();
+            for(int seat = 0; seat < players.size(); seat++ ) {
+                List<Hand> seatHands = players.get(seat).getHands();
+                for(int h = 0; h < seatHands.size(); h++ ) {
+                    hands++;
+                    if(seatHands.get(h).isBust()) {
+                        busts++;
+                    }
+                }
+            }
+            if(game.getDealer().getHands().get(0).isBust()) {
+                dealerBusts++;
+            }
+        }
+
+        GameCounters counters = GameMetrics.COUNTERS;
+        Assert.assertEquals(counters.getRounds(), rounds);
+        Assert.assertEquals(counters.getHands(), hands);
+        Assert.assertEquals(counters.getBusts(), busts);
+        Assert.assertEquals(counters.getDealerBusts(), dealerBusts);
+        Assert.assertEquals(counters.getReshuffles(), reshuffles);
+        Assert.assertEquals(counters.getDeckExceptions(), 0);
+        Assert.assertTrue(reshuffles > 0 && dealerBusts > 0 && busts > 0);
+
+        //every round is dealt and settled once, and every reshuffle shuffles the shoe once
+        Assert.assertEquals(GameMetrics.DEAL_CARDS.getCount(), rounds);
+        Assert.assertEquals(GameMetrics.COMPUTE_WINNERS.getCount(), rounds);
+        Assert.assertEquals(GameMetrics.SHUFFLE.getCount(), reshuffles);
+        Assert.assertTrue(GameMetrics.DEALER_TURN.getCount() > 0 && GameMetrics.DEALER_TURN.getCount() <= rounds);
+        Assert.assertTrue(GameMetrics.PLAYER_DECISION.getCount() > 0);
+    }
+
+    @Test
+    public void testReplayDoesNotReshuffle() throws Exception {
+
+        Path dir = folder.getRoot().toPath().resolve("history");
+        try(HandHistoryLog log = new HandHistoryLog(dir)) {
+            Simulator sim = new Simulator(strategy, 1, new Deck(6, 0.75, new SplittableRandom(7)), rules);
+            sim.setHistory(log);
+            sim.run(500);
+        }
+
+        //the scripted shoe of the replay is only shuffled when its game is created
+        GameMetrics.reset();
+        ReplayResult result = new HandHistoryReplay(rules).replay(dir);
+        Assert.assertTrue(result.toString(), result.isVerified());
+        Assert.assertEquals(result.getRounds(), 500);
+        Assert.assertEquals(GameMetrics.COUNTERS.getReshuffles(), 1);
+        Assert.assertEquals(GameMetrics.SHUFFLE.getCount(), 1);
+    }
+
+    @Test
+    public void testResetClearsMetrics() throws Exception {
+
+        game.reset();
+        game.playRound(strategy);
+        Assert.assertEquals(GameMetrics.COUNTERS.getRounds(), 1);
+
+        GameMetrics.reset();
+        Assert.assertEquals(GameMetrics.COUNTERS.getRounds(), 0);
+        Assert.assertEquals(GameMetrics.DEAL_CARDS.getCount(), 0);
+    }
+}
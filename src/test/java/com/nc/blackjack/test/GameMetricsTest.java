@@ -0,0 +1,110 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.metrics.GameCounters;
+import com.nc.blackjack.metrics.GameMetrics;
+import com.nc.blackjack.metrics.LatencyHistogram;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link GameMetrics}.
+ */
+public class GameMetricsTest {
+
+    public LatencyHistogram histogram;
+
+    @Before
+    public void initGameMetricsTest() {
+        histogram = new LatencyHistogram("test");
+    }
+
+    @Test
+    public void testPercentiles() {
+
+        //loop through 1 to 1000 nanoseconds
+        for(int nanos = 1; nanos <= 1000; nanos++ ) {
+            histogram.record(nanos);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 1000);
+        Assert.assertEquals(histogram.getMeanNanos(), 500.5, 1e-9);
+        Assert.assertEquals(histogram.getMaxNanos(), 1000);
+
+        //a percentile is exact to one bucket, an eighth of its value
+        Assert.assertEquals(histogram.getP50Nanos(), 500, 500 / 8);
+        Assert.assertEquals(histogram.getP99Nanos(), 990, 990 / 8);
+        Assert.assertEquals(histogram.getPercentileNanos(1), 1000);
+        Assert.assertEquals(histogram.getPercentileNanos(0), 1);
+    }
+
+    @Test
+    public void testLargeLatencies() {
+
+        SplittableRandom random = new SplittableRandom(3);
+        long largest = 0;
+        for(int i = 0; i < 1000; i++ ) {
+            long nanos = random.nextLong(Long.MAX_VALUE);
+            largest = Math.max(largest, nanos);
+            histogram.record(nanos);
+        }
+        histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals(histogram.getMaxNanos(), Long.MAX_VALUE);
+        Assert.assertTrue(histogram.getPercentileNanos(1000.0 / 1001) >= largest - largest / 8);
+    }
+
+    @Test
+    public void testReset() {
+
+        histogram.record(42);
+        histogram.reset();
+        Assert.assertEquals(histogram.getCount(), 0);
+        Assert.assertEquals(histogram.getMaxNanos(), 0);
+        Assert.assertEquals(histogram.getP50Nanos(), 0);
+    }
+
+    @Test
+    public void testCounters() {
+
+        GameCounters counters = new GameCounters();
+        counters.round();
+        counters.hand(true);
+        counters.hand(false);
+        counters.dealerBust();
+        counters.reshuffle();
+        counters.deckException();
+
+        Assert.assertEquals(counters.getRounds(), 1);
+        Assert.assertEquals(counters.getHands(), 2);
+        Assert.assertEquals(counters.getBusts(), 1);
+        Assert.assertEquals(counters.getDealerBusts(), 1);
+        Assert.assertEquals(counters.getReshuffles(), 1);
+        Assert.assertEquals(counters.getDeckExceptions(), 1);
+
+        counters.reset();
+        Assert.assertEquals(counters.getHands(), 0);
+    }
+
+    @Test
+    public void testMBeansAreRegistered() throws Exception {
+
+        //registering twice keeps the first registration
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        GameMetrics.register(server);
+        GameMetrics.register(server);
+
+        ObjectName dealCards = new ObjectName(GameMetrics.DOMAIN + ":type=Latency,phase=dealCards");
+        Assert.assertEquals(server.getAttribute(dealCards, "Name"), "dealCards");
+        Assert.assertEquals(server.getAttribute(dealCards, "Count"), GameMetrics.DEAL_CARDS.getCount());
+
+        ObjectName counters = new ObjectName(GameMetrics.DOMAIN + ":type=GameCounters");
+        Assert.assertEquals(server.getAttribute(counters, "Rounds"), GameMetrics.COUNTERS.getRounds());
+        Assert.assertEquals(server.queryNames(new ObjectName(GameMetrics.DOMAIN + ":type=Latency,*"), null).size(), 5);
+    }
+}
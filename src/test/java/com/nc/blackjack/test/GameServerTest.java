@@ -0,0 +1,130 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.server.GameServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for {@link GameServer}.
+ */
+public class GameServerTest {
+
+    public GameServer server;
+
+    @Before
+    public void initGameServerTest() throws IOException {
+        server = new GameServer(0, 1, 2);
+        server.start();
+    }
+
+    @After
+    public void closeServer() {
+        server.close();
+    }
+
+    @Test
+    public void testPlayRound() throws Exception {
+
+        try(Socket socket = connect()) {
+
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            Assert.assertTrue(readUntil(in, "Please enter your player name: ").startsWith("Welcome to Blackjack!"));
+            send(out, "player");
+            readUntil(in, "[enter] ");
+            send(out, "");
+
+            //stand on every decision until the round is over
+            String text;
+            while(!(text = readUntil(in, "[h/s]", "[y/?]\n")).endsWith("[y/?]\n")) {
+                send(out, "s");
+            }
+            Assert.assertTrue(text.contains("RESULT: "));
+
+            //anything but y closes the table
+            send(out, "n");
+            Assert.assertEquals(in.read(), -1);
+        }
+
+        waitForTables(0);
+    }
+
+    @Test
+    public void testServerFull() throws Exception {
+
+        try(Socket a = connect(); Socket b = connect(); Socket c = connect()) {
+
+            readUntil(a.getInputStream(), "name: ");
+            readUntil(b.getInputStream(), "name: ");
+            Assert.assertEquals(server.getNumTables(), 2);
+
+            //the third connection is over the limit
+            Assert.assertTrue(readUntil(c.getInputStream(), "\n").startsWith("The server is full."));
+            Assert.assertEquals(c.getInputStream().read(), -1);
+        }
+
+        waitForTables(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxTables() {
+        new GameServer(0, 1, 0);
+    }
+
+    /**
+     * Helper method to connect to the server
+     */
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(10000);
+        return socket;
+    }
+
+    /**
+     * Helper method to send a line to the server
+     */
+    private static void send(OutputStream out, String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Helper method to read until the text ends with one of the specified prompts
+     */
+    private static String readUntil(InputStream in, String... prompts) throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+        while(true) {
+            int b = in.read();
+            if(b < 0) {
+                throw new IOException("The connection was closed after [" + sb + "]");
+            }
+            sb.append((char) b);
+            for(String prompt : prompts) {
+                if(sb.toString().endsWith(prompt)) {
+                    return sb.toString();
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to wait until the server plays the specified number of tables
+     */
+    private void waitForTables(int numTables) throws InterruptedException {
+        for(int i = 0; i < 1000 && server.getNumTables() != numTables; i++ ) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(server.getNumTables(), numTables);
+    }
+}
@@ -1,15 +1,27 @@
 package com.nc.blackjack.test;
 
+import com.nc.blackjack.BasicStrategy;
 import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
 import com.nc.blackjack.Game;
 import com.nc.blackjack.Hand;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.com.nc.blackjack.exception.DeckException;
+import com.nc.blackjack.event.GameEventSink;
+import com.sun.management.ThreadMXBean;
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
 
 /**
  * Created by patrick.sharkey on 2/8/2016.
@@ -292,4 +304,283 @@ public class GameTest {
         //Assert.assertEquals(outContent.toString(), expected);    //TODO Works on my development MAC but not on PC need to investigate
         Assert.assertEquals(pHand.getResult(), Hand.RESULT.LOSS);
     }
+
+    @Test
+    public void testPlayRound() throws Exception {
+
+        Game g = new Game();
+        g.addPlayer(pUsername);
+
+        //stand on every hand, the result must be decided without any console input
+        g.playRound((p, h, u) -> Strategy.DECISION.STAND);
+
+        Hand pHand = g.getPlayers().get(0).getHands().get(0);
+        Assert.assertEquals(pHand.getSize(), 2);
+        Assert.assertNotEquals(pHand.getResult(), Hand.RESULT.IN_PROGRESS);
+    }
+
+    @Test
+    public void testPlayRoundEvents() throws Exception {
+
+        Game g = new Game();
+        g.addPlayer(pUsername);
+        final int[] counts = new int[4];  //cards dealt, turns, results, flushes
+
+        g.setEventSink(new GameEventSink() {
+            public void cardDealt(Player player, Hand hand, int code) { counts[0]++; }
+            public void turn(Player player, Hand hand, Hand dealerHand) { counts[1]++; }
+            public void decision(Player player, Hand hand, Strategy.DECISION decision) {}
+            public void stand(Player player, Hand hand) {}
+            public void bust(Player player, Hand hand) {}
+            public void result(Player player, Hand hand, Hand dealerHand, Hand.RESULT result) { counts[2]++; }
+            public void flush() { counts[3]++; }
+        });
+        g.playRound((p, h, u) -> Strategy.DECISION.HIT);
+
+        //every card in play was sent to the sink
+        int cards = g.getPlayers().get(0).getHands().get(0).getSize();
+        Assert.assertTrue(counts[0] > cards);
+        Assert.assertEquals(counts[1], 2);
+        Assert.assertEquals(counts[2], 1);
+        Assert.assertTrue(counts[3] > 0);
+    }
+
+    @Test
+    public void testAdvance() throws Exception {
+
+        Game g = new Game();
+        g.addPlayer(pUsername);
+        Assert.assertEquals(g.getState(), Game.STATE.DEAL);
+
+        //hit until the hand is done, the game never blocks waiting for the decision
+        int decisions = 0;
+        while(g.advance() == Game.STATE.DECISION) {
+            Assert.assertTrue(g.needsDecision());
+            Assert.assertEquals(g.getCurrentPlayer().getUsername(), pUsername);
+            g.submitDecision(Strategy.DECISION.HIT);
+            decisions++;
+        }
+
+        Hand pHand = g.getPlayers().get(0).getHands().get(0);
+        Assert.assertEquals(g.getState(), Game.STATE.FINISHED);
+        Assert.assertEquals(pHand.getSize(), 2 + decisions);
+        Assert.assertNotEquals(pHand.getResult(), Hand.RESULT.IN_PROGRESS);
+
+        //a finished round stays finished until the game is reset
+        Assert.assertEquals(g.advance(), Game.STATE.FINISHED);
+        g.reset();
+        Assert.assertEquals(g.getState(), Game.STATE.DEAL);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitDecisionWithoutDecision() throws Exception {
+
+        Game g = new Game();
+        g.addPlayer(pUsername);
+        g.submitDecision(Strategy.DECISION.HIT);
+    }
+
+    @Test
+    public void testResetKeepsHands() throws Exception {
+
+        Game g = new Game();
+        g.addPlayer(pUsername);
+        Hand pHand = g.getPlayers().get(0).getHands().get(0);
+
+        //the same hand is emptied and reused in the next round
+        g.playRound(new BasicStrategy());
+        g.reset();
+        Assert.assertSame(g.getPlayers().get(0).getHands().get(0), pHand);
+        Assert.assertEquals(pHand.getSize(), 0);
+        Assert.assertEquals(pHand.getResult(), Hand.RESULT.IN_PROGRESS);
+    }
+
+    @Test
+    public void testSteadyStateRoundAllocatesNothing() throws Exception {
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        ThreadMXBean threads = (ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Game g = new Game(new SplittableRandom(11));
+        g.addPlayer(pUsername);
+        g.addPlayer("playerB");
+        BasicStrategy strategy = new BasicStrategy();
+        long id = Thread.currentThread().getId();
+
+        //warm up so every class is loaded and every path has been taken
+        playRounds(g, strategy, 20000);
+
+        long before = threads.getThreadAllocatedBytes(id);
+        playRounds(g, strategy, 20000);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        Assert.assertEquals(allocated, 0);
+    }
+
+    @Test
+    public void testCasinoRoundAllocatesNothing() throws Exception {
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported());
+        ThreadMXBean threads = (ThreadMXBean) bean;
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Rules rules = Rules.casino();
+        Game g = new Game(new Deck(6, 0.75, new SplittableRandom(11)), rules);
+        g.addPlayer(pUsername);
+        g.addPlayer("playerB");
+        BasicStrategy strategy = new BasicStrategy(rules);
+        long id = Thread.currentThread().getId();
+
+        //warm up so every split hand has been created
+        playRounds(g, strategy, 20000);
+
+        long before = threads.getThreadAllocatedBytes(id);
+        playRounds(g, strategy, 20000);
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        Assert.assertEquals(allocated, 0);
+    }
+
+    @Test
+    public void testSplitAndDouble() throws Exception {
+
+        //8,8 against 10,7: the first hand draws a 3 and doubles to 21, the second draws a 9 and stands on 17
+        Game g = stacked(Rules.casino(), 28, 29, 40, 24, 8, 36, 32);
+
+        Assert.assertEquals(g.advance(), Game.STATE.DECISION);
+        Assert.assertTrue(Strategy.isAllowed(g.getAllowedDecisions(), DECISION.SPLIT));
+        g.submitDecision(DECISION.SPLIT);
+
+        Assert.assertEquals(g.advance(), Game.STATE.DECISION);
+        Assert.assertEquals(g.getCurrentHand().getSize(), 2);
+        Assert.assertTrue(Strategy.isAllowed(g.getAllowedDecisions(), DECISION.DOUBLE));
+        g.submitDecision(DECISION.DOUBLE);
+
+        //a split hand may not surrender
+        Assert.assertEquals(g.advance(), Game.STATE.DECISION);
+        Assert.assertFalse(Strategy.isAllowed(g.getAllowedDecisions(), DECISION.SURRENDER));
+        g.submitDecision(DECISION.STAND);
+        Assert.assertEquals(g.advance(), Game.STATE.FINISHED);
+
+        Player p = g.getPlayers().get(0);
+        Assert.assertEquals(p.getNumHands(), 2);
+        Assert.assertEquals(p.getHands().get(0).getResult(), Hand.RESULT.WIN);
+        Assert.assertEquals(p.getHands().get(0).getNet(), 2, 0);
+        Assert.assertEquals(p.getHands().get(1).getResult(), Hand.RESULT.TIE);
+        Assert.assertEquals(p.getHands().get(1).getNet(), 0, 0);
+        Assert.assertEquals(p.getHands().get(0).getSplits(), 1);
+    }
+
+    @Test
+    public void testSplitAcesTakeOneCard() throws Exception {
+
+        //A,A against 10,7: each ace is dealt one card and stands
+        Game g = stacked(Rules.casino(), 0, 1, 40, 24, 36, 4);
+
+        Assert.assertEquals(g.advance(), Game.STATE.DECISION);
+        g.submitDecision(DECISION.SPLIT);
+        Assert.assertEquals(g.advance(), Game.STATE.FINISHED);
+
+        //21 on a split hand is not a natural
+        Player p = g.getPlayers().get(0);
+        Assert.assertEquals(p.getHands().get(0).getNet(), 1, 0);
+        Assert.assertEquals(p.getHands().get(1).getSize(), 2);
+        Assert.assertEquals(p.getHands().get(1).getResult(), Hand.RESULT.LOSS);
+    }
+
+    @Test
+    public void testSurrender() throws Exception {
+
+        Game g = stacked(Rules.casino(), 36, 20, 40, 24);
+        Assert.assertEquals(g.advance(), Game.STATE.DECISION);
+        g.submitDecision(DECISION.SURRENDER);
+        Assert.assertEquals(g.advance(), Game.STATE.FINISHED);
+
+        Hand pHand = g.getPlayers().get(0).getHands().get(0);
+        Assert.assertEquals(pHand.getResult(), Hand.RESULT.LOSS);
+        Assert.assertEquals(pHand.getNet(), Rules.SURRENDER_NET, 0);
+    }
+
+    @Test
+    public void testNaturalPaysBlackjackPayout() throws Exception {
+
+        Game g = stacked(Rules.casino(), 0, 48, 40, 24);
+        Assert.assertEquals(g.advance(), Game.STATE.FINISHED);
+
+        Hand pHand = g.getPlayers().get(0).getHands().get(0);
+        Assert.assertEquals(pHand.getResult(), Hand.RESULT.WIN);
+        Assert.assertEquals(pHand.getNet(), 1.5, 0);
+    }
+
+    @Test
+    public void testInsuranceAndDealerNatural() throws Exception {
+
+        //10,9 against A,K: insurance is offered and the dealer natural ends the round
+        Game g = stacked(Rules.casino(), 36, 32, 0, 48);
+        Assert.assertEquals(g.advance(), Game.STATE.INSURANCE);
+        Assert.assertTrue(g.needsInsurance());
+        g.submitInsurance(true);
+        Assert.assertEquals(g.advance(), Game.STATE.FINISHED);
+
+        Hand pHand = g.getPlayers().get(0).getHands().get(0);
+        Assert.assertEquals(pHand.getSize(), 2);
+        Assert.assertEquals(pHand.getResult(), Hand.RESULT.LOSS);
+        Assert.assertEquals(pHand.getNet(), 0, 0);
+    }
+
+    @Test
+    public void testDealerHitsSoft17() throws Exception {
+
+        Rules rules = new Rules();
+        rules.setHitSoft17(true);
+        Game g = stacked(rules, 36, 32, 0, 20, 4);
+        Assert.assertTrue(g.isDealerHit(7, 17));
+        Assert.assertFalse(game.isDealerHit(7, 17));
+
+        //A,6 draws a 2 and stands on 19
+        g.playRound((p, h, u) -> DECISION.STAND);
+        Assert.assertEquals(g.getDealer().getHands().get(0).getHandValue(), 19);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecisionNotAllowed() throws Exception {
+
+        //the original rules only hit or stand
+        Game g = stacked(new Rules(), 36, 20, 40, 24);
+        Assert.assertEquals(g.advance(), Game.STATE.DECISION);
+        Assert.assertEquals(g.getAllowedDecisions(), Strategy.HIT_STAND);
+        g.submitDecision(DECISION.DOUBLE);
+    }
+
+    /**
+     * Helper method to create a game with one player that deals the specified cards first
+     */
+    private Game stacked(Rules rules, int... codes) {
+
+        Deck deck = new Deck(1, 1.0, new SplittableRandom(3)) {
+
+            private int next;
+
+            @Override
+            public int dealNextCode() throws DeckException {
+                return next < codes.length ? codes[next++] : super.dealNextCode();
+            }
+        };
+        Game g = new Game(deck, rules);
+        g.addPlayer(pUsername);
+        return g;
+    }
+
+    /**
+     * Helper method to play the specified number of rounds
+     */
+    private static void playRounds(Game g, Strategy strategy, int rounds) throws Exception {
+        for(int i = 0; i < rounds; i++ ) {
+            g.reset();
+            g.playRound(strategy);
+        }
+    }
 }
@@ -0,0 +1,303 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.history.HandHistoryLog;
+import com.nc.blackjack.history.HandHistoryReader;
+import com.nc.blackjack.history.HandRecord;
+import com.nc.blackjack.simulation.SimulationResult;
+import com.nc.blackjack.simulation.Simulator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link HandHistoryLog}.
+ */
+public class HandHistoryLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    public Path dir;
+    public Hand hand;
+    public Hand dealerHand;
+
+    @Before
+    public void init() {
+        dir = folder.getRoot().toPath().resolve("history");
+
+        hand = new Hand();
+        hand.insertCode(0);   //ACE
+        hand.insertCode(36);  //TEN
+        hand.setResult(Hand.RESULT.WIN);
+
+        dealerHand = new Hand();
+        dealerHand.insertCode(20);
+        dealerHand.insertCode(24);
+        dealerHand.insertCode(28);
+    }
+
+    @Test
+    public void testRoundTripAcrossSegments() throws IOException {
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 4)) {
+            for(int i = 0; i < 10; i++ ) {
+                log.append(i, i % 3, 0, 1, hand, dealerHand, HandRecord.STOOD, 100);
+            }
+            Assert.assertEquals(log.getSegmentIndex(), 2);
+        }
+
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            for(int i = 0; i < 10; i++ ) {
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(reader.getRound(), i);
+                Assert.assertEquals(reader.getSeat(), i % 3);
+                Assert.assertEquals(reader.getResult(), Hand.RESULT.WIN);
+                Assert.assertEquals(reader.getFlags(), HandRecord.STOOD);
+                Assert.assertEquals(reader.getNet(), 1.0, 0);
+                Assert.assertEquals(reader.getNumPlayerCards(), 2);
+                Assert.assertEquals(reader.getPlayerCode(1), 36);
+                Assert.assertEquals(reader.getNumDealerCards(), 3);
+                Assert.assertEquals(reader.getDealerCode(2), 28);
+            }
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testReopenContinuesRounds() throws IOException {
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 4)) {
+            for(int i = 0; i < 8; i++ ) {
+                log.append(i, 0, 0, 1, hand, dealerHand, 0, 100);
+            }
+        }
+
+        //the last segment is full, the next record starts a new one
+        try(HandHistoryLog log = new HandHistoryLog(dir, 4)) {
+            Assert.assertEquals(log.getNextRound(), 8);
+            log.append(log.getNextRound(), 0, 0, 1, hand, dealerHand, 0, 100);
+            Assert.assertEquals(log.getSegmentIndex(), 2);
+        }
+
+        Assert.assertEquals(count(), 9);
+    }
+
+    @Test
+    public void testRecoverTornRecord() throws IOException {
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 16)) {
+            for(int i = 0; i < 6; i++ ) {
+                log.append(i, 0, 0, 1, hand, dealerHand, 0, 100);
+            }
+        }
+
+        //tear the fifth record as if the process stopped while writing it
+        try(RandomAccessFile file = new RandomAccessFile(dir.resolve("hands-00000000.log").toFile(), "rw")) {
+            file.seek(5 * HandRecord.SIZE + HandRecord.PLAYER_CARDS);
+            file.write(51);
+        }
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 16)) {
+            Assert.assertEquals(log.getNextRound(), 4);
+            log.append(log.getNextRound(), 0, 0, 1, hand, dealerHand, 0, -100);
+        }
+
+        //the sixth record was cleared with the torn one
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            for(int i = 0; i < 5; i++ ) {
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(reader.getRound(), i);
+            }
+            Assert.assertEquals(reader.getNetUnits(), -100);
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testRecoverRollsBackIncompleteRound() throws IOException {
+
+        //round 0 has two hands, round 1 has three but the process stopped after two
+        try(HandHistoryLog log = new HandHistoryLog(dir, 16)) {
+            log.append(0, 0, 0, 2, hand, dealerHand, 0, 100);
+            log.append(0, 1, 0, 2, hand, dealerHand, 0, 100);
+            log.append(1, 0, 0, 3, hand, dealerHand, 0, 100);
+            log.append(1, 1, 0, 3, hand, dealerHand, 0, 100);
+        }
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 16)) {
+            Assert.assertEquals(log.getNextRound(), 1);
+        }
+        Assert.assertEquals(count(), 2);
+    }
+
+    @Test
+    public void testRecoverTornRecordOfMultiHandRound() throws IOException {
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 16)) {
+            for(int i = 0; i < 3; i++ ) {
+                log.append(i, 0, 0, 2, hand, dealerHand, 0, 100);
+                log.append(i, 1, 0, 2, hand, dealerHand, 0, 100);
+            }
+        }
+
+        //tear the second hand of round 2, its first hand is rolled back with it
+        try(RandomAccessFile file = new RandomAccessFile(dir.resolve("hands-00000000.log").toFile(), "rw")) {
+            file.seek(6 * HandRecord.SIZE + HandRecord.PLAYER_CARDS);
+            file.write(51);
+        }
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 16)) {
+            Assert.assertEquals(log.getNextRound(), 2);
+        }
+        Assert.assertEquals(count(), 4);
+    }
+
+    @Test
+    public void testRoundIsNotSplitAcrossSegments() throws IOException {
+
+        //two rounds of three hands in segments of four records
+        try(HandHistoryLog log = new HandHistoryLog(dir, 4)) {
+            for(int i = 0; i < 2; i++ ) {
+                for(int seat = 0; seat < 3; seat++ ) {
+                    log.append(i, seat, 0, 3, hand, dealerHand, 0, 100);
+                }
+            }
+            Assert.assertEquals(log.getSegmentIndex(), 1);
+        }
+
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            for(int i = 0; i < 6; i++ ) {
+                Assert.assertTrue(reader.next());
+                Assert.assertEquals(reader.getRound(), i / 3);
+                Assert.assertEquals(reader.getRoundHands(), 3);
+            }
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testCorruptSealedSegment() throws IOException {
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 4)) {
+            for(int i = 0; i < 6; i++ ) {
+                log.append(i, 0, 0, 1, hand, dealerHand, 0, 100);
+            }
+        }
+
+        //corrupt the third record of the first segment, which was sealed when the second was started
+        try(RandomAccessFile file = new RandomAccessFile(dir.resolve("hands-00000000.log").toFile(), "rw")) {
+            file.seek(3 * HandRecord.SIZE + HandRecord.PLAYER_CARDS);
+            file.write(51);
+        }
+
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            Assert.assertTrue(reader.next());
+            Assert.assertTrue(reader.next());
+            try {
+                reader.next();
+                Assert.fail("the corrupt record was skipped");
+            } catch(IOException e) {
+                Assert.assertTrue(e.getMessage().endsWith("hands-00000000.log is corrupt at record 3"));
+            }
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testRoundLargerThanSegment() throws IOException {
+        try(HandHistoryLog log = new HandHistoryLog(dir, 2)) {
+            log.append(0, 0, 0, 3, hand, dealerHand, 0, 100);
+        }
+    }
+
+    @Test
+    public void testRecoverEmptySegment() throws IOException {
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 2)) {
+            for(int i = 0; i < 3; i++ ) {
+                log.append(i, 0, 0, 1, hand, dealerHand, 0, 100);
+            }
+        }
+
+        //the second segment was created but never written
+        Files.write(dir.resolve("hands-00000001.log"), new byte[3 * HandRecord.SIZE]);
+
+        try(HandHistoryLog log = new HandHistoryLog(dir, 2)) {
+            Assert.assertEquals(log.getNextRound(), 2);
+            log.append(log.getNextRound(), 0, 0, 1, hand, dealerHand, 0, 100);
+        }
+        Assert.assertEquals(count(), 3);
+    }
+
+    @Test
+    public void testSimulatorLogsEveryHand() throws IOException {
+
+        Simulator sim = new Simulator((p, h, u) -> Strategy.DECISION.STAND, 2, new SplittableRandom(7));
+        SimulationResult result;
+        try(HandHistoryLog log = new HandHistoryLog(dir, 128)) {
+            sim.setHistory(log);
+            result = sim.run(500);
+            Assert.assertEquals(log.getNextRound(), result.getRounds());
+        }
+
+        //every hand of the simulation is in the log with the same result
+        long wins = 0;
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            while(reader.next()) {
+                if(reader.getResult() == Hand.RESULT.WIN) {
+                    wins++;
+                    Assert.assertEquals(reader.getNetUnits(), 100);
+                }
+            }
+        }
+        Assert.assertEquals(count(), result.getHands());
+        Assert.assertEquals(wins, result.getWins());
+    }
+
+    @Test
+    public void testEmptyDirectory() throws IOException {
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            Assert.assertFalse(reader.next());
+        }
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testNoCurrentRecord() throws IOException {
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            reader.getRound();
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidSegmentRecords() throws IOException {
+        new HandHistoryLog(dir, 0);
+    }
+
+    @Test(expected=IOException.class)
+    public void testNotASegment() throws IOException {
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("hands-00000000.log"), "not a log".getBytes("UTF-8"));
+        new HandHistoryLog(dir);
+    }
+
+    /**
+     * @return the number of records in the log
+     */
+    public long count() throws IOException {
+        long count = 0;
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            while(reader.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,238 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Player;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.history.HandHistoryLog;
+import com.nc.blackjack.history.HandHistoryReader;
+import com.nc.blackjack.history.HandHistoryReplay;
+import com.nc.blackjack.history.HandRecord;
+import com.nc.blackjack.history.ReplayResult;
+import com.nc.blackjack.simulation.SimulationResult;
+import com.nc.blackjack.simulation.Simulator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link HandHistoryReplay}.
+ */
+public class HandHistoryReplayTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    public Path dir;
+    public HandHistoryReplay replay;
+
+    @Before
+    public void init() {
+        dir = folder.getRoot().toPath().resolve("history");
+        replay = new HandHistoryReplay();
+    }
+
+    /**
+     * Helper method to build a hand from card codes
+     */
+    private static Hand hand(Hand.RESULT result, int... codes) {
+        Hand hand = new Hand();
+        for(int code : codes) {
+            hand.insertCode(code);
+        }
+        hand.setResult(result);
+        return hand;
+    }
+
+    @Test
+    public void testSimulationReplays() throws IOException {
+
+        Simulator sim = new Simulator(new BasicStrategy(), 5, new Deck(6, 0.75, new SplittableRandom(11)));
+        SimulationResult simulated;
+        try(HandHistoryLog log = new HandHistoryLog(dir, 1000)) {
+            sim.setHistory(log);
+            simulated = sim.run(2000);
+        }
+
+        ReplayResult result = replay.replay(dir);
+        Assert.assertTrue(result.toString(), result.isVerified());
+        Assert.assertEquals(result.getRounds(), simulated.getRounds());
+        Assert.assertEquals(result.getHands(), simulated.getHands());
+    }
+
+    @Test
+    public void testTornRoundIsIncomplete() throws IOException {
+
+        Simulator sim = new Simulator(new BasicStrategy(), 3, new Deck(6, 0.75, new SplittableRandom(11)));
+        SimulationResult simulated;
+        try(HandHistoryLog log = new HandHistoryLog(dir, 1000)) {
+            sim.setHistory(log);
+            simulated = sim.run(100);
+        }
+
+        //tear the second to last record, the last round has a hand at every seat
+        int records = 0;
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            while(reader.next()) {
+                records++;
+            }
+        }
+        try(RandomAccessFile file = new RandomAccessFile(dir.resolve("hands-00000000.log").toFile(), "rw")) {
+            file.seek((records - 1) * HandRecord.SIZE + HandRecord.PLAYER_CARDS);
+            file.write(51);
+        }
+
+        ReplayResult result = replay.replay(dir);
+        Assert.assertTrue(result.toString(), result.isVerified());
+        Assert.assertEquals(result.getRounds(), simulated.getRounds() - 1);
+        Assert.assertEquals(result.getIncompleteRounds(), 1);
+
+        //recovery clears the torn round
+        try(HandHistoryLog log = new HandHistoryLog(dir, 1000)) {
+            Assert.assertEquals(log.getNextRound(), simulated.getRounds() - 1);
+        }
+
+        result = replay.replay(dir);
+        Assert.assertTrue(result.toString(), result.isVerified());
+        Assert.assertEquals(result.getRounds(), simulated.getRounds() - 1);
+        Assert.assertEquals(result.getIncompleteRounds(), 0);
+    }
+
+    @Test
+    public void testWrongResultIsReported() throws IOException {
+
+        //player 10 and 9 stands, dealer 10 and 7 stands
+        Hand player = hand(Hand.RESULT.WIN, 36, 32);
+        Hand dealer = hand(Hand.RESULT.IN_PROGRESS, 40, 24);
+
+        try(HandHistoryLog log = new HandHistoryLog(dir)) {
+            log.append(0, 0, 0, 1, player, dealer, HandRecord.STOOD, 100);
+
+            //the same round logged as a loss
+            player.setResult(Hand.RESULT.LOSS);
+            log.append(1, 0, 0, 1, player, dealer, HandRecord.STOOD, -100);
+        }
+
+        ReplayResult result = replay.replay(dir);
+        Assert.assertEquals(result.getRounds(), 2);
+        Assert.assertEquals(result.getMismatches(), 1);
+        Assert.assertArrayEquals(result.getMismatchedRounds(), new long[]{1});
+    }
+
+    @Test
+    public void testDealerStandingOnSixteenIsReported() throws IOException {
+
+        //dealer 10 and 6 must hit, but no card was logged
+        Hand player = hand(Hand.RESULT.WIN, 36, 32);
+        Hand dealer = hand(Hand.RESULT.IN_PROGRESS, 40, 20);
+
+        try(HandHistoryLog log = new HandHistoryLog(dir)) {
+            log.append(0, 0, 0, 1, player, dealer, HandRecord.STOOD, 100);
+        }
+
+        Assert.assertEquals(replay.replay(dir).getMismatches(), 1);
+    }
+
+    @Test
+    public void testPlayerHitsAreReplayed() throws IOException {
+
+        //seat 0 hits 2 and 3 to 19, seat 1 busts, dealer draws 5 from 12 to 17
+        Hand first = hand(Hand.RESULT.WIN, 20, 28, 4, 8);
+        Hand second = hand(Hand.RESULT.LOSS, 36, 8, 44);
+        Hand dealer = hand(Hand.RESULT.IN_PROGRESS, 40, 5, 16);
+
+        try(HandHistoryLog log = new HandHistoryLog(dir)) {
+            log.append(0, 0, 0, 2, first, dealer, HandRecord.STOOD, 100);
+            log.append(0, 1, 0, 2, second, dealer, 0, -100);
+        }
+
+        ReplayResult result = replay.replay(dir);
+        Assert.assertTrue(result.toString(), result.isVerified());
+        Assert.assertEquals(result.getHands(), 2);
+    }
+
+    @Test
+    public void testMissingSeatIsReported() throws IOException {
+
+        Hand player = hand(Hand.RESULT.WIN, 36, 32);
+        Hand dealer = hand(Hand.RESULT.IN_PROGRESS, 40, 24);
+
+        try(HandHistoryLog log = new HandHistoryLog(dir)) {
+            log.append(0, 1, 0, 1, player, dealer, HandRecord.STOOD, 100);
+        }
+
+        Assert.assertEquals(replay.replay(dir).getMismatches(), 1);
+    }
+
+    @Test
+    public void testCasinoRulesReplay() throws IOException {
+
+        //splits, doubles, surrenders, insurance and naturals are all logged and replayed
+        Rules rules = Rules.casino();
+        Strategy strategy = new BasicStrategy(rules) {
+            @Override
+            public boolean takeInsurance(Player player, Hand hand, Card dealerUpcard) {
+                return hand.getCode(0) % 2 == 0;
+            }
+        };
+        Simulator sim = new Simulator(strategy, 5, new Deck(6, 0.75, new SplittableRandom(13)), rules);
+        SimulationResult simulated;
+        try(HandHistoryLog log = new HandHistoryLog(dir, 1000)) {
+            sim.setHistory(log);
+            simulated = sim.run(3000);
+        }
+
+        int[] seen = new int[8];
+        try(HandHistoryReader reader = new HandHistoryReader(dir)) {
+            while(reader.next()) {
+                for(int bit = 0; bit < seen.length; bit++ ) {
+                    seen[bit] += (reader.getFlags() >> bit) & 1;
+                }
+            }
+        }
+        for(int bit = 0; bit < 7; bit++ ) {
+            Assert.assertTrue("flag " + bit, seen[bit] > 0);
+        }
+
+        ReplayResult result = new HandHistoryReplay(rules).replay(dir);
+        Assert.assertTrue(result.toString(), result.isVerified());
+        Assert.assertEquals(result.getHands(), simulated.getHands());
+
+        //the same log does not match the rules of the original game
+        Assert.assertFalse(replay.replay(dir).isVerified());
+    }
+
+    @Test
+    public void testSplitIsReplayed() throws IOException {
+
+        //8,8 against a dealer 10,7: the first hand draws a 10 and the second a queen, both stand on 18
+        Rules rules = Rules.casino();
+        Hand first = hand(Hand.RESULT.WIN, 28, 36);
+        Hand second = hand(Hand.RESULT.WIN, 29, 44);
+        Hand dealer = hand(Hand.RESULT.IN_PROGRESS, 40, 24);
+
+        int split = HandRecord.SPLIT | HandRecord.STOOD;
+        try(HandHistoryLog log = new HandHistoryLog(dir)) {
+            log.append(0, 0, 0, 2, first, dealer, split | 1 << HandRecord.SPLITS_SHIFT, 100);
+            log.append(0, 0, 1, 2, second, dealer, split, 100);
+        }
+
+        ReplayResult result = new HandHistoryReplay(rules).replay(dir);
+        Assert.assertTrue(result.toString(), result.isVerified());
+        Assert.assertEquals(result.getHands(), 2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNullRules() {
+        new HandHistoryReplay(null);
+    }
+}
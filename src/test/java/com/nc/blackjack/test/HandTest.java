@@ -215,6 +215,62 @@ public class HandTest {
 
     }
 
+
+    @Test
+    public void testInsertCode() {
+
+        //inserting codes is the same as inserting cards
+        hand.insertCode(cardA.getCode());
+        hand.insertCode(cardD.getCode());
+
+        Assert.assertEquals(hand.getSize(), 2);
+        Assert.assertEquals(hand.getMinHandValue(), 4);
+        Assert.assertEquals(hand.getMaxHandValue(), 14);
+        Assert.assertTrue(hand.getCard(1).equals(cardD));
+        Assert.assertEquals(hand.getCode(0), cardA.getCode());
+
+        resetHand();
+    }
+
+    @Test
+    public void testPackedState() {
+
+        //soft 14
+        hand.insertCard(cardA);
+        hand.insertCard(cardD);
+        Assert.assertEquals(hand.getBestTotal(), 14);
+        Assert.assertTrue(hand.isSoft());
+        Assert.assertEquals(hand.getState(), (4 << 1) | 1);
+
+        //hard 14, the ACE counts as 1
+        hand.insertCard(cardB);
+        Assert.assertEquals(hand.getBestTotal(), 14);
+        Assert.assertFalse(hand.isSoft());
+        Assert.assertTrue(hand.hasAce());
+
+        //hard 21 with an ACE is 21 even though the max hand value is 31
+        hand.insertCard(new Card(Card.SUIT.CLUB, Card.RANK.SEVEN));
+        Assert.assertEquals(hand.getMaxHandValue(), 31);
+        Assert.assertTrue(hand.isTwentyOne());
+        Assert.assertFalse(hand.isBust());
+
+        //bust
+        hand.insertCard(cardD);
+        Assert.assertTrue(hand.isBust());
+        Assert.assertEquals(hand.getBestTotal(), 24);
+
+        //the static lookups agree with the hand
+        int state = 0;
+        for(int i = 0; i < hand.getSize(); i++ ) {
+            state = Hand.next(state, hand.getCode(i));
+        }
+        Assert.assertEquals(state, hand.getState());
+        Assert.assertEquals(Hand.best(state), hand.getBestTotal());
+        Assert.assertTrue(Hand.bust(state));
+
+        resetHand();
+    }
+
     /**
      * Helper method to reset the hand
      */
@@ -0,0 +1,66 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.simulation.ParallelSimulator;
+import com.nc.blackjack.simulation.ResultStatistics;
+import com.nc.blackjack.simulation.SimulationResult;
+import com.nc.blackjack.simulation.StripedStatistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ParallelSimulator}.
+ */
+public class ParallelSimulatorTest {
+
+    public ParallelSimulator sim;
+    public long rounds;
+
+    @Before
+    public void initParallelSimulatorTest() {
+
+        //hit below 17 and stand otherwise
+        sim = new ParallelSimulator((p, h, u) -> h.getMaxHandValue() < 17 || h.getMinHandValue() < 12
+                ? Strategy.DECISION.HIT : Strategy.DECISION.STAND, 2);
+        rounds = ParallelSimulator.SHARD_ROUNDS * 3L + 123;
+    }
+
+    @Test
+    public void testAllRoundsPlayed() {
+
+        SimulationResult result = sim.run(rounds, 42L, 2);
+        Assert.assertEquals(result.getRounds() + result.getVoidRounds(), rounds);
+    }
+
+    @Test
+    public void testSameSeedSameResultForAnyThreadCount() {
+
+        SimulationResult one = sim.run(rounds, 42L, 1);
+        SimulationResult four = sim.run(rounds, 42L, 4);
+
+        Assert.assertEquals(one.toString(), four.toString());
+    }
+
+    @Test
+    public void testDifferentSeedDifferentResult() {
+
+        SimulationResult a = sim.run(rounds, 1L, 2);
+        SimulationResult b = sim.run(rounds, 2L, 2);
+
+        Assert.assertNotEquals(a.toString(), b.toString());
+    }
+
+    @Test
+    public void testProgressHasEveryShard() {
+
+        StripedStatistics progress = new StripedStatistics(4);
+        SimulationResult result = sim.run(rounds, 42L, 2, progress);
+
+        ResultStatistics snapshot = progress.snapshot();
+        Assert.assertEquals(snapshot.getCount(), result.getHands());
+        Assert.assertEquals(snapshot.getWins(), result.getWins());
+        Assert.assertEquals(snapshot.getMean(), result.getStatistics().getMean(), 1e-12);
+        Assert.assertEquals(snapshot.getVariance(), result.getStatistics().getVariance(), 1e-12);
+    }
+}
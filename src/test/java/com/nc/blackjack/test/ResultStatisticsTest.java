@@ -0,0 +1,105 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Hand.RESULT;
+import com.nc.blackjack.simulation.ResultStatistics;
+import com.nc.blackjack.simulation.StripedStatistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link ResultStatistics}.
+ */
+public class ResultStatisticsTest {
+
+    public ResultStatistics stats;
+
+    @Before
+    public void initResultStatisticsTest() {
+        stats = new ResultStatistics();
+    }
+
+    @Test
+    public void testMeanAndVariance() {
+
+        //two wins, one loss and one tie
+        stats.record(RESULT.WIN);
+        stats.record(RESULT.WIN);
+        stats.record(RESULT.LOSS);
+        stats.record(RESULT.TIE);
+        stats.record(RESULT.IN_PROGRESS);
+
+        Assert.assertEquals(stats.getCount(), 4);
+        Assert.assertEquals(stats.getWins(), 2);
+        Assert.assertEquals(stats.getWinRate(), 0.5, 1e-12);
+        Assert.assertEquals(stats.getMean(), 0.25, 1e-12);
+
+        //squared deviations 0.5625 + 0.5625 + 1.5625 + 0.0625 over 3
+        Assert.assertEquals(stats.getVariance(), 2.75 / 3, 1e-12);
+        Assert.assertEquals(stats.getMarginOfError(ResultStatistics.Z_95),
+                ResultStatistics.Z_95 * Math.sqrt(2.75 / 3 / 4), 1e-12);
+    }
+
+    @Test
+    public void testMergeMatchesSingleStream() {
+
+        SplittableRandom random = new SplittableRandom(7);
+        ResultStatistics[] parts = {new ResultStatistics(), new ResultStatistics(), new ResultStatistics()};
+
+        //record the same results once in a single stream and once split over three streams
+        for(int i = 0; i < 10000; i++ ) {
+            RESULT result = RESULT.values()[random.nextInt(3)];
+            double net = result == RESULT.WIN && random.nextInt(4) == 0 ? 1.5 : result == RESULT.WIN ? 1 : result == RESULT.LOSS ? -1 : 0;
+            stats.record(result, net);
+            parts[random.nextInt(3)].record(result, net);
+        }
+
+        ResultStatistics merged = new ResultStatistics();
+        for(ResultStatistics part : parts) {
+            merged.merge(part);
+        }
+
+        Assert.assertEquals(merged.getCount(), stats.getCount());
+        Assert.assertEquals(merged.getTies(), stats.getTies());
+        Assert.assertEquals(merged.getMean(), stats.getMean(), 1e-12);
+        Assert.assertEquals(merged.getVariance(), stats.getVariance(), 1e-12);
+    }
+
+    @Test
+    public void testStripedFromManyThreads() throws InterruptedException {
+
+        StripedStatistics striped = new StripedStatistics(3);
+        Assert.assertEquals(striped.getNumCells(), 4);
+
+        //every thread records 1000 wins and 1000 losses
+        Thread[] threads = new Thread[8];
+        for(int t = 0; t < threads.length; t++ ) {
+            threads[t] = new Thread(() -> {
+                for(int i = 0; i < 1000; i++ ) {
+                    striped.record(RESULT.WIN);
+                    striped.record(RESULT.LOSS);
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+
+        ResultStatistics total = striped.snapshot();
+        Assert.assertEquals(total.getCount(), 16000);
+        Assert.assertEquals(total.getWins(), 8000);
+        Assert.assertEquals(total.getMean(), 0, 1e-12);
+        Assert.assertEquals(total.getVariance(), 16000.0 / 15999, 1e-12);
+    }
+
+    @Test
+    public void testSummary() {
+        stats.record(RESULT.WIN);
+        stats.record(RESULT.LOSS);
+        Assert.assertTrue(stats.getSummary().contains("Hands[2] Wins[1] Losses[1] Ties[0]"));
+        Assert.assertTrue(stats.getSummary().contains("95% CI["));
+    }
+}
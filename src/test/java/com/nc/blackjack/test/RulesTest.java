@@ -0,0 +1,136 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Card;
+import com.nc.blackjack.Hand;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.Strategy.DECISION;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Rules}.
+ */
+public class RulesTest {
+
+    public Rules original;
+    public Rules casino;
+
+    @Before
+    public void initRulesTest() {
+        original = new Rules();
+        casino = Rules.casino();
+    }
+
+    @Test
+    public void testOriginalRulesOnlyHitOrStand() {
+
+        //loop through every situation of a hand that was not split, nothing but hit or stand is ever allowed
+        for(int s = 0; s < Rules.NUM_SITUATIONS; s++ ) {
+            if((s & (Rules.SPLIT_HAND | Rules.SPLIT_ACES)) == 0) {
+                Assert.assertEquals(original.getAllowed(s), Strategy.HIT_STAND);
+            }
+        }
+        for(int code = 0; code < Card.NUM_CODES; code++ ) {
+            Assert.assertFalse(original.isPeek(code));
+            Assert.assertFalse(original.isInsurance(code));
+        }
+    }
+
+    @Test
+    public void testCasinoAllowedDecisions() {
+
+        int pair = original.getAllowed(0) | Strategy.bit(DECISION.DOUBLE) | Strategy.bit(DECISION.SPLIT)
+                | Strategy.bit(DECISION.SURRENDER);
+        Assert.assertEquals(casino.getAllowed(Rules.TWO_CARDS | Rules.PAIR), pair);
+
+        //a split hand doubles but does not surrender, and does not split once the hands are full
+        int split = Rules.TWO_CARDS | Rules.PAIR | Rules.SPLIT_HAND;
+        Assert.assertTrue(Strategy.isAllowed(casino.getAllowed(split), DECISION.DOUBLE));
+        Assert.assertFalse(Strategy.isAllowed(casino.getAllowed(split), DECISION.SURRENDER));
+        Assert.assertFalse(Strategy.isAllowed(casino.getAllowed(split | Rules.HANDS_FULL), DECISION.SPLIT));
+
+        //split aces only stand
+        int aces = Rules.TWO_CARDS | Rules.PAIR | Rules.SPLIT_HAND | Rules.SPLIT_ACES;
+        Assert.assertEquals(casino.getAllowed(aces), Strategy.bit(DECISION.STAND));
+
+        //three cards only hit or stand
+        Assert.assertEquals(casino.getAllowed(0), Strategy.HIT_STAND);
+    }
+
+    @Test
+    public void testDealerSoft17() {
+
+        Hand hand = new Hand();
+        hand.insertCode(0);
+        hand.insertCode(20);
+
+        Assert.assertFalse(casino.isDealerHit(hand.getState()));
+        casino.setHitSoft17(true);
+        Assert.assertTrue(casino.isDealerHit(hand.getState()));
+
+        //hard 17 always stands and 16 always hits
+        hand.insertCode(40);
+        Assert.assertFalse(casino.isDealerHit(hand.getState()));
+        hand.reset();
+        hand.insertCode(40);
+        hand.insertCode(20);
+        Assert.assertTrue(casino.isDealerHit(hand.getState()));
+    }
+
+    @Test
+    public void testNets() {
+
+        Assert.assertEquals(casino.getNet(Hand.RESULT.WIN, 0, true), 1.5, 0);
+        Assert.assertEquals(casino.getNet(Hand.RESULT.WIN, Hand.DOUBLED, false), 2, 0);
+        Assert.assertEquals(casino.getNet(Hand.RESULT.LOSS, Hand.DOUBLED | Hand.SPLIT, false), -2, 0);
+        Assert.assertEquals(casino.getNet(Hand.RESULT.LOSS, Hand.SURRENDERED, false), Rules.SURRENDER_NET, 0);
+        Assert.assertEquals(casino.getNet(Hand.RESULT.TIE, 0, true), 0, 0);
+
+        //a natural is paid even money without naturals
+        Assert.assertEquals(original.getNet(Hand.RESULT.WIN, 0, true), 1, 0);
+        casino.setBlackjackPayout(1.2);
+        Assert.assertEquals(casino.getNet(Hand.RESULT.WIN, 0, true), 1.2, 1e-12);
+    }
+
+    @Test
+    public void testNaturalResults() {
+
+        Assert.assertEquals(original.getNaturalResult(true, true), Hand.RESULT.TIE);
+        Assert.assertNull(original.getNaturalResult(true, false));
+        Assert.assertNull(original.getNaturalResult(false, false));
+        Assert.assertEquals(casino.getNaturalResult(true, false), Hand.RESULT.WIN);
+        Assert.assertEquals(casino.getNaturalResult(false, true), Hand.RESULT.LOSS);
+    }
+
+    @Test
+    public void testPeekAndInsurance() {
+
+        Assert.assertTrue(casino.isPeek(0));
+        Assert.assertTrue(casino.isPeek(48));
+        Assert.assertFalse(casino.isPeek(32));
+        Assert.assertTrue(casino.isInsurance(3));
+        Assert.assertFalse(casino.isInsurance(40));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+
+        Rules copy = new Rules(casino);
+        copy.setSurrender(false);
+        Assert.assertTrue(casino.isSurrender());
+        Assert.assertFalse(Strategy.isAllowed(copy.getAllowed(Rules.TWO_CARDS), DECISION.SURRENDER));
+        Assert.assertEquals(copy.getMaxHands(), Rules.MAX_HANDS);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidMaxHands() {
+        original.setMaxHands(Rules.MAX_HANDS + 1);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidBlackjackPayout() {
+        original.setBlackjackPayout(0);
+    }
+}
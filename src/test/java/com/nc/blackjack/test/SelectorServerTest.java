@@ -0,0 +1,166 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.server.SelectorServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for {@link SelectorServer}.
+ */
+public class SelectorServerTest {
+
+    public SelectorServer server;
+
+    @Before
+    public void initSelectorServerTest() throws IOException {
+        server = new SelectorServer(0, 1, 2, 2);
+        server.start();
+    }
+
+    @After
+    public void closeServer() {
+        server.close();
+    }
+
+    @Test
+    public void testPlayRounds() throws Exception {
+
+        try(Socket socket = connect()) {
+
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            Assert.assertTrue(readUntil(in, "Please enter your player name: ").startsWith("Welcome to Blackjack!"));
+            send(out, "player\n");
+
+            for(int round = 0; round < 3; round++ ) {
+
+                readUntil(in, "[enter] ");
+                send(out, "\n");
+
+                //stand on every decision until the round is over
+                String text;
+                while(!(text = readUntil(in, "[h/s]", "[y/?]\n")).endsWith("[y/?]\n")) {
+                    Assert.assertTrue(text.contains("Player player type h to HIT or s to STAND?"));
+                    send(out, "s\n");
+                }
+                Assert.assertTrue(text.contains("RESULT: "));
+
+                send(out, round < 2 ? "y\n" : "n\n");
+            }
+
+            //anything but y closes the table
+            Assert.assertEquals(in.read(), -1);
+        }
+
+        waitForTables(0);
+    }
+
+    @Test
+    public void testPartialLines() throws Exception {
+
+        try(Socket socket = connect()) {
+
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            readUntil(in, "name: ");
+
+            //a line split over several writes, then two lines in one write
+            send(out, "pla");
+            Thread.sleep(20);
+            send(out, "yer\r");
+            Thread.sleep(20);
+            send(out, "\n\n");
+
+            String text = readUntil(in, "[h/s]", "[y/?]\n");
+            Assert.assertTrue(text.contains("Player player is showing"));
+
+            //an invalid answer asks again
+            if(text.endsWith("[h/s]")) {
+                send(out, "x\n");
+                Assert.assertTrue(readUntil(in, "[h/s]").startsWith("\nInvalid user input\nPlayer player"));
+            }
+        }
+
+        waitForTables(0);
+    }
+
+    @Test
+    public void testServerFull() throws Exception {
+
+        try(Socket a = connect(); Socket b = connect(); Socket c = connect()) {
+
+            readUntil(a.getInputStream(), "name: ");
+            readUntil(b.getInputStream(), "name: ");
+
+            //the third connection is over the limit
+            Assert.assertTrue(readUntil(c.getInputStream(), "\n").startsWith("The server is full."));
+            Assert.assertEquals(c.getInputStream().read(), -1);
+            Assert.assertEquals(server.getNumTables(), 2);
+        }
+
+        waitForTables(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumLoops() {
+        new SelectorServer(0, 1, 1, 0);
+    }
+
+    /**
+     * Helper method to connect to the server
+     */
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(10000);
+        return socket;
+    }
+
+    /**
+     * Helper method to send text to the server
+     */
+    private static void send(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Helper method to read until the text ends with one of the specified prompts
+     */
+    private static String readUntil(InputStream in, String... prompts) throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+        while(true) {
+            int b = in.read();
+            if(b < 0) {
+                throw new IOException("The connection was closed after [" + sb + "]");
+            }
+            sb.append((char) b);
+            for(String prompt : prompts) {
+                if(sb.toString().endsWith(prompt)) {
+                    return sb.toString();
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method to wait until the server plays the specified number of tables
+     */
+    private void waitForTables(int numTables) throws InterruptedException {
+        for(int i = 0; i < 1000 && server.getNumTables() != numTables; i++ ) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(server.getNumTables(), numTables);
+    }
+}
@@ -0,0 +1,71 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.Deck;
+import com.nc.blackjack.Strategy;
+import com.nc.blackjack.simulation.SimulationResult;
+import com.nc.blackjack.simulation.Simulator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tests for {@link Simulator}.
+ */
+public class SimulatorTest {
+
+    @Test
+    public void testRunCountsEveryHand() {
+
+        //always stand so every round finishes without a player bust
+        Simulator sim = new Simulator((p, h, u) -> Strategy.DECISION.STAND, 2);
+        SimulationResult result = sim.run(1000);
+
+        Assert.assertEquals(result.getRounds(), 1000);
+        Assert.assertEquals(result.getVoidRounds(), 0);
+        Assert.assertEquals(result.getHands(), 2000);
+        Assert.assertEquals(result.getWins() + result.getLosses() + result.getTies(), result.getHands());
+    }
+
+    @Test
+    public void testAlwaysHitLoses() {
+
+        //a player that always hits busts unless the hand stops on 21
+        Simulator sim = new Simulator((p, h, u) -> Strategy.DECISION.HIT);
+        SimulationResult result = sim.run(1000);
+
+        Assert.assertEquals(result.getHands(), 1000);
+        Assert.assertTrue(result.getHouseEdge() > 0.5);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNullStrategy() {
+        new Simulator(null);
+    }
+
+    @Test
+    public void testMerge() {
+
+        Simulator sim = new Simulator((p, h, u) -> Strategy.DECISION.STAND);
+        SimulationResult a = sim.run(100);
+        SimulationResult b = sim.run(50);
+
+        long wins = a.getWins() + b.getWins();
+        a.merge(b);
+        Assert.assertEquals(a.getRounds(), 150);
+        Assert.assertEquals(a.getWins(), wins);
+    }
+
+    @Test
+    public void testShoeNeverVoidsRounds() {
+
+        //seven players on a single deck cut card shoe run the shoe dry mid round
+        Deck shoe = new Deck(1, 0.75, new SplittableRandom(3));
+        Simulator sim = new Simulator((p, h, u) -> h.getMinHandValue() < 15
+                ? Strategy.DECISION.HIT : Strategy.DECISION.STAND, 7, shoe);
+        SimulationResult result = sim.run(5000);
+
+        Assert.assertEquals(result.getVoidRounds(), 0);
+        Assert.assertEquals(result.getRounds(), 5000);
+    }
+}
@@ -0,0 +1,92 @@
+package com.nc.blackjack.test;
+
+import com.nc.blackjack.BasicStrategy;
+import com.nc.blackjack.Rules;
+import com.nc.blackjack.Strategy.DECISION;
+import com.nc.blackjack.TableStrategy;
+import com.nc.blackjack.simulation.OptimizerResult;
+import com.nc.blackjack.simulation.StrategyOptimizer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StrategyOptimizer}.
+ */
+public class StrategyOptimizerTest {
+
+    public Rules rules;
+    public TableStrategy start;
+    public StrategyOptimizer optimizer;
+
+    @Before
+    public void initStrategyOptimizerTest() {
+
+        rules = Rules.casino();
+        start = new BasicStrategy(rules);
+        optimizer = new StrategyOptimizer(rules, 6);
+        optimizer.setMaxTrials(1 << 16);
+    }
+
+    @Test
+    public void testSameAnswerAsBruteForceWithFewerRounds() {
+
+        OptimizerResult pruned = optimizer.optimizeRow(start, 12, false, 42L, 2);
+        optimizer.setZ(Double.POSITIVE_INFINITY);
+        OptimizerResult bruteForce = optimizer.optimizeRow(start, 12, false, 42L, 2);
+
+        Assert.assertEquals(pruned.getStrategy().getRow(12, false), bruteForce.getStrategy().getRow(12, false));
+        Assert.assertEquals(bruteForce.getPrunedCells(), 0);
+        Assert.assertTrue(pruned.getPrunedCells() > 0);
+        Assert.assertTrue(pruned.getRounds() * 2 < bruteForce.getRounds());
+    }
+
+    @Test
+    public void testClearDecisions() {
+
+        //hard 11 doubles against everything but an ace, hard 20 always stands
+        OptimizerResult eleven = optimizer.optimizeRow(new TableStrategy(), 11, false, 7L, 2);
+        Assert.assertEquals(eleven.getStrategy().getRow(11, false).substring(0, 8), "DDDDDDDD");
+        Assert.assertEquals(eleven.getCells(), TableStrategy.NUM_UPCARDS);
+
+        OptimizerResult twenty = optimizer.optimizeRow(new TableStrategy(), 20, false, 7L, 2);
+        Assert.assertEquals(twenty.getStrategy().getRow(20, false), "SSSSSSSSSS");
+    }
+
+    @Test
+    public void testSameTableForAnyThreadCount() {
+
+        optimizer.setMaxTrials(1 << 14);
+        OptimizerResult one = optimizer.optimizeRow(start, 16, false, 3L, 1);
+        OptimizerResult three = optimizer.optimizeRow(start, 16, false, 3L, 3);
+
+        Assert.assertEquals(one.getStrategy().toString(), three.getStrategy().toString());
+        Assert.assertEquals(one.toString(), three.toString());
+    }
+
+    @Test
+    public void testStartTableIsNotChanged() {
+
+        TableStrategy table = new TableStrategy();
+        optimizer.setMaxTrials(1);
+        OptimizerResult result = optimizer.optimizeRow(table, 11, false, 7L, 1);
+
+        Assert.assertEquals(table.get(11, false, 6), DECISION.STAND);
+        Assert.assertEquals(result.getStrategy().get(11, false, 6), DECISION.DOUBLE);
+    }
+
+    @Test
+    public void testHitOrStandWithoutDoubles() {
+
+        //the rules of the original game never double
+        StrategyOptimizer original = new StrategyOptimizer(new Rules(), 1);
+        original.setMaxTrials(1);
+        String row = original.optimizeRow(new TableStrategy(), 11, false, 7L, 1).getStrategy().getRow(11, false);
+        Assert.assertEquals(row, "HHHHHHHHHH");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidTotal() {
+        optimizer.optimizeRow(start, 11, true, 1L, 1);
+    }
+}